@@ -0,0 +1,31 @@
+package com.greenhouse.gateway.accesslog;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sampling and request ID settings for the gateway access log
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.access-log")
+@Data
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction of successful, fast requests that are logged (errors and slow requests always are)
+     */
+    private double successSampleRate = 0.01;
+
+    /**
+     * Requests slower than this are always logged
+     */
+    private long slowThresholdMs = 2000;
+
+    /**
+     * Node id embedded in request IDs (0-1023); negative derives it from the host name
+     */
+    private int nodeId = -1;
+}
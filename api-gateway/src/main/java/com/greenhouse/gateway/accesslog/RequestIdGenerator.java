@@ -0,0 +1,66 @@
+package com.greenhouse.gateway.accesslog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style request ID generator: 41 bits of milliseconds since 2024-01-01, 10 bits of
+ * node id and a 12-bit sequence, rendered in base 36. One CAS per ID, no random source, and
+ * IDs stay unique across gateway replicas as long as node ids differ.
+ */
+@Component
+@Slf4j
+public class RequestIdGenerator {
+
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long NODE_MASK = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+
+    // Packed (timestamp << SEQUENCE_BITS | sequence) of the last issued ID
+    private final AtomicLong state = new AtomicLong();
+
+    public RequestIdGenerator(AccessLogProperties properties) {
+        this.node = (properties.getNodeId() >= 0 ? properties.getNodeId() : hostNodeId()) & NODE_MASK;
+        log.info("Request IDs generated with node id {}", node);
+    }
+
+    /**
+     * Next ID as a number; strictly increasing for this node
+     */
+    public long nextId() {
+        while (true) {
+            long previous = state.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            // Same millisecond (or clock went back): bump the sequence; an overflow rolls into the next millisecond
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (node << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * Next ID rendered as a compact base-36 string
+     */
+    public String next() {
+        return Long.toString(nextId(), 36);
+    }
+
+    private static long hostNodeId() {
+        try {
+            return InetAddress.getLocalHost().getHostName().hashCode();
+        } catch (UnknownHostException e) {
+            return ProcessHandle.current().pid();
+        }
+    }
+}
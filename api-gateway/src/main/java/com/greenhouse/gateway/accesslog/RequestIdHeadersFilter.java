@@ -0,0 +1,30 @@
+package com.greenhouse.gateway.accesslog;
+
+import com.greenhouse.gateway.filter.LoggingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Adds the request ID to the proxied request while the routing filter builds its headers.
+ * The headers received may be the read-only ones of the incoming request, so they are copied;
+ * doing it here rather than mutating the request in {@link LoggingFilter} pays for that copy
+ * only on requests actually proxied, not on those the gateway answers itself (cached
+ * responses, rate limits, SSE streams).
+ */
+@Component
+public class RequestIdHeadersFilter implements HttpHeadersFilter {
+
+    @Override
+    public HttpHeaders filter(HttpHeaders input, ServerWebExchange exchange) {
+        String requestId = exchange.getAttribute(LoggingFilter.REQUEST_ID_ATTR);
+        if (requestId == null) {
+            return input;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(input);
+        headers.set(LoggingFilter.REQUEST_ID_HEADER, requestId);
+        return headers;
+    }
+}
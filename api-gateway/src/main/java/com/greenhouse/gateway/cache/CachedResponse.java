@@ -0,0 +1,30 @@
+package com.greenhouse.gateway.cache;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Body of a successful GET response with its strong ETag, derived from the body bytes
+ */
+public record CachedResponse(byte[] body, MediaType contentType, String etag, long expiresAtNanos) {
+
+    public static CachedResponse of(byte[] body, MediaType contentType, long expiresAtNanos) {
+        return new CachedResponse(body, contentType, "\"" + DigestUtils.md5DigestAsHex(body) + "\"", expiresAtNanos);
+    }
+
+    public boolean isExpired(long nowNanos) {
+        return nowNanos - expiresAtNanos >= 0;
+    }
+
+    /**
+     * If-None-Match comparison; weak validators match too, as RFC 9110 requires for GET
+     */
+    public boolean matches(Iterable<String> ifNoneMatch) {
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || etag.equals(candidate.startsWith("W/") ? candidate.substring(2) : candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
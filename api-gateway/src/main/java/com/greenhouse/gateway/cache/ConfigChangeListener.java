@@ -0,0 +1,38 @@
+package com.greenhouse.gateway.cache;
+
+import com.greenhouse.events.ConfigChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached responses when parameters or equipment change.
+ *
+ * Every gateway instance holds its own cache, so each one consumes the topic under its own group.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConfigChangeListener {
+
+    private final ResponseCache responseCache;
+    private final MeterRegistry meterRegistry;
+
+    @KafkaListener(topics = "${kafka.topic.config-changes:config-changes}",
+            groupId = "api-gateway-cache-${random.uuid}",
+            containerFactory = "configChangeListenerContainerFactory",
+            autoStartup = "${gateway.response-cache.enabled:true}")
+    public void handleConfigChange(ConfigChangeEvent event) {
+        int cleared = responseCache.invalidate(event.entityType());
+        Counter.builder("gateway.response.cache.invalidations")
+                .description("Config change events received by the response cache")
+                .tag("entity", String.valueOf(event.entityType()))
+                .register(meterRegistry)
+                .increment();
+        log.debug("{} {} {}: cleared {} cached route(s)",
+                event.entityType(), event.entityId(), event.changeType(), cleared);
+    }
+}
@@ -0,0 +1,155 @@
+package com.greenhouse.gateway.cache;
+
+import com.greenhouse.gateway.routing.PathTrie;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store behind {@link com.greenhouse.gateway.filter.ResponseCacheFilter}, one region per configured route.
+ *
+ * Each region has a generation bumped on invalidation: a response fetched before an invalidation is
+ * never stored after it, so a config change cannot be masked by a slow request that started earlier.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private final PathTrie<Region> regions = new PathTrie<>();
+    private final List<Region> allRegions = new ArrayList<>();
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        for (ResponseCacheProperties.Route route : properties.getRoutes()) {
+            Region region = new Region(route.getPath(), route.getTtl().toNanos(),
+                    Set.copyOf(route.getInvalidatedBy()), properties.getMaxEntriesPerRoute());
+            regions.put(route.getPath(), region);
+            allRegions.add(region);
+            Gauge.builder("gateway.response.cache.entries", region.entries, Map::size)
+                    .description("Responses currently cached for the route")
+                    .tag("route", route.getPath())
+                    .register(meterRegistry);
+        }
+        log.info("Response cache enabled for {}", allRegions.stream().map(Region::prefix).toList());
+    }
+
+    /**
+     * Cache region of the request path, or null when the path is not cached
+     */
+    public Region regionFor(String path) {
+        return regions.longestMatch(path);
+    }
+
+    /**
+     * Drop every region invalidated by the given entity type
+     *
+     * @return number of regions cleared
+     */
+    public int invalidate(String entityType) {
+        int cleared = 0;
+        for (Region region : allRegions) {
+            if (region.invalidatedBy.contains(entityType)) {
+                region.clear();
+                cleared++;
+            }
+        }
+        return cleared;
+    }
+
+    public void clear() {
+        allRegions.forEach(Region::clear);
+    }
+
+    public static final class Region {
+
+        private final String prefix;
+        private final long ttlNanos;
+        private final Set<String> invalidatedBy;
+        private final int maxEntries;
+        private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+        private final Map<String, Sinks.One<CachedResponse>> inflight = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+
+        Region(String prefix, long ttlNanos, Set<String> invalidatedBy, int maxEntries) {
+            this.prefix = prefix;
+            this.ttlNanos = ttlNanos;
+            this.invalidatedBy = invalidatedBy;
+            this.maxEntries = maxEntries;
+        }
+
+        public String prefix() {
+            return prefix;
+        }
+
+        public long ttlNanos() {
+            return ttlNanos;
+        }
+
+        public long generation() {
+            return generation.get();
+        }
+
+        public CachedResponse get(String key, long nowNanos) {
+            CachedResponse cached = entries.get(key);
+            if (cached != null && cached.isExpired(nowNanos)) {
+                entries.remove(key, cached);
+                return null;
+            }
+            return cached;
+        }
+
+        /**
+         * Store a response fetched while the region was at {@code fetchGeneration}
+         *
+         * @return false when the response was dropped (invalidated meanwhile, or region full)
+         */
+        public boolean put(String key, CachedResponse response, long fetchGeneration, long nowNanos) {
+            if (generation.get() != fetchGeneration) {
+                return false;
+            }
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                entries.values().removeIf(entry -> entry.isExpired(nowNanos));
+                if (entries.size() >= maxEntries) {
+                    return false;
+                }
+            }
+            entries.put(key, response);
+            // An invalidation may have run between the check and the put
+            if (generation.get() != fetchGeneration) {
+                entries.remove(key, response);
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Register the caller as the single fetcher of {@code key}
+         *
+         * @return null when the caller leads, otherwise the sink of the request already in flight
+         */
+        public Sinks.One<CachedResponse> joinInflight(String key, Sinks.One<CachedResponse> sink) {
+            return inflight.putIfAbsent(key, sink);
+        }
+
+        public void leaveInflight(String key, Sinks.One<CachedResponse> sink) {
+            inflight.remove(key, sink);
+        }
+
+        public int size() {
+            return entries.size();
+        }
+
+        void clear() {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.greenhouse.gateway.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Routes whose GET responses are cached by the gateway, with their TTL and invalidating entities
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+@Data
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Cached responses kept per route; expired entries are purged when the route is full
+     */
+    private int maxEntriesPerRoute = 512;
+
+    /**
+     * Responses announcing a larger Content-Length are passed through uncached
+     */
+    private int maxBodyBytes = 262_144;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+        /**
+         * Path prefix, matched on segment boundaries
+         */
+        private String path;
+        private Duration ttl = Duration.ofSeconds(30);
+        /**
+         * ConfigChangeEvent entity types (PARAMETRE, EQUIPEMENT) that drop this route's entries
+         */
+        private Set<String> invalidatedBy = new LinkedHashSet<>();
+    }
+}
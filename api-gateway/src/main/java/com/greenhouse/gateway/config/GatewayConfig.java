@@ -27,6 +27,11 @@ public class GatewayConfig {
                                 .rewritePath("/api/controle/(?<segment>.*)", "/api/${segment}"))
                         .uri("lb://CONTROLE-SERVICE"))
                 
+                // Measurement Analytics Routes - window summaries, no path rewrite
+                .route("measurement-analytics", r -> r
+                        .path("/api/analytics/**")
+                        .uri("lb://MEASUREMENT-ANALYTICS"))
+                
                 // Service Discovery UI Routes
                 .route("service-discovery", r -> r
                         .path("/eureka/web")
@@ -38,18 +43,4 @@ public class GatewayConfig {
                 
                 .build();
     }
-
-    @Bean
-    public org.springframework.cloud.gateway.filter.ratelimit.KeyResolver ipKeyResolver() {
-        return exchange -> reactor.core.publisher.Mono.just(
-                exchange.getRequest().getRemoteAddress() != null
-                        ? exchange.getRequest().getRemoteAddress().getAddress().getHostAddress()
-                        : "unknown"
-        );
-    }
-
-    @Bean
-    public org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter redisRateLimiter() {
-        return new org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter(10, 20, 1);
-    }
 }
@@ -2,10 +2,14 @@ package com.greenhouse.gateway.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.greenhouse.gateway.health.HealthAggregationProperties;
+import io.netty.channel.ChannelOption;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
 
 @Configuration
 public class WebClientConfig {
@@ -16,6 +20,19 @@ public class WebClientConfig {
         return WebClient.builder();
     }
 
+    /**
+     * Plain client for calling a given instance by address (health probes), bypassing the load balancer
+     */
+    @Bean
+    public WebClient instanceWebClient(HealthAggregationProperties healthProperties) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) healthProperties.getTimeout().toMillis())
+                .responseTimeout(healthProperties.getTimeout());
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
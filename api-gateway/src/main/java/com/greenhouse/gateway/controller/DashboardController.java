@@ -0,0 +1,55 @@
+package com.greenhouse.gateway.controller;
+
+import com.greenhouse.gateway.readmodel.ConditionView;
+import com.greenhouse.gateway.readmodel.DashboardReadModel;
+import com.greenhouse.gateway.sse.dto.AlertView;
+import com.greenhouse.gateway.sse.dto.EquipmentStatusView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Dashboard queries, answered from the gateway's read model without calling the backend services
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final DashboardReadModel readModel;
+
+    @GetMapping("/conditions")
+    public List<ConditionView> getCurrentConditions(@RequestParam(required = false) String greenhouseId,
+                                                    @RequestParam(required = false) String zoneId) {
+        return readModel.currentConditions(greenhouseId, zoneId);
+    }
+
+    @GetMapping("/alerts")
+    public List<AlertView> getAlertFeed(@RequestParam(required = false) String greenhouseId,
+                                        @RequestParam(required = false) String severity,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        return readModel.alertFeed(greenhouseId, severity, clamp(limit));
+    }
+
+    @GetMapping("/equipment")
+    public List<EquipmentStatusView> getEquipmentStatus(@RequestParam(required = false) String greenhouseId) {
+        return readModel.equipmentStatus(greenhouseId);
+    }
+
+    @GetMapping("/equipment/{equipmentId}/timeline")
+    public List<EquipmentStatusView> getEquipmentTimeline(@PathVariable String equipmentId,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+        return readModel.equipmentTimeline(equipmentId, clamp(limit));
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -1,14 +1,16 @@
 package com.greenhouse.gateway.controller;
 
+import com.greenhouse.gateway.health.AggregatedHealth;
+import com.greenhouse.gateway.health.HealthAggregator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
@@ -23,37 +25,19 @@ import java.util.stream.Collectors;
 public class HealthAggregationController {
 
     private final DiscoveryClient discoveryClient;
-    private final WebClient.Builder webClientBuilder;
+    private final HealthAggregator healthAggregator;
 
+    /**
+     * Health of every instance of every registered service; 503 when no service is available
+     */
     @GetMapping("/health/aggregated")
-    public Mono<ResponseEntity<Map<String, Object>>> getAggregatedHealth() {
-        log.info("Fetching aggregated health status for all services");
-        
-        List<String> services = discoveryClient.getServices();
-        
-        Map<String, Object> healthStatus = new HashMap<>();
-        healthStatus.put("gateway", "UP");
-        healthStatus.put("timestamp", System.currentTimeMillis());
-        
-        Map<String, String> servicesHealth = new HashMap<>();
-        
-        for (String serviceName : services) {
-            List<ServiceInstance> instances = discoveryClient.getInstances(serviceName);
-            if (!instances.isEmpty()) {
-                ServiceInstance instance = instances.get(0);
-                servicesHealth.put(serviceName, instance.isSecure() ? "SECURE" : "UP");
-            } else {
-                servicesHealth.put(serviceName, "DOWN");
-            }
-        }
-        
-        healthStatus.put("services", servicesHealth);
-        healthStatus.put("totalServices", services.size());
-        healthStatus.put("availableServices", servicesHealth.values().stream()
-                .filter(status -> !status.equals("DOWN"))
-                .count());
-        
-        return Mono.just(ResponseEntity.ok(healthStatus));
+    public Mono<ResponseEntity<AggregatedHealth>> getAggregatedHealth() {
+        log.debug("Fetching aggregated health status for all services");
+        return healthAggregator.current()
+                .map(health -> ResponseEntity
+                        .status(AggregatedHealth.DOWN.equals(health.status())
+                                ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK)
+                        .body(health));
     }
 
     @GetMapping("/services")
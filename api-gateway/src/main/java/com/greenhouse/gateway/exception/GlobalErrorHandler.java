@@ -2,6 +2,8 @@ package com.greenhouse.gateway.exception;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenhouse.gateway.accesslog.RequestIdGenerator;
+import com.greenhouse.gateway.filter.LoggingFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
@@ -15,7 +17,6 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Component
 @Order(-2)
@@ -24,10 +25,15 @@ import java.util.UUID;
 public class GlobalErrorHandler implements ErrorWebExceptionHandler {
 
     private final ObjectMapper objectMapper;
+    private final RequestIdGenerator requestIdGenerator;
 
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
-        String requestId = UUID.randomUUID().toString();
+        // Reuse the ID assigned by LoggingFilter so the error body matches the access log
+        String requestId = exchange.getAttribute(LoggingFilter.REQUEST_ID_ATTR);
+        if (requestId == null) {
+            requestId = requestIdGenerator.next();
+        }
         String path = exchange.getRequest().getURI().getPath();
         
         HttpStatus status = determineHttpStatus(ex);
@@ -50,7 +56,7 @@ public class GlobalErrorHandler implements ErrorWebExceptionHandler {
         
         exchange.getResponse().setStatusCode(status);
         exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
-        exchange.getResponse().getHeaders().add("X-Request-ID", requestId);
+        exchange.getResponse().getHeaders().set(LoggingFilter.REQUEST_ID_HEADER, requestId);
         
         try {
             byte[] bytes = objectMapper.writeValueAsBytes(errorResponse);
@@ -0,0 +1,144 @@
+package com.greenhouse.gateway.filter;
+
+import com.greenhouse.gateway.ratelimit.DownstreamHealth;
+import com.greenhouse.gateway.ratelimit.GcraRateLimiter;
+import com.greenhouse.gateway.ratelimit.RateLimitProperties;
+import com.greenhouse.gateway.ratelimit.TrafficPriority;
+import com.greenhouse.gateway.routing.RouteClassifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.InetSocketAddress;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis-free rate limiting and load shedding for routed traffic.
+ *
+ * Requests are keyed by authenticated user, or by remote address for unauthenticated traffic, and
+ * limited per priority with GCRA. Client-supplied headers never pick the key, so rotating them
+ * cannot buy a fresh budget.
+ * Limits shrink with the health of the target service (error rate and latency observed by this
+ * filter), and low-priority traffic is shed entirely before ingest and alerts are affected.
+ */
+@Component
+@Slf4j
+public class AdaptiveRateLimitFilter implements GlobalFilter, Ordered {
+
+    private final RateLimitProperties properties;
+    private final RouteClassifier routeClassifier;
+    private final MeterRegistry meterRegistry;
+    private final GcraRateLimiter rateLimiter;
+    private final DownstreamHealth downstreamHealth;
+    private final Map<TrafficPriority, Counter> throttledCounters = new EnumMap<>(TrafficPriority.class);
+    private final Map<TrafficPriority, Counter> shedCounters = new EnumMap<>(TrafficPriority.class);
+
+    public AdaptiveRateLimitFilter(RateLimitProperties properties, RouteClassifier routeClassifier,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.routeClassifier = routeClassifier;
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = new GcraRateLimiter(properties.getMaxKeys());
+        this.downstreamHealth = new DownstreamHealth(properties.getAdaptive(), this::registerHealthGauge);
+        for (TrafficPriority priority : TrafficPriority.values()) {
+            String tag = priority.name().toLowerCase();
+            throttledCounters.put(priority, Counter.builder("gateway.ratelimit.throttled")
+                    .description("Requests rejected because the client exceeded its rate")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            shedCounters.put(priority, Counter.builder("gateway.ratelimit.shed")
+                    .description("Requests shed because the downstream service is degraded")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        String service = serviceId(route);
+        TrafficPriority priority = routeClassifier.classify(exchange).priority();
+        RateLimitProperties.Limit limit = properties.limitFor(priority);
+        long now = System.nanoTime();
+        double health = downstreamHealth.healthFactor(service, now);
+
+        if (health < limit.getShedBelow()) {
+            shedCounters.get(priority).increment();
+            log.debug("Shedding {} request to {} (health factor {})", priority, service, health);
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+        }
+
+        double rate = limit.getRate() * Math.max(health, limit.getMinFactor());
+        long waitNanos = rateLimiter.tryAcquire(clientKey(exchange) + '|' + priority.ordinal(), rate, limit.getBurst(), now);
+        if (waitNanos > 0) {
+            throttledCounters.get(priority).increment();
+            return reject(exchange, HttpStatus.TOO_MANY_REQUESTS, waitNanos);
+        }
+
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean error = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+            long end = System.nanoTime();
+            downstreamHealth.record(service, end - now, error, end);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // After authentication so verified users get their own budget, before any routing work
+        return Ordered.HIGHEST_PRECEDENCE + 4;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, long retryAfterNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        exchange.getResponse().setStatusCode(status);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return exchange.getResponse().setComplete();
+    }
+
+    private String clientKey(ServerWebExchange exchange) {
+        String user = exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_USER_ATTR);
+        if (user != null) {
+            return "user:" + user;
+        }
+        // The proxy's address unless server.forward-headers-strategy is native behind a trusted proxy
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            return "ip:" + remoteAddress.getAddress().getHostAddress();
+        }
+        return "ip:unknown";
+    }
+
+    private String serviceId(Route route) {
+        // lb://ENVIRONNEMENT-SERVICE -> the Eureka service id; static URIs fall back to the route id
+        String host = route.getUri().getHost();
+        return "lb".equals(route.getUri().getScheme()) && host != null ? host.toLowerCase() : route.getId();
+    }
+
+    private void registerHealthGauge(String service) {
+        Gauge.builder("gateway.downstream.health", downstreamHealth,
+                        health -> health.healthFactor(service, System.nanoTime()))
+                .description("Health factor applied to rate limits (1.0 = healthy)")
+                .tag("service", service)
+                .register(meterRegistry);
+    }
+}
@@ -1,9 +1,11 @@
 package com.greenhouse.gateway.filter;
 
+import com.greenhouse.gateway.routing.RouteClass;
+import com.greenhouse.gateway.routing.RouteClassifier;
 import com.greenhouse.gateway.security.JwtUtil;
 import io.jsonwebtoken.Claims;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -14,44 +16,43 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
-import java.util.List;
-
 /**
  * JWT Authentication Filter
- * Currently configured to allow all requests (authentication disabled by default)
- * To enable authentication:
- * 1. Set gateway.security.enabled=true in application.yml
- * 2. Configure JWT secret and expiration
- * 3. Update PUBLIC_PATHS to include paths that don't require authentication
+ * Disabled by default; set gateway.security.enabled=true to require a Bearer token on every
+ * non-public route. Tokens are verified by JwtUtil, which caches verified tokens so repeated
+ * requests with the same token skip signature checks.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class AuthenticationFilter implements GlobalFilter, Ordered {
 
+    /**
+     * Exchange attribute holding the verified username; unlike X-User-ID it cannot be sent by the client
+     */
+    public static final String AUTHENTICATED_USER_ATTR = AuthenticationFilter.class.getName() + ".user";
+
     private final JwtUtil jwtUtil;
+    private final RouteClassifier routeClassifier;
+    private final boolean securityEnabled;
 
-    private static final List<String> PUBLIC_PATHS = Arrays.asList(
-            "/actuator",
-            "/api/auth",
-            "/eureka"
-    );
+    public AuthenticationFilter(JwtUtil jwtUtil, RouteClassifier routeClassifier,
+                                @Value("${gateway.security.enabled:false}") boolean securityEnabled) {
+        this.jwtUtil = jwtUtil;
+        this.routeClassifier = routeClassifier;
+        this.securityEnabled = securityEnabled;
+        log.info("Gateway authentication {}", securityEnabled ? "enabled" : "disabled");
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        String path = request.getURI().getPath();
-        
-        // Skip authentication for public paths
-        if (isPublicPath(path)) {
+        // Skip authentication when disabled and for public paths
+        if (!securityEnabled || routeClassifier.classify(exchange).routeClass() == RouteClass.PUBLIC) {
             return chain.filter(exchange);
         }
-        
-        // For now, authentication is disabled - all requests pass through
-        // TODO: Enable authentication by uncommenting the code below
-        
-        /*
+
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
         // Extract JWT token from Authorization header
         String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         
@@ -72,25 +73,24 @@ public class AuthenticationFilter implements GlobalFilter, Ordered {
         
         // Add user information to request headers for downstream services
         String username = jwtUtil.extractUsername(claims);
+        String roles = claims.get("roles", String.class);
         ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-User-ID", username)
-                .header("X-User-Roles", claims.get("roles", String.class))
+                .headers(headers -> {
+                    headers.set("X-User-ID", username);
+                    if (roles != null) {
+                        headers.set("X-User-Roles", roles);
+                    }
+                })
                 .build();
         
+        exchange.getAttributes().put(AUTHENTICATED_USER_ATTR, username);
         log.debug("Authenticated user: {} for path: {}", username, path);
         
         return chain.filter(exchange.mutate().request(modifiedRequest).build());
-        */
-        
-        return chain.filter(exchange);
     }
 
     @Override
     public int getOrder() {
-        return Ordered.HIGHEST_PRECEDENCE + 2;
-    }
-
-    private boolean isPublicPath(String path) {
-        return PUBLIC_PATHS.stream().anyMatch(path::startsWith);
+        return Ordered.HIGHEST_PRECEDENCE + 3;
     }
 }
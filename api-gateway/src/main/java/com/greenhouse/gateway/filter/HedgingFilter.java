@@ -0,0 +1,430 @@
+package com.greenhouse.gateway.filter;
+
+import com.greenhouse.gateway.loadbalancer.HedgeBudget;
+import com.greenhouse.gateway.loadbalancer.LoadBalancingProperties;
+import com.greenhouse.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import com.greenhouse.gateway.loadbalancer.UpstreamLatencyTracker;
+import com.greenhouse.gateway.routing.RouteClass;
+import com.greenhouse.gateway.routing.RouteClassifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Hedges idempotent requests on configured lb:// routes: when the upstream has not answered after the
+ * service's latency percentile, a second request goes to another instance and the first answer wins.
+ *
+ * Both calls run on copies of the exchange (own attributes, detached response), so load balancing and
+ * routing happen once per call; only the winner's status, headers and attributes reach the real exchange,
+ * and {@code NettyWriteResponseFilter} then streams its body. A losing call is cancelled, or, for the
+ * original call, left to finish so the latency it would have added can be measured, then closed.
+ */
+@Component
+@Slf4j
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private final LoadBalancingProperties properties;
+    private final UpstreamLatencyTracker latencyTracker;
+    private final RouteClassifier routeClassifier;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ServiceHedging> services = new ConcurrentHashMap<>();
+
+    public HedgingFilter(LoadBalancingProperties properties, UpstreamLatencyTracker latencyTracker,
+                         RouteClassifier routeClassifier, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.latencyTracker = latencyTracker;
+        this.routeClassifier = routeClassifier;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange ingress, GatewayFilterChain chain) {
+        // Only the hedged branch may steer the load balancer away from an instance, never the client
+        ServerWebExchange exchange = withoutAvoidHeader(ingress);
+        if (!isHedgeable(exchange)) {
+            return chain.filter(exchange);
+        }
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        String service = url.getHost().toLowerCase(Locale.ROOT);
+        Duration percentile = latencyTracker.percentile(service);
+        if (percentile == null) {
+            return chain.filter(exchange);
+        }
+
+        ServiceHedging hedging = services.computeIfAbsent(service, this::serviceHedging);
+        hedging.eligible.increment();
+        hedging.budget.deposit();
+        return race(exchange, chain, hedging, delay(percentile));
+    }
+
+    private Mono<Void> race(ServerWebExchange exchange, GatewayFilterChain chain, ServiceHedging hedging,
+                            Duration delay) {
+        return Mono.defer(() -> {
+            Call primary = new Call(new BranchExchange(exchange, exchange.getRequest()));
+            AtomicReference<Call> hedge = new AtomicReference<>();
+            AtomicBoolean settled = new AtomicBoolean();
+            primary.start(chain);
+
+            Mono<Call> hedged = Mono.delay(delay)
+                    .filter(tick -> {
+                        if (hedging.budget.tryWithdraw()) {
+                            return true;
+                        }
+                        hedging.budgetExhausted.increment();
+                        return false;
+                    })
+                    .flatMap(tick -> {
+                        hedging.sent.increment();
+                        Call call = new Call(new BranchExchange(exchange, avoiding(exchange.getRequest(), primary)));
+                        hedge.set(call);
+                        call.start(chain);
+                        if (settled.get()) {
+                            call.abandon();
+                        }
+                        return call.result();
+                    });
+
+            return Mono.firstWithValue(primary.result(), hedged)
+                    .onErrorResume(error -> Mono.error(primary.failure != null ? primary.failure : error))
+                    .flatMap(winner -> {
+                        settled.set(true);
+                        if (winner == primary) {
+                            abandon(hedge.get());
+                        } else {
+                            hedging.won.increment();
+                            // Keep the original call running to measure how long the client would have waited
+                            primary.result()
+                                    .onErrorReturn(primary)
+                                    .subscribe(loser -> {
+                                        hedging.saved.record(
+                                                Math.max(0, loser.finishedNanos - winner.finishedNanos),
+                                                TimeUnit.NANOSECONDS);
+                                        loser.release();
+                                    });
+                        }
+                        return winner.commitTo(exchange);
+                    })
+                    .doOnCancel(() -> {
+                        settled.set(true);
+                        primary.abandon();
+                        abandon(hedge.get());
+                    });
+        });
+    }
+
+    private boolean isHedgeable(ServerWebExchange exchange) {
+        LoadBalancingProperties.Hedging hedging = properties.getHedging();
+        if (!hedging.isEnabled() || ServerWebExchangeUtils.isAlreadyRouted(exchange)) {
+            return false;
+        }
+        HttpMethod method = exchange.getRequest().getMethod();
+        if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+            return false;
+        }
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        return route != null && hedging.getRoutes().contains(route.getId())
+                && url != null && "lb".equals(url.getScheme()) && url.getHost() != null
+                && routeClassifier.classify(exchange).routeClass() != RouteClass.STREAM;
+    }
+
+    private Duration delay(Duration percentile) {
+        LoadBalancingProperties.Hedging hedging = properties.getHedging();
+        if (percentile.compareTo(hedging.getMinDelay()) < 0) {
+            return hedging.getMinDelay();
+        }
+        return percentile.compareTo(hedging.getMaxDelay()) > 0 ? hedging.getMaxDelay() : percentile;
+    }
+
+    private static ServerWebExchange withoutAvoidHeader(ServerWebExchange exchange) {
+        if (!exchange.getRequest().getHeaders().containsKey(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER)) {
+            return exchange;
+        }
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> headers.remove(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER)))
+                .build();
+    }
+
+    private static ServerHttpRequest avoiding(ServerHttpRequest request, Call primary) {
+        Response<ServiceInstance> chosen = primary.exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (chosen == null || !chosen.hasServer() || chosen.getServer().getInstanceId() == null) {
+            return request;
+        }
+        String instanceId = chosen.getServer().getInstanceId();
+        return request.mutate()
+                .headers(headers -> headers.set(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER, instanceId))
+                .build();
+    }
+
+    private static void abandon(Call call) {
+        if (call != null) {
+            call.abandon();
+        }
+    }
+
+    private ServiceHedging serviceHedging(String service) {
+        LoadBalancingProperties.Hedging hedging = properties.getHedging();
+        Supplier<Counter.Builder> counter = () -> Counter.builder("gateway.hedge")
+                .description("Hedging decisions for eligible upstream requests")
+                .tag("service", service);
+        return new ServiceHedging(
+                new HedgeBudget(hedging.getBudgetRatio(), hedging.getMaxBurst()),
+                counter.get().tag("outcome", "eligible").register(meterRegistry),
+                counter.get().tag("outcome", "sent").register(meterRegistry),
+                counter.get().tag("outcome", "won").register(meterRegistry),
+                counter.get().tag("outcome", "budget_exhausted").register(meterRegistry),
+                Timer.builder("gateway.hedge.latency.saved")
+                        .description("Time the original call took beyond the winning hedge")
+                        .tag("service", service)
+                        .register(meterRegistry));
+    }
+
+    @Override
+    public int getOrder() {
+        // Before load balancing, so each call picks its own instance
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    private record ServiceHedging(HedgeBudget budget, Counter eligible, Counter sent, Counter won,
+                                  Counter budgetExhausted, Timer saved) {
+    }
+
+    /**
+     * One upstream call, subscribed independently of the client so it can outlive the race
+     */
+    private static final class Call {
+
+        private final BranchExchange exchange;
+        private final Sinks.One<Call> result = Sinks.one();
+        private final long startNanos = System.nanoTime();
+        private volatile Disposable subscription;
+        private volatile long finishedNanos;
+        private volatile Throwable failure;
+
+        Call(BranchExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        void start(GatewayFilterChain chain) {
+            subscription = chain.filter(exchange).subscribe(
+                    null,
+                    error -> {
+                        finishedNanos = System.nanoTime() - startNanos;
+                        failure = error;
+                        result.tryEmitError(error);
+                    },
+                    () -> {
+                        finishedNanos = System.nanoTime() - startNanos;
+                        result.tryEmitValue(this);
+                    });
+        }
+
+        Mono<Call> result() {
+            return result.asMono();
+        }
+
+        /**
+         * Cancel the call if still running, or close its upstream connection if it already answered
+         */
+        void abandon() {
+            Disposable running = subscription;
+            if (running != null) {
+                running.dispose();
+            }
+            result.asMono().subscribe(Call::release, error -> { });
+        }
+
+        /**
+         * The body of a losing answer is never read: close the connection instead of returning it to the pool
+         */
+        void release() {
+            if (exchange.attributes.get(CLIENT_RESPONSE_CONN_ATTR) instanceof Connection connection) {
+                connection.dispose();
+            }
+        }
+
+        Mono<Void> commitTo(ServerWebExchange target) {
+            ServerHttpResponse response = target.getResponse();
+            DetachedResponse answer = exchange.response;
+            if (answer.status != null) {
+                response.setStatusCode(answer.status);
+            }
+            response.getHeaders().putAll(answer.headers);
+            answer.cookies.values().forEach(cookies -> cookies.forEach(response::addCookie));
+            target.getAttributes().putAll(exchange.attributes);
+            byte[] body = answer.body;
+            return body == null ? Mono.empty()
+                    : response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+        }
+    }
+
+    /**
+     * Exchange seen by one call: own attributes (routing state) and a response that is not the client's
+     */
+    private static final class BranchExchange extends ServerWebExchangeDecorator {
+
+        private final ServerHttpRequest request;
+        private final DetachedResponse response;
+        private final Map<String, Object> attributes;
+
+        BranchExchange(ServerWebExchange delegate, ServerHttpRequest request) {
+            super(delegate);
+            this.request = request;
+            this.response = new DetachedResponse(delegate.getResponse());
+            this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+            // The load balancer appends to this set: each call gets its own copy
+            if (attributes.get(GATEWAY_ORIGINAL_REQUEST_URL_ATTR) instanceof Set<?> urls) {
+                attributes.put(GATEWAY_ORIGINAL_REQUEST_URL_ATTR, new LinkedHashSet<>(urls));
+            }
+        }
+
+        @Override
+        public ServerHttpRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public ServerHttpResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+
+    /**
+     * Holds status, headers and any body written by the routing filters until the call is known to have won
+     */
+    private static final class DetachedResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final MultiValueMap<String, ResponseCookie> cookies = new LinkedMultiValueMap<>();
+        private volatile HttpStatusCode status;
+        private volatile byte[] body;
+
+        DetachedResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public boolean setRawStatusCode(Integer value) {
+            this.status = value == null ? null : HttpStatusCode.valueOf(value);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public Integer getRawStatusCode() {
+            return status == null ? null : status.value();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public MultiValueMap<String, ResponseCookie> getCookies() {
+            return cookies;
+        }
+
+        @Override
+        public void addCookie(ResponseCookie cookie) {
+            cookies.add(cookie.getName(), cookie);
+        }
+
+        @Override
+        public void beforeCommit(Supplier<? extends Mono<Void>> action) {
+            // Actions registered here would belong to the client response, which is only written for the winner
+        }
+
+        @Override
+        public boolean isCommitted() {
+            return false;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                    .map(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        return bytes;
+                    })
+                    .doOnNext(bytes -> this.body = bytes)
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).concatMap(Flux::from));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+    }
+}
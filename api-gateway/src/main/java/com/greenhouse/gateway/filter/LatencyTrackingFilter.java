@@ -0,0 +1,71 @@
+package com.greenhouse.gateway.filter;
+
+import com.greenhouse.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import com.greenhouse.gateway.loadbalancer.UpstreamLatencyTracker;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Times every call to the instance picked by the load balancer, feeding {@link UpstreamLatencyTracker}.
+ *
+ * Runs right after load balancing, so the measured time is the upstream call alone (up to response headers).
+ * 5xx answers and errors count as failures and raise the instance cost.
+ */
+@Component
+public class LatencyTrackingFilter implements GlobalFilter, Ordered {
+
+    private final UpstreamLatencyTracker latencyTracker;
+
+    public LatencyTrackingFilter(UpstreamLatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerWebExchange forwarded = exchange;
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        if (requestHeaders.containsKey(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER)
+                || requestHeaders.containsKey(PeakEwmaLoadBalancer.SHARD_HEADER)) {
+            forwarded = exchange.mutate()
+                    .request(request -> request.headers(headers -> {
+                        headers.remove(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER);
+                        headers.remove(PeakEwmaLoadBalancer.SHARD_HEADER);
+                    }))
+                    .build();
+        }
+
+        Response<ServiceInstance> loadBalanced = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (loadBalanced == null || !loadBalanced.hasServer()) {
+            return chain.filter(forwarded);
+        }
+
+        UpstreamLatencyTracker.Call call = latencyTracker.begin(loadBalanced.getServer());
+        ServerWebExchange tracked = forwarded;
+        return chain.filter(tracked)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        call.cancel();
+                    } else {
+                        HttpStatusCode status = tracked.getResponse().getStatusCode();
+                        call.complete(signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError()));
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
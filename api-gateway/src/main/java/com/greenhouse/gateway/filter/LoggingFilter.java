@@ -1,61 +1,65 @@
 package com.greenhouse.gateway.filter;
 
-import lombok.extern.slf4j.Slf4j;
+import com.greenhouse.gateway.accesslog.AccessLogProperties;
+import com.greenhouse.gateway.accesslog.RequestIdGenerator;
+import com.greenhouse.gateway.routing.RouteClass;
+import com.greenhouse.gateway.routing.RouteClassifier;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
-import java.time.Instant;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Assigns a request ID and writes one sampled access-log line per completed request.
+ *
+ * Errors (4xx/5xx or a failed exchange) and slow requests are always logged, successes only at
+ * the configured sample rate. Lines go to the {@code ACCESS_LOG} logger, which logback drains
+ * asynchronously. Server-sent event streams get an ID but no timing, since their duration is
+ * the connection lifetime.
+ */
 @Component
-@Slf4j
+@RequiredArgsConstructor
 public class LoggingFilter implements GlobalFilter, Ordered {
 
+    public static final String REQUEST_ID_ATTR = LoggingFilter.class.getName() + ".requestId";
+    public static final String REQUEST_ID_HEADER = "X-Request-ID";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+
+    private final RequestIdGenerator requestIdGenerator;
+    private final AccessLogProperties properties;
+    private final RouteClassifier routeClassifier;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        
-        // Generate unique request ID
-        String requestId = UUID.randomUUID().toString();
-        long startTime = Instant.now().toEpochMilli();
-        
-        // Log incoming request
-        log.info("Incoming request: {} {} | Request-ID: {} | IP: {} | User-Agent: {}",
-                request.getMethod(),
-                request.getURI(),
-                requestId,
-                getClientIP(request),
-                request.getHeaders().getFirst(HttpHeaders.USER_AGENT));
-        
-        // Add custom headers
-        ServerHttpRequest modifiedRequest = request.mutate()
-                .header("X-Request-ID", requestId)
-                .header("X-Gateway-Time", String.valueOf(startTime))
-                .build();
-        
-        ServerWebExchange modifiedExchange = exchange.mutate()
-                .request(modifiedRequest)
-                .build();
-        
-        return chain.filter(modifiedExchange).doFinally(signalType -> {
-            ServerHttpResponse response = exchange.getResponse();
-            long endTime = Instant.now().toEpochMilli();
-            long duration = endTime - startTime;
-            
-            // Log response (headers may already be committed, so just log)
-            log.info("Outgoing response: {} {} | Request-ID: {} | Status: {} | Duration: {}ms",
-                    request.getMethod(),
-                    request.getURI(),
-                    requestId,
-                    response.getStatusCode(),
-                    duration);
+        String requestId = requestIdGenerator.next();
+        exchange.getAttributes().put(REQUEST_ID_ATTR, requestId);
+        exchange.getResponse().getHeaders().set(REQUEST_ID_HEADER, requestId);
+
+        if (!properties.isEnabled() || routeClassifier.classify(exchange).routeClass() == RouteClass.STREAM) {
+            return chain.filter(exchange);
+        }
+
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            int code = status != null ? status.value() : 0;
+            boolean error = signal == SignalType.ON_ERROR || code >= 400;
+            if (error || durationMs >= properties.getSlowThresholdMs() || sampled()) {
+                logAccess(exchange.getRequest(), requestId, code, durationMs, signal);
+            }
         });
     }
 
@@ -64,10 +68,28 @@ public class LoggingFilter implements GlobalFilter, Ordered {
         return Ordered.HIGHEST_PRECEDENCE;
     }
 
+    private boolean sampled() {
+        double rate = properties.getSuccessSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void logAccess(ServerHttpRequest request, String requestId, int status, long durationMs, SignalType signal) {
+        if (status >= 500 || signal == SignalType.ON_ERROR) {
+            ACCESS_LOG.warn("{} {} {} {}ms rid={} ip={} signal={}",
+                    request.getMethod(), request.getPath().value(), status, durationMs, requestId,
+                    getClientIP(request), signal);
+        } else {
+            ACCESS_LOG.info("{} {} {} {}ms rid={} ip={}",
+                    request.getMethod(), request.getPath().value(), status, durationMs, requestId,
+                    getClientIP(request));
+        }
+    }
+
     private String getClientIP(ServerHttpRequest request) {
         String xForwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
+            int comma = xForwardedFor.indexOf(',');
+            return (comma < 0 ? xForwardedFor : xForwardedFor.substring(0, comma)).trim();
         }
         
         if (request.getRemoteAddress() != null) {
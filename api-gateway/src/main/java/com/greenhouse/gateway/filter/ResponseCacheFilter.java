@@ -0,0 +1,217 @@
+package com.greenhouse.gateway.filter;
+
+import com.greenhouse.gateway.cache.CachedResponse;
+import com.greenhouse.gateway.cache.ResponseCache;
+import com.greenhouse.gateway.cache.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Optional;
+
+/**
+ * Serves GET responses of slowly changing routes (parameters, equipment) from the gateway.
+ *
+ * Hits carry a strong ETag and answer If-None-Match with 304. Concurrent misses on the same key
+ * share one downstream call. Entries expire with their route TTL and are dropped early when a
+ * ConfigChangeEvent for the matching entity arrives (see {@link com.greenhouse.gateway.cache.ConfigChangeListener}).
+ * Only responses that declare a Content-Length within the body limit are buffered; chunked bodies
+ * stream through uncached.
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCacheProperties properties;
+    private final ResponseCache responseCache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter notModified;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, ResponseCache responseCache,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.responseCache = responseCache;
+        this.hits = resultCounter(meterRegistry, "hit");
+        this.misses = resultCounter(meterRegistry, "miss");
+        this.coalesced = resultCounter(meterRegistry, "coalesced");
+        this.notModified = resultCounter(meterRegistry, "not_modified");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        ResponseCache.Region region = responseCache.regionFor(request.getPath().value());
+        if (region == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = cacheKey(request);
+        // Cache-Control: no-cache skips the lookup but still refreshes the entry
+        String requestCacheControl = request.getHeaders().getCacheControl();
+        if (requestCacheControl == null || !requestCacheControl.contains("no-cache")) {
+            CachedResponse cached = region.get(key, System.nanoTime());
+            if (cached != null) {
+                hits.increment();
+                return writeCached(exchange, cached, "HIT");
+            }
+        }
+
+        Sinks.One<CachedResponse> sink = Sinks.one();
+        Sinks.One<CachedResponse> leader = region.joinInflight(key, sink);
+        if (leader != null) {
+            coalesced.increment();
+            // An empty leader result (not cacheable, failed, cancelled) sends the follower downstream itself
+            return leader.asMono()
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(result -> result.isPresent()
+                            ? writeCached(exchange, result.get(), "HIT")
+                            : chain.filter(exchange));
+        }
+
+        misses.increment();
+        long generation = region.generation();
+        ServerWebExchange capturing = exchange.mutate()
+                .response(new CapturingResponse(exchange, region, key, generation, sink))
+                .build();
+        return chain.filter(capturing)
+                .doFinally(signal -> {
+                    region.leaveInflight(key, sink);
+                    sink.tryEmitEmpty();
+                });
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        setValidators(headers, cached, cacheStatus);
+        if (cached.matches(exchange.getRequest().getHeaders().getIfNoneMatch())) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentType(cached.contentType());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static void setValidators(HttpHeaders headers, CachedResponse cached, String cacheStatus) {
+        headers.setETag(cached.etag());
+        // Clients may keep the body but must revalidate, which costs them a 304 at most
+        headers.setCacheControl("no-cache");
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getPath().value();
+        String key = query == null ? path : path + '?' + query;
+        // The greenhouse header scopes the answer just like the query does, and selects the shard
+        String greenhouseId = request.getHeaders().getFirst(ShardAffinityFilter.GREENHOUSE_HEADER);
+        return greenhouseId == null ? key : key + '#' + greenhouseId;
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache")
+                .description("Cacheable GET requests by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // After authentication and rate limiting, so cached bodies get the same protection
+        return Ordered.HIGHEST_PRECEDENCE + 5;
+    }
+
+    /**
+     * Buffers a cacheable downstream body, stores it and hands it to waiting followers
+     */
+    private final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final ResponseCache.Region region;
+        private final String key;
+        private final long generation;
+        private final Sinks.One<CachedResponse> sink;
+
+        CapturingResponse(ServerWebExchange exchange, ResponseCache.Region region, String key, long generation,
+                          Sinks.One<CachedResponse> sink) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.region = region;
+            this.key = key;
+            this.generation = generation;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isCacheable()) {
+                sink.tryEmitEmpty();
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body)
+                    .map(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+                        return bytes;
+                    })
+                    .defaultIfEmpty(new byte[0])
+                    .flatMap(bytes -> {
+                        long now = System.nanoTime();
+                        CachedResponse cached = CachedResponse.of(bytes, getHeaders().getContentType(),
+                                now + region.ttlNanos());
+                        if (!region.put(key, cached, generation, now)) {
+                            log.debug("Response for {} not cached (invalidated or region full)", key);
+                        }
+                        sink.tryEmitValue(cached);
+
+                        setValidators(getHeaders(), cached, "MISS");
+                        if (cached.matches(exchange.getRequest().getHeaders().getIfNoneMatch())) {
+                            notModified.increment();
+                            setStatusCode(HttpStatus.NOT_MODIFIED);
+                            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                            return super.setComplete();
+                        }
+                        getHeaders().setContentLength(bytes.length);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+        }
+
+        private boolean isCacheable() {
+            HttpHeaders headers = getHeaders();
+            String cacheControl = headers.getCacheControl();
+            long contentLength = headers.getContentLength();
+            return HttpStatus.OK.equals(getStatusCode())
+                    && contentLength >= 0 && contentLength <= properties.getMaxBodyBytes()
+                    && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                    && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")));
+        }
+    }
+}
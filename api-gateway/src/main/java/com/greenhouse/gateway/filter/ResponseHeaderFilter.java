@@ -57,6 +57,8 @@ public class ResponseHeaderFilter implements GlobalFilter, Ordered {
 
     @Override
     public int getOrder() {
-        return Ordered.LOWEST_PRECEDENCE;
+        // Registered ahead of every filter that may answer on its own (size limit, authentication,
+        // rate limiting, response cache); the headers are only applied when the response commits
+        return Ordered.HIGHEST_PRECEDENCE + 1;
     }
 }
@@ -0,0 +1,97 @@
+package com.greenhouse.gateway.filter;
+
+import com.greenhouse.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import com.greenhouse.gateway.loadbalancer.ShardingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Sends requests of a greenhouse to the instances serving its database shard, on sharded lb:// services.
+ *
+ * The greenhouse is taken from the {@value #GREENHOUSE_HEADER} header or the
+ * {@code greenhouseId} query parameter and forwarded in the header, so the service picks the same shard.
+ * Requests without a greenhouse go to any instance, which queries all shards or its default one.
+ * Runs before hedging so that both hedged calls stay on the shard.
+ */
+@Component
+public class ShardAffinityFilter implements GlobalFilter, Ordered {
+
+    public static final String GREENHOUSE_HEADER = "X-Greenhouse-Id";
+
+    private final ShardingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> requestsByShard = new ConcurrentHashMap<>();
+
+    public ShardAffinityFilter(ShardingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange ingress, GatewayFilterChain chain) {
+        // The shard is the gateway's decision: a client-sent value must never reach the load balancer
+        ServerWebExchange exchange = withoutShardHeader(ingress);
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (!properties.isEnabled() || url == null || !"lb".equals(url.getScheme())
+                || !properties.getServices().contains(url.getHost().toLowerCase(Locale.ROOT))) {
+            return chain.filter(exchange);
+        }
+        String greenhouseId = greenhouseOf(exchange.getRequest());
+        if (greenhouseId == null) {
+            return chain.filter(exchange);
+        }
+
+        String shard = properties.shardOf(greenhouseId);
+        requestsByShard.computeIfAbsent(shard, this::requestCounter).increment();
+        return chain.filter(exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.set(GREENHOUSE_HEADER, greenhouseId);
+                    headers.set(PeakEwmaLoadBalancer.SHARD_HEADER, shard);
+                }))
+                .build());
+    }
+
+    private static ServerWebExchange withoutShardHeader(ServerWebExchange exchange) {
+        if (!exchange.getRequest().getHeaders().containsKey(PeakEwmaLoadBalancer.SHARD_HEADER)) {
+            return exchange;
+        }
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> headers.remove(PeakEwmaLoadBalancer.SHARD_HEADER)))
+                .build();
+    }
+
+    private static String greenhouseOf(ServerHttpRequest request) {
+        String greenhouseId = request.getHeaders().getFirst(GREENHOUSE_HEADER);
+        if (greenhouseId == null || greenhouseId.isBlank()) {
+            greenhouseId = request.getQueryParams().getFirst("greenhouseId");
+        }
+        return greenhouseId == null || greenhouseId.isBlank() ? null : greenhouseId;
+    }
+
+    private Counter requestCounter(String shard) {
+        return Counter.builder("gateway.sharding.requests")
+                .description("Requests pinned to the instances of a shard")
+                .tag("shard", shard)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 2;
+    }
+}
@@ -0,0 +1,38 @@
+package com.greenhouse.gateway.health;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Health of every registered service, built from one probe per instance
+ *
+ * @param status            UP when every service is up, DOWN when none is, DEGRADED otherwise
+ * @param timestamp         epoch millis at which the probes completed
+ * @param availableServices services with at least one instance up
+ */
+public record AggregatedHealth(
+        String gateway,
+        String status,
+        long timestamp,
+        int totalServices,
+        int availableServices,
+        Map<String, ServiceHealth> services) {
+
+    public static final String UP = "UP";
+    public static final String DOWN = "DOWN";
+    public static final String DEGRADED = "DEGRADED";
+
+    /**
+     * @param status UP when all instances are up, DOWN when none is (or none is registered), DEGRADED otherwise
+     */
+    public record ServiceHealth(String status, int upInstances, int totalInstances, List<InstanceHealth> instances) {
+    }
+
+    /**
+     * @param status    status reported by the instance, or DOWN when it could not be reached in time
+     * @param latencyMs probe duration
+     * @param error     reason the probe failed, null on success
+     */
+    public record InstanceHealth(String instanceId, String uri, String status, long latencyMs, String error) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.greenhouse.gateway.health;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Probe and caching settings for the aggregated health endpoint
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.health-aggregation")
+@Data
+public class HealthAggregationProperties {
+
+    /**
+     * Health endpoint called on every registered instance
+     */
+    private String healthPath = "/actuator/health";
+
+    /**
+     * Upper bound of a single instance probe (connect and response)
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+
+    /**
+     * Results younger than this are served without probing
+     */
+    private Duration cacheTtl = Duration.ofSeconds(5);
+
+    /**
+     * Older results are still served while a background refresh runs; beyond this, callers wait for it
+     */
+    private Duration maxStaleness = Duration.ofSeconds(60);
+
+    /**
+     * Instances probed at the same time
+     */
+    private int maxConcurrency = 32;
+}
@@ -0,0 +1,176 @@
+package com.greenhouse.gateway.health;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Probes the health endpoint of every registered instance concurrently, each call bounded by a timeout.
+ *
+ * The last result is cached: fresh results are returned as is, stale ones are returned while a single
+ * background refresh runs, so frequent probes of the gateway never fan out to every instance.
+ */
+@Component
+@Slf4j
+public class HealthAggregator {
+
+    private final DiscoveryClient discoveryClient;
+    private final WebClient instanceWebClient;
+    private final HealthAggregationProperties properties;
+    private final AtomicReference<Snapshot> latest = new AtomicReference<>();
+    private final AtomicReference<Sinks.One<AggregatedHealth>> inflight = new AtomicReference<>();
+
+    public HealthAggregator(DiscoveryClient discoveryClient, WebClient instanceWebClient,
+                            HealthAggregationProperties properties) {
+        this.discoveryClient = discoveryClient;
+        this.instanceWebClient = instanceWebClient;
+        this.properties = properties;
+    }
+
+    /**
+     * Cached aggregated health, refreshed in the background once older than the cache TTL
+     */
+    public Mono<AggregatedHealth> current() {
+        Snapshot snapshot = latest.get();
+        if (snapshot != null) {
+            long ageNanos = System.nanoTime() - snapshot.takenAtNanos();
+            if (ageNanos < properties.getCacheTtl().toNanos()) {
+                return Mono.just(snapshot.health());
+            }
+            if (ageNanos < properties.getMaxStaleness().toNanos()) {
+                refresh();
+                return Mono.just(snapshot.health());
+            }
+        }
+        return refresh();
+    }
+
+    /**
+     * Start a probe round unless one is already running; all callers share its result
+     */
+    public Mono<AggregatedHealth> refresh() {
+        Sinks.One<AggregatedHealth> sink = Sinks.one();
+        Sinks.One<AggregatedHealth> running = inflight.compareAndExchange(null, sink);
+        if (running != null) {
+            return running.asMono();
+        }
+        // Not tied to any caller: a client going away does not cancel the round
+        probeAll().subscribe(
+                health -> {
+                    latest.set(new Snapshot(health, System.nanoTime()));
+                    inflight.set(null);
+                    sink.tryEmitValue(health);
+                },
+                error -> {
+                    log.warn("Health aggregation failed: {}", error.getMessage());
+                    inflight.set(null);
+                    sink.tryEmitError(error);
+                });
+        return sink.asMono();
+    }
+
+    private Mono<AggregatedHealth> probeAll() {
+        return Mono.defer(() -> {
+            Map<String, List<ServiceInstance>> instancesByService = new TreeMap<>();
+            for (String service : discoveryClient.getServices()) {
+                instancesByService.put(service, discoveryClient.getInstances(service));
+            }
+            return Flux.fromIterable(instancesByService.entrySet())
+                    .flatMapIterable(entry -> entry.getValue().stream()
+                            .map(instance -> Map.entry(entry.getKey(), instance))
+                            .toList())
+                    .flatMap(entry -> probe(entry.getValue()).map(health -> Map.entry(entry.getKey(), health)),
+                            properties.getMaxConcurrency())
+                    .collectMultimap(Map.Entry::getKey, Map.Entry::getValue)
+                    .map(results -> aggregate(instancesByService, results));
+        });
+    }
+
+    private Mono<AggregatedHealth.InstanceHealth> probe(ServiceInstance instance) {
+        String uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .path(properties.getHealthPath())
+                .toUriString();
+        long start = System.nanoTime();
+        return instanceWebClient.get()
+                .uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchangeToMono(response -> response.bodyToMono(HealthBody.class)
+                        .mapNotNull(HealthBody::status)
+                        .onErrorResume(e -> Mono.empty())
+                        .defaultIfEmpty(statusOf(response.statusCode()))
+                        .map(status -> new AggregatedHealth.InstanceHealth(instance.getInstanceId(), uri, status,
+                                elapsedMs(start), response.statusCode().is2xxSuccessful()
+                                        ? null : "HTTP " + response.statusCode().value())))
+                .timeout(properties.getTimeout())
+                .onErrorResume(e -> Mono.just(new AggregatedHealth.InstanceHealth(instance.getInstanceId(), uri,
+                        AggregatedHealth.DOWN, elapsedMs(start),
+                        e instanceof TimeoutException
+                                ? "No response within " + properties.getTimeout().toMillis() + " ms"
+                                : e.getMessage())));
+    }
+
+    private static AggregatedHealth aggregate(Map<String, List<ServiceInstance>> instancesByService,
+                                              Map<String, Collection<AggregatedHealth.InstanceHealth>> results) {
+        Map<String, AggregatedHealth.ServiceHealth> services = new LinkedHashMap<>();
+        instancesByService.forEach((service, instances) -> {
+            List<AggregatedHealth.InstanceHealth> probes = results.getOrDefault(service, List.of()).stream()
+                    .sorted(Comparator.comparing(AggregatedHealth.InstanceHealth::instanceId,
+                            Comparator.nullsLast(Comparator.naturalOrder())))
+                    .toList();
+            int up = (int) probes.stream().filter(probe -> AggregatedHealth.UP.equals(probe.status())).count();
+            services.put(service, new AggregatedHealth.ServiceHealth(
+                    overall(up, probes.size()), up, probes.size(), probes));
+        });
+
+        int available = (int) services.values().stream().filter(health -> health.upInstances() > 0).count();
+        int fullyUp = (int) services.values().stream()
+                .filter(health -> AggregatedHealth.UP.equals(health.status()))
+                .count();
+        String status = available == 0 ? AggregatedHealth.DOWN
+                : fullyUp == services.size() ? AggregatedHealth.UP : AggregatedHealth.DEGRADED;
+        return new AggregatedHealth(AggregatedHealth.UP, status,
+                System.currentTimeMillis(), services.size(), available, services);
+    }
+
+    private static String overall(int up, int total) {
+        if (total > 0 && up == total) {
+            return AggregatedHealth.UP;
+        }
+        return up == 0 ? AggregatedHealth.DOWN : AggregatedHealth.DEGRADED;
+    }
+
+    private static String statusOf(HttpStatusCode statusCode) {
+        return statusCode.is2xxSuccessful() ? AggregatedHealth.UP : AggregatedHealth.DOWN;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private record Snapshot(AggregatedHealth health, long takenAtNanos) {
+    }
+
+    /**
+     * Only the overall status of a Spring Boot health response is kept
+     */
+    private record HealthBody(String status) {
+    }
+}
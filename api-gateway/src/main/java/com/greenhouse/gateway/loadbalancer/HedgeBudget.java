@@ -0,0 +1,39 @@
+package com.greenhouse.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket bounding hedges to a fraction of eligible requests.
+ *
+ * Every eligible request deposits {@code ratio} tokens, a hedge spends one. When a whole service slows down,
+ * hedges stop after the saved-up burst instead of doubling its load. The bucket starts full.
+ */
+public class HedgeBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    public HedgeBudget(double ratio, int maxBurst) {
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = Math.max(0, maxBurst) * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    public void deposit() {
+        balance.getAndUpdate(current -> Math.min(capacity, current + deposit));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
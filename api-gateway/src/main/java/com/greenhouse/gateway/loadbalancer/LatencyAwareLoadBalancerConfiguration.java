@@ -0,0 +1,29 @@
+package com.greenhouse.gateway.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer for every lb:// service, registered through {@code @LoadBalancerClients}.
+ *
+ * Deliberately not a {@code @Configuration}: it is instantiated in each per-service child context,
+ * never in the application context.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorServiceInstanceLoadBalancer reactorServiceInstanceLoadBalancer(
+            Environment environment, LoadBalancerClientFactory clientFactory,
+            UpstreamLatencyTracker latencyTracker, LoadBalancingProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        var suppliers = clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        if (!properties.isLatencyAware()) {
+            return new RoundRobinLoadBalancer(suppliers, serviceId);
+        }
+        return new PeakEwmaLoadBalancer(suppliers, serviceId, latencyTracker);
+    }
+}
@@ -0,0 +1,70 @@
+package com.greenhouse.gateway.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Instance selection and request hedging for lb:// routes
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancing")
+@Data
+public class LoadBalancingProperties {
+
+    /**
+     * Pick the cheaper of two random instances by peak-EWMA latency; false falls back to round robin
+     */
+    private boolean latencyAware = true;
+
+    /**
+     * Time constant of the latency EWMA: how fast old observations (and idle slow instances) fade
+     */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * Latency charged for a failed call, and assumed for an instance whose first call is still in flight
+     */
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    private Hedging hedging = new Hedging();
+
+    @Data
+    public static class Hedging {
+
+        private boolean enabled = true;
+
+        /**
+         * Route ids whose GET and HEAD requests may be hedged
+         */
+        private Set<String> routes = new LinkedHashSet<>();
+
+        /**
+         * Upstream latency percentile after which a second request is sent to another instance
+         */
+        private double percentile = 0.95;
+
+        private Duration minDelay = Duration.ofMillis(10);
+
+        private Duration maxDelay = Duration.ofSeconds(1);
+
+        /**
+         * Observed calls needed before the percentile is trusted; until then no request is hedged
+         */
+        private long minSamples = 100;
+
+        /**
+         * Hedges allowed per eligible request, so extra load stays bounded when a whole service is slow
+         */
+        private double budgetRatio = 0.05;
+
+        /**
+         * Hedges that may be sent back to back once the budget has been saved up
+         */
+        private int maxBurst = 10;
+    }
+}
@@ -0,0 +1,116 @@
+package com.greenhouse.gateway.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power of two choices on peak-EWMA cost: two random instances are compared and the cheaper one wins.
+ *
+ * Comparing two instead of scanning all keeps some randomness, so a burst of requests does not all land on
+ * the instance that was fastest a moment ago.
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    /**
+     * Internal request header naming an instance to skip; set by hedged requests, removed before forwarding
+     */
+    public static final String AVOID_INSTANCE_HEADER = "X-Gateway-Avoid-Instance";
+
+    /**
+     * Internal request header naming the database shard of the request; set by shard affinity, removed before forwarding
+     */
+    public static final String SHARD_HEADER = "X-Gateway-Shard";
+
+    /**
+     * Instance metadata naming the shard an instance serves
+     */
+    public static final String SHARD_METADATA = "shard";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final UpstreamLatencyTracker latencyTracker;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                                UpstreamLatencyTracker latencyTracker) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.latencyTracker = latencyTracker;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String avoided = header(request, AVOID_INSTANCE_HEADER);
+        String shard = header(request, SHARD_HEADER);
+        return supplier.get(request).next()
+                .map(instances -> {
+                    ServiceInstance chosen = choose(shard != null ? ofShard(instances, shard) : instances, avoided);
+                    if (chosen == null) {
+                        log.warn("No servers available for service: {}", serviceId);
+                        return new EmptyResponse();
+                    }
+                    return new DefaultResponse(chosen);
+                });
+    }
+
+    private ServiceInstance choose(List<ServiceInstance> instances, String avoided) {
+        if (avoided != null && instances.size() > 1) {
+            List<ServiceInstance> others = instances.stream()
+                    .filter(instance -> !avoided.equals(instance.getInstanceId()))
+                    .toList();
+            if (!others.isEmpty()) {
+                instances = others;
+            }
+        }
+        int size = instances.size();
+        if (size <= 1) {
+            return size == 0 ? null : instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return latencyTracker.cost(a) <= latencyTracker.cost(b) ? a : b;
+    }
+
+    /**
+     * Instances serving the shard, or all of them when none does: any instance can reach every shard
+     */
+    private List<ServiceInstance> ofShard(List<ServiceInstance> instances, String shard) {
+        List<ServiceInstance> serving = instances.stream()
+                .filter(instance -> shard.equals(instance.getMetadata().get(SHARD_METADATA)))
+                .toList();
+        if (serving.isEmpty()) {
+            log.debug("No instance of {} serves shard {}, using any", serviceId, shard);
+            return instances;
+        }
+        return serving;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static String header(Request request, String name) {
+        if (request.getContext() instanceof RequestDataContext context && context.getClientRequest() != null) {
+            return context.getClientRequest().getHeaders().getFirst(name);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.greenhouse.gateway.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shard affinity for lb:// services whose database is sharded by greenhouse.
+ *
+ * The greenhouse to shard map must be the one of environnement-service ({@code sharding.greenhouses}); the
+ * config server serves both from its shared configuration. Affinity needs the latency-aware load balancer:
+ * round robin ignores it.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.sharding")
+@Data
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Services sharded by greenhouse, whose instances advertise the shard they serve in their metadata
+     */
+    private Set<String> services = new LinkedHashSet<>(Set.of("environnement-service"));
+
+    private String defaultShard = "shard0";
+
+    /**
+     * Greenhouse ID to shard; unlisted greenhouses are on the default shard
+     */
+    private Map<String, String> greenhouses = new LinkedHashMap<>();
+
+    public String shardOf(String greenhouseId) {
+        return greenhouses.getOrDefault(greenhouseId, defaultShard);
+    }
+}
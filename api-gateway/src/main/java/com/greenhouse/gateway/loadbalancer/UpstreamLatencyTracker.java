@@ -0,0 +1,196 @@
+package com.greenhouse.gateway.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency observed by the gateway for every upstream instance and service.
+ *
+ * Instances keep a peak-sensitive EWMA (a slower sample replaces the average at once, faster ones blend in)
+ * and their number of calls in flight; {@link #cost(ServiceInstance)} combines both for the load balancer.
+ * Services keep a timer whose percentile drives the hedging delay.
+ */
+@Component
+public class UpstreamLatencyTracker {
+
+    private static final long PERCENTILE_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LoadBalancingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, InstanceLatency> instances = new ConcurrentHashMap<>();
+    private final Map<String, ServiceLatency> services = new ConcurrentHashMap<>();
+
+    public UpstreamLatencyTracker(LoadBalancingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Start tracking a call; the returned handle must be ended exactly once
+     */
+    public Call begin(ServiceInstance instance) {
+        InstanceLatency latency = instance(instance);
+        latency.inflight.incrementAndGet();
+        return new Call(instance, latency, System.nanoTime());
+    }
+
+    /**
+     * Record a finished call without in-flight accounting
+     */
+    public void record(ServiceInstance instance, long latencyNanos, boolean failed) {
+        InstanceLatency latency = instance(instance);
+        if (failed) {
+            latency.observe(Math.max(latencyNanos, properties.getFailurePenalty().toNanos()), System.nanoTime());
+        } else {
+            latency.observe(latencyNanos, System.nanoTime());
+            service(instance.getServiceId()).timer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Expected cost of sending one more call to the instance, in nanoseconds; lower is better
+     */
+    public double cost(ServiceInstance instance) {
+        InstanceLatency latency = instances.get(key(instance));
+        if (latency == null) {
+            return 0;
+        }
+        int inflight = latency.inflight.get();
+        double ewma = latency.current(System.nanoTime());
+        if (ewma == 0 && inflight > 0) {
+            // Never answered yet: do not pile every new call onto it
+            return properties.getFailurePenalty().toNanos() + inflight;
+        }
+        return ewma * (inflight + 1);
+    }
+
+    /**
+     * Configured latency percentile of successful calls to the service, or null below the minimum sample count
+     */
+    public Duration percentile(String serviceId) {
+        ServiceLatency latency = services.get(normalize(serviceId));
+        if (latency == null || latency.timer.count() < properties.getHedging().getMinSamples()) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - latency.percentileAtNanos > PERCENTILE_REFRESH_NANOS) {
+            latency.percentileNanos = computePercentile(latency.timer);
+            latency.percentileAtNanos = now;
+        }
+        return Duration.ofNanos(latency.percentileNanos);
+    }
+
+    private long computePercentile(Timer timer) {
+        double percentile = properties.getHedging().getPercentile();
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return (long) value.value(TimeUnit.NANOSECONDS);
+            }
+        }
+        return (long) timer.max(TimeUnit.NANOSECONDS);
+    }
+
+    private InstanceLatency instance(ServiceInstance instance) {
+        return instances.computeIfAbsent(key(instance),
+                key -> new InstanceLatency(properties.getDecayTime().toNanos()));
+    }
+
+    private ServiceLatency service(String serviceId) {
+        return services.computeIfAbsent(normalize(serviceId), service -> new ServiceLatency(
+                Timer.builder("gateway.upstream.latency")
+                        .description("Time to response headers of successful upstream calls")
+                        .tag("service", service)
+                        .publishPercentiles(properties.getHedging().getPercentile())
+                        .distributionStatisticExpiry(Duration.ofMinutes(1))
+                        .register(meterRegistry)));
+    }
+
+    private static String key(ServiceInstance instance) {
+        String instanceId = instance.getInstanceId();
+        return instanceId != null ? instanceId : instance.getHost() + ':' + instance.getPort();
+    }
+
+    private static String normalize(String serviceId) {
+        // Eureka reports upper-case ids, discovery-locator routes lower-case ones
+        return serviceId == null ? "unknown" : serviceId.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One call in flight to an instance
+     */
+    public final class Call {
+
+        private final ServiceInstance instance;
+        private final InstanceLatency latency;
+        private final long startNanos;
+
+        private Call(ServiceInstance instance, InstanceLatency latency, long startNanos) {
+            this.instance = instance;
+            this.latency = latency;
+            this.startNanos = startNanos;
+        }
+
+        public void complete(boolean failed) {
+            latency.inflight.decrementAndGet();
+            record(instance, System.nanoTime() - startNanos, failed);
+        }
+
+        /**
+         * The caller went away: the elapsed time is only a lower bound, so it can raise the average but not lower it
+         */
+        public void cancel() {
+            latency.inflight.decrementAndGet();
+            long now = System.nanoTime();
+            long elapsed = now - startNanos;
+            if (elapsed > latency.current(now)) {
+                latency.observe(elapsed, now);
+            }
+        }
+    }
+
+    private static final class InstanceLatency {
+
+        private final double decayNanos;
+        private final AtomicInteger inflight = new AtomicInteger();
+        private double ewmaNanos;
+        private long stampNanos = System.nanoTime();
+
+        InstanceLatency(long decayNanos) {
+            this.decayNanos = decayNanos;
+        }
+
+        synchronized void observe(long latencyNanos, long now) {
+            double weight = Math.exp(-(now - stampNanos) / decayNanos);
+            ewmaNanos = latencyNanos > ewmaNanos ? latencyNanos : ewmaNanos * weight + latencyNanos * (1 - weight);
+            stampNanos = now;
+        }
+
+        /**
+         * The average fades while the instance is not used, so a once slow instance gets probed again
+         */
+        synchronized double current(long now) {
+            return ewmaNanos * Math.exp(-Math.max(0, now - stampNanos) / decayNanos);
+        }
+    }
+
+    private static final class ServiceLatency {
+
+        private final Timer timer;
+        private volatile long percentileNanos;
+        private volatile long percentileAtNanos = System.nanoTime() - 2 * PERCENTILE_REFRESH_NANOS;
+
+        ServiceLatency(Timer timer) {
+            this.timer = timer;
+        }
+    }
+}
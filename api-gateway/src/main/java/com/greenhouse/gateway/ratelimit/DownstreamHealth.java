@@ -0,0 +1,82 @@
+package com.greenhouse.gateway.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tracks an exponentially weighted error rate and latency per downstream service and turns them
+ * into a health factor between the configured floor and 1.0, used to scale rate limits.
+ */
+public class DownstreamHealth {
+
+    private final ConcurrentHashMap<String, Stats> services = new ConcurrentHashMap<>();
+    private final RateLimitProperties.Adaptive settings;
+    private final Consumer<String> onNewService;
+
+    public DownstreamHealth(RateLimitProperties.Adaptive settings, Consumer<String> onNewService) {
+        this.settings = settings;
+        this.onNewService = onNewService;
+    }
+
+    /**
+     * Record the outcome of one proxied call
+     */
+    public void record(String service, long latencyNanos, boolean error, long nowNanos) {
+        stats(service).record(latencyNanos, error, nowNanos, settings.getAlpha());
+    }
+
+    /**
+     * Current health factor of a service: 1.0 when healthy, lower as errors or latency grow
+     */
+    public double healthFactor(String service, long nowNanos) {
+        Stats stats = services.get(service);
+        return stats == null ? 1.0 : stats.factor(nowNanos, settings);
+    }
+
+    private Stats stats(String service) {
+        Stats stats = services.get(service);
+        if (stats == null) {
+            stats = services.computeIfAbsent(service, s -> new Stats());
+            onNewService.accept(service);
+        }
+        return stats;
+    }
+
+    private static final class Stats {
+        private double errorRate;
+        private double latencyMs;
+        private long lastSampleNanos;
+        private boolean initialized;
+
+        synchronized void record(long latencyNanos, boolean error, long nowNanos, double alpha) {
+            double latency = latencyNanos / 1_000_000.0;
+            double failure = error ? 1.0 : 0.0;
+            if (!initialized) {
+                latencyMs = latency;
+                errorRate = failure;
+                initialized = true;
+            } else {
+                latencyMs += alpha * (latency - latencyMs);
+                errorRate += alpha * (failure - errorRate);
+            }
+            lastSampleNanos = nowNanos;
+        }
+
+        synchronized double factor(long nowNanos, RateLimitProperties.Adaptive settings) {
+            // Without fresh samples (e.g. everything is being shed) assume recovery instead of staying throttled
+            if (!initialized || nowNanos - lastSampleNanos > TimeUnit.MILLISECONDS.toNanos(settings.getIdleResetMs())) {
+                return 1.0;
+            }
+            double errorFactor = 1.0;
+            double threshold = settings.getErrorRateThreshold();
+            if (errorRate > threshold) {
+                errorFactor = Math.max(0.0, 1.0 - (errorRate - threshold) / (settings.getErrorRateCeiling() - threshold));
+            }
+            double latencyFactor = latencyMs <= settings.getTargetLatencyMs()
+                    ? 1.0
+                    : settings.getTargetLatencyMs() / latencyMs;
+            return errorFactor * latencyFactor;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.greenhouse.gateway.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process rate limiter based on the Generic Cell Rate Algorithm.
+ *
+ * Each key holds a single theoretical arrival time (TAT) updated with a CAS loop, which is
+ * equivalent to a token bucket without a refill timer. Rate and burst are passed per call so
+ * the caller can adapt them to downstream health without rebuilding state.
+ *
+ * The number of tracked keys is capped: once full and no replenished key can be swept, new keys
+ * share a single overflow budget instead of growing the map, so a flood of distinct keys is
+ * throttled together rather than exhausting memory.
+ */
+public class GcraRateLimiter {
+
+    static final String OVERFLOW_KEY = "overflow";
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+    private final int maxKeys;
+
+    public GcraRateLimiter(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Try to admit one request for the key.
+     *
+     * @return 0 when admitted, otherwise the nanoseconds to wait before a retry can succeed
+     */
+    public long tryAcquire(String key, double ratePerSecond, int burst, long nowNanos) {
+        long emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long tolerance = emissionInterval * Math.max(0, burst - 1);
+
+        AtomicLong arrival = arrivalFor(key, nowNanos);
+        while (true) {
+            long stored = arrival.get();
+            long tat = Math.max(stored, nowNanos);
+            long allowAt = tat - tolerance;
+            if (allowAt > nowNanos) {
+                return allowAt - nowNanos;
+            }
+            if (arrival.compareAndSet(stored, tat + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return arrivals.size();
+    }
+
+    private AtomicLong arrivalFor(String key, long nowNanos) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival != null) {
+            return arrival;
+        }
+        if (arrivals.size() >= maxKeys) {
+            sweepIfNeeded(nowNanos);
+            if (arrivals.size() >= maxKeys) {
+                return arrivals.computeIfAbsent(OVERFLOW_KEY, k -> new AtomicLong(nowNanos));
+            }
+        }
+        return arrivals.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+    }
+
+    // Keys whose TAT is in the past have a full bucket and can be forgotten without changing behaviour
+    private void sweepIfNeeded(long nowNanos) {
+        long last = lastSweep.get();
+        if ((last != 0 && nowNanos - last < SWEEP_INTERVAL_NANOS)
+                || !lastSweep.compareAndSet(last, nowNanos)) {
+            return;
+        }
+        arrivals.values().removeIf(arrival -> arrival.get() <= nowNanos);
+    }
+}
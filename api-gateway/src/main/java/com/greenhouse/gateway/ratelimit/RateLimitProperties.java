@@ -0,0 +1,77 @@
+package com.greenhouse.gateway.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits and adaptation settings for the in-process gateway rate limiter
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Upper bound of tracked client keys; past it new keys share one overflow budget
+     */
+    private int maxKeys = 100_000;
+
+    private Limit critical = new Limit(50, 100, 0.5, 0.0);
+    private Limit normal = new Limit(20, 40, 0.2, 0.3);
+    private Limit low = new Limit(5, 10, 0.1, 0.7);
+
+    private Adaptive adaptive = new Adaptive();
+
+    public Limit limitFor(TrafficPriority priority) {
+        return switch (priority) {
+            case CRITICAL -> critical;
+            case NORMAL -> normal;
+            case LOW -> low;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        /**
+         * Sustained requests per second per client key
+         */
+        private double rate;
+        /**
+         * Requests admitted at once on an idle key
+         */
+        private int burst;
+        /**
+         * Lowest fraction of the rate kept when the downstream service is degraded
+         */
+        private double minFactor;
+        /**
+         * Requests are shed outright while the downstream health factor is below this value
+         */
+        private double shedBelow;
+    }
+
+    @Data
+    public static class Adaptive {
+        /**
+         * EWMA smoothing factor for error rate and latency
+         */
+        private double alpha = 0.1;
+        private double errorRateThreshold = 0.05;
+        /**
+         * Error rate at which the health factor reaches zero
+         */
+        private double errorRateCeiling = 0.5;
+        private double targetLatencyMs = 500;
+        /**
+         * Health is considered restored when no call was recorded for this long
+         */
+        private long idleResetMs = 10_000;
+    }
+}
@@ -0,0 +1,23 @@
+package com.greenhouse.gateway.ratelimit;
+
+/**
+ * Priority of routed traffic, used to decide what is shed first when downstream services degrade.
+ * Assigned per path by {@link com.greenhouse.gateway.routing.RouteClassifier}.
+ */
+public enum TrafficPriority {
+
+    /**
+     * Measurement ingest, alerts and equipment commands: never shed, only rate limited
+     */
+    CRITICAL,
+
+    /**
+     * Regular reads and configuration changes
+     */
+    NORMAL,
+
+    /**
+     * History and paginated measurement queries: first to be shed
+     */
+    LOW
+}
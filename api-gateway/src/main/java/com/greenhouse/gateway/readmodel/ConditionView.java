@@ -0,0 +1,46 @@
+package com.greenhouse.gateway.readmodel;
+
+import com.greenhouse.events.MeasurementEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest measurement of a parameter, with the thresholds it was checked against
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConditionView {
+    private Long parametreId;
+    private String parametreType;
+    private String parametreName;
+    private Double valeur;
+    private String unite;
+    private Double seuilMin;
+    private Double seuilMax;
+    private Boolean alert;
+    private LocalDateTime dateMesure;
+    private String greenhouseId;
+    private String zoneId;
+
+    public static ConditionView from(MeasurementEvent event) {
+        return ConditionView.builder()
+                .parametreId(event.parametreId())
+                .parametreType(event.parametreType())
+                .parametreName(event.parametreName())
+                .valeur(event.valeur())
+                .unite(event.unite())
+                .seuilMin(event.seuilMin())
+                .seuilMax(event.seuilMax())
+                .alert(event.isAlert())
+                .dateMesure(event.dateMesure() != null ? event.dateMesure() : event.eventTimestamp())
+                .greenhouseId(event.greenhouseId())
+                .zoneId(event.zoneId())
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.greenhouse.gateway.readmodel;
+
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.EquipmentActionEvent;
+import com.greenhouse.events.MeasurementEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Feeds the dashboard read model from the event topics.
+ *
+ * Every gateway instance keeps the whole read model, so each one consumes all partitions under its own group.
+ * Partitions are positioned from the read model rather than from committed offsets: right after the offset in
+ * the restored snapshot, else at the start of the topic (or its end when cold-start replay is off). Offsets are
+ * therefore never committed (see {@code uncommittedContainerPostProcessor}): the group of an instance only lives
+ * as long as the instance, and without offsets Kafka drops it once empty rather than keeping one per restart.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardEventListener implements ConsumerSeekAware {
+
+    private final DashboardReadModel readModel;
+    private final ReadModelProperties properties;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(partition -> {
+            Long offset = readModel.offset(partition.topic(), partition.partition());
+            if (offset != null) {
+                callback.seek(partition.topic(), partition.partition(), offset + 1);
+            } else if (properties.isReplayOnColdStart()) {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            } else {
+                callback.seekToEnd(partition.topic(), partition.partition());
+            }
+        });
+        log.info("Read model consuming {} partition(s)", assignments.size());
+    }
+
+    @KafkaListener(topics = "${kafka.topic.measurement-stream:measurement-stream}",
+            groupId = "api-gateway-read-model-${random.uuid}",
+            containerPostProcessor = "uncommittedContainerPostProcessor",
+            containerFactory = "measurementListenerContainerFactory",
+            autoStartup = "${gateway.read-model.enabled:true}")
+    public void onMeasurement(ConsumerRecord<String, MeasurementEvent> record) {
+        if (record.value() != null) {
+            readModel.applyMeasurement(record.value(), record.topic(), record.partition(), record.offset());
+        }
+    }
+
+    @KafkaListener(topics = "${kafka.topic.greenhouse-alerts:greenhouse-alerts}",
+            groupId = "api-gateway-read-model-${random.uuid}",
+            containerPostProcessor = "uncommittedContainerPostProcessor",
+            containerFactory = "alertListenerContainerFactory",
+            autoStartup = "${gateway.read-model.enabled:true}")
+    public void onAlert(ConsumerRecord<String, AlertEvent> record) {
+        if (record.value() != null) {
+            readModel.applyAlert(record.value(), record.topic(), record.partition(), record.offset());
+        }
+    }
+
+    @KafkaListener(topics = "${kafka.topic.equipment-actions:equipment-actions}",
+            groupId = "api-gateway-read-model-${random.uuid}",
+            containerPostProcessor = "uncommittedContainerPostProcessor",
+            containerFactory = "equipmentActionListenerContainerFactory",
+            autoStartup = "${gateway.read-model.enabled:true}")
+    public void onEquipmentAction(ConsumerRecord<String, EquipmentActionEvent> record) {
+        if (record.value() != null) {
+            readModel.applyEquipmentAction(record.value(), record.topic(), record.partition(), record.offset());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.greenhouse.gateway.readmodel;
+
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.EquipmentActionEvent;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.gateway.sse.dto.AlertView;
+import com.greenhouse.gateway.sse.dto.EquipmentStatusView;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Denormalized dashboard views maintained from the measurement, alert and equipment action topics: current
+ * conditions per parameter, the alert feed and a timeline per equipment.
+ *
+ * Dashboard queries are answered from memory and never reach the service databases. Each view records the last
+ * offset applied per partition; a snapshot of the views with those offsets is written periodically and on
+ * shutdown, and consumption resumes after them on restart. Events at or below a recorded offset are skipped, so
+ * replays after a rebalance are harmless. Updates and snapshots are serialized on this instance; the view maps
+ * are only ever read outside of that lock through copies.
+ */
+@Component
+@Slf4j
+public class DashboardReadModel {
+
+    private final ReadModelProperties properties;
+    private final ReadModelSnapshotStore snapshotStore;
+
+    private final Map<Long, ConditionView> conditions = new HashMap<>();
+    private final ArrayDeque<AlertView> alerts = new ArrayDeque<>();
+    private final Map<String, ArrayDeque<EquipmentStatusView>> timelines = new HashMap<>();
+    private final Map<String, Map<Integer, Long>> offsets = new HashMap<>();
+
+    private boolean dirty;
+    private Disposable snapshots;
+
+    public DashboardReadModel(ReadModelProperties properties, ReadModelSnapshotStore snapshotStore) {
+        this.properties = properties;
+        this.snapshotStore = snapshotStore;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        snapshotStore.load().ifPresent(this::restore);
+        snapshots = Flux.interval(properties.getSnapshotInterval(), Schedulers.boundedElastic())
+                .subscribe(tick -> snapshot());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snapshots != null) {
+            snapshots.dispose();
+            snapshot();
+        }
+    }
+
+    // Updates, called by the topic listeners in partition order
+
+    /**
+     * @return false when the record was already applied
+     */
+    public synchronized boolean applyMeasurement(MeasurementEvent event, String topic, int partition, long offset) {
+        if (!advance(topic, partition, offset) || event.parametreId() == null) {
+            return false;
+        }
+        ConditionView condition = ConditionView.from(event);
+        conditions.merge(condition.getParametreId(), condition,
+                (current, next) -> isBefore(next.getDateMesure(), current.getDateMesure()) ? current : next);
+        return true;
+    }
+
+    public synchronized boolean applyAlert(AlertEvent event, String topic, int partition, long offset) {
+        if (!advance(topic, partition, offset)) {
+            return false;
+        }
+        alerts.addFirst(AlertView.from(event));
+        while (alerts.size() > properties.getAlertFeedSize()) {
+            alerts.removeLast();
+        }
+        return true;
+    }
+
+    public synchronized boolean applyEquipmentAction(EquipmentActionEvent event, String topic, int partition,
+                                                     long offset) {
+        if (!advance(topic, partition, offset) || event.equipementId() == null) {
+            return false;
+        }
+        ArrayDeque<EquipmentStatusView> timeline =
+                timelines.computeIfAbsent(event.equipementId().toString(), id -> new ArrayDeque<>());
+        timeline.addFirst(EquipmentStatusView.from(event));
+        while (timeline.size() > properties.getEquipmentTimelineSize()) {
+            timeline.removeLast();
+        }
+        return true;
+    }
+
+    /**
+     * Last offset applied from the partition, or null when none was
+     */
+    public synchronized Long offset(String topic, int partition) {
+        Map<Integer, Long> partitions = offsets.get(topic);
+        return partitions != null ? partitions.get(partition) : null;
+    }
+
+    // Queries
+
+    /**
+     * Latest condition of each parameter in scope, by parameter
+     */
+    public synchronized List<ConditionView> currentConditions(String greenhouseId, String zoneId) {
+        return conditions.values().stream()
+                .filter(condition -> inScope(condition.getGreenhouseId(), condition.getZoneId(), greenhouseId, zoneId))
+                .sorted(Comparator.comparing(ConditionView::getParametreId))
+                .toList();
+    }
+
+    /**
+     * Latest alerts in scope, newest first
+     */
+    public synchronized List<AlertView> alertFeed(String greenhouseId, String severity, int limit) {
+        return alerts.stream()
+                .filter(alert -> inScope(alert.getGreenhouseId(), null, greenhouseId, null))
+                .filter(alert -> severity == null || severity.equalsIgnoreCase(alert.getSeverity()))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Latest action of each equipment in scope, i.e. its current status
+     */
+    public synchronized List<EquipmentStatusView> equipmentStatus(String greenhouseId) {
+        return timelines.values().stream()
+                .map(ArrayDeque::peekFirst)
+                .filter(Objects::nonNull)
+                .filter(status -> inScope(status.getGreenhouseId(), null, greenhouseId, null))
+                .sorted(Comparator.comparing(EquipmentStatusView::getEquipmentId))
+                .toList();
+    }
+
+    /**
+     * Latest actions of the equipment, newest first
+     */
+    public synchronized List<EquipmentStatusView> equipmentTimeline(String equipmentId, int limit) {
+        ArrayDeque<EquipmentStatusView> timeline = timelines.get(equipmentId);
+        return timeline == null ? List.of() : timeline.stream().limit(limit).toList();
+    }
+
+    // Snapshots
+
+    /**
+     * Writes a snapshot when the views changed since the last one
+     */
+    public void snapshot() {
+        DashboardSnapshot snapshot;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            snapshot = capture();
+            dirty = false;
+        }
+        try {
+            snapshotStore.save(snapshot);
+            log.debug("Read model snapshot written: {} conditions, {} alerts, {} equipment",
+                    snapshot.conditions().size(), snapshot.alerts().size(), snapshot.timelines().size());
+        } catch (RuntimeException e) {
+            log.warn("Read model snapshot not written: {}", e.toString());
+            synchronized (this) {
+                dirty = true;
+            }
+        }
+    }
+
+    synchronized DashboardSnapshot capture() {
+        Map<String, List<EquipmentStatusView>> timelineCopies = new HashMap<>();
+        timelines.forEach((equipmentId, timeline) -> timelineCopies.put(equipmentId, List.copyOf(timeline)));
+        Map<String, Map<Integer, Long>> offsetCopies = new HashMap<>();
+        offsets.forEach((topic, partitions) -> offsetCopies.put(topic, Map.copyOf(partitions)));
+        return new DashboardSnapshot(LocalDateTime.now(), List.copyOf(conditions.values()), List.copyOf(alerts),
+                timelineCopies, offsetCopies);
+    }
+
+    synchronized void restore(DashboardSnapshot snapshot) {
+        snapshot.conditions().forEach(condition -> conditions.put(condition.getParametreId(), condition));
+        alerts.addAll(snapshot.alerts());
+        snapshot.timelines().forEach((equipmentId, timeline) ->
+                timelines.put(equipmentId, new ArrayDeque<>(timeline)));
+        snapshot.offsets().forEach((topic, partitions) -> offsets.put(topic, new HashMap<>(partitions)));
+        log.info("Read model restored from the snapshot of {}: {} conditions, {} alerts, {} equipment",
+                snapshot.takenAt(), conditions.size(), alerts.size(), timelines.size());
+    }
+
+    private boolean advance(String topic, int partition, long offset) {
+        Map<Integer, Long> partitions = offsets.computeIfAbsent(topic, t -> new HashMap<>());
+        Long last = partitions.get(partition);
+        if (last != null && offset <= last) {
+            return false;
+        }
+        partitions.put(partition, offset);
+        dirty = true;
+        return true;
+    }
+
+    private static boolean isBefore(LocalDateTime date, LocalDateTime other) {
+        return date != null && other != null && date.isBefore(other);
+    }
+
+    private static boolean inScope(String eventGreenhouseId, String eventZoneId, String greenhouseId, String zoneId) {
+        return (greenhouseId == null || greenhouseId.equals(eventGreenhouseId))
+                && (zoneId == null || zoneId.equals(eventZoneId));
+    }
+}
@@ -0,0 +1,25 @@
+package com.greenhouse.gateway.readmodel;
+
+import com.greenhouse.gateway.sse.dto.AlertView;
+import com.greenhouse.gateway.sse.dto.EquipmentStatusView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Views of the read model and the offsets they include: restoring it then consuming from the next offsets gives
+ * back the same views
+ *
+ * @param conditions latest condition of each parameter
+ * @param alerts     alert feed, newest first
+ * @param timelines  actions of each equipment, newest first
+ * @param offsets    last applied offset per topic and partition
+ */
+public record DashboardSnapshot(
+        LocalDateTime takenAt,
+        List<ConditionView> conditions,
+        List<AlertView> alerts,
+        Map<String, List<EquipmentStatusView>> timelines,
+        Map<String, Map<Integer, Long>> offsets) {
+}
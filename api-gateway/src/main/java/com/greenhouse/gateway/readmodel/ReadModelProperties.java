@@ -0,0 +1,42 @@
+package com.greenhouse.gateway.readmodel;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Dashboard read model kept by each gateway instance from the event topics
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.read-model")
+@Data
+public class ReadModelProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Snapshot of the views and of the offsets they include, written atomically
+     */
+    private Path snapshotFile = Path.of(System.getProperty("java.io.tmpdir"), "greenhouse-read-model",
+            "dashboard-snapshot.json");
+
+    private Duration snapshotInterval = Duration.ofSeconds(30);
+
+    /**
+     * Latest alerts kept in the alert feed
+     */
+    private int alertFeedSize = 500;
+
+    /**
+     * Latest actions kept per equipment
+     */
+    private int equipmentTimelineSize = 100;
+
+    /**
+     * Without a snapshot, rebuild the views from the start of the topics rather than from new events only
+     */
+    private boolean replayOnColdStart = true;
+}
@@ -0,0 +1,60 @@
+package com.greenhouse.gateway.readmodel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Reads and writes the read model snapshot file. A snapshot is written next to the file then moved over it, so a
+ * crash mid-write leaves the previous snapshot intact.
+ */
+@Component
+@Slf4j
+public class ReadModelSnapshotStore {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public ReadModelSnapshotStore(ObjectMapper objectMapper, ReadModelProperties properties) {
+        this.objectMapper = objectMapper;
+        this.file = properties.getSnapshotFile();
+    }
+
+    /**
+     * Latest snapshot, or empty when there is none or it can't be read (the views are then rebuilt from Kafka)
+     */
+    public Optional<DashboardSnapshot> load() {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), DashboardSnapshot.class));
+        } catch (IOException e) {
+            log.warn("Read model snapshot {} not readable, rebuilding from Kafka: {}", file, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    public void save(DashboardSnapshot snapshot) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writeValue(temp.toFile(), snapshot);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Read model snapshot " + file + " not written", e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.greenhouse.gateway.routing;
+
+import com.greenhouse.gateway.ratelimit.TrafficPriority;
+
+/**
+ * Route class and load-shedding priority of a request
+ */
+public record PathClassification(RouteClass routeClass, TrafficPriority priority) {
+}
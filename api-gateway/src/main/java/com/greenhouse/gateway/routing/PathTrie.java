@@ -0,0 +1,88 @@
+package com.greenhouse.gateway.routing;
+
+import java.util.Arrays;
+
+/**
+ * Character trie of path prefixes, built once and then only read.
+ *
+ * A prefix matches a path only on a segment boundary ({@code /eureka} matches {@code /eureka/apps}
+ * but not {@code /eurekax}); the longest matching prefix wins. Lookups walk the path in place and
+ * allocate nothing.
+ */
+public final class PathTrie<V> {
+
+    private final Node<V> root = new Node<>();
+
+    /**
+     * Value returned when no prefix matches
+     */
+    public void putDefault(V value) {
+        root.value = value;
+    }
+
+    public void put(String prefix, V value) {
+        Node<V> node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.childOrCreate(prefix.charAt(i));
+        }
+        node.value = value;
+    }
+
+    public V longestMatch(String path) {
+        Node<V> node = root;
+        V best = root.value;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (c == '?') {
+                break;
+            }
+            node = node.child(c);
+            if (node == null) {
+                break;
+            }
+            if (node.value != null && (i + 1 == length || isBoundary(path.charAt(i + 1)))) {
+                best = node.value;
+            }
+        }
+        return best;
+    }
+
+    private static boolean isBoundary(char c) {
+        return c == '/' || c == '?';
+    }
+
+    private static final class Node<V> {
+        private char[] keys = new char[0];
+        private Node<V>[] children = newArray(0);
+        private V value;
+
+        Node<V> child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node<V> childOrCreate(char c) {
+            Node<V> existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node<V> created = new Node<>();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            keys[keys.length - 1] = c;
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = created;
+            return created;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Node<V>[] newArray(int size) {
+            return (Node<V>[]) new Node[size];
+        }
+    }
+}
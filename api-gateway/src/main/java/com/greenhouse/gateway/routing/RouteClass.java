@@ -0,0 +1,32 @@
+package com.greenhouse.gateway.routing;
+
+/**
+ * Coarse class of a gateway request, resolved once per exchange by {@link RouteClassifier}
+ */
+public enum RouteClass {
+
+    /**
+     * Actuator, auth, Eureka and fallback endpoints: no authentication required
+     */
+    PUBLIC,
+
+    /**
+     * Measurement writes from sensors
+     */
+    INGEST,
+
+    /**
+     * Reads of configuration, measurements and history
+     */
+    QUERY,
+
+    /**
+     * Writes that change configuration or drive equipment
+     */
+    COMMAND,
+
+    /**
+     * Server-sent event streams: long-lived, not timed per request
+     */
+    STREAM
+}
@@ -0,0 +1,28 @@
+package com.greenhouse.gateway.routing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tags every exchange with its {@link PathClassification} before routing, so gateway filters
+ * and local endpoints share a single classification
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RouteClassificationWebFilter implements WebFilter {
+
+    private final RouteClassifier routeClassifier;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        routeClassifier.classify(exchange);
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,85 @@
+package com.greenhouse.gateway.routing;
+
+import com.greenhouse.gateway.ratelimit.TrafficPriority;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Classifies requests with a prefix trie compiled once at startup.
+ *
+ * {@link RouteClassificationWebFilter} tags every exchange first thing; filters then call
+ * {@link #classify(ServerWebExchange)}, which returns the tag instead of matching paths again.
+ */
+@Component
+public class RouteClassifier {
+
+    public static final String CLASSIFICATION_ATTR = RouteClassifier.class.getName() + ".classification";
+
+    private static final PathClassification PUBLIC = new PathClassification(RouteClass.PUBLIC, TrafficPriority.NORMAL);
+    private static final PathClassification STREAM = new PathClassification(RouteClass.STREAM, TrafficPriority.NORMAL);
+
+    private final PathTrie<Rule> rules = new PathTrie<>();
+
+    public RouteClassifier() {
+        rules.putDefault(new Rule(
+                new PathClassification(RouteClass.QUERY, TrafficPriority.NORMAL),
+                new PathClassification(RouteClass.COMMAND, TrafficPriority.NORMAL)));
+
+        Rule publicRule = new Rule(PUBLIC, PUBLIC);
+        rules.put("/actuator", publicRule);
+        rules.put("/api/auth", publicRule);
+        rules.put("/eureka", publicRule);
+        rules.put("/fallback", publicRule);
+        rules.put("/api/stream", new Rule(STREAM, STREAM));
+
+        // Measurement history is shed first; ingest and alerts never are
+        rules.put("/api/environnement/mesures", new Rule(
+                new PathClassification(RouteClass.QUERY, TrafficPriority.LOW),
+                new PathClassification(RouteClass.INGEST, TrafficPriority.CRITICAL)));
+        rules.put("/api/environnement/mesures/alerts", new Rule(
+                new PathClassification(RouteClass.QUERY, TrafficPriority.CRITICAL),
+                new PathClassification(RouteClass.INGEST, TrafficPriority.CRITICAL)));
+        rules.put("/api/controle/actions", new Rule(
+                new PathClassification(RouteClass.QUERY, TrafficPriority.NORMAL),
+                new PathClassification(RouteClass.COMMAND, TrafficPriority.CRITICAL)));
+    }
+
+    /**
+     * Classification of the exchange, computed on first access and cached as an attribute
+     */
+    public PathClassification classify(ServerWebExchange exchange) {
+        PathClassification classification = exchange.getAttribute(CLASSIFICATION_ATTR);
+        if (classification == null) {
+            classification = classify(exchange.getRequest());
+            exchange.getAttributes().put(CLASSIFICATION_ATTR, classification);
+        }
+        return classification;
+    }
+
+    /**
+     * Classify a request without touching exchange state
+     */
+    public PathClassification classify(ServerHttpRequest request) {
+        if (acceptsEventStream(request)) {
+            return STREAM;
+        }
+        Rule rule = rules.longestMatch(request.getPath().value());
+        return isRead(request.getMethod()) ? rule.read() : rule.write();
+    }
+
+    private static boolean isRead(HttpMethod method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method);
+    }
+
+    private static boolean acceptsEventStream(ServerHttpRequest request) {
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private record Rule(PathClassification read, PathClassification write) {
+    }
+}
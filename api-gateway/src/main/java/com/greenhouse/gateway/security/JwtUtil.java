@@ -1,6 +1,7 @@
 package com.greenhouse.gateway.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -11,28 +12,49 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
+/**
+ * JWT verification with a signing key and parser built once at startup.
+ * Verified tokens are cached by digest so repeated requests with the same token
+ * (e.g. dashboard polling) skip signature verification.
+ */
 @Component
 @Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret:MySecretKeyForJWTTokenGenerationAndValidation123456789}")
-    private String secret;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
 
-    @Value("${jwt.expiration:86400000}") // 24 hours
-    private long expiration;
+    public JwtUtil(
+            @Value("${jwt.secret:MySecretKeyForJWTTokenGenerationAndValidation123456789}") String secret,
+            @Value("${jwt.cache.enabled:true}") boolean cacheEnabled,
+            @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries,
+            @Value("${jwt.cache.max-ttl-ms:300000}") long cacheMaxTtlMs) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.tokenCache = cacheEnabled ? new VerifiedTokenCache(cacheMaxEntries, cacheMaxTtlMs) : null;
+    }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public SecretKey getSigningKey() {
+        return signingKey;
     }
 
     public Claims validateToken(String token) {
+        long now = System.currentTimeMillis();
+        if (tokenCache != null) {
+            Claims cached = tokenCache.get(token, now);
+            if (cached != null) {
+                return cached;
+            }
+        }
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (tokenCache != null) {
+                tokenCache.put(token, claims, now);
+            }
+            return claims;
         } catch (Exception e) {
             log.error("JWT validation failed: {}", e.getMessage());
             return null;
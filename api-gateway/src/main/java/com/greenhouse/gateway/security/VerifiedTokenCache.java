@@ -0,0 +1,105 @@
+package com.greenhouse.gateway.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of tokens whose signature has already been verified.
+ *
+ * Entries are keyed by the SHA-256 digest of the token, so raw tokens are never kept in memory
+ * and a collision cannot hand out another user's claims. An entry lives until the token's own
+ * expiry or the configured maximum TTL, whichever comes first, and expired entries are swept
+ * when the cache grows past its bound.
+ */
+public class VerifiedTokenCache {
+
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final ConcurrentHashMap<TokenDigest, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+    private final int maxEntries;
+    private final long maxTtlMillis;
+
+    public VerifiedTokenCache(int maxEntries, long maxTtlMillis) {
+        this.maxEntries = maxEntries;
+        this.maxTtlMillis = maxTtlMillis;
+    }
+
+    /**
+     * Claims of a previously verified, still valid token, or null
+     */
+    public Claims get(String token, long nowMillis) {
+        TokenDigest key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= nowMillis) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    /**
+     * Remember verified claims until the token expires (bounded by the maximum TTL)
+     */
+    public void put(String token, Claims claims, long nowMillis) {
+        Date expiration = claims.getExpiration();
+        long expiresAt = nowMillis + maxTtlMillis;
+        if (expiration != null) {
+            expiresAt = Math.min(expiresAt, expiration.getTime());
+        }
+        if (expiresAt <= nowMillis) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !sweep(nowMillis)) {
+            return;
+        }
+        entries.put(digest(token), new Entry(claims, expiresAt));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // Drop expired entries; returns true when there is room again
+    private boolean sweep(long nowMillis) {
+        long last = lastSweep.get();
+        if (nowMillis - last >= SWEEP_INTERVAL_MILLIS && lastSweep.compareAndSet(last, nowMillis)) {
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= nowMillis);
+        }
+        return entries.size() < maxEntries;
+    }
+
+    private static TokenDigest digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        ByteBuffer hash = ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    private record TokenDigest(long h0, long h1, long h2, long h3) {
+    }
+
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+}
@@ -1,5 +1,10 @@
 package com.greenhouse.gateway.sse.config;
 
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.EquipmentActionEvent;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.codec.EventDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,9 +12,11 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.ContainerPostProcessor;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,28 +31,63 @@ public class KafkaSSEConfig {
     @Value("${spring.kafka.consumer.group-id:api-gateway-sse}")
     private String groupId;
 
-    @Bean
-    public ConsumerFactory<String, Map<String, Object>> consumerFactory() {
+    private Map<String, Object> consumerConfigs() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "java.util.HashMap");
-        
-        return new DefaultKafkaConsumerFactory<>(props);
+        return props;
     }
 
-    @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Map<String, Object>> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, Map<String, Object>> factory =
-                new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+    /**
+     * Listener factory decoding records straight into the given canonical event type.
+     * The payload codec (JSON or CBOR) is picked per record from its content-type header.
+     */
+    private <T> ConcurrentKafkaListenerContainerFactory<String, T> listenerFactory(Class<T> eventType) {
+        ConsumerFactory<String, T> consumerFactory = new DefaultKafkaConsumerFactory<>(
+                consumerConfigs(), new StringDeserializer(), new EventDeserializer<>(eventType));
+        ConcurrentKafkaListenerContainerFactory<String, T> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
         factory.setConcurrency(3);
         return factory;
     }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, MeasurementEvent> measurementListenerContainerFactory() {
+        return listenerFactory(MeasurementEvent.class);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AlertEvent> alertListenerContainerFactory() {
+        return listenerFactory(AlertEvent.class);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EquipmentActionEvent> equipmentActionListenerContainerFactory() {
+        return listenerFactory(EquipmentActionEvent.class);
+    }
+
+    /**
+     * Config changes feed the response cache rather than SSE clients, but share the same decoding
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ConfigChangeEvent> configChangeListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ConfigChangeEvent> factory = listenerFactory(ConfigChangeEvent.class);
+        factory.setConcurrency(1);
+        return factory;
+    }
+
+    /**
+     * For listeners positioning their partitions from their own state rather than from committed offsets: commit
+     * nothing, so the per-instance groups they join leave no offsets behind and are dropped once empty
+     */
+    @Bean
+    public ContainerPostProcessor<Object, Object, AbstractMessageListenerContainer<Object, Object>> uncommittedContainerPostProcessor() {
+        return container -> {
+            container.getContainerProperties().getKafkaConsumerProperties()
+                    .setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+            container.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        };
+    }
 }
@@ -29,17 +29,19 @@ public class SSEController {
      * 
      * @param parameterType Optional filter by parameter type (temperature, humidity, light, etc.)
      * @param greenhouseId Optional filter by greenhouse ID
+     * @param zoneId Optional filter by zone ID
      * @return Flux of SSE events
      */
     @GetMapping(value = "/measurements", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<String>> streamMeasurements(
             @RequestParam(required = false) String parameterType,
-            @RequestParam(required = false) String greenhouseId) {
+            @RequestParam(required = false) String greenhouseId,
+            @RequestParam(required = false) String zoneId) {
         
-        log.info("New SSE connection for measurements - parameterType: {}, greenhouseId: {}", 
-                parameterType, greenhouseId);
+        log.info("New SSE connection for measurements - parameterType: {}, greenhouseId: {}, zoneId: {}", 
+                parameterType, greenhouseId, zoneId);
         
-        return sseService.getMeasurementStream(parameterType, greenhouseId)
+        return sseService.getMeasurementStream(parameterType, greenhouseId, zoneId)
                 .map(this::toServerSentEvent)
                 .onErrorResume(e -> {
                     log.error("Error in measurement stream: {}", e.getMessage());
@@ -52,17 +54,19 @@ public class SSEController {
      * 
      * @param severity Optional filter by severity (INFO, WARNING, CRITICAL)
      * @param greenhouseId Optional filter by greenhouse ID
+     * @param zoneId Optional filter by zone ID
      * @return Flux of SSE events
      */
     @GetMapping(value = "/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<String>> streamAlerts(
             @RequestParam(required = false) String severity,
-            @RequestParam(required = false) String greenhouseId) {
+            @RequestParam(required = false) String greenhouseId,
+            @RequestParam(required = false) String zoneId) {
         
-        log.info("New SSE connection for alerts - severity: {}, greenhouseId: {}", 
-                severity, greenhouseId);
+        log.info("New SSE connection for alerts - severity: {}, greenhouseId: {}, zoneId: {}", 
+                severity, greenhouseId, zoneId);
         
-        return sseService.getAlertStream(severity, greenhouseId)
+        return sseService.getAlertStream(severity, greenhouseId, zoneId)
                 .map(this::toServerSentEvent)
                 .onErrorResume(e -> {
                     log.error("Error in alert stream: {}", e.getMessage());
@@ -75,17 +79,19 @@ public class SSEController {
      * 
      * @param equipmentType Optional filter by equipment type (VENTILATOR, HEATER, etc.)
      * @param greenhouseId Optional filter by greenhouse ID
+     * @param zoneId Optional filter by zone ID
      * @return Flux of SSE events
      */
     @GetMapping(value = "/equipment-status", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<String>> streamEquipmentStatus(
             @RequestParam(required = false) String equipmentType,
-            @RequestParam(required = false) String greenhouseId) {
+            @RequestParam(required = false) String greenhouseId,
+            @RequestParam(required = false) String zoneId) {
         
-        log.info("New SSE connection for equipment status - equipmentType: {}, greenhouseId: {}", 
-                equipmentType, greenhouseId);
+        log.info("New SSE connection for equipment status - equipmentType: {}, greenhouseId: {}, zoneId: {}", 
+                equipmentType, greenhouseId, zoneId);
         
-        return sseService.getEquipmentStatusStream(equipmentType, greenhouseId)
+        return sseService.getEquipmentStatusStream(equipmentType, greenhouseId, zoneId)
                 .map(this::toServerSentEvent)
                 .onErrorResume(e -> {
                     log.error("Error in equipment status stream: {}", e.getMessage());
@@ -97,15 +103,17 @@ public class SSEController {
      * Stream all events (measurements, alerts, equipment status) via SSE
      * 
      * @param greenhouseId Optional filter by greenhouse ID
+     * @param zoneId Optional filter by zone ID
      * @return Flux of SSE events
      */
     @GetMapping(value = "/all", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<String>> streamAll(
-            @RequestParam(required = false) String greenhouseId) {
+            @RequestParam(required = false) String greenhouseId,
+            @RequestParam(required = false) String zoneId) {
         
-        log.info("New SSE connection for all events - greenhouseId: {}", greenhouseId);
+        log.info("New SSE connection for all events - greenhouseId: {}, zoneId: {}", greenhouseId, zoneId);
         
-        return sseService.getCombinedStream(greenhouseId)
+        return sseService.getCombinedStream(greenhouseId, zoneId)
                 .map(this::toServerSentEvent)
                 .onErrorResume(e -> {
                     log.error("Error in combined stream: {}", e.getMessage());
@@ -0,0 +1,59 @@
+package com.greenhouse.gateway.sse.dto;
+
+import com.greenhouse.events.AlertEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alert as pushed to SSE clients
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertView {
+    private String id;
+    private String type;
+    private String severity;
+    private String message;
+    private String source;
+    private String sourceId;
+    private String parameterType;
+    private Double currentValue;
+    private Double thresholdValue;
+    private String greenhouseId;
+    private String greenhouseName;
+    private String zoneId;
+    private LocalDateTime timestamp;
+    private Boolean acknowledged;
+    private String incidentId;
+    private String incidentState;
+    private Double peakValue;
+    private Long breachCount;
+
+    public static AlertView from(AlertEvent event) {
+        return AlertView.builder()
+                .id(event.eventId())
+                .type("THRESHOLD")
+                .severity(event.severity() != null ? event.severity() : "WARNING")
+                .message(event.message())
+                .source("environnement-service")
+                .sourceId(event.mesureId() != null ? event.mesureId().toString() : null)
+                .parameterType(event.parametreType())
+                .currentValue(event.valeur())
+                .thresholdValue(event.violatedThreshold())
+                .greenhouseId(event.greenhouseId())
+                .zoneId(event.zoneId())
+                .timestamp(event.eventTimestamp())
+                .acknowledged(false)
+                .incidentId(event.incidentId())
+                .incidentState(event.incidentState())
+                .peakValue(event.peakValeur())
+                .breachCount(event.breachCount())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.greenhouse.gateway.sse.dto;
+
+import com.greenhouse.events.EquipmentActionEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Equipment action as pushed to SSE clients
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquipmentStatusView {
+    private String id;
+    private String equipmentId;
+    private String equipmentName;
+    private String equipmentType;
+    private String status;
+    private String previousStatus;
+    private String greenhouseId;
+    private String greenhouseName;
+    private String zoneId;
+    private String zoneName;
+    private LocalDateTime timestamp;
+    private String triggeredBy;
+
+    public static EquipmentStatusView from(EquipmentActionEvent event) {
+        return EquipmentStatusView.builder()
+                .id(event.eventId())
+                .equipmentId(event.equipementId() != null ? event.equipementId().toString() : null)
+                .equipmentName(event.equipementName())
+                .equipmentType(event.equipementType())
+                .status(event.statut())
+                .greenhouseId(event.greenhouseId())
+                .zoneId(event.zoneId())
+                .timestamp(event.dateExecution() != null ? event.dateExecution() : event.eventTimestamp())
+                .triggeredBy(Boolean.TRUE.equals(event.isAutomatic()) ? "AUTOMATIC" : "MANUAL")
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.greenhouse.gateway.sse.dto;
+
+import com.greenhouse.events.MeasurementEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Measurement as pushed to SSE clients
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MeasurementView {
+    private String id;
+    private String capteurId;
+    private String capteurName;
+    private String parameterType;
+    private Double value;
+    private String unit;
+    private LocalDateTime timestamp;
+    private String greenhouseId;
+    private String greenhouseName;
+    private String zoneId;
+    private String zoneName;
+
+    public static MeasurementView from(MeasurementEvent event) {
+        return MeasurementView.builder()
+                .id(event.eventId())
+                .capteurId(event.parametreId() != null ? event.parametreId().toString() : null)
+                .capteurName(event.parametreName())
+                .parameterType(event.parametreType())
+                .value(event.valeur())
+                .unit(event.unite())
+                .timestamp(event.dateMesure() != null ? event.dateMesure() : event.eventTimestamp())
+                .greenhouseId(event.greenhouseId())
+                .zoneId(event.zoneId())
+                .build();
+    }
+}
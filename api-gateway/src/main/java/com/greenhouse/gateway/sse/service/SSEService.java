@@ -1,10 +1,12 @@
 package com.greenhouse.gateway.sse.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.greenhouse.gateway.sse.dto.AlertEvent;
-import com.greenhouse.gateway.sse.dto.EquipmentStatusEvent;
-import com.greenhouse.gateway.sse.dto.MeasurementEvent;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.EquipmentActionEvent;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.gateway.sse.dto.AlertView;
+import com.greenhouse.gateway.sse.dto.EquipmentStatusView;
+import com.greenhouse.gateway.sse.dto.MeasurementView;
 import com.greenhouse.gateway.sse.dto.SSEMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,9 +17,6 @@ import reactor.core.publisher.Sinks;
 
 import jakarta.annotation.PostConstruct;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
@@ -37,9 +36,9 @@ public class SSEService {
     private final AtomicInteger equipmentClientCount = new AtomicInteger(0);
     
     // Sinks for broadcasting events to multiple subscribers
-    private final Sinks.Many<SSEMessage<MeasurementEvent>> measurementSink;
-    private final Sinks.Many<SSEMessage<AlertEvent>> alertSink;
-    private final Sinks.Many<SSEMessage<EquipmentStatusEvent>> equipmentStatusSink;
+    private final Sinks.Many<SSEMessage<MeasurementView>> measurementSink;
+    private final Sinks.Many<SSEMessage<AlertView>> alertSink;
+    private final Sinks.Many<SSEMessage<EquipmentStatusView>> equipmentStatusSink;
     
     public SSEService(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
@@ -57,13 +56,13 @@ public class SSEService {
     /**
      * Get measurement events stream with optional filtering
      */
-    public Flux<SSEMessage<?>> getMeasurementStream(String parameterType, String greenhouseId) {
+    public Flux<SSEMessage<?>> getMeasurementStream(String parameterType, String greenhouseId, String zoneId) {
         if (measurementClientCount.get() >= maxClients) {
             return Flux.error(new RuntimeException("Max clients reached for measurement stream"));
         }
         
         Flux<SSEMessage<?>> dataFlux = measurementSink.asFlux()
-                .filter(event -> filterMeasurement(event.getData(), parameterType, greenhouseId))
+                .filter(event -> filterMeasurement(event.getData(), parameterType, greenhouseId, zoneId))
                 .map(event -> (SSEMessage<?>) event);
         
         Flux<SSEMessage<?>> keepAliveFlux = Flux.interval(Duration.ofMillis(keepAliveInterval))
@@ -84,13 +83,13 @@ public class SSEService {
     /**
      * Get alerts events stream with optional filtering
      */
-    public Flux<SSEMessage<?>> getAlertStream(String severity, String greenhouseId) {
+    public Flux<SSEMessage<?>> getAlertStream(String severity, String greenhouseId, String zoneId) {
         if (alertClientCount.get() >= maxClients) {
             return Flux.error(new RuntimeException("Max clients reached for alert stream"));
         }
         
         Flux<SSEMessage<?>> dataFlux = alertSink.asFlux()
-                .filter(event -> filterAlert(event.getData(), severity, greenhouseId))
+                .filter(event -> filterAlert(event.getData(), severity, greenhouseId, zoneId))
                 .map(event -> (SSEMessage<?>) event);
         
         Flux<SSEMessage<?>> keepAliveFlux = Flux.interval(Duration.ofMillis(keepAliveInterval))
@@ -111,13 +110,13 @@ public class SSEService {
     /**
      * Get equipment status events stream with optional filtering
      */
-    public Flux<SSEMessage<?>> getEquipmentStatusStream(String equipmentType, String greenhouseId) {
+    public Flux<SSEMessage<?>> getEquipmentStatusStream(String equipmentType, String greenhouseId, String zoneId) {
         if (equipmentClientCount.get() >= maxClients) {
             return Flux.error(new RuntimeException("Max clients reached for equipment status stream"));
         }
         
         Flux<SSEMessage<?>> dataFlux = equipmentStatusSink.asFlux()
-                .filter(event -> filterEquipmentStatus(event.getData(), equipmentType, greenhouseId))
+                .filter(event -> filterEquipmentStatus(event.getData(), equipmentType, greenhouseId, zoneId))
                 .map(event -> (SSEMessage<?>) event);
         
         Flux<SSEMessage<?>> keepAliveFlux = Flux.interval(Duration.ofMillis(keepAliveInterval))
@@ -138,17 +137,20 @@ public class SSEService {
     /**
      * Get combined stream for all events
      */
-    public Flux<SSEMessage<?>> getCombinedStream(String greenhouseId) {
+    public Flux<SSEMessage<?>> getCombinedStream(String greenhouseId, String zoneId) {
         Flux<SSEMessage<?>> measurements = measurementSink.asFlux()
-                .filter(event -> greenhouseId == null || greenhouseId.equals(event.getData().getGreenhouseId()))
+                .filter(event -> inScope(event.getData().getGreenhouseId(), event.getData().getZoneId(),
+                        greenhouseId, zoneId))
                 .map(event -> (SSEMessage<?>) event);
         
         Flux<SSEMessage<?>> alerts = alertSink.asFlux()
-                .filter(event -> greenhouseId == null || greenhouseId.equals(event.getData().getGreenhouseId()))
+                .filter(event -> inScope(event.getData().getGreenhouseId(), event.getData().getZoneId(),
+                        greenhouseId, zoneId))
                 .map(event -> (SSEMessage<?>) event);
         
         Flux<SSEMessage<?>> equipment = equipmentStatusSink.asFlux()
-                .filter(event -> greenhouseId == null || greenhouseId.equals(event.getData().getGreenhouseId()))
+                .filter(event -> inScope(event.getData().getGreenhouseId(), event.getData().getZoneId(),
+                        greenhouseId, zoneId))
                 .map(event -> (SSEMessage<?>) event);
         
         Flux<SSEMessage<?>> keepAliveFlux = Flux.interval(Duration.ofMillis(keepAliveInterval))
@@ -159,28 +161,16 @@ public class SSEService {
                 .doOnCancel(() -> log.info("Client unsubscribed from combined stream"));
     }
     
-    // Kafka Listeners
+    // Kafka Listeners: records arrive already decoded into the canonical greenhouse-events types
     
-    @KafkaListener(topics = "measurement-events", groupId = "api-gateway-sse-measurements")
-    public void handleMeasurementEvent(Map<String, Object> eventData) {
+    @KafkaListener(topics = "${kafka.topic.measurement-stream:measurement-stream}",
+            groupId = "api-gateway-sse-measurements",
+            containerFactory = "measurementListenerContainerFactory")
+    public void handleMeasurementEvent(MeasurementEvent event) {
         try {
-            log.debug("Received measurement event from Kafka: {}", eventData);
+            log.debug("Received measurement event from Kafka: {}", event);
             
-            MeasurementEvent event = MeasurementEvent.builder()
-                    .id(getStringValue(eventData, "id", UUID.randomUUID().toString()))
-                    .capteurId(getStringValue(eventData, "capteurId", null))
-                    .capteurName(getStringValue(eventData, "capteurName", null))
-                    .parameterType(getStringValue(eventData, "parameterType", null))
-                    .value(getDoubleValue(eventData, "value"))
-                    .unit(getStringValue(eventData, "unit", null))
-                    .timestamp(LocalDateTime.now())
-                    .greenhouseId(getStringValue(eventData, "greenhouseId", null))
-                    .greenhouseName(getStringValue(eventData, "greenhouseName", null))
-                    .zoneId(getStringValue(eventData, "zoneId", null))
-                    .zoneName(getStringValue(eventData, "zoneName", null))
-                    .build();
-            
-            SSEMessage<MeasurementEvent> message = SSEMessage.of("measurement", event);
+            SSEMessage<MeasurementView> message = SSEMessage.of("measurement", MeasurementView.from(event));
             measurementSink.tryEmitNext(message);
             
             log.debug("Broadcasted measurement event: {}", message.getEventId());
@@ -189,57 +179,30 @@ public class SSEService {
         }
     }
     
-    @KafkaListener(topics = "alert-events", groupId = "api-gateway-sse-alerts")
-    public void handleAlertEvent(Map<String, Object> eventData) {
+    @KafkaListener(topics = "${kafka.topic.greenhouse-alerts:greenhouse-alerts}",
+            groupId = "api-gateway-sse-alerts",
+            containerFactory = "alertListenerContainerFactory")
+    public void handleAlertEvent(AlertEvent event) {
         try {
-            log.debug("Received alert event from Kafka: {}", eventData);
-            
-            AlertEvent event = AlertEvent.builder()
-                    .id(getStringValue(eventData, "id", UUID.randomUUID().toString()))
-                    .type(getStringValue(eventData, "type", null))
-                    .severity(getStringValue(eventData, "severity", "WARNING"))
-                    .message(getStringValue(eventData, "message", null))
-                    .source(getStringValue(eventData, "source", null))
-                    .sourceId(getStringValue(eventData, "sourceId", null))
-                    .parameterType(getStringValue(eventData, "parameterType", null))
-                    .currentValue(getDoubleValue(eventData, "currentValue"))
-                    .thresholdValue(getDoubleValue(eventData, "thresholdValue"))
-                    .greenhouseId(getStringValue(eventData, "greenhouseId", null))
-                    .greenhouseName(getStringValue(eventData, "greenhouseName", null))
-                    .timestamp(LocalDateTime.now())
-                    .acknowledged(getBooleanValue(eventData, "acknowledged", false))
-                    .build();
+            log.debug("Received alert event from Kafka: {}", event);
             
-            SSEMessage<AlertEvent> message = SSEMessage.of("alert", event);
+            SSEMessage<AlertView> message = SSEMessage.of("alert", AlertView.from(event));
             alertSink.tryEmitNext(message);
             
-            log.info("Broadcasted alert event: {} - {}", event.getSeverity(), event.getMessage());
+            log.info("Broadcasted alert event: {} - {}", event.severity(), event.message());
         } catch (Exception e) {
             log.error("Error processing alert event: {}", e.getMessage(), e);
         }
     }
     
-    @KafkaListener(topics = "equipment-status-events", groupId = "api-gateway-sse-equipment")
-    public void handleEquipmentStatusEvent(Map<String, Object> eventData) {
+    @KafkaListener(topics = "${kafka.topic.equipment-actions:equipment-actions}",
+            groupId = "api-gateway-sse-equipment",
+            containerFactory = "equipmentActionListenerContainerFactory")
+    public void handleEquipmentStatusEvent(EquipmentActionEvent event) {
         try {
-            log.debug("Received equipment status event from Kafka: {}", eventData);
+            log.debug("Received equipment action event from Kafka: {}", event);
             
-            EquipmentStatusEvent event = EquipmentStatusEvent.builder()
-                    .id(getStringValue(eventData, "id", UUID.randomUUID().toString()))
-                    .equipmentId(getStringValue(eventData, "equipmentId", null))
-                    .equipmentName(getStringValue(eventData, "equipmentName", null))
-                    .equipmentType(getStringValue(eventData, "equipmentType", null))
-                    .status(getStringValue(eventData, "status", null))
-                    .previousStatus(getStringValue(eventData, "previousStatus", null))
-                    .greenhouseId(getStringValue(eventData, "greenhouseId", null))
-                    .greenhouseName(getStringValue(eventData, "greenhouseName", null))
-                    .zoneId(getStringValue(eventData, "zoneId", null))
-                    .zoneName(getStringValue(eventData, "zoneName", null))
-                    .timestamp(LocalDateTime.now())
-                    .triggeredBy(getStringValue(eventData, "triggeredBy", null))
-                    .build();
-            
-            SSEMessage<EquipmentStatusEvent> message = SSEMessage.of("equipment-status", event);
+            SSEMessage<EquipmentStatusView> message = SSEMessage.of("equipment-status", EquipmentStatusView.from(event));
             equipmentStatusSink.tryEmitNext(message);
             
             log.debug("Broadcasted equipment status event: {}", message.getEventId());
@@ -250,50 +213,29 @@ public class SSEService {
     
     // Helper methods for filtering
     
-    private boolean filterMeasurement(MeasurementEvent event, String parameterType, String greenhouseId) {
+    private boolean filterMeasurement(MeasurementView event, String parameterType, String greenhouseId, String zoneId) {
         if (event == null) return false;
         if (parameterType != null && !parameterType.equalsIgnoreCase(event.getParameterType())) return false;
-        if (greenhouseId != null && !greenhouseId.equals(event.getGreenhouseId())) return false;
-        return true;
+        return inScope(event.getGreenhouseId(), event.getZoneId(), greenhouseId, zoneId);
     }
     
-    private boolean filterAlert(AlertEvent event, String severity, String greenhouseId) {
+    private boolean filterAlert(AlertView event, String severity, String greenhouseId, String zoneId) {
         if (event == null) return false;
         if (severity != null && !severity.equalsIgnoreCase(event.getSeverity())) return false;
-        if (greenhouseId != null && !greenhouseId.equals(event.getGreenhouseId())) return false;
-        return true;
+        return inScope(event.getGreenhouseId(), event.getZoneId(), greenhouseId, zoneId);
     }
     
-    private boolean filterEquipmentStatus(EquipmentStatusEvent event, String equipmentType, String greenhouseId) {
+    private boolean filterEquipmentStatus(EquipmentStatusView event, String equipmentType,
+                                          String greenhouseId, String zoneId) {
         if (event == null) return false;
         if (equipmentType != null && !equipmentType.equalsIgnoreCase(event.getEquipmentType())) return false;
-        if (greenhouseId != null && !greenhouseId.equals(event.getGreenhouseId())) return false;
-        return true;
-    }
-    
-    // Helper methods for safe value extraction from Map
-    
-    private String getStringValue(Map<String, Object> map, String key, String defaultValue) {
-        Object value = map.get(key);
-        return value != null ? value.toString() : defaultValue;
+        return inScope(event.getGreenhouseId(), event.getZoneId(), greenhouseId, zoneId);
     }
     
-    private Double getDoubleValue(Map<String, Object> map, String key) {
-        Object value = map.get(key);
-        if (value == null) return null;
-        if (value instanceof Number) return ((Number) value).doubleValue();
-        try {
-            return Double.parseDouble(value.toString());
-        } catch (NumberFormatException e) {
-            return null;
-        }
-    }
-    
-    private Boolean getBooleanValue(Map<String, Object> map, String key, Boolean defaultValue) {
-        Object value = map.get(key);
-        if (value == null) return defaultValue;
-        if (value instanceof Boolean) return (Boolean) value;
-        return Boolean.parseBoolean(value.toString());
+    private boolean inScope(String eventGreenhouseId, String eventZoneId, String greenhouseId, String zoneId) {
+        if (greenhouseId != null && !greenhouseId.equals(eventGreenhouseId)) return false;
+        if (zoneId != null && !zoneId.equals(eventZoneId)) return false;
+        return true;
     }
     
     // Statistics methods
@@ -0,0 +1,75 @@
+package com.greenhouse.gateway.benchmark;
+
+import com.greenhouse.gateway.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of verifying a Bearer token on the authentication path, with the verified-token cache
+ * on and off. Mirrors a dashboard polling with the same few tokens.
+ * Run with: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.greenhouse.gateway.benchmark.JwtVerifyBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "MySecretKeyForJWTTokenGenerationAndValidation123456789";
+    private static final int DISTINCT_TOKENS = 64;
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private JwtUtil jwtUtil;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, cacheEnabled, 10_000, TimeUnit.MINUTES.toMillis(5));
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            tokens[i] = Jwts.builder()
+                    .setSubject("operator-" + i)
+                    .claim("roles", "OPERATOR")
+                    .setIssuedAt(new Date())
+                    .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                    .signWith(jwtUtil.getSigningKey())
+                    .compact();
+        }
+    }
+
+    @Benchmark
+    public Claims verify() {
+        String token = tokens[next];
+        next = (next + 1) % DISTINCT_TOKENS;
+        return jwtUtil.validateToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerifyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package com.greenhouse.gateway.unit.accesslog;
+
+import com.greenhouse.gateway.accesslog.AccessLogProperties;
+import com.greenhouse.gateway.accesslog.RequestIdGenerator;
+import com.greenhouse.gateway.accesslog.RequestIdHeadersFilter;
+import com.greenhouse.gateway.filter.LoggingFilter;
+import com.greenhouse.gateway.routing.RouteClassifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Access Log Unit Tests")
+class AccessLogTest {
+
+    private static RequestIdGenerator generator(int nodeId) {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setNodeId(nodeId);
+        return new RequestIdGenerator(properties);
+    }
+
+    @Nested
+    @DisplayName("RequestIdGenerator")
+    class Generator {
+
+        @Test
+        @DisplayName("should generate strictly increasing IDs even within one millisecond")
+        void shouldBeMonotonic() {
+            RequestIdGenerator generator = generator(7);
+            long previous = generator.nextId();
+            for (int i = 0; i < 100_000; i++) {
+                long next = generator.nextId();
+                assertThat(next).isGreaterThan(previous);
+                previous = next;
+            }
+        }
+
+        @Test
+        @DisplayName("should embed the node id so replicas never collide")
+        void shouldEmbedNodeId() {
+            long id = generator(513).nextId();
+
+            assertThat((id >>> 12) & 0x3FF).isEqualTo(513);
+            assertThat(generator(1).nextId()).isNotEqualTo(generator(2).nextId());
+        }
+
+        @Test
+        @DisplayName("should be unique across threads")
+        void shouldBeUniqueAcrossThreads() throws InterruptedException {
+            RequestIdGenerator generator = generator(3);
+            Set<Long> ids = ConcurrentHashMap.newKeySet();
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertThat(ids).hasSize(40_000);
+        }
+    }
+
+    @Nested
+    @DisplayName("LoggingFilter")
+    class Filter {
+
+        private final LoggingFilter filter = new LoggingFilter(generator(1), new AccessLogProperties(), new RouteClassifier());
+
+        @Test
+        @DisplayName("should expose the request ID as attribute and response header without mutating the request")
+        void shouldTagExchange() {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/environnement/parametres"));
+            Set<Object> seenRequests = new HashSet<>();
+
+            filter.filter(exchange, ex -> {
+                seenRequests.add(ex.getRequest());
+                return Mono.empty();
+            }).block();
+
+            String requestId = exchange.getAttribute(LoggingFilter.REQUEST_ID_ATTR);
+            assertThat(requestId).isNotBlank();
+            assertThat(exchange.getResponse().getHeaders().getFirst(LoggingFilter.REQUEST_ID_HEADER)).isEqualTo(requestId);
+            assertThat(seenRequests).containsExactly(exchange.getRequest());
+        }
+
+        @Test
+        @DisplayName("should pass event streams through with an ID")
+        void shouldPassEventStreams() {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/stream/measurements")
+                    .accept(MediaType.TEXT_EVENT_STREAM));
+
+            filter.filter(exchange, ex -> Mono.empty()).block();
+
+            assertThat((String) exchange.getAttribute(LoggingFilter.REQUEST_ID_ATTR)).isNotBlank();
+        }
+    }
+
+    @Nested
+    @DisplayName("RequestIdHeadersFilter")
+    class HeadersFilter {
+
+        @Test
+        @DisplayName("should add the request ID to proxied request headers")
+        void shouldAddRequestIdDownstream() {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/controle/equipements"));
+            exchange.getAttributes().put(LoggingFilter.REQUEST_ID_ATTR, "abc123");
+            HttpHeaders input = new HttpHeaders();
+            input.add(HttpHeaders.ACCEPT, "application/json");
+
+            HttpHeaders output = new RequestIdHeadersFilter().filter(input, exchange);
+
+            assertThat(output.getFirst(LoggingFilter.REQUEST_ID_HEADER)).isEqualTo("abc123");
+            assertThat(output.getFirst(HttpHeaders.ACCEPT)).isEqualTo("application/json");
+        }
+
+        @Test
+        @DisplayName("should leave read-only incoming headers untouched")
+        void shouldCopyReadOnlyHeaders() {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/controle/equipements")
+                    .header(HttpHeaders.ACCEPT, "application/json"));
+            exchange.getAttributes().put(LoggingFilter.REQUEST_ID_ATTR, "abc123");
+            HttpHeaders input = exchange.getRequest().getHeaders();
+
+            HttpHeaders output = new RequestIdHeadersFilter().filter(input, exchange);
+
+            assertThat(output.getFirst(LoggingFilter.REQUEST_ID_HEADER)).isEqualTo("abc123");
+            assertThat(input.containsKey(LoggingFilter.REQUEST_ID_HEADER)).isFalse();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.greenhouse.gateway.unit.cache;
+
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.gateway.cache.ConfigChangeListener;
+import com.greenhouse.gateway.cache.ResponseCache;
+import com.greenhouse.gateway.cache.ResponseCacheProperties;
+import com.greenhouse.gateway.filter.ResponseCacheFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Response Cache Unit Tests")
+class ResponseCacheTest {
+
+    private static final String PARAMETRES = "/api/environnement/parametres";
+
+    private ResponseCacheProperties properties;
+    private ResponseCache responseCache;
+    private ResponseCacheFilter filter;
+    private AtomicInteger downstreamCalls;
+    private HttpStatus downstreamStatus;
+    private String downstreamBody;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ResponseCacheProperties();
+        properties.setRoutes(List.of(
+                new ResponseCacheProperties.Route(PARAMETRES, Duration.ofMinutes(1), Set.of(ConfigChangeEvent.PARAMETRE)),
+                new ResponseCacheProperties.Route("/api/controle/equipements", Duration.ZERO,
+                        Set.of(ConfigChangeEvent.EQUIPEMENT))));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        responseCache = new ResponseCache(properties, meterRegistry);
+        filter = new ResponseCacheFilter(properties, responseCache, meterRegistry);
+        downstreamCalls = new AtomicInteger();
+        downstreamStatus = HttpStatus.OK;
+        downstreamBody = "[{\"id\":1,\"type\":\"TEMPERATURE\"}]";
+    }
+
+    private GatewayFilterChain downstream() {
+        return exchange -> {
+            downstreamCalls.incrementAndGet();
+            return write(exchange.getResponse(), downstreamStatus, downstreamBody);
+        };
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, HttpStatus status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(bytes.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(bytes)));
+    }
+
+    private MockServerWebExchange get(String path, String... ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (ifNoneMatch.length > 0) {
+            request.ifNoneMatch(ifNoneMatch);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    private MockServerWebExchange run(String path, String... ifNoneMatch) {
+        MockServerWebExchange exchange = get(path, ifNoneMatch);
+        filter.filter(exchange, downstream()).block();
+        return exchange;
+    }
+
+    @Nested
+    @DisplayName("Caching and validators")
+    class Caching {
+
+        @Test
+        @DisplayName("should serve the second request from the cache with the same ETag")
+        void shouldServeHits() {
+            MockServerWebExchange miss = run(PARAMETRES);
+            MockServerWebExchange hit = run(PARAMETRES);
+
+            assertThat(downstreamCalls).hasValue(1);
+            assertThat(miss.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("MISS");
+            assertThat(hit.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER)).isEqualTo("HIT");
+            assertThat(hit.getResponse().getHeaders().getETag())
+                    .isNotNull()
+                    .isEqualTo(miss.getResponse().getHeaders().getETag());
+            assertThat(hit.getResponse().getBodyAsString().block()).isEqualTo(downstreamBody);
+            assertThat(hit.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        }
+
+        @Test
+        @DisplayName("should answer a matching If-None-Match with 304 and no body")
+        void shouldReturnNotModified() {
+            String etag = run(PARAMETRES).getResponse().getHeaders().getETag();
+
+            MockServerWebExchange revalidation = run(PARAMETRES, etag);
+
+            assertThat(revalidation.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(revalidation.getResponse().getBodyAsString().block()).isEmpty();
+            assertThat(run(PARAMETRES, "W/" + etag).getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(run(PARAMETRES, "\"stale\"").getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+
+        @Test
+        @DisplayName("should key entries by path and query string")
+        void shouldKeyByQuery() {
+            run(PARAMETRES + "?page=0");
+            run(PARAMETRES + "?page=1");
+            run(PARAMETRES + "/1");
+
+            assertThat(downstreamCalls).hasValue(3);
+            assertThat(responseCache.regionFor(PARAMETRES).size()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should pass through routes, methods and statuses that are not cached")
+        void shouldPassThrough() {
+            run("/api/environnement/mesures");
+            run("/api/environnement/mesures");
+            filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post(PARAMETRES)), downstream()).block();
+            downstreamStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+            run(PARAMETRES);
+            run(PARAMETRES);
+
+            assertThat(downstreamCalls).hasValue(5);
+            assertThat(responseCache.regionFor(PARAMETRES).size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should stream bodies without a Content-Length through uncached")
+        void shouldNotBufferUnknownLength() {
+            GatewayFilterChain chunked = exchange -> {
+                downstreamCalls.incrementAndGet();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.OK);
+                return response.writeWith(Mono.fromSupplier(() ->
+                        response.bufferFactory().wrap(downstreamBody.getBytes(StandardCharsets.UTF_8))));
+            };
+
+            MockServerWebExchange first = get(PARAMETRES);
+            filter.filter(first, chunked).block();
+            filter.filter(get(PARAMETRES), chunked).block();
+
+            assertThat(downstreamCalls).hasValue(2);
+            assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(downstreamBody);
+            assertThat(responseCache.regionFor(PARAMETRES).size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should refetch once the route TTL has elapsed")
+        void shouldExpire() {
+            run("/api/controle/equipements");
+            run("/api/controle/equipements");
+
+            assertThat(downstreamCalls).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should refresh on Cache-Control: no-cache")
+        void shouldBypassOnNoCache() {
+            run(PARAMETRES);
+            downstreamBody = "[]";
+            MockServerWebExchange refresh = MockServerWebExchange.from(
+                    MockServerHttpRequest.get(PARAMETRES).header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+            filter.filter(refresh, downstream()).block();
+
+            assertThat(downstreamCalls).hasValue(2);
+            assertThat(run(PARAMETRES).getResponse().getBodyAsString().block()).isEqualTo("[]");
+        }
+    }
+
+    @Nested
+    @DisplayName("Request coalescing")
+    class Coalescing {
+
+        @Test
+        @DisplayName("should let concurrent misses share one downstream call")
+        void shouldCoalesceMisses() {
+            Sinks.Empty<Void> release = Sinks.empty();
+            GatewayFilterChain slow = exchange -> {
+                downstreamCalls.incrementAndGet();
+                return release.asMono().then(write(exchange.getResponse(), HttpStatus.OK, downstreamBody));
+            };
+            MockServerWebExchange leader = get(PARAMETRES);
+            MockServerWebExchange follower = get(PARAMETRES);
+
+            Mono<Void> leaderCall = filter.filter(leader, slow).cache();
+            leaderCall.subscribe();
+            Mono<Void> followerCall = filter.filter(follower, slow).cache();
+            followerCall.subscribe();
+            release.tryEmitEmpty();
+            leaderCall.block(Duration.ofSeconds(5));
+            followerCall.block(Duration.ofSeconds(5));
+
+            assertThat(downstreamCalls).hasValue(1);
+            assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(downstreamBody);
+            assertThat(follower.getResponse().getHeaders().getETag())
+                    .isEqualTo(leader.getResponse().getHeaders().getETag());
+        }
+
+        @Test
+        @DisplayName("should send followers downstream when the leader response is not cacheable")
+        void shouldFallBackWhenLeaderFails() {
+            Sinks.Empty<Void> release = Sinks.empty();
+            GatewayFilterChain failingOnce = exchange -> {
+                int call = downstreamCalls.incrementAndGet();
+                return call == 1
+                        ? release.asMono().then(write(exchange.getResponse(), HttpStatus.BAD_GATEWAY, "down"))
+                        : write(exchange.getResponse(), HttpStatus.OK, downstreamBody);
+            };
+            MockServerWebExchange follower = get(PARAMETRES);
+
+            Mono<Void> leaderCall = filter.filter(get(PARAMETRES), failingOnce).cache();
+            leaderCall.subscribe();
+            Mono<Void> followerCall = filter.filter(follower, failingOnce).cache();
+            followerCall.subscribe();
+            release.tryEmitEmpty();
+            followerCall.block(Duration.ofSeconds(5));
+
+            assertThat(downstreamCalls).hasValue(2);
+            assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation")
+    class Invalidation {
+
+        @Test
+        @DisplayName("should drop routes invalidated by the changed entity only")
+        void shouldInvalidateMatchingRoutes() {
+            run(PARAMETRES);
+            new ConfigChangeListener(responseCache, new SimpleMeterRegistry())
+                    .handleConfigChange(ConfigChangeEvent.builder()
+                            .entityType(ConfigChangeEvent.EQUIPEMENT).entityId(3L).changeType(ConfigChangeEvent.UPDATED)
+                            .build());
+            run(PARAMETRES);
+
+            new ConfigChangeListener(responseCache, new SimpleMeterRegistry())
+                    .handleConfigChange(ConfigChangeEvent.builder()
+                            .entityType(ConfigChangeEvent.PARAMETRE).entityId(1L).changeType(ConfigChangeEvent.UPDATED)
+                            .build());
+            run(PARAMETRES);
+
+            assertThat(downstreamCalls).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should not store a response fetched before an invalidation")
+        void shouldNotStoreStaleFetch() {
+            GatewayFilterChain racing = exchange -> {
+                downstreamCalls.incrementAndGet();
+                responseCache.invalidate(ConfigChangeEvent.PARAMETRE);
+                return write(exchange.getResponse(), HttpStatus.OK, downstreamBody);
+            };
+
+            filter.filter(get(PARAMETRES), racing).block();
+
+            assertThat(responseCache.regionFor(PARAMETRES).size()).isZero();
+        }
+    }
+}
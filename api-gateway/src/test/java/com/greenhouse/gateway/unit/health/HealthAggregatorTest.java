@@ -0,0 +1,198 @@
+package com.greenhouse.gateway.unit.health;
+
+import com.greenhouse.gateway.health.AggregatedHealth;
+import com.greenhouse.gateway.health.HealthAggregationProperties;
+import com.greenhouse.gateway.health.HealthAggregator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("HealthAggregator Unit Tests")
+class HealthAggregatorTest {
+
+    private DiscoveryClient discoveryClient;
+    private HealthAggregationProperties properties;
+    private Map<String, Mono<ClientResponse>> responsesByHost;
+    private AtomicInteger calls;
+
+    @BeforeAll
+    static void warmUpCodecs() {
+        // The first decode loads the codec classes, which can take longer than a probe timeout
+        ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"status\":\"UP\"}")
+                .build()
+                .bodyToMono(Map.class)
+                .block(Duration.ofSeconds(10));
+    }
+
+    @BeforeEach
+    void setUp() {
+        discoveryClient = mock(DiscoveryClient.class);
+        properties = new HealthAggregationProperties();
+        properties.setTimeout(Duration.ofMillis(200));
+        responsesByHost = new ConcurrentHashMap<>();
+        calls = new AtomicInteger();
+    }
+
+    private HealthAggregator aggregator() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    assertThat(request.url().getPath()).isEqualTo("/actuator/health");
+                    return responsesByHost.getOrDefault(request.url().getHost(), Mono.never());
+                })
+                .build();
+        return new HealthAggregator(discoveryClient, webClient, properties);
+    }
+
+    private void register(String service, String... hosts) {
+        List<ServiceInstance> instances = Arrays.stream(hosts)
+                .map(host -> (ServiceInstance) new DefaultServiceInstance(service + "@" + host, service, host, 8080, false))
+                .toList();
+        when(discoveryClient.getInstances(service)).thenReturn(instances);
+    }
+
+    private void respond(String host, HttpStatus status, String body) {
+        responsesByHost.put(host, Mono.fromSupplier(() -> ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build()));
+    }
+
+    @Nested
+    @DisplayName("Aggregation")
+    class Aggregation {
+
+        @Test
+        @DisplayName("should probe every instance and report per-instance state")
+        void shouldProbeEveryInstance() {
+            when(discoveryClient.getServices()).thenReturn(List.of("environnement-service", "controle-service"));
+            register("environnement-service", "env-1", "env-2");
+            register("controle-service", "ctl-1");
+            respond("env-1", HttpStatus.OK, "{\"status\":\"UP\",\"components\":{}}");
+            respond("env-2", HttpStatus.SERVICE_UNAVAILABLE, "{\"status\":\"DOWN\"}");
+            respond("ctl-1", HttpStatus.OK, "{\"status\":\"UP\"}");
+
+            AggregatedHealth health = aggregator().current().block(Duration.ofSeconds(5));
+
+            assertThat(calls).hasValue(3);
+            assertThat(health.status()).isEqualTo(AggregatedHealth.DEGRADED);
+            assertThat(health.availableServices()).isEqualTo(2);
+            AggregatedHealth.ServiceHealth environnement = health.services().get("environnement-service");
+            assertThat(environnement.status()).isEqualTo(AggregatedHealth.DEGRADED);
+            assertThat(environnement.upInstances()).isEqualTo(1);
+            assertThat(environnement.instances()).extracting(AggregatedHealth.InstanceHealth::status)
+                    .containsExactly("UP", "DOWN");
+            assertThat(environnement.instances().get(1).error()).isEqualTo("HTTP 503");
+            assertThat(health.services().get("controle-service").status()).isEqualTo(AggregatedHealth.UP);
+        }
+
+        @Test
+        @DisplayName("should mark instances that do not answer in time as DOWN without waiting for them")
+        void shouldTimeOutSlowInstances() {
+            when(discoveryClient.getServices()).thenReturn(List.of("controle-service"));
+            register("controle-service", "hung-1", "hung-2", "hung-3", "ok-1");
+            respond("ok-1", HttpStatus.OK, "{\"status\":\"UP\"}");
+
+            long start = System.nanoTime();
+            AggregatedHealth health = aggregator().current().block(Duration.ofSeconds(5));
+            long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+            // Probes run concurrently: the round takes about one timeout, not three
+            assertThat(elapsedMs).isLessThan(550);
+            AggregatedHealth.ServiceHealth service = health.services().get("controle-service");
+            assertThat(service.upInstances()).isEqualTo(1);
+            assertThat(service.instances()).filteredOn(instance -> instance.status().equals("DOWN"))
+                    .hasSize(3)
+                    .allSatisfy(instance -> assertThat(instance.error()).contains("200 ms"));
+        }
+
+        @Test
+        @DisplayName("should report services without instances as DOWN")
+        void shouldReportEmptyServicesDown() {
+            when(discoveryClient.getServices()).thenReturn(List.of("controle-service"));
+            register("controle-service");
+
+            AggregatedHealth health = aggregator().current().block(Duration.ofSeconds(5));
+
+            assertThat(health.status()).isEqualTo(AggregatedHealth.DOWN);
+            assertThat(health.services().get("controle-service").totalInstances()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Caching")
+    class Caching {
+
+        @BeforeEach
+        void registerOneInstance() {
+            when(discoveryClient.getServices()).thenReturn(List.of("controle-service"));
+            register("controle-service", "ctl-1");
+            respond("ctl-1", HttpStatus.OK, "{\"status\":\"UP\"}");
+        }
+
+        @Test
+        @DisplayName("should reuse results younger than the cache TTL")
+        void shouldReuseFreshResults() {
+            HealthAggregator aggregator = aggregator();
+
+            AggregatedHealth first = aggregator.current().block(Duration.ofSeconds(5));
+            AggregatedHealth second = aggregator.current().block(Duration.ofSeconds(5));
+
+            assertThat(second).isSameAs(first);
+            assertThat(calls).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("should serve stale results immediately and refresh them in the background")
+        void shouldServeStaleWhileRefreshing() {
+            properties.setCacheTtl(Duration.ZERO);
+            HealthAggregator aggregator = aggregator();
+            AggregatedHealth first = aggregator.current().block(Duration.ofSeconds(5));
+            responsesByHost.put("ctl-1", Mono.never());
+
+            AggregatedHealth stale = aggregator.current().block(Duration.ofMillis(100));
+
+            assertThat(stale).isSameAs(first);
+            assertThat(calls).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("should share one probe round between concurrent callers")
+        void shouldCoalesceRefreshes() {
+            responsesByHost.put("ctl-1", Mono.delay(Duration.ofMillis(50)).map(tick -> ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"status\":\"UP\"}")
+                    .build()));
+            HealthAggregator aggregator = aggregator();
+
+            Mono<AggregatedHealth> first = aggregator.current();
+            Mono<AggregatedHealth> second = aggregator.current();
+
+            assertThat(first.block(Duration.ofSeconds(5))).isSameAs(second.block(Duration.ofSeconds(5)));
+            assertThat(calls).hasValue(1);
+        }
+    }
+}
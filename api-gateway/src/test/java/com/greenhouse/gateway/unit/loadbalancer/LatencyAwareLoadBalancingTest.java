@@ -0,0 +1,316 @@
+package com.greenhouse.gateway.unit.loadbalancer;
+
+import com.greenhouse.gateway.filter.HedgingFilter;
+import com.greenhouse.gateway.loadbalancer.HedgeBudget;
+import com.greenhouse.gateway.loadbalancer.LoadBalancingProperties;
+import com.greenhouse.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import com.greenhouse.gateway.loadbalancer.UpstreamLatencyTracker;
+import com.greenhouse.gateway.routing.RouteClassifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+@DisplayName("Latency-aware Load Balancing Unit Tests")
+class LatencyAwareLoadBalancingTest {
+
+    private static final String SERVICE = "environnement-service";
+
+    private final ServiceInstance slow = instance("env-slow");
+    private final ServiceInstance fast = instance("env-fast");
+
+    private LoadBalancingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private UpstreamLatencyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoadBalancingProperties();
+        properties.getHedging().setRoutes(Set.of(SERVICE));
+        properties.getHedging().setMinSamples(20);
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new UpstreamLatencyTracker(properties, meterRegistry);
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, SERVICE.toUpperCase(), id, 8081, false);
+    }
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    @Nested
+    @DisplayName("Instance selection")
+    class Selection {
+
+        @SuppressWarnings("unchecked")
+        private PeakEwmaLoadBalancer balancer(ServiceInstance... instances) {
+            ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+            when(supplier.get(any())).thenReturn(Flux.just(List.of(instances)));
+            ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+            when(provider.getIfAvailable(any())).thenReturn(supplier);
+            return new PeakEwmaLoadBalancer(provider, SERVICE, tracker);
+        }
+
+        private ServiceInstance choose(PeakEwmaLoadBalancer balancer, String avoided) {
+            MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/parametres");
+            if (avoided != null) {
+                request.header(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER, avoided);
+            }
+            RequestDataContext context = new RequestDataContext(new RequestData(request.build()));
+            Response<ServiceInstance> response = balancer.choose(new DefaultRequest<>(context)).block();
+            return response.hasServer() ? response.getServer() : null;
+        }
+
+        @Test
+        @DisplayName("should send traffic to the instance with the lower observed latency")
+        void shouldPreferFasterInstance() {
+            tracker.record(slow, millis(400), false);
+            tracker.record(fast, millis(20), false);
+            PeakEwmaLoadBalancer balancer = balancer(slow, fast);
+
+            for (int i = 0; i < 50; i++) {
+                assertThat(choose(balancer, null)).isEqualTo(fast);
+            }
+        }
+
+        @Test
+        @DisplayName("should weigh calls in flight, not only past latency")
+        void shouldWeighInflightCalls() {
+            tracker.record(slow, millis(20), false);
+            tracker.record(fast, millis(20), false);
+            tracker.begin(fast);
+            tracker.begin(fast);
+
+            assertThat(choose(balancer(slow, fast), null)).isEqualTo(slow);
+        }
+
+        @Test
+        @DisplayName("should react to one slow sample at once and charge failures a penalty")
+        void shouldTrackPeaksAndFailures() {
+            tracker.record(fast, millis(20), false);
+            tracker.record(fast, millis(300), false);
+            assertThat(tracker.cost(fast)).isGreaterThan(millis(250));
+
+            tracker.record(slow, millis(5), true);
+            assertThat(tracker.cost(slow)).isGreaterThan(millis(900));
+        }
+
+        @Test
+        @DisplayName("should skip the avoided instance unless it is the only one")
+        void shouldHonourAvoidHeader() {
+            tracker.record(slow, millis(400), false);
+            tracker.record(fast, millis(20), false);
+
+            assertThat(choose(balancer(slow, fast), "env-fast")).isEqualTo(slow);
+            assertThat(choose(balancer(fast), "env-fast")).isEqualTo(fast);
+            assertThat(choose(balancer(), null)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Hedged requests")
+    class Hedging {
+
+        private HedgingFilter filter;
+        private AtomicInteger calls;
+        private Map<Integer, String> avoidedByCall;
+
+        @BeforeEach
+        void setUpFilter() {
+            filter = new HedgingFilter(properties, tracker, new RouteClassifier(), meterRegistry);
+            calls = new AtomicInteger();
+            avoidedByCall = new ConcurrentHashMap<>();
+            for (int i = 0; i < 20; i++) {
+                tracker.record(fast, millis(30), false);
+            }
+        }
+
+        private MockServerWebExchange exchange(MockServerHttpRequest request, String routeId) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(request);
+            exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                    .id(routeId).uri(URI.create("lb://ENVIRONNEMENT-SERVICE")).predicate(e -> true).build());
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://ENVIRONNEMENT-SERVICE/api/parametres"));
+            return exchange;
+        }
+
+        private MockServerWebExchange get() {
+            return exchange(MockServerHttpRequest.get("/api/environnement/parametres").build(), SERVICE);
+        }
+
+        /**
+         * Simulated load balancing and routing: the first call lands on the slow instance
+         */
+        private GatewayFilterChain upstream(Duration firstLatency) {
+            return exchange -> {
+                int call = calls.incrementAndGet();
+                String avoided = exchange.getRequest().getHeaders().getFirst(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER);
+                if (avoided != null) {
+                    avoidedByCall.put(call, avoided);
+                }
+                ServiceInstance instance = call == 1 ? slow : fast;
+                exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(instance));
+                Duration latency = call == 1 ? firstLatency : Duration.ofMillis(5);
+                return Mono.delay(latency).then(Mono.defer(() -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.OK);
+                    exchange.getResponse().getHeaders().set("X-Served-By", instance.getInstanceId());
+                    return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                            .wrap(instance.getInstanceId().getBytes(StandardCharsets.UTF_8))));
+                }));
+            };
+        }
+
+        private double hedges(String outcome) {
+            return meterRegistry.counter("gateway.hedge", "service", SERVICE, "outcome", outcome).count();
+        }
+
+        @Test
+        @DisplayName("should answer from a second instance when the first is slower than the p95")
+        void shouldHedgeSlowRequests() {
+            MockServerWebExchange exchange = get();
+
+            long start = System.nanoTime();
+            filter.filter(exchange, upstream(Duration.ofMillis(600))).block(Duration.ofSeconds(5));
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertThat(elapsedMs).isLessThan(400);
+            assertThat(calls).hasValue(2);
+            assertThat(avoidedByCall).containsEntry(2, "env-slow");
+            assertThat(exchange.getResponse().getHeaders().getFirst("X-Served-By")).isEqualTo("env-fast");
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("env-fast");
+            assertThat(exchange.<Response<ServiceInstance>>getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR).getServer())
+                    .isEqualTo(fast);
+            assertThat(hedges("sent")).isEqualTo(1);
+            assertThat(hedges("won")).isEqualTo(1);
+            await(() -> meterRegistry.timer("gateway.hedge.latency.saved", "service", SERVICE).count() == 1);
+            assertThat(meterRegistry.timer("gateway.hedge.latency.saved", "service", SERVICE)
+                    .totalTime(TimeUnit.MILLISECONDS)).isGreaterThan(300);
+        }
+
+        @Test
+        @DisplayName("should not hedge requests answered before the delay")
+        void shouldNotHedgeFastRequests() {
+            MockServerWebExchange exchange = get();
+
+            filter.filter(exchange, upstream(Duration.ofMillis(1))).block(Duration.ofSeconds(5));
+
+            assertThat(calls).hasValue(1);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("env-slow");
+            assertThat(hedges("eligible")).isEqualTo(1);
+            assertThat(hedges("sent")).isZero();
+        }
+
+        @Test
+        @DisplayName("should leave writes, other routes and unmeasured services alone")
+        void shouldOnlyHedgeEligibleRequests() {
+            filter.filter(exchange(MockServerHttpRequest.post("/api/environnement/parametres").build(), SERVICE),
+                    upstream(Duration.ofMillis(100))).block(Duration.ofSeconds(5));
+            filter.filter(exchange(MockServerHttpRequest.get("/api/environnement/parametres").build(), "other"),
+                    upstream(Duration.ofMillis(100))).block(Duration.ofSeconds(5));
+            properties.getHedging().setMinSamples(1_000);
+            filter.filter(get(), upstream(Duration.ofMillis(100))).block(Duration.ofSeconds(5));
+
+            assertThat(calls).hasValue(3);
+            assertThat(hedges("eligible")).isZero();
+        }
+
+        @Test
+        @DisplayName("should drop an avoid-instance header sent by the client")
+        void shouldStripClientAvoidHeader() {
+            MockServerWebExchange hedged = exchange(MockServerHttpRequest.get("/api/environnement/parametres")
+                    .header(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER, "env-fast").build(), SERVICE);
+            filter.filter(hedged, upstream(Duration.ofMillis(1))).block(Duration.ofSeconds(5));
+            filter.filter(exchange(MockServerHttpRequest.post("/api/environnement/parametres")
+                            .header(PeakEwmaLoadBalancer.AVOID_INSTANCE_HEADER, "env-fast").build(), SERVICE),
+                    upstream(Duration.ofMillis(1))).block(Duration.ofSeconds(5));
+
+            assertThat(calls).hasValue(2);
+            assertThat(avoidedByCall).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should stop hedging once the budget is spent")
+        void shouldRespectBudget() {
+            properties.getHedging().setBudgetRatio(0);
+            properties.getHedging().setMaxBurst(0);
+
+            filter.filter(get(), upstream(Duration.ofMillis(200))).block(Duration.ofSeconds(5));
+
+            assertThat(calls).hasValue(1);
+            assertThat(hedges("budget_exhausted")).isEqualTo(1);
+        }
+
+        private void await(BooleanSupplier condition) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!condition.getAsBoolean()) {
+                assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Hedge budget")
+    class Budget {
+
+        @Test
+        @DisplayName("should allow one hedge per 1/ratio requests, up to the burst")
+        void shouldBoundHedges() {
+            HedgeBudget budget = new HedgeBudget(0.1, 2);
+            assertThat(budget.tryWithdraw()).isTrue();
+            assertThat(budget.tryWithdraw()).isTrue();
+            assertThat(budget.tryWithdraw()).isFalse();
+
+            for (int i = 0; i < 9; i++) {
+                budget.deposit();
+            }
+            assertThat(budget.tryWithdraw()).isFalse();
+            budget.deposit();
+            assertThat(budget.tryWithdraw()).isTrue();
+            assertThat(budget.tryWithdraw()).isFalse();
+
+            for (int i = 0; i < 100; i++) {
+                budget.deposit();
+            }
+            assertThat(budget.tryWithdraw()).isTrue();
+            assertThat(budget.tryWithdraw()).isTrue();
+            assertThat(budget.tryWithdraw()).isFalse();
+        }
+    }
+}
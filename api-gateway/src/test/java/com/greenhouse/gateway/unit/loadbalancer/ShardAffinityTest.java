@@ -0,0 +1,159 @@
+package com.greenhouse.gateway.unit.loadbalancer;
+
+import com.greenhouse.gateway.filter.ShardAffinityFilter;
+import com.greenhouse.gateway.loadbalancer.LoadBalancingProperties;
+import com.greenhouse.gateway.loadbalancer.PeakEwmaLoadBalancer;
+import com.greenhouse.gateway.loadbalancer.ShardingProperties;
+import com.greenhouse.gateway.loadbalancer.UpstreamLatencyTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+@DisplayName("Shard Affinity Unit Tests")
+class ShardAffinityTest {
+
+    private static final String SERVICE = "environnement-service";
+
+    private ShardingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.getGreenhouses().put("gh-north", "shard1");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Nested
+    @DisplayName("ShardAffinityFilter")
+    class Filter {
+
+        private HttpHeaders forward(MockServerHttpRequest request, String url) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(request);
+            exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create(url));
+            AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+            GatewayFilterChain chain = next -> {
+                forwarded.set(next.getRequest().getHeaders());
+                return Mono.empty();
+            };
+            new ShardAffinityFilter(properties, meterRegistry).filter(exchange, chain).block();
+            return forwarded.get();
+        }
+
+        @Test
+        @DisplayName("should tag requests with the shard of the greenhouse in the query")
+        void shouldResolveShardFromQuery() {
+            HttpHeaders headers = forward(MockServerHttpRequest.get("/api/mesures/alerts?greenhouseId=gh-north").build(),
+                    "lb://ENVIRONNEMENT-SERVICE/api/mesures/alerts?greenhouseId=gh-north");
+
+            assertThat(headers.getFirst(PeakEwmaLoadBalancer.SHARD_HEADER)).isEqualTo("shard1");
+            assertThat(headers.getFirst(ShardAffinityFilter.GREENHOUSE_HEADER)).isEqualTo("gh-north");
+            assertThat(meterRegistry.get("gateway.sharding.requests").tag("shard", "shard1").counter().count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should send unmapped greenhouses to the default shard")
+        void shouldUseDefaultShard() {
+            HttpHeaders headers = forward(MockServerHttpRequest.post("/api/mesures")
+                            .header(ShardAffinityFilter.GREENHOUSE_HEADER, "gh-south").build(),
+                    "lb://environnement-service/api/mesures");
+
+            assertThat(headers.getFirst(PeakEwmaLoadBalancer.SHARD_HEADER)).isEqualTo("shard0");
+        }
+
+        @Test
+        @DisplayName("should replace or drop a shard header sent by the client")
+        void shouldOverrideClientShardHeader() {
+            HttpHeaders pinned = forward(MockServerHttpRequest.get("/api/mesures/alerts?greenhouseId=gh-north")
+                            .header(PeakEwmaLoadBalancer.SHARD_HEADER, "shard0").build(),
+                    "lb://environnement-service/api/mesures/alerts?greenhouseId=gh-north");
+            HttpHeaders unpinned = forward(MockServerHttpRequest.get("/api/mesures/alerts")
+                            .header(PeakEwmaLoadBalancer.SHARD_HEADER, "shard1").build(),
+                    "lb://environnement-service/api/mesures/alerts");
+
+            assertThat(pinned.get(PeakEwmaLoadBalancer.SHARD_HEADER)).containsExactly("shard1");
+            assertThat(unpinned.containsKey(PeakEwmaLoadBalancer.SHARD_HEADER)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should leave requests without a greenhouse or to other services alone")
+        void shouldIgnoreUnshardedRequests() {
+            assertThat(forward(MockServerHttpRequest.get("/api/mesures/alerts").build(),
+                    "lb://environnement-service/api/mesures/alerts")
+                    .containsKey(PeakEwmaLoadBalancer.SHARD_HEADER)).isFalse();
+            assertThat(forward(MockServerHttpRequest.get("/api/equipements?greenhouseId=gh-north").build(),
+                    "lb://controle-service/api/equipements?greenhouseId=gh-north")
+                    .containsKey(PeakEwmaLoadBalancer.SHARD_HEADER)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("PeakEwmaLoadBalancer")
+    class Balancer {
+
+        private final ServiceInstance shard0 = instance("env-0", "shard0");
+        private final ServiceInstance shard1a = instance("env-1a", "shard1");
+        private final ServiceInstance shard1b = instance("env-1b", "shard1");
+
+        private static ServiceInstance instance(String id, String shard) {
+            return new DefaultServiceInstance(id, SERVICE.toUpperCase(), id, 8081, false,
+                    Map.of(PeakEwmaLoadBalancer.SHARD_METADATA, shard));
+        }
+
+        @SuppressWarnings("unchecked")
+        private ServiceInstance choose(String shard, List<ServiceInstance> instances) {
+            ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+            when(supplier.get(any())).thenReturn(Flux.just(instances));
+            ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+            when(provider.getIfAvailable(any())).thenReturn(supplier);
+            UpstreamLatencyTracker tracker = new UpstreamLatencyTracker(new LoadBalancingProperties(), meterRegistry);
+            PeakEwmaLoadBalancer balancer = new PeakEwmaLoadBalancer(provider, SERVICE, tracker);
+
+            MockServerHttpRequest request = MockServerHttpRequest.get("/api/mesures")
+                    .header(PeakEwmaLoadBalancer.SHARD_HEADER, shard).build();
+            RequestDataContext context = new RequestDataContext(new RequestData(request));
+            return balancer.choose(new DefaultRequest<>(context)).block().getServer();
+        }
+
+        @Test
+        @DisplayName("should only pick instances serving the shard")
+        void shouldPickInstancesOfShard() {
+            for (int i = 0; i < 50; i++) {
+                assertThat(choose("shard1", List.of(shard0, shard1a, shard1b))).isIn(shard1a, shard1b);
+            }
+        }
+
+        @Test
+        @DisplayName("should fall back to any instance when none serves the shard")
+        void shouldFallBackToAnyInstance() {
+            assertThat(choose("shard2", List.of(shard0))).isEqualTo(shard0);
+        }
+    }
+}
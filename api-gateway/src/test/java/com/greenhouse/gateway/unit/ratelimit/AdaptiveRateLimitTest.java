@@ -0,0 +1,228 @@
+package com.greenhouse.gateway.unit.ratelimit;
+
+import com.greenhouse.gateway.filter.AdaptiveRateLimitFilter;
+import com.greenhouse.gateway.filter.AuthenticationFilter;
+import com.greenhouse.gateway.ratelimit.DownstreamHealth;
+import com.greenhouse.gateway.ratelimit.GcraRateLimiter;
+import com.greenhouse.gateway.ratelimit.RateLimitProperties;
+import com.greenhouse.gateway.routing.RouteClassifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Adaptive Rate Limiting Unit Tests")
+class AdaptiveRateLimitTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Nested
+    @DisplayName("GcraRateLimiter")
+    class Gcra {
+
+        @Test
+        @DisplayName("should admit a full burst then throttle until the next emission interval")
+        void shouldAdmitBurstThenThrottle() {
+            GcraRateLimiter limiter = new GcraRateLimiter(1000);
+            long now = SECOND;
+
+            for (int i = 0; i < 5; i++) {
+                assertThat(limiter.tryAcquire("sgw:1", 10, 5, now)).isZero();
+            }
+            long wait = limiter.tryAcquire("sgw:1", 10, 5, now);
+
+            assertThat(wait).isEqualTo(SECOND / 10);
+            assertThat(limiter.tryAcquire("sgw:1", 10, 5, now + wait)).isZero();
+        }
+
+        @Test
+        @DisplayName("should keep separate budgets per key")
+        void shouldIsolateKeys() {
+            GcraRateLimiter limiter = new GcraRateLimiter(1000);
+
+            assertThat(limiter.tryAcquire("gh:1", 1, 1, SECOND)).isZero();
+            assertThat(limiter.tryAcquire("gh:1", 1, 1, SECOND)).isPositive();
+            assertThat(limiter.tryAcquire("gh:2", 1, 1, SECOND)).isZero();
+        }
+
+        @Test
+        @DisplayName("should evict replenished keys once over capacity")
+        void shouldEvictIdleKeys() {
+            GcraRateLimiter limiter = new GcraRateLimiter(10);
+            for (int i = 0; i < 20; i++) {
+                limiter.tryAcquire("ip:" + i, 100, 1, SECOND);
+            }
+
+            limiter.tryAcquire("ip:late", 100, 1, 10 * SECOND);
+
+            assertThat(limiter.size()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should make a flood of distinct keys share one overflow budget")
+        void shouldCapTrackedKeys() {
+            GcraRateLimiter limiter = new GcraRateLimiter(10);
+            for (int i = 0; i < 10; i++) {
+                assertThat(limiter.tryAcquire("ip:" + i, 1, 1, SECOND)).isZero();
+            }
+
+            assertThat(limiter.tryAcquire("ip:new-1", 1, 1, SECOND)).isZero();
+            assertThat(limiter.tryAcquire("ip:new-2", 1, 1, SECOND)).isPositive();
+            assertThat(limiter.size()).isEqualTo(11);
+        }
+    }
+
+    @Nested
+    @DisplayName("DownstreamHealth")
+    class Health {
+
+        private final RateLimitProperties.Adaptive settings = new RateLimitProperties.Adaptive();
+
+        @Test
+        @DisplayName("should report full health for unknown or fast services")
+        void shouldBeHealthyByDefault() {
+            DownstreamHealth health = new DownstreamHealth(settings, service -> { });
+            health.record("environnement-service", TimeUnit.MILLISECONDS.toNanos(20), false, SECOND);
+
+            assertThat(health.healthFactor("controle-service", SECOND)).isEqualTo(1.0);
+            assertThat(health.healthFactor("environnement-service", SECOND)).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should degrade with errors and slow responses")
+        void shouldDegradeWithErrorsAndLatency() {
+            DownstreamHealth health = new DownstreamHealth(settings, service -> { });
+            for (int i = 0; i < 20; i++) {
+                health.record("environnement-service", TimeUnit.MILLISECONDS.toNanos(1000), true, SECOND);
+            }
+
+            assertThat(health.healthFactor("environnement-service", SECOND)).isLessThan(0.3);
+        }
+
+        @Test
+        @DisplayName("should assume recovery when no call was recorded recently")
+        void shouldResetWhenIdle() {
+            DownstreamHealth health = new DownstreamHealth(settings, service -> { });
+            health.record("environnement-service", TimeUnit.MILLISECONDS.toNanos(1000), true, SECOND);
+
+            assertThat(health.healthFactor("environnement-service", SECOND + 11 * SECOND)).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("AdaptiveRateLimitFilter")
+    class Filter {
+
+        private RateLimitProperties properties;
+        private SimpleMeterRegistry meterRegistry;
+        private AdaptiveRateLimitFilter filter;
+        private final InetSocketAddress client = new InetSocketAddress("10.0.0.5", 40000);
+        private final Route route = Route.async()
+                .id("environnement-service")
+                .uri("lb://ENVIRONNEMENT-SERVICE")
+                .predicate(exchange -> true)
+                .build();
+
+        @BeforeEach
+        void setUp() {
+            properties = new RateLimitProperties();
+            properties.getLow().setRate(1);
+            properties.getLow().setBurst(2);
+            meterRegistry = new SimpleMeterRegistry();
+            filter = new AdaptiveRateLimitFilter(properties, new RouteClassifier(), meterRegistry);
+        }
+
+        @Test
+        @DisplayName("should return 429 with Retry-After once the client exceeds its budget")
+        void shouldThrottleOverBudget() {
+            assertThat(run(historyQuery("sgw:1"), HttpStatus.OK)).isNull();
+            assertThat(run(historyQuery("sgw:1"), HttpStatus.OK)).isNull();
+
+            MockServerWebExchange rejected = historyQuery("sgw:1");
+            assertThat(run(rejected, HttpStatus.OK)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+            assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+            assertThat(meterRegistry.get("gateway.ratelimit.throttled").tag("priority", "low").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("should key by remote address whatever identity headers the client sends")
+        void shouldIgnoreClientIdentityHeaders() {
+            assertThat(run(historyQuery("sgw:a"), HttpStatus.OK)).isNull();
+            assertThat(run(historyQuery("sgw:b"), HttpStatus.OK)).isNull();
+
+            assertThat(run(historyQuery("sgw:c"), HttpStatus.OK)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        }
+
+        @Test
+        @DisplayName("should give each authenticated user its own budget")
+        void shouldKeyByAuthenticatedUser() {
+            assertThat(run(historyQuery("sgw:1"), HttpStatus.OK)).isNull();
+            assertThat(run(historyQuery("sgw:1"), HttpStatus.OK)).isNull();
+            assertThat(run(historyQuery("sgw:1"), HttpStatus.OK)).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+            MockServerWebExchange authenticated = historyQuery("sgw:1");
+            authenticated.getAttributes().put(AuthenticationFilter.AUTHENTICATED_USER_ATTR, "operator");
+            assertThat(run(authenticated, HttpStatus.OK)).isNull();
+        }
+
+        @Test
+        @DisplayName("should shed history queries but keep ingest when the service is failing")
+        void shouldShedLowPriorityFirst() {
+            properties.getLow().setRate(1000);
+            properties.getLow().setBurst(1000);
+            for (int i = 0; i < 20; i++) {
+                run(ingest(), HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+
+            assertThat(run(historyQuery("sgw:2"), HttpStatus.OK)).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(run(ingest(), HttpStatus.CREATED)).isNull();
+            assertThat(meterRegistry.get("gateway.ratelimit.shed").tag("priority", "low").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        // Returns the status set by the filter, or null when the request was passed downstream
+        private HttpStatus run(MockServerWebExchange exchange, HttpStatus downstreamStatus) {
+            boolean[] forwarded = {false};
+            GatewayFilterChain chain = ex -> {
+                forwarded[0] = true;
+                ex.getResponse().setStatusCode(downstreamStatus);
+                return Mono.empty();
+            };
+            filter.filter(exchange, chain).block();
+            return forwarded[0] ? null : HttpStatus.valueOf(exchange.getResponse().getStatusCode().value());
+        }
+
+        private MockServerWebExchange historyQuery(String sensorGateway) {
+            return withRoute(MockServerWebExchange.from(MockServerHttpRequest
+                    .get("/api/environnement/mesures/filter")
+                    .remoteAddress(client)
+                    .header("X-Sensor-Gateway-Id", sensorGateway)));
+        }
+
+        private MockServerWebExchange ingest() {
+            return withRoute(MockServerWebExchange.from(MockServerHttpRequest
+                    .post("/api/environnement/mesures")
+                    .header("X-Sensor-Gateway-Id", "sgw:ingest")));
+        }
+
+        private MockServerWebExchange withRoute(MockServerWebExchange exchange) {
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+            return exchange;
+        }
+    }
+}
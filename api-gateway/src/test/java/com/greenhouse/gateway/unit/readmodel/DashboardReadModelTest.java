@@ -0,0 +1,209 @@
+package com.greenhouse.gateway.unit.readmodel;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.EquipmentActionEvent;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.gateway.readmodel.ConditionView;
+import com.greenhouse.gateway.readmodel.DashboardReadModel;
+import com.greenhouse.gateway.readmodel.ReadModelProperties;
+import com.greenhouse.gateway.readmodel.ReadModelSnapshotStore;
+import com.greenhouse.gateway.sse.dto.AlertView;
+import com.greenhouse.gateway.sse.dto.EquipmentStatusView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Dashboard Read Model Unit Tests")
+class DashboardReadModelTest {
+
+    private static final String MEASUREMENTS = "measurement-stream";
+    private static final String ALERTS = "greenhouse-alerts";
+    private static final String ACTIONS = "equipment-actions";
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 7, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    private ReadModelProperties properties;
+    private ReadModelSnapshotStore snapshotStore;
+    private DashboardReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReadModelProperties();
+        properties.setSnapshotFile(directory.resolve("dashboard-snapshot.json"));
+        properties.setSnapshotInterval(Duration.ofHours(1));
+        properties.setAlertFeedSize(3);
+        properties.setEquipmentTimelineSize(2);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        snapshotStore = new ReadModelSnapshotStore(objectMapper, properties);
+        readModel = start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        readModel.stop();
+    }
+
+    private DashboardReadModel start() {
+        DashboardReadModel model = new DashboardReadModel(properties, snapshotStore);
+        model.start();
+        return model;
+    }
+
+    private static MeasurementEvent measurement(long parametreId, double valeur, LocalDateTime dateMesure,
+                                                String greenhouseId) {
+        return MeasurementEvent.builder()
+                .parametreId(parametreId)
+                .parametreType("TEMPERATURE")
+                .valeur(valeur)
+                .seuilMin(15.0)
+                .seuilMax(30.0)
+                .isAlert(valeur > 30.0)
+                .dateMesure(dateMesure)
+                .greenhouseId(greenhouseId)
+                .build();
+    }
+
+    private static AlertEvent alert(String severity, String greenhouseId) {
+        return AlertEvent.builder().parametreId(1L).severity(severity).greenhouseId(greenhouseId).build();
+    }
+
+    private static EquipmentActionEvent action(long equipementId, String statut, int minute) {
+        return EquipmentActionEvent.builder()
+                .equipementId(equipementId)
+                .statut(statut)
+                .dateExecution(NOON.plusMinutes(minute))
+                .greenhouseId("gh-1")
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Views")
+    class Views {
+
+        @Test
+        @DisplayName("should keep the latest measurement of each parameter")
+        void shouldKeepLatestCondition() {
+            readModel.applyMeasurement(measurement(1, 22.0, NOON, "gh-1"), MEASUREMENTS, 0, 0);
+            readModel.applyMeasurement(measurement(2, 55.0, NOON, "gh-2"), MEASUREMENTS, 1, 0);
+            readModel.applyMeasurement(measurement(1, 31.0, NOON.plusMinutes(1), "gh-1"), MEASUREMENTS, 0, 1);
+            readModel.applyMeasurement(measurement(1, 20.0, NOON.minusMinutes(5), "gh-1"), MEASUREMENTS, 0, 2);
+
+            assertThat(readModel.currentConditions("gh-1", null)).singleElement().satisfies(condition -> {
+                assertThat(condition.getValeur()).isEqualTo(31.0);
+                assertThat(condition.getAlert()).isTrue();
+            });
+            assertThat(readModel.currentConditions(null, null))
+                    .extracting(ConditionView::getParametreId).containsExactly(1L, 2L);
+        }
+
+        @Test
+        @DisplayName("should keep a bounded alert feed, newest first")
+        void shouldBoundAlertFeed() {
+            for (int offset = 0; offset < 5; offset++) {
+                readModel.applyAlert(alert(offset % 2 == 0 ? "HIGH" : "LOW", "gh-1"), ALERTS, 0, offset);
+            }
+
+            assertThat(readModel.alertFeed(null, null, 10)).hasSize(3);
+            assertThat(readModel.alertFeed("gh-1", "high", 10))
+                    .extracting(AlertView::getSeverity).containsExactly("HIGH", "HIGH");
+            assertThat(readModel.alertFeed("gh-2", null, 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should report the latest action of each equipment as its status")
+        void shouldTrackEquipmentTimelines() {
+            readModel.applyEquipmentAction(action(7, "ACTIVER", 0), ACTIONS, 0, 0);
+            readModel.applyEquipmentAction(action(7, "AJUSTER", 1), ACTIONS, 0, 1);
+            readModel.applyEquipmentAction(action(7, "DESACTIVER", 2), ACTIONS, 0, 2);
+            readModel.applyEquipmentAction(action(8, "ACTIVER", 0), ACTIONS, 1, 0);
+
+            assertThat(readModel.equipmentStatus("gh-1"))
+                    .extracting(EquipmentStatusView::getStatus).containsExactly("DESACTIVER", "ACTIVER");
+            assertThat(readModel.equipmentTimeline("7", 10))
+                    .extracting(EquipmentStatusView::getStatus).containsExactly("DESACTIVER", "AJUSTER");
+            assertThat(readModel.equipmentTimeline("9", 10)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should skip records already applied")
+        void shouldSkipReplayedRecords() {
+            assertThat(readModel.applyAlert(alert("HIGH", "gh-1"), ALERTS, 0, 4)).isTrue();
+
+            assertThat(readModel.applyAlert(alert("HIGH", "gh-1"), ALERTS, 0, 4)).isFalse();
+            assertThat(readModel.applyAlert(alert("HIGH", "gh-1"), ALERTS, 0, 3)).isFalse();
+            assertThat(readModel.applyAlert(alert("HIGH", "gh-1"), ALERTS, 1, 3)).isTrue();
+            assertThat(readModel.alertFeed(null, null, 10)).hasSize(2);
+            assertThat(readModel.offset(ALERTS, 0)).isEqualTo(4L);
+            assertThat(readModel.offset(MEASUREMENTS, 0)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshots")
+    class Snapshots {
+
+        @Test
+        @DisplayName("should restore the views and offsets of the last snapshot")
+        void shouldRestoreSnapshot() {
+            readModel.applyMeasurement(measurement(1, 22.0, NOON, "gh-1"), MEASUREMENTS, 2, 41);
+            readModel.applyAlert(alert("CRITICAL", "gh-1"), ALERTS, 0, 9);
+            readModel.applyEquipmentAction(action(7, "ACTIVER", 0), ACTIONS, 1, 3);
+            readModel.stop();
+
+            DashboardReadModel restored = start();
+
+            assertThat(restored.currentConditions(null, null)).singleElement()
+                    .satisfies(condition -> assertThat(condition.getDateMesure()).isEqualTo(NOON));
+            assertThat(restored.alertFeed(null, null, 10)).extracting(AlertView::getSeverity)
+                    .containsExactly("CRITICAL");
+            assertThat(restored.equipmentTimeline("7", 10)).hasSize(1);
+            assertThat(restored.offset(MEASUREMENTS, 2)).isEqualTo(41L);
+            assertThat(restored.applyMeasurement(measurement(1, 23.0, NOON, "gh-1"), MEASUREMENTS, 2, 41)).isFalse();
+            restored.stop();
+        }
+
+        @Test
+        @DisplayName("should only write a snapshot when the views changed")
+        void shouldSkipUnchangedSnapshot() throws Exception {
+            Path file = properties.getSnapshotFile();
+            readModel.snapshot();
+            assertThat(file).doesNotExist();
+
+            readModel.applyAlert(alert("HIGH", "gh-1"), ALERTS, 0, 0);
+            readModel.snapshot();
+            long written = Files.getLastModifiedTime(file).toMillis();
+            Files.setLastModifiedTime(file, FileTime.fromMillis(written - 10_000));
+            readModel.snapshot();
+
+            assertThat(Files.getLastModifiedTime(file).toMillis()).isEqualTo(written - 10_000);
+        }
+
+        @Test
+        @DisplayName("should start empty from an unreadable snapshot")
+        void shouldIgnoreCorruptSnapshot() throws Exception {
+            Files.writeString(properties.getSnapshotFile(), "{not json");
+
+            DashboardReadModel restored = start();
+
+            assertThat(restored.currentConditions(null, null)).isEmpty();
+            assertThat(restored.offset(ALERTS, 0)).isNull();
+            restored.stop();
+        }
+    }
+}
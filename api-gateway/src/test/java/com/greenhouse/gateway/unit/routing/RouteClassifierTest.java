@@ -0,0 +1,69 @@
+package com.greenhouse.gateway.unit.routing;
+
+import com.greenhouse.gateway.ratelimit.TrafficPriority;
+import com.greenhouse.gateway.routing.PathClassification;
+import com.greenhouse.gateway.routing.RouteClass;
+import com.greenhouse.gateway.routing.RouteClassifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RouteClassifier Unit Tests")
+class RouteClassifierTest {
+
+    private final RouteClassifier classifier = new RouteClassifier();
+
+    @ParameterizedTest
+    @CsvSource({
+        "GET, /actuator/health, PUBLIC, NORMAL",
+        "POST, /api/auth/login, PUBLIC, NORMAL",
+        "GET, /eureka/apps, PUBLIC, NORMAL",
+        "GET, /eurekax/apps, QUERY, NORMAL",
+        "GET, /api/stream/measurements, STREAM, NORMAL",
+        "POST, /api/environnement/mesures, INGEST, CRITICAL",
+        "GET, /api/environnement/mesures, QUERY, LOW",
+        "GET, /api/environnement/mesures/filter?startDate=2024-01-01, QUERY, LOW",
+        "GET, /api/environnement/mesures/parametre/1, QUERY, LOW",
+        "GET, /api/environnement/mesures/alerts, QUERY, CRITICAL",
+        "GET, /api/environnement/mesuresx, QUERY, NORMAL",
+        "POST, /api/controle/actions, COMMAND, CRITICAL",
+        "GET, /api/controle/actions/1, QUERY, NORMAL",
+        "PUT, /api/environnement/parametres/1, COMMAND, NORMAL",
+        "GET, /api/environnement/parametres, QUERY, NORMAL",
+        "GET, /, QUERY, NORMAL"
+    })
+    @DisplayName("should classify by longest prefix on segment boundaries")
+    void shouldClassifyPaths(String method, String uri, RouteClass routeClass, TrafficPriority priority) {
+        MockServerHttpRequest request = MockServerHttpRequest.method(HttpMethod.valueOf(method), uri).build();
+
+        assertThat(classifier.classify(request)).isEqualTo(new PathClassification(routeClass, priority));
+    }
+
+    @Test
+    @DisplayName("should classify event-stream requests as STREAM whatever the path")
+    void shouldClassifyEventStreams() {
+        MockServerHttpRequest request = MockServerHttpRequest.get("/api/environnement/mesures")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .build();
+
+        assertThat(classifier.classify(request).routeClass()).isEqualTo(RouteClass.STREAM);
+    }
+
+    @Test
+    @DisplayName("should tag the exchange once and reuse the tag")
+    void shouldCacheOnExchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+
+        PathClassification first = classifier.classify(exchange);
+
+        assertThat((PathClassification) exchange.getAttribute(RouteClassifier.CLASSIFICATION_ATTR)).isSameAs(first);
+        assertThat(classifier.classify(exchange)).isSameAs(first);
+    }
+}
@@ -0,0 +1,109 @@
+package com.greenhouse.gateway.unit.security;
+
+import com.greenhouse.gateway.security.JwtUtil;
+import com.greenhouse.gateway.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JwtUtil Unit Tests")
+class JwtUtilTest {
+
+    private static final String SECRET = "MySecretKeyForJWTTokenGenerationAndValidation123456789";
+
+    private static String token(String subject, String secret, long expiresInMs) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMs))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    @Nested
+    @DisplayName("validateToken")
+    class ValidateToken {
+
+        private final JwtUtil jwtUtil = new JwtUtil(SECRET, true, 100, TimeUnit.MINUTES.toMillis(5));
+
+        @Test
+        @DisplayName("should return cached claims for a token seen before")
+        void shouldReuseVerifiedClaims() {
+            String token = token("operator", SECRET, TimeUnit.HOURS.toMillis(1));
+
+            Claims first = jwtUtil.validateToken(token);
+            Claims second = jwtUtil.validateToken(token);
+
+            assertThat(first.getSubject()).isEqualTo("operator");
+            assertThat(second).isSameAs(first);
+        }
+
+        @Test
+        @DisplayName("should reject tokens signed with another key and never cache them")
+        void shouldRejectForgedTokens() {
+            String forged = token("intruder", SECRET.replace('M', 'X'), TimeUnit.HOURS.toMillis(1));
+
+            assertThat(jwtUtil.validateToken(forged)).isNull();
+            assertThat(jwtUtil.validateToken(forged)).isNull();
+        }
+
+        @Test
+        @DisplayName("should reject expired tokens")
+        void shouldRejectExpiredTokens() {
+            assertThat(jwtUtil.validateToken(token("operator", SECRET, -1000))).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("VerifiedTokenCache")
+    class Cache {
+
+        @Test
+        @DisplayName("should evict an entry when the token expires")
+        void shouldExpireWithToken() {
+            VerifiedTokenCache cache = new VerifiedTokenCache(100, TimeUnit.MINUTES.toMillis(5));
+            // JWT expirations have second precision
+            long now = System.currentTimeMillis() / 1000 * 1000;
+            Claims claims = Jwts.claims().setSubject("operator").setExpiration(new Date(now + 1000));
+
+            cache.put("token", claims, now);
+
+            assertThat(cache.get("token", now + 500)).isSameAs(claims);
+            assertThat(cache.get("token", now + 1000)).isNull();
+            assertThat(cache.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should cap the lifetime at the maximum TTL")
+        void shouldCapAtMaxTtl() {
+            VerifiedTokenCache cache = new VerifiedTokenCache(100, 1000);
+            long now = System.currentTimeMillis();
+            Claims claims = Jwts.claims().setExpiration(new Date(now + TimeUnit.HOURS.toMillis(1)));
+
+            cache.put("token", claims, now);
+
+            assertThat(cache.get("token", now + 999)).isSameAs(claims);
+            assertThat(cache.get("token", now + 1000)).isNull();
+        }
+
+        @Test
+        @DisplayName("should stay within its bound once full")
+        void shouldStayBounded() {
+            VerifiedTokenCache cache = new VerifiedTokenCache(2, TimeUnit.MINUTES.toMillis(5));
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < 5; i++) {
+                cache.put("token-" + i, Jwts.claims(), now);
+            }
+
+            assertThat(cache.size()).isEqualTo(2);
+        }
+    }
+}
@@ -2,21 +2,111 @@ package com.greenhouse.controle.client;
 
 import com.greenhouse.controle.dto.MesureDTO;
 import com.greenhouse.controle.dto.ParametreDTO;
-import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
+import com.greenhouse.controle.exception.ResourceNotFoundException;
+import com.greenhouse.events.PartitionKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
-@FeignClient(name = "environnement-service")
-public interface EnvironnementClient {
-    
-    @GetMapping("/api/parametres")
-    List<ParametreDTO> getAllParametres();
-    
-    @GetMapping("/api/parametres/{id}")
-    ParametreDTO getParametreById(@PathVariable("id") Long id);
-    
-    @GetMapping("/api/mesures/recent/{parametreId}")
-    List<MesureDTO> getRecentMesures(@PathVariable("parametreId") Long parametreId);
+/**
+ * Non-blocking client for environnement-service.
+ *
+ * Parameters are cached for a short TTL; identical calls in flight at the same time share one request.
+ * Recent measurements of many parameters are fetched with the bulk endpoint, one call per 100 parameters.
+ */
+@Component
+@Slf4j
+public class EnvironnementClient {
+
+    private static final String GREENHOUSE_HEADER = "X-Greenhouse-Id";
+
+    private static final int MAX_BULK_PARAMETRES = 100;
+    private static final String ALL = "all";
+    private static final ParameterizedTypeReference<Map<Long, List<MesureDTO>>> RECENT_BY_PARAMETRE =
+            new ParameterizedTypeReference<>() { };
+
+    private final WebClient environnementWebClient;
+    private final EnvironnementClientProperties properties;
+    private final ReactiveTtlCache<String, List<ParametreDTO>> parametres;
+    private final ReactiveTtlCache<String, ParametreDTO> parametresById;
+    private final ReactiveTtlCache<String, Map<Long, List<MesureDTO>>> recentMesures;
+
+    public EnvironnementClient(WebClient environnementWebClient, EnvironnementClientProperties properties) {
+        this.environnementWebClient = environnementWebClient;
+        this.properties = properties;
+        this.parametres = new ReactiveTtlCache<>(properties.getParametreCacheTtl(), 1);
+        this.parametresById = new ReactiveTtlCache<>(properties.getParametreCacheTtl(), 1_000);
+        // Measurements are not cached, only concurrent identical requests are merged
+        this.recentMesures = new ReactiveTtlCache<>(Duration.ZERO, 256);
+    }
+
+    public Mono<List<ParametreDTO>> getAllParametres() {
+        return parametres.get(ALL, key -> environnementWebClient.get()
+                .uri("/api/parametres")
+                .retrieve()
+                .bodyToFlux(ParametreDTO.class)
+                .collectList()
+                .map(List::copyOf));
+    }
+
+    /**
+     * Parameter of a greenhouse by ID; the greenhouse is sent so environnement-service looks it up on its shard
+     */
+    public Mono<ParametreDTO> getParametreById(String greenhouseId, Long id) {
+        String greenhouse = greenhouseId != null ? greenhouseId : PartitionKeys.DEFAULT_GREENHOUSE;
+        return parametresById.get(PartitionKeys.of(greenhouse, id), key -> environnementWebClient.get()
+                .uri("/api/parametres/{id}", id)
+                .header(GREENHOUSE_HEADER, greenhouse)
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(), response -> Mono.error(
+                        new ResourceNotFoundException("Paramètre non trouvé avec l'ID: " + id)))
+                .bodyToMono(ParametreDTO.class));
+    }
+
+    /**
+     * Last measurements of each parameter, keyed by parameter ID; parameters without measurements map to an empty list
+     */
+    public Mono<Map<Long, List<MesureDTO>>> getRecentMesures(Collection<Long> parametreIds) {
+        // Sorted and deduplicated, so the same set of parameters always shares one request
+        TreeSet<Long> ids = new TreeSet<>(parametreIds);
+        if (ids.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return Flux.fromIterable(ids)
+                .buffer(MAX_BULK_PARAMETRES)
+                .concatMap(batch -> recentMesures.get(batchKey(batch), key -> fetchRecentMesures(batch)))
+                .collect(LinkedHashMap::new, Map::putAll);
+    }
+
+    public Mono<List<MesureDTO>> getRecentMesures(Long parametreId) {
+        return getRecentMesures(List.of(parametreId))
+                .map(recentes -> recentes.getOrDefault(parametreId, List.of()));
+    }
+
+    private Mono<Map<Long, List<MesureDTO>>> fetchRecentMesures(List<Long> batch) {
+        log.debug("Fetching recent measurements of {} parameters", batch.size());
+        return environnementWebClient.get()
+                .uri(uri -> uri.path("/api/mesures/recent")
+                        .queryParam("parametreIds", batch)
+                        .queryParam("limit", properties.getRecentLimit())
+                        .build())
+                .retrieve()
+                .bodyToMono(RECENT_BY_PARAMETRE);
+    }
+
+    private String batchKey(List<Long> batch) {
+        return batch.stream().map(String::valueOf).collect(Collectors.joining(",")) + ';' + properties.getRecentLimit();
+    }
 }
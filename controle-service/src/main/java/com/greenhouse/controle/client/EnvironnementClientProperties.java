@@ -0,0 +1,38 @@
+package com.greenhouse.controle.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Timeouts and caching of the calls to environnement-service
+ */
+@Component
+@ConfigurationProperties(prefix = "environnement-client")
+@Data
+public class EnvironnementClientProperties {
+
+    /**
+     * Resolved through the load balancer (Eureka service id)
+     */
+    private String baseUrl = "http://environnement-service";
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Time allowed for the response headers of one call
+     */
+    private Duration responseTimeout = Duration.ofSeconds(3);
+
+    /**
+     * Parameters change rarely: they are served from memory for this long
+     */
+    private Duration parametreCacheTtl = Duration.ofSeconds(30);
+
+    /**
+     * Measurements fetched per parameter by the bulk recent-measurements call
+     */
+    private int recentLimit = 10;
+}
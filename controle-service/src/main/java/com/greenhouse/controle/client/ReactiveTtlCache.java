@@ -0,0 +1,38 @@
+package com.greenhouse.controle.client;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches the value of a Mono per key for a TTL; concurrent callers of a key being loaded share one call.
+ *
+ * Errors and empty results are never kept, so the next caller retries. With a zero TTL only the
+ * in-flight call is shared. Past {@code maxEntries} keys the cache is simply cleared.
+ */
+public class ReactiveTtlCache<K, V> {
+
+    private final Duration ttl;
+    private final int maxEntries;
+    private final Map<K, Mono<V>> entries = new ConcurrentHashMap<>();
+
+    public ReactiveTtlCache(Duration ttl, int maxEntries) {
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        Mono<V> cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        return entries.computeIfAbsent(key, k -> loader.apply(k)
+                .cache(value -> ttl, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+}
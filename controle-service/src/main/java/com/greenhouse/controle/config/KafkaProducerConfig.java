@@ -1,6 +1,10 @@
 package com.greenhouse.controle.config;
 
-import com.greenhouse.controle.dto.EquipmentActionEvent;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.EquipmentActionEvent;
+import com.greenhouse.events.codec.EventSchemaRegistry;
+import com.greenhouse.events.codec.EventSerializer;
+import com.greenhouse.events.codec.WireFormat;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -41,6 +45,12 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.producer.properties.delivery.timeout.ms:120000}")
     private int deliveryTimeoutMs;
 
+    @Value("${kafka.wire-format:json}")
+    private WireFormat wireFormat;
+
+    @Value("${kafka.schema-registry.location:classpath*:schemas/}")
+    private String schemaRegistryLocation;
+
     /**
      * Common producer configuration
      */
@@ -83,12 +93,23 @@ public class KafkaProducerConfig {
         return props;
     }
 
+    /**
+     * File-based schema registry used to stamp and verify event schema versions
+     */
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry() {
+        return new EventSchemaRegistry(schemaRegistryLocation);
+    }
+
     /**
      * Producer factory for EquipmentActionEvent messages
      */
     @Bean
     public ProducerFactory<String, EquipmentActionEvent> equipmentActionProducerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerConfigs());
+        log.info("Equipment action events published as {}", wireFormat);
+        return new DefaultKafkaProducerFactory<>(producerConfigs(), new StringSerializer(),
+                new EventSerializer<>(wireFormat,
+                        eventSchemaRegistry().verify(EquipmentActionEvent.SUBJECT, EquipmentActionEvent.class)));
     }
 
     /**
@@ -102,6 +123,26 @@ public class KafkaProducerConfig {
         return template;
     }
 
+    /**
+     * Producer factory for ConfigChangeEvent messages
+     */
+    @Bean
+    public ProducerFactory<String, ConfigChangeEvent> configChangeProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfigs(), new StringSerializer(),
+                new EventSerializer<>(wireFormat,
+                        eventSchemaRegistry().verify(ConfigChangeEvent.SUBJECT, ConfigChangeEvent.class)));
+    }
+
+    /**
+     * KafkaTemplate for sending ConfigChangeEvent messages
+     */
+    @Bean
+    public KafkaTemplate<String, ConfigChangeEvent> configChangeKafkaTemplate() {
+        KafkaTemplate<String, ConfigChangeEvent> template = new KafkaTemplate<>(configChangeProducerFactory());
+        template.setObservationEnabled(true);
+        return template;
+    }
+
     /**
      * Generic producer factory for DLQ messages
      */
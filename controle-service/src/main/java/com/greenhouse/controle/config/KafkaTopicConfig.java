@@ -27,6 +27,9 @@ public class KafkaTopicConfig {
     @Value("${kafka.topic.equipment-actions}")
     private String equipmentActionsTopic;
 
+    @Value("${kafka.topic.config-changes:config-changes}")
+    private String configChangesTopic;
+
     @Value("${kafka.topic.partitions:3}")
     private int partitions;
 
@@ -55,6 +58,21 @@ public class KafkaTopicConfig {
                 .build();
     }
 
+    /**
+     * Topic for equipment configuration changes (also fed by the Environnement service)
+     * Consumed by: API Gateway (response cache invalidation)
+     */
+    @Bean
+    public NewTopic configChangesTopic() {
+        return TopicBuilder.name(configChangesTopic)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .config("retention.ms", "86400000") // 1 day retention
+                .config("cleanup.policy", "delete")
+                .config("min.insync.replicas", "1")
+                .build();
+    }
+
     /**
      * Dead Letter Queue for failed alert processing
      */
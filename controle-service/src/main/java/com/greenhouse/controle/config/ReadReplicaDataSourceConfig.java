@@ -0,0 +1,48 @@
+package com.greenhouse.controle.config;
+
+import com.greenhouse.datasource.HikariPools;
+import com.greenhouse.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Primary ({@code spring.datasource}) and read replica pools behind a {@link ReplicaRoutingDataSource}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(ReadReplicaProperties properties,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             MeterRegistry meterRegistry) {
+        String driverClassName = dataSourceProperties.determineDriverClassName();
+        ReadReplicaProperties.Pool writePool = properties.getWritePool();
+        DataSource primary = HikariPools.create("primary", dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(), driverClassName,
+                writePool.getMaximumPoolSize(), writePool.getMinimumIdle(), meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        ReadReplicaProperties.Pool readPool = properties.getReadPool();
+        properties.getReplicas().forEach((name, replica) -> replicas.put(name, HikariPools.create("replica-" + name,
+                replica.getUrl(), replica.getUsername(), replica.getPassword(), driverClassName,
+                readPool.getMaximumPoolSize(), readPool.getMinimumIdle(), meterRegistry)));
+        return new ReplicaRoutingDataSource(ReplicaRoutingDataSource.PRIMARY, primary, replicas, properties,
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
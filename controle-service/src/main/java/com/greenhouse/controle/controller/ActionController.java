@@ -13,9 +13,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.Collections;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/actions")
@@ -62,26 +62,31 @@ public class ActionController {
 
     @GetMapping("/conditions")
     @Operation(summary = "Obtenir les conditions environnementales", 
-               description = "Récupère les paramètres et mesures actuelles depuis le service environnement")
+               description = "Récupère les paramètres et leurs dernières mesures depuis le service environnement")
     @CircuitBreaker(name = "environnement-service", fallbackMethod = "getConditionsFallback")
-    public ResponseEntity<EnvironmentConditionsResponse> getCurrentConditions() {
+    public Mono<ResponseEntity<EnvironmentConditionsResponse>> getCurrentConditions() {
         log.info("Fetching current environmental conditions from environnement-service");
-        
-        List<ParametreDTO> parametres = environnementClient.getAllParametres();
-        
-        EnvironmentConditionsResponse response = new EnvironmentConditionsResponse();
-        response.setParametres(parametres);
-        
-        return ResponseEntity.ok(response);
+
+        // Parameters come from the local cache; their measurements from one bulk call
+        return environnementClient.getAllParametres()
+                .flatMap(parametres -> environnementClient
+                        .getRecentMesures(parametres.stream().map(ParametreDTO::getId).toList())
+                        .map(mesures -> {
+                            EnvironmentConditionsResponse response = new EnvironmentConditionsResponse();
+                            response.setParametres(parametres);
+                            response.setMesuresRecentes(mesures);
+                            return ResponseEntity.ok(response);
+                        }));
     }
 
-    public ResponseEntity<EnvironmentConditionsResponse> getConditionsFallback(Exception e) {
+    public Mono<ResponseEntity<EnvironmentConditionsResponse>> getConditionsFallback(Exception e) {
         log.error("Circuit breaker activated for environnement-service: {}", e.getMessage());
         
         EnvironmentConditionsResponse response = new EnvironmentConditionsResponse();
         response.setParametres(Collections.emptyList());
+        response.setMesuresRecentes(Collections.emptyMap());
         response.setMessage("Service environnement temporairement indisponible");
         
-        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response));
     }
 }
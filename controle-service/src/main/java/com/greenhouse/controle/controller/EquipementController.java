@@ -29,9 +29,12 @@ public class EquipementController {
     }
 
     @GetMapping
-    @Operation(summary = "Lister tous les équipements", description = "Récupère la liste de tous les équipements")
-    public ResponseEntity<List<EquipementResponse>> getAllEquipements() {
-        List<EquipementResponse> responses = equipementService.getAllEquipements();
+    @Operation(summary = "Lister tous les équipements",
+            description = "Récupère la liste de tous les équipements, éventuellement d'une serre ou d'une zone")
+    public ResponseEntity<List<EquipementResponse>> getAllEquipements(
+            @RequestParam(required = false) String greenhouseId,
+            @RequestParam(required = false) String zoneId) {
+        List<EquipementResponse> responses = equipementService.getAllEquipements(greenhouseId, zoneId);
         return ResponseEntity.ok(responses);
     }
 
@@ -8,6 +8,10 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * Also built by the projections of {@code ActionRepository} through the all-args constructor: field order is
+ * part of those queries.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,6 +20,8 @@ public class ActionResponse {
     private Long id;
     private Long equipementId;
     private Long parametreId;
+    private String greenhouseId;
+    private String zoneId;
     private TypeAction typeAction;
     private Double valeurCible;
     private Double valeurActuelle;
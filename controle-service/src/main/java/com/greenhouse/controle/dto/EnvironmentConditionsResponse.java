@@ -5,11 +5,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class EnvironmentConditionsResponse {
     private List<ParametreDTO> parametres;
+    private Map<Long, List<MesureDTO>> mesuresRecentes;
     private String message;
 }
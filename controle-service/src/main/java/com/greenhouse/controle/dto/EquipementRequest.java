@@ -4,6 +4,7 @@ import com.greenhouse.controle.model.EquipementType;
 import com.greenhouse.controle.model.EtatEquipement;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -23,4 +24,11 @@ public class EquipementRequest {
     private EtatEquipement etat;
 
     private Long parametreAssocie;
+
+    // Default greenhouse and zone when omitted
+    @Size(max = 50, message = "L'ID de la serre ne doit pas dépasser 50 caractères")
+    private String greenhouseId;
+
+    @Size(max = 50, message = "L'ID de la zone ne doit pas dépasser 50 caractères")
+    private String zoneId;
 }
@@ -19,6 +19,8 @@ public class EquipementResponse {
     private EtatEquipement etat;
     private LocalDateTime derniereAction;
     private Long parametreAssocie;
+    private String greenhouseId;
+    private String zoneId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
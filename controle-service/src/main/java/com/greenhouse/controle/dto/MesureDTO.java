@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 public class MesureDTO {
     private Long id;
     private Long parametreId;
+    private String greenhouseId;
+    private String zoneId;
     private Double valeur;
     private LocalDateTime dateMesure;
     private Boolean alerte;
@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 public class ParametreDTO {
     private Long id;
     private String type;
+    private String greenhouseId;
+    private String zoneId;
     private Double seuilMin;
     private Double seuilMax;
     private String unite;
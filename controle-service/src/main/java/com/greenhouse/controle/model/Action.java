@@ -1,9 +1,11 @@
 package com.greenhouse.controle.model;
 
+import com.greenhouse.events.PartitionKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -13,7 +15,8 @@ import java.time.LocalDateTime;
     @Index(name = "idx_equipement_id", columnList = "equipement_id"),
     @Index(name = "idx_parametre_id", columnList = "parametre_id"),
     @Index(name = "idx_statut", columnList = "statut"),
-    @Index(name = "idx_date_execution", columnList = "date_execution")
+    @Index(name = "idx_date_execution", columnList = "date_execution"),
+    @Index(name = "idx_greenhouse_parametre_id", columnList = "greenhouse_id, parametre_id")
 })
 @Data
 @NoArgsConstructor
@@ -30,6 +33,15 @@ public class Action {
     @Column(name = "parametre_id")
     private Long parametreId;
 
+    // Greenhouse and zone of the equipment
+    @ColumnDefault("'" + PartitionKeys.DEFAULT_GREENHOUSE + "'")
+    @Column(name = "greenhouse_id", nullable = false, length = 50)
+    private String greenhouseId = PartitionKeys.DEFAULT_GREENHOUSE;
+
+    @ColumnDefault("'" + PartitionKeys.DEFAULT_ZONE + "'")
+    @Column(name = "zone_id", nullable = false, length = 50)
+    private String zoneId = PartitionKeys.DEFAULT_ZONE;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "type_action", nullable = false)
     private TypeAction typeAction;
@@ -1,16 +1,20 @@
 package com.greenhouse.controle.model;
 
+import com.greenhouse.events.PartitionKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "equipements")
+@Table(name = "equipements", indexes = {
+    @Index(name = "idx_equipement_greenhouse_zone_type", columnList = "greenhouse_id, zone_id, type, etat")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +41,14 @@ public class Equipement {
     @Column(name = "parametre_associe")
     private Long parametreAssocie;
 
+    @ColumnDefault("'" + PartitionKeys.DEFAULT_GREENHOUSE + "'")
+    @Column(name = "greenhouse_id", nullable = false, length = 50)
+    private String greenhouseId = PartitionKeys.DEFAULT_GREENHOUSE;
+
+    @ColumnDefault("'" + PartitionKeys.DEFAULT_ZONE + "'")
+    @Column(name = "zone_id", nullable = false, length = 50)
+    private String zoneId = PartitionKeys.DEFAULT_ZONE;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
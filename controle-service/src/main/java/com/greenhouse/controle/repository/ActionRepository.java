@@ -1,5 +1,6 @@
 package com.greenhouse.controle.repository;
 
+import com.greenhouse.controle.dto.ActionResponse;
 import com.greenhouse.controle.model.Action;
 import com.greenhouse.controle.model.StatutAction;
 import org.springframework.data.domain.Page;
@@ -12,10 +13,26 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * List queries return {@link ActionResponse} projections in one statement, already sorted: no entity is hydrated,
+ * so the persistence context does not grow with the page.
+ */
 @Repository
 public interface ActionRepository extends JpaRepository<Action, Long> {
-    
-    Page<Action> findByEquipementId(Long equipementId, Pageable pageable);
+
+    String RESPONSE = """
+            SELECT new com.greenhouse.controle.dto.ActionResponse(
+                a.id, a.equipementId, a.parametreId, a.greenhouseId, a.zoneId, a.typeAction, a.valeurCible,
+                a.valeurActuelle, a.statut, a.dateExecution, a.resultat, a.createdAt)
+            FROM Action a
+            """;
+
+    @Query(value = RESPONSE + " ORDER BY a.createdAt DESC", countQuery = "SELECT count(a) FROM Action a")
+    Page<ActionResponse> findResponses(Pageable pageable);
+
+    @Query(value = RESPONSE + "WHERE a.equipementId = :equipementId ORDER BY a.dateExecution DESC",
+            countQuery = "SELECT count(a) FROM Action a WHERE a.equipementId = :equipementId")
+    Page<ActionResponse> findResponsesByEquipementId(@Param("equipementId") Long equipementId, Pageable pageable);
     
     Page<Action> findByStatut(StatutAction statut, Pageable pageable);
     
@@ -16,7 +16,15 @@ public interface EquipementRepository extends JpaRepository<Equipement, Long> {
     
     List<Equipement> findByEtat(EtatEquipement etat);
     
-    Optional<Equipement> findByTypeAndEtat(EquipementType type, EtatEquipement etat);
-    
     List<Equipement> findByParametreAssocie(Long parametreAssocie);
+
+    List<Equipement> findByGreenhouseId(String greenhouseId);
+
+    List<Equipement> findByGreenhouseIdAndZoneId(String greenhouseId, String zoneId);
+
+    Optional<Equipement> findFirstByGreenhouseIdAndZoneIdAndTypeAndEtatOrderByIdAsc(
+            String greenhouseId, String zoneId, EquipementType type, EtatEquipement etat);
+
+    Optional<Equipement> findFirstByGreenhouseIdAndTypeAndEtatOrderByIdAsc(
+            String greenhouseId, EquipementType type, EtatEquipement etat);
 }
@@ -3,8 +3,8 @@ package com.greenhouse.controle.service;
 import com.greenhouse.controle.config.MetricsConfig;
 import com.greenhouse.controle.dto.ActionRequest;
 import com.greenhouse.controle.dto.ActionResponse;
-import com.greenhouse.controle.dto.AlertEvent;
-import com.greenhouse.controle.dto.EquipmentActionEvent;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.EquipmentActionEvent;
 import com.greenhouse.controle.exception.EquipementNotAvailableException;
 import com.greenhouse.controle.exception.ResourceNotFoundException;
 import com.greenhouse.controle.model.*;
@@ -13,8 +13,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,6 +41,8 @@ public class ActionService {
         Action action = new Action();
         action.setEquipementId(request.getEquipementId());
         action.setParametreId(request.getParametreId());
+        action.setGreenhouseId(equipement.getGreenhouseId());
+        action.setZoneId(equipement.getZoneId());
         action.setTypeAction(request.getTypeAction());
         action.setValeurCible(request.getValeurCible());
         action.setValeurActuelle(request.getValeurActuelle());
@@ -99,16 +99,18 @@ public class ActionService {
 
     @Transactional
     public ActionResponse createAutomaticAction(AlertEvent alert) {
-        log.info("Creating automatic action for alert: {}", alert.getParametreType());
+        log.info("Creating automatic action for alert: {} in greenhouse {} zone {}",
+                alert.parametreType(), alert.greenhouseId(), alert.zoneId());
         
         EquipementType equipementType = determineEquipementType(alert);
         TypeAction typeAction = determineActionType(alert);
         
-        // Find available equipment
-        Optional<Equipement> equipementOpt = equipementService.findAvailableEquipementByType(equipementType);
+        // Find available equipment where the alert was raised
+        Optional<Equipement> equipementOpt = equipementService.findAvailableEquipementByType(
+                equipementType, alert.greenhouseId(), alert.zoneId());
         
         if (equipementOpt.isEmpty()) {
-            log.warn("No available equipment of type {} found", equipementType);
+            log.warn("No available equipment of type {} found in greenhouse {}", equipementType, alert.greenhouseId());
             throw new EquipementNotAvailableException(
                 "Aucun équipement disponible de type: " + equipementType);
         }
@@ -117,12 +119,14 @@ public class ActionService {
         
         Action action = new Action();
         action.setEquipementId(equipement.getId());
-        action.setParametreId(alert.getParametreId());
+        action.setParametreId(alert.parametreId());
+        action.setGreenhouseId(equipement.getGreenhouseId());
+        action.setZoneId(equipement.getZoneId());
         action.setTypeAction(typeAction);
-        action.setValeurCible(alert.getValeur() > alert.getSeuilMax() ? alert.getSeuilMax() : alert.getSeuilMin());
-        action.setValeurActuelle(alert.getValeur());
+        action.setValeurCible(alert.violatedThreshold());
+        action.setValeurActuelle(alert.valeur());
         action.setStatut(StatutAction.EN_ATTENTE);
-        action.setResultat("Action automatique créée suite à une alerte - " + alert.getSeverity());
+        action.setResultat("Action automatique créée suite à une alerte - " + alert.severity());
         
         Action saved = actionRepository.save(action);
         log.info("Automatic action created with ID: {}", saved.getId());
@@ -140,28 +144,29 @@ public class ActionService {
         EquipmentActionEvent event = EquipmentActionEvent.builder()
                 .equipementId(action.getEquipementId())
                 .equipementName(equipement.getNom())
-                .equipementType(equipement.getType())
+                .equipementType(equipement.getType().name())
                 .actionId(action.getId())
-                .typeAction(action.getTypeAction())
-                .statut(action.getStatut())
+                .typeAction(action.getTypeAction().name())
+                .statut(action.getStatut().name())
                 .valeurCible(action.getValeurCible())
                 .valeurActuelle(action.getValeurActuelle())
                 .parametreId(action.getParametreId())
                 .dateExecution(action.getDateExecution())
                 .resultat(action.getResultat())
                 .isAutomatic(isAutomatic)
+                .greenhouseId(action.getGreenhouseId())
+                .zoneId(action.getZoneId())
                 .build();
         
         kafkaProducerService.sendEquipmentAction(event);
     }
 
     private EquipementType determineEquipementType(AlertEvent alert) {
-        String parametreType = alert.getParametreType().toLowerCase();
+        String parametreType = alert.parametreType().toLowerCase();
         
         if (parametreType.contains("temperature")) {
-            // If temperature is too high, use fan; if too low, use heater
-            return alert.getValeur() > alert.getSeuilMax() ? 
-                EquipementType.VENTILATEUR : EquipementType.CHAUFFAGE;
+            // Too high or rising fast: fan; too low or falling fast: heater
+            return alert.highSide() ? EquipementType.VENTILATEUR : EquipementType.CHAUFFAGE;
         } else if (parametreType.contains("humidite") || parametreType.contains("humidity")) {
             return EquipementType.VENTILATEUR;
         } else if (parametreType.contains("luminosite") || parametreType.contains("luminosity") || parametreType.contains("light")) {
@@ -174,34 +179,31 @@ public class ActionService {
     }
 
     private TypeAction determineActionType(AlertEvent alert) {
-        String parametreType = alert.getParametreType().toLowerCase();
+        String parametreType = alert.parametreType().toLowerCase();
         
+        // Rules firing within the thresholds (rate of change, average deviation) count on the side the value heads to
         if (parametreType.contains("temperature")) {
-            if (alert.getValeur() > alert.getSeuilMax()) {
-                return TypeAction.ACTIVER; // Activate fan
-            } else if (alert.getValeur() < alert.getSeuilMin()) {
-                return TypeAction.ACTIVER; // Activate heater
-            }
+            return TypeAction.ACTIVER; // Activate fan or heater
         } else if ((parametreType.contains("humidite") || parametreType.contains("humidity")) 
-                   && alert.getValeur() > alert.getSeuilMax()) {
+                   && alert.highSide()) {
             return TypeAction.ACTIVER; // Activate fan
         } else if ((parametreType.contains("luminosite") || parametreType.contains("luminosity") || parametreType.contains("light")) 
-                   && alert.getValeur() < alert.getSeuilMin()) {
+                   && !alert.highSide()) {
             return TypeAction.ACTIVER; // Activate light
-        } else if (parametreType.contains("co2") && alert.getValeur() > alert.getSeuilMax()) {
+        } else if (parametreType.contains("co2") && alert.highSide()) {
             return TypeAction.ACTIVER; // Activate ventilation
         }
         
         return TypeAction.AJUSTER;
     }
 
+    @Transactional(readOnly = true)
     public Page<ActionResponse> getAllActions(int page, int size) {
         log.info("Fetching all actions - page: {}, size: {}", page, size);
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return actionRepository.findAll(pageable)
-                .map(this::mapToResponse);
+        return actionRepository.findResponses(PageRequest.of(page, size));
     }
 
+    @Transactional(readOnly = true)
     public ActionResponse getActionById(Long id) {
         log.info("Fetching action with ID: {}", id);
         Action action = actionRepository.findById(id)
@@ -209,11 +211,10 @@ public class ActionService {
         return mapToResponse(action);
     }
 
+    @Transactional(readOnly = true)
     public Page<ActionResponse> getActionsByEquipementId(Long equipementId, int page, int size) {
         log.info("Fetching actions for equipment ID: {}", equipementId);
-        Pageable pageable = PageRequest.of(page, size, Sort.by("dateExecution").descending());
-        return actionRepository.findByEquipementId(equipementId, pageable)
-                .map(this::mapToResponse);
+        return actionRepository.findResponsesByEquipementId(equipementId, PageRequest.of(page, size));
     }
 
     private ActionResponse mapToResponse(Action action) {
@@ -221,6 +222,8 @@ public class ActionService {
         response.setId(action.getId());
         response.setEquipementId(action.getEquipementId());
         response.setParametreId(action.getParametreId());
+        response.setGreenhouseId(action.getGreenhouseId());
+        response.setZoneId(action.getZoneId());
         response.setTypeAction(action.getTypeAction());
         response.setValeurCible(action.getValeurCible());
         response.setValeurActuelle(action.getValeurActuelle());
@@ -1,6 +1,6 @@
 package com.greenhouse.controle.service;
 
-import com.greenhouse.controle.dto.AlertEvent;
+import com.greenhouse.events.AlertEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -43,7 +43,7 @@ public class AlertConsumerService {
         
         log.info("Received alert from topic '{}': partition={}, offset={}, key={}, eventId={}",
                 record.topic(), record.partition(), record.offset(), record.key(), 
-                alert != null ? alert.getEventId() : "null");
+                alert != null ? alert.eventId() : "null");
         
         try {
             // Validate alert
@@ -54,8 +54,8 @@ public class AlertConsumerService {
             }
 
             // Idempotency check - skip if already processed
-            if (isAlreadyProcessed(alert.getEventId())) {
-                log.info("Alert already processed, skipping: eventId={}", alert.getEventId());
+            if (isAlreadyProcessed(alert.eventId())) {
+                log.info("Alert already processed, skipping: eventId={}", alert.eventId());
                 acknowledgment.acknowledge();
                 return;
             }
@@ -64,33 +64,39 @@ public class AlertConsumerService {
             processAlert(alert);
             
             // Mark as processed
-            markAsProcessed(alert.getEventId());
+            markAsProcessed(alert.eventId());
             
             // Acknowledge after successful processing
             acknowledgment.acknowledge();
             
-            log.info("Alert processed and acknowledged successfully: eventId={}", alert.getEventId());
+            log.info("Alert processed and acknowledged successfully: eventId={}", alert.eventId());
             
         } catch (Exception e) {
             log.error("Failed to process alert: eventId={}, error={}", 
-                    alert != null ? alert.getEventId() : "unknown", e.getMessage(), e);
+                    alert != null ? alert.eventId() : "unknown", e.getMessage(), e);
             // Don't acknowledge - message will be retried or sent to DLQ by error handler
             throw e;
         }
     }
 
     /**
-     * Process the alert by creating an automatic action
+     * Process the alert by creating an automatic action; a resolved incident needs none
      */
     private void processAlert(AlertEvent alert) {
-        log.info("Processing alert: type={}, value={}, thresholds=[{}-{}], severity={}",
-                alert.getParametreType(), alert.getValeur(), 
-                alert.getSeuilMin(), alert.getSeuilMax(), alert.getSeverity());
+        if (alert.resolvesIncident()) {
+            log.info("Alert incident resolved: incidentId={}, type={}, breaches={}, peak={}",
+                    alert.incidentId(), alert.parametreType(), alert.breachCount(), alert.peakValeur());
+            return;
+        }
+
+        log.info("Processing alert: type={}, value={}, thresholds=[{}-{}], severity={}, rule={}, direction={}",
+                alert.parametreType(), alert.valeur(), 
+                alert.seuilMin(), alert.seuilMax(), alert.severity(), alert.rule(), alert.direction());
         
         // Create automatic corrective action
         actionService.createAutomaticAction(alert);
         
-        log.info("Automatic action created for alert: eventId={}", alert.getEventId());
+        log.info("Automatic action created for alert: eventId={}", alert.eventId());
     }
 
     /**
@@ -7,8 +7,11 @@ import com.greenhouse.controle.model.Equipement;
 import com.greenhouse.controle.model.EquipementType;
 import com.greenhouse.controle.model.EtatEquipement;
 import com.greenhouse.controle.repository.EquipementRepository;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.PartitionKeys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +26,7 @@ import java.util.stream.Collectors;
 public class EquipementService {
 
     private final EquipementRepository equipementRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public EquipementResponse createEquipement(EquipementRequest request) {
@@ -33,16 +37,38 @@ public class EquipementService {
         equipement.setNom(request.getNom());
         equipement.setEtat(request.getEtat());
         equipement.setParametreAssocie(request.getParametreAssocie());
+        if (request.getGreenhouseId() != null) {
+            equipement.setGreenhouseId(request.getGreenhouseId());
+        }
+        if (request.getZoneId() != null) {
+            equipement.setZoneId(request.getZoneId());
+        }
         
         Equipement saved = equipementRepository.save(equipement);
         log.info("Equipment created successfully with ID: {}", saved.getId());
+        publishConfigChange(saved, ConfigChangeEvent.CREATED);
         
         return mapToResponse(saved);
     }
 
     public List<EquipementResponse> getAllEquipements() {
-        log.info("Fetching all equipment");
-        return equipementRepository.findAll().stream()
+        return getAllEquipements(null, null);
+    }
+
+    /**
+     * Equipment of a greenhouse, optionally of one of its zones; all equipment when no greenhouse is given
+     */
+    public List<EquipementResponse> getAllEquipements(String greenhouseId, String zoneId) {
+        log.info("Fetching equipment - greenhouse: {}, zone: {}", greenhouseId, zoneId);
+        List<Equipement> equipements;
+        if (greenhouseId == null) {
+            equipements = equipementRepository.findAll();
+        } else if (zoneId == null) {
+            equipements = equipementRepository.findByGreenhouseId(greenhouseId);
+        } else {
+            equipements = equipementRepository.findByGreenhouseIdAndZoneId(greenhouseId, zoneId);
+        }
+        return equipements.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -74,9 +100,17 @@ public class EquipementService {
         equipement.setNom(request.getNom());
         equipement.setEtat(request.getEtat());
         equipement.setParametreAssocie(request.getParametreAssocie());
+        // Scope is kept unless given
+        if (request.getGreenhouseId() != null) {
+            equipement.setGreenhouseId(request.getGreenhouseId());
+        }
+        if (request.getZoneId() != null) {
+            equipement.setZoneId(request.getZoneId());
+        }
         
         Equipement updated = equipementRepository.save(equipement);
         log.info("Equipment updated successfully");
+        publishConfigChange(updated, ConfigChangeEvent.UPDATED);
         
         return mapToResponse(updated);
     }
@@ -89,8 +123,17 @@ public class EquipementService {
         equipementRepository.save(equipement);
     }
 
-    public Optional<Equipement> findAvailableEquipementByType(EquipementType type) {
-        return equipementRepository.findByTypeAndEtat(type, EtatEquipement.ACTIF);
+    /**
+     * Active equipment of a type in the zone, else elsewhere in the same greenhouse; never in another greenhouse.
+     * A null greenhouse or zone means the default one.
+     */
+    public Optional<Equipement> findAvailableEquipementByType(EquipementType type, String greenhouseId, String zoneId) {
+        String greenhouse = greenhouseId != null ? greenhouseId : PartitionKeys.DEFAULT_GREENHOUSE;
+        String zone = zoneId != null ? zoneId : PartitionKeys.DEFAULT_ZONE;
+        return equipementRepository
+                .findFirstByGreenhouseIdAndZoneIdAndTypeAndEtatOrderByIdAsc(greenhouse, zone, type, EtatEquipement.ACTIF)
+                .or(() -> equipementRepository
+                        .findFirstByGreenhouseIdAndTypeAndEtatOrderByIdAsc(greenhouse, type, EtatEquipement.ACTIF));
     }
 
     public List<Equipement> findByParametreAssocie(Long parametreId) {
@@ -114,9 +157,24 @@ public class EquipementService {
         }
         
         Equipement updated = equipementRepository.save(equipement);
+        publishConfigChange(updated, ConfigChangeEvent.UPDATED);
         return mapToResponse(updated);
     }
 
+    /**
+     * Published to Kafka after commit by {@link KafkaProducerService#sendConfigChange}.
+     * derniereAction updates are not published: they happen on every action and cached
+     * listings only lag behind by their TTL.
+     */
+    private void publishConfigChange(Equipement equipement, String changeType) {
+        eventPublisher.publishEvent(ConfigChangeEvent.builder()
+                .entityType(ConfigChangeEvent.EQUIPEMENT)
+                .entityId(equipement.getId())
+                .changeType(changeType)
+                .greenhouseId(equipement.getGreenhouseId())
+                .build());
+    }
+
     private EquipementResponse mapToResponse(Equipement equipement) {
         EquipementResponse response = new EquipementResponse();
         response.setId(equipement.getId());
@@ -125,6 +183,8 @@ public class EquipementService {
         response.setEtat(equipement.getEtat());
         response.setDerniereAction(equipement.getDerniereAction());
         response.setParametreAssocie(equipement.getParametreAssocie());
+        response.setGreenhouseId(equipement.getGreenhouseId());
+        response.setZoneId(equipement.getZoneId());
         response.setCreatedAt(equipement.getCreatedAt());
         response.setUpdatedAt(equipement.getUpdatedAt());
         return response;
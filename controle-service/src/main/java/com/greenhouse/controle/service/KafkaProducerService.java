@@ -1,12 +1,15 @@
 package com.greenhouse.controle.service;
 
-import com.greenhouse.controle.dto.EquipmentActionEvent;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.EquipmentActionEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -14,6 +17,7 @@ import java.util.concurrent.CompletableFuture;
  * Kafka Producer Service for Controle Service
  * Publishes to:
  * - equipment-actions: Equipment action notifications for notification service and dashboard
+ * - config-changes: Equipment changes, used by the gateway to invalidate cached responses
  */
 @Service
 @RequiredArgsConstructor
@@ -21,20 +25,24 @@ import java.util.concurrent.CompletableFuture;
 public class KafkaProducerService {
 
     private final KafkaTemplate<String, EquipmentActionEvent> equipmentActionKafkaTemplate;
+    private final KafkaTemplate<String, ConfigChangeEvent> configChangeKafkaTemplate;
 
     @Value("${kafka.topic.equipment-actions}")
     private String equipmentActionsTopic;
 
+    @Value("${kafka.topic.config-changes:config-changes}")
+    private String configChangesTopic;
+
     /**
      * Send equipment action event to equipment-actions topic
-     * Uses equipementId as the message key for partitioning
+     * Keyed by greenhouse and equipementId for partitioning
      */
     public void sendEquipmentAction(EquipmentActionEvent actionEvent) {
-        String key = actionEvent.getEquipementId().toString();
+        String key = actionEvent.partitionKey();
         
         log.info("Sending equipment action to topic '{}' with key '{}': actionId={}, type={}, status={}, eventId={}",
-                equipmentActionsTopic, key, actionEvent.getActionId(), 
-                actionEvent.getTypeAction(), actionEvent.getStatut(), actionEvent.getEventId());
+                equipmentActionsTopic, key, actionEvent.actionId(), 
+                actionEvent.typeAction(), actionEvent.statut(), actionEvent.eventId());
 
         CompletableFuture<SendResult<String, EquipmentActionEvent>> future = 
                 equipmentActionKafkaTemplate.send(equipmentActionsTopic, key, actionEvent);
@@ -45,25 +53,43 @@ public class KafkaProducerService {
                         equipmentActionsTopic,
                         result.getRecordMetadata().partition(),
                         result.getRecordMetadata().offset(),
-                        actionEvent.getEventId());
+                        actionEvent.eventId());
             } else {
                 log.error("Failed to send equipment action to topic '{}': eventId={}, error={}",
-                        equipmentActionsTopic, actionEvent.getEventId(), ex.getMessage(), ex);
+                        equipmentActionsTopic, actionEvent.eventId(), ex.getMessage(), ex);
                 // Send to DLQ on failure
                 sendToEquipmentActionDlq(actionEvent, ex.getMessage());
             }
         });
     }
 
+    /**
+     * Send a configuration change once the transaction that produced it has committed,
+     * so the gateway never drops a cached response before the new state is readable.
+     * A lost change is only logged: cached responses still expire with their TTL.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void sendConfigChange(ConfigChangeEvent changeEvent) {
+        String key = changeEvent.entityType() + ":" + changeEvent.entityId();
+
+        configChangeKafkaTemplate.send(configChangesTopic, key, changeEvent)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Failed to send config change to topic '{}': key={}, eventId={}, error={}",
+                                configChangesTopic, key, changeEvent.eventId(), ex.getMessage());
+                    }
+                });
+    }
+
     /**
      * Send equipment action synchronously - use when you need to ensure delivery
      */
     public boolean sendEquipmentActionSync(EquipmentActionEvent actionEvent) {
-        String key = actionEvent.getEquipementId().toString();
+        String key = actionEvent.partitionKey();
         
         try {
             log.info("Sending equipment action synchronously to topic '{}': eventId={}", 
-                    equipmentActionsTopic, actionEvent.getEventId());
+                    equipmentActionsTopic, actionEvent.eventId());
             
             SendResult<String, EquipmentActionEvent> result = 
                     equipmentActionKafkaTemplate.send(equipmentActionsTopic, key, actionEvent).get();
@@ -72,12 +98,12 @@ public class KafkaProducerService {
                     equipmentActionsTopic,
                     result.getRecordMetadata().partition(),
                     result.getRecordMetadata().offset(),
-                    actionEvent.getEventId());
+                    actionEvent.eventId());
             return true;
             
         } catch (Exception e) {
             log.error("Failed to send equipment action synchronously: eventId={}, error={}",
-                    actionEvent.getEventId(), e.getMessage(), e);
+                    actionEvent.eventId(), e.getMessage(), e);
             sendToEquipmentActionDlq(actionEvent, e.getMessage());
             return false;
         }
@@ -88,17 +114,17 @@ public class KafkaProducerService {
      */
     private void sendToEquipmentActionDlq(EquipmentActionEvent actionEvent, String errorMessage) {
         String dlqTopic = equipmentActionsTopic + ".DLQ";
-        String key = actionEvent.getEquipementId().toString();
+        String key = actionEvent.partitionKey();
         
         log.warn("Sending equipment action to DLQ '{}': eventId={}, originalError={}",
-                dlqTopic, actionEvent.getEventId(), errorMessage);
+                dlqTopic, actionEvent.eventId(), errorMessage);
         
         try {
             equipmentActionKafkaTemplate.send(dlqTopic, key, actionEvent);
-            log.info("Equipment action successfully sent to DLQ: eventId={}", actionEvent.getEventId());
+            log.info("Equipment action successfully sent to DLQ: eventId={}", actionEvent.eventId());
         } catch (Exception e) {
             log.error("Failed to send equipment action to DLQ: eventId={}, error={}",
-                    actionEvent.getEventId(), e.getMessage(), e);
+                    actionEvent.eventId(), e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,123 @@
+package com.greenhouse.environnement.alerting;
+
+import com.greenhouse.environnement.model.AlertIncidentState;
+import com.greenhouse.environnement.model.Parametre;
+import com.greenhouse.environnement.repository.AlertIncidentStateRepository;
+import com.greenhouse.environnement.repository.ParametreRepository;
+import com.greenhouse.events.AlertEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Groups the consecutive breaches of a parameter into one incident and reports its state changes only: opened on
+ * the first breach, escalated as soon as a breach is more severe than the incident so far, resolved once enough
+ * consecutive measurements are back within the thresholds. Breaches in between only update the incident's count
+ * and peak, so a sensor sampling every few seconds out of range publishes one alert rather than one per
+ * measurement.
+ *
+ * Open incidents are kept in {@code alert_incidents}, on the shard of their greenhouse, since measurements of a
+ * parameter may reach any instance. The incident is read and changed in the measurement's transaction, under a
+ * lock on the parameter's row: concurrent measurements of a parameter apply in turn, and a rollback undoes the
+ * change along with the outbox rows. A measurement within thresholds with nothing open costs one lookup by key.
+ */
+@Component
+public class AlertAggregator {
+
+    private final AlertRuleProperties properties;
+    private final AlertIncidentStateRepository incidentRepository;
+    private final ParametreRepository parametreRepository;
+
+    public AlertAggregator(AlertRuleProperties properties, AlertIncidentStateRepository incidentRepository,
+                           ParametreRepository parametreRepository) {
+        this.properties = properties;
+        this.incidentRepository = incidentRepository;
+        this.parametreRepository = parametreRepository;
+    }
+
+    /**
+     * Adds the measurement to the incident of its parameter. Must run in the measurement's transaction.
+     *
+     * @param breached whether an alert rule fired on the measurement
+     * @return the state change to publish, or null when the measurement changed nothing worth publishing
+     */
+    public IncidentTransition onMeasurement(Parametre parametre, double valeur, LocalDateTime dateMesure,
+                                            boolean breached) {
+        // Nothing open: nothing to do unless this opens an incident. Counted rather than loaded, so the row read
+        // below is not a copy from before the lock
+        if (!breached && !incidentRepository.existsById(parametre.getId())) {
+            return null;
+        }
+        parametreRepository.lockById(parametre.getId());
+        AlertIncidentState state = incidentRepository.findById(parametre.getId()).orElse(null);
+        AlertIncident before = state != null ? toIncident(state) : null;
+
+        IncidentTransition transition;
+        AlertIncident after;
+        if (breached) {
+            String severity = AlertSeverity.of(valeur, parametre.getSeuilMin(), parametre.getSeuilMax());
+            if (before == null) {
+                after = new AlertIncident(UUID.randomUUID().toString(), dateMesure, severity, valeur, 1, 0);
+                transition = new IncidentTransition(AlertEvent.OPENED, after);
+            } else {
+                boolean escalated = AlertSeverity.rank(severity) > AlertSeverity.rank(before.severity());
+                double peak = distance(valeur, parametre) > distance(before.peakValeur(), parametre)
+                        ? valeur : before.peakValeur();
+                after = new AlertIncident(before.id(), before.openedAt(),
+                        escalated ? severity : before.severity(), peak, before.breachCount() + 1, 0);
+                transition = escalated ? new IncidentTransition(AlertEvent.ESCALATED, after) : null;
+            }
+        } else if (before == null) {
+            // Resolved by another instance since the lookup
+            return null;
+        } else {
+            // No rule fired, yet only a value back within the thresholds counts toward resolving: one still out of
+            // range (e.g. not yet sustained) starts the count over
+            int clearCount = distance(valeur, parametre) > 0 ? 0 : before.clearCount() + 1;
+            AlertIncident cleared = new AlertIncident(before.id(), before.openedAt(), before.severity(),
+                    before.peakValeur(), before.breachCount(), clearCount);
+            boolean resolved = cleared.clearCount() >= properties.getResolveAfterClearMeasurements();
+            after = resolved ? null : cleared;
+            transition = resolved ? new IncidentTransition(AlertEvent.RESOLVED, cleared) : null;
+        }
+
+        if (after == null) {
+            incidentRepository.delete(state);
+        } else {
+            if (state == null) {
+                state = AlertIncidentState.builder()
+                        .parametreId(parametre.getId())
+                        .greenhouseId(parametre.getGreenhouseId())
+                        .build();
+            }
+            state.setIncidentId(after.id());
+            state.setOpenedAt(after.openedAt());
+            state.setSeverity(after.severity());
+            state.setPeakValeur(after.peakValeur());
+            state.setBreachCount(after.breachCount());
+            state.setClearCount(after.clearCount());
+            incidentRepository.save(state);
+        }
+        return transition;
+    }
+
+    /**
+     * Open incident of a parameter, or null
+     */
+    public AlertIncident openIncident(Long parametreId) {
+        return incidentRepository.findById(parametreId).map(AlertAggregator::toIncident).orElse(null);
+    }
+
+    private static AlertIncident toIncident(AlertIncidentState state) {
+        return new AlertIncident(state.getIncidentId(), state.getOpenedAt(), state.getSeverity(),
+                state.getPeakValeur(), state.getBreachCount(), state.getClearCount());
+    }
+
+    /**
+     * How far the value is past the thresholds, 0 within them
+     */
+    private static double distance(double valeur, Parametre parametre) {
+        return Math.max(0, Math.max(parametre.getSeuilMin() - valeur, valeur - parametre.getSeuilMax()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.greenhouse.environnement.alerting;
+
+import java.time.LocalDateTime;
+
+/**
+ * Open incident of a parameter: its consecutive breaches, with the peak reached so far
+ *
+ * @param id          incident ID, carried by all its events
+ * @param openedAt    date of the measurement that opened it
+ * @param severity    highest severity reached
+ * @param peakValeur  value farthest past the thresholds
+ * @param breachCount measurements that breached
+ * @param clearCount  consecutive measurements back within the thresholds since the last breach
+ */
+public record AlertIncident(
+        String id,
+        LocalDateTime openedAt,
+        String severity,
+        double peakValeur,
+        long breachCount,
+        int clearCount) {
+}
@@ -0,0 +1,35 @@
+package com.greenhouse.environnement.alerting;
+
+import com.greenhouse.events.AlertEvent;
+
+/**
+ * Condition evaluated on the window of a parameter each time a measurement is added to it.
+ *
+ * Thresholds are those of the parameter at evaluation time, so updating them takes effect on the next
+ * measurement. {@link #breached} runs for every measurement and must not allocate; {@link #describe} only runs
+ * once the rule fired.
+ */
+public interface AlertRule {
+
+    /**
+     * Rule name, reported with the alert
+     */
+    String name();
+
+    /**
+     * Samples this rule reads, the latest included
+     */
+    int window();
+
+    boolean breached(SampleWindow window, double seuilMin, double seuilMax);
+
+    /**
+     * Why the rule fired on the current window
+     */
+    String describe(SampleWindow window, double seuilMin, double seuilMax);
+
+    /**
+     * Which way the value went to fire the rule, {@link AlertEvent#RISING} or {@link AlertEvent#FALLING}
+     */
+    String direction(SampleWindow window, double seuilMin, double seuilMax);
+}
@@ -0,0 +1,116 @@
+package com.greenhouse.environnement.alerting;
+
+import com.greenhouse.environnement.model.Parametre;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates the alert rules of a parameter on the window of its latest measurements, as they are created.
+ *
+ * Each parameter keeps its samples in a {@link SampleWindow} sized for its rules, so an evaluation allocates
+ * nothing unless a rule fires, apart from the hook taking the sample back if the measurement's transaction rolls
+ * back. Windows live in this instance and start empty: sustained and average rules only reach their full window
+ * once enough measurements of the parameter went through it, and with several instances each window holds the
+ * measurements that reached it. Incidents, which decide what is published, are shared through
+ * {@link AlertAggregator}.
+ */
+@Component
+public class AlertRuleEngine {
+
+    private final AlertRuleProperties properties;
+    private final ConcurrentHashMap<Long, ParametreRules> parametres = new ConcurrentHashMap<>();
+
+    public AlertRuleEngine(AlertRuleProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Adds the measurement to the window of its parameter and evaluates the rules in order.
+     *
+     * @return the first rule that fired, or null when none did
+     */
+    public RuleBreach evaluate(Parametre parametre, double valeur, LocalDateTime dateMesure) {
+        // get first: computeIfAbsent would allocate its capturing lambda on every measurement
+        ParametreRules rules = parametres.get(parametre.getId());
+        if (rules == null) {
+            rules = parametres.computeIfAbsent(parametre.getId(),
+                    id -> new ParametreRules(properties.ruleSetFor(id, parametre.getType().name()).toRules()));
+        }
+        long epochMillis = dateMesure.toEpochSecond(ZoneOffset.UTC) * 1000 + dateMesure.getNano() / 1_000_000;
+        return rules.evaluate(valeur, epochMillis, parametre.getSeuilMin(), parametre.getSeuilMax());
+    }
+
+    /**
+     * Drops the rules and window of a parameter, rebuilt from the configuration on its next measurement, e.g. once
+     * its type changed
+     */
+    public void forget(Long parametreId) {
+        parametres.remove(parametreId);
+    }
+
+    /**
+     * Drops all rules and windows once the {@code alerting.*} configuration changed, so the new rules apply
+     */
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith("alerting."))) {
+            parametres.clear();
+        }
+    }
+
+    private static final class ParametreRules {
+
+        private final AlertRule[] rules;
+        private final SampleWindow window;
+        // Samples added so far, to tell whether a sample is still the latest when its transaction rolls back
+        private long added;
+
+        ParametreRules(List<AlertRule> rules) {
+            this.rules = rules.toArray(AlertRule[]::new);
+            this.window = new SampleWindow(rules.stream().mapToInt(AlertRule::window).max().orElse(1));
+        }
+
+        synchronized RuleBreach evaluate(double valeur, long epochMillis, double seuilMin, double seuilMax) {
+            boolean overwrites = window.size() == window.capacity();
+            double oldestValue = overwrites ? window.value(window.size() - 1) : 0;
+            long oldestTime = overwrites ? window.time(window.size() - 1) : 0;
+            window.add(valeur, epochMillis);
+            undoOnRollback(++added, overwrites, oldestValue, oldestTime);
+            for (AlertRule rule : rules) {
+                if (rule.breached(window, seuilMin, seuilMax)) {
+                    return new RuleBreach(rule.name(), rule.describe(window, seuilMin, seuilMax),
+                            rule.direction(window, seuilMin, seuilMax));
+                }
+            }
+            return null;
+        }
+
+        private void undoOnRollback(long sample, boolean overwrote, double oldestValue, long oldestTime) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        synchronized (ParametreRules.this) {
+                            // Unless a later measurement was added on top of it
+                            if (added == sample) {
+                                window.removeLatest(overwrote, oldestValue, oldestTime);
+                                added--;
+                            }
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
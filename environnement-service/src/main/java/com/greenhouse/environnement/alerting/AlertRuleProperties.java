@@ -0,0 +1,79 @@
+package com.greenhouse.environnement.alerting;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alert rules of each parameter: its own rule set when listed in {@code parametres}, else the one of its type,
+ * else {@code defaults}. The defaults alert on every measurement outside the thresholds.
+ */
+@Component
+@ConfigurationProperties(prefix = "alerting")
+@Data
+public class AlertRuleProperties {
+
+    private RuleSet defaults = new RuleSet();
+
+    /**
+     * Parameter type (TEMPERATURE, HUMIDITE, ...) to rule set
+     */
+    private Map<String, RuleSet> types = new LinkedHashMap<>();
+
+    /**
+     * Parameter ID to rule set
+     */
+    private Map<Long, RuleSet> parametres = new LinkedHashMap<>();
+
+    /**
+     * Consecutive measurements back within the thresholds that resolve an open incident, so a value hovering
+     * around a threshold does not open and resolve incidents on every measurement
+     */
+    private int resolveAfterClearMeasurements = 3;
+
+    public RuleSet ruleSetFor(Long parametreId, String type) {
+        RuleSet ruleSet = parametres.get(parametreId);
+        if (ruleSet == null) {
+            ruleSet = types.getOrDefault(type, defaults);
+        }
+        return ruleSet;
+    }
+
+    @Data
+    public static class RuleSet {
+        /**
+         * Measurements outside the thresholds among the last {@code sustained-window} needed to alert
+         */
+        private int sustainedBreaches = 1;
+        private int sustainedWindow = 1;
+        /**
+         * Largest change per minute between two measurements; 0 disables the rule
+         */
+        private double maxChangePerMinute = 0;
+        /**
+         * Measurements averaged by the moving average rule; 0 disables it
+         */
+        private int averageSamples = 0;
+        /**
+         * Largest distance to the moving average, as a fraction of the threshold band
+         */
+        private double maxAverageDeviation = 0.5;
+
+        public List<AlertRule> toRules() {
+            List<AlertRule> rules = new ArrayList<>();
+            rules.add(new SustainedBreachRule(sustainedBreaches, sustainedWindow));
+            if (maxChangePerMinute > 0) {
+                rules.add(new RateOfChangeRule(maxChangePerMinute));
+            }
+            if (averageSamples > 0) {
+                rules.add(new MovingAverageDeviationRule(averageSamples, maxAverageDeviation));
+            }
+            return rules;
+        }
+    }
+}
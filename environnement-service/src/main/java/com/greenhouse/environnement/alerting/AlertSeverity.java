@@ -0,0 +1,51 @@
+package com.greenhouse.environnement.alerting;
+
+import java.util.List;
+
+/**
+ * Severity of an alert from how far the value is past the threshold it crossed
+ */
+public final class AlertSeverity {
+
+    private static final List<String> LEVELS = List.of("LOW", "MEDIUM", "HIGH", "CRITICAL");
+
+    private AlertSeverity() {
+    }
+
+    /**
+     * Order of a severity, from 0 for LOW; -1 when unknown
+     */
+    public static int rank(String severity) {
+        return LEVELS.indexOf(severity);
+    }
+
+    /**
+     * LOW up to 10% past the threshold, MEDIUM up to 25%, HIGH up to 50%, CRITICAL beyond. Percentages are of
+     * the threshold itself, or of the threshold band when the threshold is 0; values inside the band are LOW.
+     */
+    public static String of(double value, double seuilMin, double seuilMax) {
+        double distance;
+        double threshold;
+        if (value < seuilMin) {
+            distance = seuilMin - value;
+            threshold = seuilMin;
+        } else if (value > seuilMax) {
+            distance = value - seuilMax;
+            threshold = seuilMax;
+        } else {
+            return "LOW";
+        }
+
+        double reference = threshold != 0 ? Math.abs(threshold) : seuilMax - seuilMin;
+        double deviation = reference > 0 ? distance / reference * 100 : Double.POSITIVE_INFINITY;
+        if (deviation > 50) {
+            return "CRITICAL";
+        } else if (deviation > 25) {
+            return "HIGH";
+        } else if (deviation > 10) {
+            return "MEDIUM";
+        } else {
+            return "LOW";
+        }
+    }
+}
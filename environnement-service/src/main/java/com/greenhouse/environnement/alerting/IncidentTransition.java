@@ -0,0 +1,10 @@
+package com.greenhouse.environnement.alerting;
+
+/**
+ * State change of an incident, to be published
+ *
+ * @param state    OPENED, ESCALATED or RESOLVED ({@link com.greenhouse.events.AlertEvent} constants)
+ * @param incident incident after the change
+ */
+public record IncidentTransition(String state, AlertIncident incident) {
+}
@@ -0,0 +1,50 @@
+package com.greenhouse.environnement.alerting;
+
+import com.greenhouse.events.AlertEvent;
+
+/**
+ * Fires when a measurement is further from the average of the {@code samples} measurements before it than
+ * {@code maxDeviation} times the width of the threshold band. Waits until that many measurements were seen.
+ */
+public class MovingAverageDeviationRule implements AlertRule {
+
+    private final int samples;
+    private final double maxDeviation;
+
+    public MovingAverageDeviationRule(int samples, double maxDeviation) {
+        if (samples < 1 || maxDeviation <= 0) {
+            throw new IllegalArgumentException("Average samples and maximum deviation must be positive");
+        }
+        this.samples = samples;
+        this.maxDeviation = maxDeviation;
+    }
+
+    @Override
+    public String name() {
+        return "moving-average-deviation";
+    }
+
+    @Override
+    public int window() {
+        return samples + 1;
+    }
+
+    @Override
+    public boolean breached(SampleWindow window, double seuilMin, double seuilMax) {
+        double band = seuilMax - seuilMin;
+        return window.size() > samples && band > 0
+                && Math.abs(window.value(0) - window.average(1, samples)) > maxDeviation * band;
+    }
+
+    @Override
+    public String describe(SampleWindow window, double seuilMin, double seuilMax) {
+        double average = window.average(1, samples);
+        return String.format("deviates by %.2f from the average of the last %d measurements (%.2f)",
+                window.value(0) - average, samples, average);
+    }
+
+    @Override
+    public String direction(SampleWindow window, double seuilMin, double seuilMax) {
+        return window.value(0) > window.average(1, samples) ? AlertEvent.RISING : AlertEvent.FALLING;
+    }
+}
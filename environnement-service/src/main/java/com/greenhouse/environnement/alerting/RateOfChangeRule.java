@@ -0,0 +1,54 @@
+package com.greenhouse.environnement.alerting;
+
+import com.greenhouse.events.AlertEvent;
+
+/**
+ * Fires when the value moved faster than {@code maxChangePerMinute} since the previous measurement, in either
+ * direction and whatever the thresholds. Skipped when the two measurements are not in chronological order.
+ */
+public class RateOfChangeRule implements AlertRule {
+
+    private static final double MILLIS_PER_MINUTE = 60_000.0;
+
+    private final double maxChangePerMinute;
+
+    public RateOfChangeRule(double maxChangePerMinute) {
+        if (maxChangePerMinute <= 0) {
+            throw new IllegalArgumentException("Maximum change per minute must be positive");
+        }
+        this.maxChangePerMinute = maxChangePerMinute;
+    }
+
+    @Override
+    public String name() {
+        return "rate-of-change";
+    }
+
+    @Override
+    public int window() {
+        return 2;
+    }
+
+    @Override
+    public boolean breached(SampleWindow window, double seuilMin, double seuilMax) {
+        return window.size() >= 2 && Math.abs(changePerMinute(window)) > maxChangePerMinute;
+    }
+
+    @Override
+    public String describe(SampleWindow window, double seuilMin, double seuilMax) {
+        return String.format("changed by %.2f per minute (max %.2f)", changePerMinute(window), maxChangePerMinute);
+    }
+
+    @Override
+    public String direction(SampleWindow window, double seuilMin, double seuilMax) {
+        return changePerMinute(window) > 0 ? AlertEvent.RISING : AlertEvent.FALLING;
+    }
+
+    private static double changePerMinute(SampleWindow window) {
+        long elapsed = window.time(0) - window.time(1);
+        if (elapsed <= 0) {
+            return 0;
+        }
+        return (window.value(0) - window.value(1)) * MILLIS_PER_MINUTE / elapsed;
+    }
+}
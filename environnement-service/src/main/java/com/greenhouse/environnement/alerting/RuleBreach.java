@@ -0,0 +1,12 @@
+package com.greenhouse.environnement.alerting;
+
+/**
+ * Rule that fired on a measurement
+ *
+ * @param rule      name of the rule
+ * @param detail    why it fired, completing "value X" in the alert message
+ * @param direction which way the value went, {@link com.greenhouse.events.AlertEvent#RISING} or
+ *                  {@link com.greenhouse.events.AlertEvent#FALLING}
+ */
+public record RuleBreach(String rule, String detail, String direction) {
+}
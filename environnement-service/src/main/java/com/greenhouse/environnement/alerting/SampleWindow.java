@@ -0,0 +1,95 @@
+package com.greenhouse.environnement.alerting;
+
+/**
+ * Last measurements of one parameter in primitive ring buffers, in arrival order.
+ *
+ * Samples are read by age, 0 being the latest. Nothing is allocated after construction; callers synchronize.
+ */
+public class SampleWindow {
+
+    private final double[] values;
+    private final long[] times;
+    private int next;
+    private int size;
+
+    public SampleWindow(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Window capacity must be at least 1");
+        }
+        this.values = new double[capacity];
+        this.times = new long[capacity];
+    }
+
+    public void add(double value, long epochMillis) {
+        values[next] = value;
+        times[next] = epochMillis;
+        next = (next + 1) % values.length;
+        if (size < values.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Takes back the latest sample. When adding it overwrote the oldest one, that sample is put back.
+     */
+    public void removeLatest(boolean overwrote, double overwrittenValue, long overwrittenTime) {
+        if (size == 0) {
+            throw new IllegalStateException("No sample to remove");
+        }
+        next = Math.floorMod(next - 1, values.length);
+        if (overwrote) {
+            values[next] = overwrittenValue;
+            times[next] = overwrittenTime;
+        } else {
+            size--;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    public double value(int age) {
+        return values[index(age)];
+    }
+
+    public long time(int age) {
+        return times[index(age)];
+    }
+
+    /**
+     * Samples outside {@code [seuilMin, seuilMax]} among the {@code last} latest ones
+     */
+    public int countOutside(int last, double seuilMin, double seuilMax) {
+        int count = 0;
+        for (int age = 0, end = Math.min(last, size); age < end; age++) {
+            double value = value(age);
+            if (value < seuilMin || value > seuilMax) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Average of {@code count} samples starting at age {@code from}
+     */
+    public double average(int from, int count) {
+        double sum = 0;
+        for (int age = from, end = from + count; age < end; age++) {
+            sum += value(age);
+        }
+        return sum / count;
+    }
+
+    private int index(int age) {
+        if (age < 0 || age >= size) {
+            throw new IndexOutOfBoundsException("Sample age " + age + " outside window of " + size);
+        }
+        return Math.floorMod(next - 1 - age, values.length);
+    }
+}
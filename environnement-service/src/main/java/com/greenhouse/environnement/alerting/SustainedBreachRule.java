@@ -0,0 +1,53 @@
+package com.greenhouse.environnement.alerting;
+
+import com.greenhouse.events.AlertEvent;
+
+/**
+ * Fires on a measurement outside the thresholds when at least {@code breaches} of the last {@code samples}
+ * measurements are outside them too. One of one is the plain threshold check.
+ */
+public class SustainedBreachRule implements AlertRule {
+
+    private final int breaches;
+    private final int samples;
+
+    public SustainedBreachRule(int breaches, int samples) {
+        if (breaches < 1 || breaches > samples) {
+            throw new IllegalArgumentException("Sustained breaches must be between 1 and the window of " + samples);
+        }
+        this.breaches = breaches;
+        this.samples = samples;
+    }
+
+    @Override
+    public String name() {
+        return "sustained-breach";
+    }
+
+    @Override
+    public int window() {
+        return samples;
+    }
+
+    @Override
+    public boolean breached(SampleWindow window, double seuilMin, double seuilMax) {
+        double latest = window.value(0);
+        return (latest < seuilMin || latest > seuilMax)
+                && window.countOutside(samples, seuilMin, seuilMax) >= breaches;
+    }
+
+    @Override
+    public String describe(SampleWindow window, double seuilMin, double seuilMax) {
+        String outside = String.format("is outside threshold [%.2f - %.2f]", seuilMin, seuilMax);
+        if (samples == 1) {
+            return outside;
+        }
+        return outside + String.format(" in %d of the last %d measurements",
+                window.countOutside(samples, seuilMin, seuilMax), samples);
+    }
+
+    @Override
+    public String direction(SampleWindow window, double seuilMin, double seuilMax) {
+        return window.value(0) > seuilMax ? AlertEvent.RISING : AlertEvent.FALLING;
+    }
+}
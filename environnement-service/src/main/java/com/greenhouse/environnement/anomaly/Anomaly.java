@@ -0,0 +1,11 @@
+package com.greenhouse.environnement.anomaly;
+
+/**
+ * Measurement scored as anomalous against its sensor's statistics before it was folded in
+ *
+ * @param expected  moving mean of the sensor
+ * @param deviation moving standard deviation of the sensor, at least the configured minimum
+ * @param score     signed distance of the value to the mean, in deviations
+ */
+public record Anomaly(double expected, double deviation, double score) {
+}
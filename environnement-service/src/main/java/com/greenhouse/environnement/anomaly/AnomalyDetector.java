@@ -0,0 +1,148 @@
+package com.greenhouse.environnement.anomaly;
+
+import com.greenhouse.environnement.config.ShardRouter;
+import com.greenhouse.environnement.model.Parametre;
+import com.greenhouse.environnement.model.SensorBaseline;
+import com.greenhouse.environnement.repository.SensorBaselineRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scores each measurement against the moving mean and variance of its sensor, then folds it in.
+ *
+ * Statistics are held per parameter in this instance. A parameter seen for the first time is restored from its
+ * checkpoint in {@code sensor_baselines} (one read, on the caller's shard), so a restart does not scan the
+ * measurement history. An update is taken back when the measurement's transaction rolls back. Changed statistics are checkpointed periodically and on shutdown, each greenhouse on its
+ * shard; a crash loses at most one interval of updates, which only makes the baseline slightly older.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnomalyDetector {
+
+    private final AnomalyProperties properties;
+    private final SensorBaselineRepository sensorBaselineRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, SensorStatistics> sensors = new ConcurrentHashMap<>();
+
+    /**
+     * Scores the measurement and adds it to its sensor's statistics.
+     *
+     * @return the anomaly, or null when the measurement is within the sensor's usual range or it is warming up
+     */
+    public Anomaly observe(Parametre parametre, double valeur) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        SensorStatistics statistics = sensors.get(parametre.getId());
+        if (statistics == null) {
+            // Read outside the map: a repository call inside computeIfAbsent would block other parameters' bins
+            SensorStatistics restored = restore(parametre);
+            statistics = sensors.putIfAbsent(parametre.getId(), restored);
+            if (statistics == null) {
+                statistics = restored;
+            }
+        }
+
+        double minDeviation = properties.getMinDeviationFraction() * (parametre.getSeuilMax() - parametre.getSeuilMin());
+        synchronized (statistics) {
+            double score = statistics.score(valeur, properties.getWarmUpSamples(), minDeviation);
+            Anomaly anomaly = Math.abs(score) > properties.getThreshold()
+                    ? new Anomaly(statistics.mean(), statistics.deviation(minDeviation), score)
+                    : null;
+            undoOnRollback(statistics, statistics.mean(), statistics.variance(), statistics.samples());
+            statistics.update(valeur, properties.getAlpha(), properties.getWarmUpSamples(),
+                    properties.getClampDeviations());
+            return anomaly;
+        }
+    }
+
+    /**
+     * Saves the statistics changed since the last checkpoint
+     */
+    @Scheduled(fixedDelayString = "${anomaly.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        Map<String, List<SensorBaseline>> byGreenhouse = new LinkedHashMap<>();
+        sensors.forEach((parametreId, statistics) -> {
+            synchronized (statistics) {
+                if (!statistics.dirty()) {
+                    return;
+                }
+                statistics.dirty(false);
+                byGreenhouse.computeIfAbsent(statistics.greenhouseId(), greenhouse -> new ArrayList<>())
+                        .add(SensorBaseline.builder()
+                                .parametreId(parametreId)
+                                .greenhouseId(statistics.greenhouseId())
+                                .mean(statistics.mean())
+                                .variance(statistics.variance())
+                                .samples(statistics.samples())
+                                .build());
+            }
+        });
+
+        byGreenhouse.forEach((greenhouseId, baselines) -> {
+            try {
+                shardRouter.inShardOf(greenhouseId,
+                        () -> transactionTemplate.execute(status -> sensorBaselineRepository.saveAll(baselines)));
+            } catch (RuntimeException e) {
+                log.warn("Sensor baselines of greenhouse {} not checkpointed: {}", greenhouseId, e.toString());
+                baselines.forEach(baseline -> markDirty(baseline.getParametreId()));
+            }
+        });
+        log.debug("Checkpointed sensor baselines of {} greenhouses", byGreenhouse.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private static void undoOnRollback(SensorStatistics statistics, double mean, double variance, long samples) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (statistics) {
+                        // Unless a later measurement was folded in on top of it
+                        if (statistics.samples() == samples + 1) {
+                            statistics.reset(mean, variance, samples);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private SensorStatistics restore(Parametre parametre) {
+        return sensorBaselineRepository.findById(parametre.getId())
+                .map(baseline -> new SensorStatistics(parametre.getGreenhouseId(), baseline.getMean(),
+                        baseline.getVariance(), baseline.getSamples()))
+                .orElseGet(() -> new SensorStatistics(parametre.getGreenhouseId(), 0, 0, 0));
+    }
+
+    private void markDirty(Long parametreId) {
+        SensorStatistics statistics = sensors.get(parametreId);
+        if (statistics != null) {
+            synchronized (statistics) {
+                statistics.dirty(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.greenhouse.environnement.anomaly;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Online anomaly detection on each sensor's own recent measurements
+ */
+@Component
+@ConfigurationProperties(prefix = "anomaly")
+@Data
+public class AnomalyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Weight of a new measurement in the moving mean and variance
+     */
+    private double alpha = 0.05;
+
+    /**
+     * Distance to the moving mean, in standard deviations, beyond which a measurement is anomalous
+     */
+    private double threshold = 4.0;
+
+    /**
+     * Measurements of a sensor before it is scored
+     */
+    private int warmUpSamples = 30;
+
+    /**
+     * Smallest standard deviation used for scoring, as a fraction of the threshold band, so that a sensor
+     * reporting a flat value does not flag every small change
+     */
+    private double minDeviationFraction = 0.01;
+
+    /**
+     * Measurements are clamped to this many deviations before updating the statistics
+     */
+    private double clampDeviations = 3.0;
+
+    /**
+     * How often changed statistics are checkpointed to the database
+     */
+    private long checkpointIntervalMs = 60_000;
+}
@@ -0,0 +1,94 @@
+package com.greenhouse.environnement.anomaly;
+
+/**
+ * Exponentially weighted mean and variance of one sensor, in constant memory.
+ *
+ * Until {@code warmUpSamples} measurements were seen the weight of a new sample is at least {@code 1/n}, so the
+ * first estimates are plain averages instead of being dominated by the first measurement. After that, samples
+ * are clamped to {@code clampDeviations} deviations from the mean before being folded in: a burst of anomalies
+ * shifts the baseline only gradually. Callers synchronize.
+ */
+public class SensorStatistics {
+
+    private final String greenhouseId;
+    private double mean;
+    private double variance;
+    private long samples;
+    private boolean dirty;
+
+    public SensorStatistics(String greenhouseId, double mean, double variance, long samples) {
+        this.greenhouseId = greenhouseId;
+        this.mean = mean;
+        this.variance = variance;
+        this.samples = samples;
+    }
+
+    /**
+     * Signed distance to the mean in deviations, the deviation being at least {@code minDeviation};
+     * NaN while warming up
+     */
+    public double score(double value, int warmUpSamples, double minDeviation) {
+        if (samples < warmUpSamples) {
+            return Double.NaN;
+        }
+        return (value - mean) / deviation(minDeviation);
+    }
+
+    public void update(double value, double alpha, int warmUpSamples, double clampDeviations) {
+        if (samples == 0) {
+            mean = value;
+        } else {
+            double weight = samples < warmUpSamples ? Math.max(alpha, 1.0 / (samples + 1)) : alpha;
+            double sample = value;
+            if (samples >= warmUpSamples && variance > 0) {
+                double limit = clampDeviations * Math.sqrt(variance);
+                sample = Math.max(mean - limit, Math.min(mean + limit, value));
+            }
+            double diff = sample - mean;
+            double increment = weight * diff;
+            mean += increment;
+            variance = (1 - weight) * (variance + diff * increment);
+        }
+        samples++;
+        dirty = true;
+    }
+
+    /**
+     * Puts back statistics read before an update, e.g. when the measurement's transaction rolled back. Marked
+     * dirty, as a checkpoint may have saved the update in between.
+     */
+    public void reset(double mean, double variance, long samples) {
+        this.mean = mean;
+        this.variance = variance;
+        this.samples = samples;
+        this.dirty = true;
+    }
+
+    public double deviation(double minDeviation) {
+        return Math.max(Math.sqrt(variance), minDeviation);
+    }
+
+    public String greenhouseId() {
+        return greenhouseId;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    public double variance() {
+        return variance;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public boolean dirty() {
+        return dirty;
+    }
+
+    public void dirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+}
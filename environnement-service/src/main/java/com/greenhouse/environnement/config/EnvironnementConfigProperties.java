@@ -1,10 +1,16 @@
 package com.greenhouse.environnement.config;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Refreshable Configuration Properties for Environnement Service
  * 
@@ -29,6 +35,11 @@ public class EnvironnementConfigProperties {
      */
     private MeasurementConfig measurement = new MeasurementConfig();
 
+    /**
+     * Kafka producer tuning profiles, selected per topic
+     */
+    private KafkaProducerTuning kafka = new KafkaProducerTuning();
+
     @Data
     public static class AlertThresholds {
         private double temperatureMax = 35.0;
@@ -45,4 +56,49 @@ public class EnvironnementConfigProperties {
         private int samplingIntervalSeconds = 300;
         private boolean enableAutoAlerts = true;
     }
+
+    @Data
+    public static class KafkaProducerTuning {
+        private String alertProfile = "low-latency";
+        private String measurementProfile = "throughput";
+        private String configChangeProfile = "low-latency";
+        private String defaultProfile = "balanced";
+        private Map<String, ProducerProfile> profiles = new LinkedHashMap<>();
+
+        public KafkaProducerTuning() {
+            profiles.put("low-latency", new ProducerProfile(0, 16384, "none"));
+            profiles.put("balanced", new ProducerProfile(5, 16384, "gzip"));
+            // lz4 falls back to a pure Java codec, so it also works on Alpine (musl) where snappy natives do not
+            profiles.put("throughput", new ProducerProfile(50, 262144, "lz4"));
+        }
+
+        public ProducerProfile profile(String name) {
+            ProducerProfile profile = profiles.get(name);
+            if (profile == null) {
+                throw new IllegalArgumentException("Unknown Kafka producer profile: " + name
+                        + " (available: " + profiles.keySet() + ")");
+            }
+            return profile;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProducerProfile {
+        private int lingerMs;
+        private int batchSize;
+        private String compressionType;
+
+        /**
+         * Producer properties controlled by this profile
+         */
+        public Map<String, Object> toProducerConfigs() {
+            Map<String, Object> configs = new LinkedHashMap<>();
+            configs.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+            configs.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+            configs.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+            return configs;
+        }
+    }
 }
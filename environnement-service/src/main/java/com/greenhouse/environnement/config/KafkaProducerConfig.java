@@ -1,7 +1,13 @@
 package com.greenhouse.environnement.config;
 
-import com.greenhouse.environnement.dto.AlertEvent;
-import com.greenhouse.environnement.dto.MeasurementEvent;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.AnomalyEvent;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.codec.EventSchemaRegistry;
+import com.greenhouse.events.codec.EventSerializer;
+import com.greenhouse.events.codec.WireFormat;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -15,15 +21,32 @@ import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Kafka Producer Configuration for Environnement Service
  * Configures producers for greenhouse-alerts and measurement-stream topics
  */
 @Configuration
+@RequiredArgsConstructor
 @Slf4j
 public class KafkaProducerConfig {
 
+    /**
+     * Profile of each producer factory bean, by bean name. {@link KafkaProducerProfileRefresher} re-applies them
+     * on refresh and refuses to start with a factory missing from this map.
+     */
+    static final Map<String, Function<EnvironnementConfigProperties.KafkaProducerTuning, String>> FACTORY_PROFILES =
+            Map.of(
+                    "alertProducerFactory", EnvironnementConfigProperties.KafkaProducerTuning::getAlertProfile,
+                    "measurementProducerFactory", EnvironnementConfigProperties.KafkaProducerTuning::getMeasurementProfile,
+                    "configChangeProducerFactory", EnvironnementConfigProperties.KafkaProducerTuning::getConfigChangeProfile,
+                    // Anomalies are alerts of another kind and share their latency needs
+                    "anomalyProducerFactory", EnvironnementConfigProperties.KafkaProducerTuning::getAlertProfile,
+                    "genericProducerFactory", EnvironnementConfigProperties.KafkaProducerTuning::getDefaultProfile);
+
+    private final EnvironnementConfigProperties configProperties;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
@@ -42,25 +65,26 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.producer.properties.delivery.timeout.ms:120000}")
     private int deliveryTimeoutMs;
 
-    @Value("${spring.kafka.producer.properties.linger.ms:5}")
-    private int lingerMs;
-
-    @Value("${spring.kafka.producer.properties.batch.size:16384}")
-    private int batchSize;
-
     @Value("${spring.kafka.producer.properties.buffer.memory:33554432}")
     private int bufferMemory;
 
+    @Value("${kafka.wire-format:json}")
+    private WireFormat wireFormat;
+
+    @Value("${kafka.schema-registry.location:classpath*:schemas/}")
+    private String schemaRegistryLocation;
+
     /**
-     * Common producer configuration
+     * Common producer configuration, tuned by the current profile of the named factory
      */
-    private Map<String, Object> producerConfigs() {
+    private Map<String, Object> producerConfigs(String factoryName) {
+        String profileName = FACTORY_PROFILES.get(factoryName).apply(configProperties.getKafka());
         Map<String, Object> props = new HashMap<>();
         
         // Bootstrap servers
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         
-        // Serialization
+        // Serialization (event templates override the value serializer with the codec layer)
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         
@@ -73,10 +97,9 @@ public class KafkaProducerConfig {
         props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMs);
         props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
         
-        // Performance tuning
-        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
-        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        // Performance tuning: linger, batch size and compression come from the profile
         props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        props.putAll(configProperties.getKafka().profile(profileName).toProducerConfigs());
         
         // Idempotence - ensures exactly-once semantics
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
@@ -84,23 +107,31 @@ public class KafkaProducerConfig {
         // Max in-flight requests for ordering guarantee with idempotence
         props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         
-        // Compression - using gzip instead of snappy (snappy requires glibc, Alpine uses musl)
-        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "gzip");
-        
         // JSON serializer settings
         props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
         
-        log.info("Kafka producer configured with bootstrap servers: {}", bootstrapServers);
+        log.info("Kafka producer configured with bootstrap servers: {}, profile: {}", bootstrapServers, profileName);
         
         return props;
     }
 
+    /**
+     * File-based schema registry used to stamp and verify event schema versions
+     */
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry() {
+        return new EventSchemaRegistry(schemaRegistryLocation);
+    }
+
     /**
      * Producer factory for AlertEvent messages
      */
     @Bean
     public ProducerFactory<String, AlertEvent> alertProducerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerConfigs());
+        log.info("Alert events published as {}", wireFormat);
+        return new DefaultKafkaProducerFactory<>(producerConfigs("alertProducerFactory"),
+                new StringSerializer(),
+                new EventSerializer<>(wireFormat, eventSchemaRegistry().verify(AlertEvent.SUBJECT, AlertEvent.class)));
     }
 
     /**
@@ -118,7 +149,10 @@ public class KafkaProducerConfig {
      */
     @Bean
     public ProducerFactory<String, MeasurementEvent> measurementProducerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerConfigs());
+        log.info("Measurement events published as {}", wireFormat);
+        return new DefaultKafkaProducerFactory<>(producerConfigs("measurementProducerFactory"),
+                new StringSerializer(),
+                new EventSerializer<>(wireFormat, eventSchemaRegistry().verify(MeasurementEvent.SUBJECT, MeasurementEvent.class)));
     }
 
     /**
@@ -131,12 +165,52 @@ public class KafkaProducerConfig {
         return template;
     }
 
+    /**
+     * Producer factory for ConfigChangeEvent messages
+     */
+    @Bean
+    public ProducerFactory<String, ConfigChangeEvent> configChangeProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfigs("configChangeProducerFactory"),
+                new StringSerializer(),
+                new EventSerializer<>(wireFormat, eventSchemaRegistry().verify(ConfigChangeEvent.SUBJECT, ConfigChangeEvent.class)));
+    }
+
+    /**
+     * KafkaTemplate for sending ConfigChangeEvent messages
+     */
+    @Bean
+    public KafkaTemplate<String, ConfigChangeEvent> configChangeKafkaTemplate() {
+        KafkaTemplate<String, ConfigChangeEvent> template = new KafkaTemplate<>(configChangeProducerFactory());
+        template.setObservationEnabled(true);
+        return template;
+    }
+
+    /**
+     * Producer factory for AnomalyEvent messages
+     */
+    @Bean
+    public ProducerFactory<String, AnomalyEvent> anomalyProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfigs("anomalyProducerFactory"),
+                new StringSerializer(),
+                new EventSerializer<>(wireFormat, eventSchemaRegistry().verify(AnomalyEvent.SUBJECT, AnomalyEvent.class)));
+    }
+
+    /**
+     * KafkaTemplate for sending AnomalyEvent messages
+     */
+    @Bean
+    public KafkaTemplate<String, AnomalyEvent> anomalyKafkaTemplate() {
+        KafkaTemplate<String, AnomalyEvent> template = new KafkaTemplate<>(anomalyProducerFactory());
+        template.setObservationEnabled(true);
+        return template;
+    }
+
     /**
      * Producer factory for generic Object messages (used for health checks)
      */
     @Bean
     public ProducerFactory<String, Object> genericProducerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerConfigs());
+        return new DefaultKafkaProducerFactory<>(producerConfigs("genericProducerFactory"));
     }
 
     /**
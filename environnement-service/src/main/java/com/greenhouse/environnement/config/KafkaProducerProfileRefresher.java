@@ -0,0 +1,67 @@
+package com.greenhouse.environnement.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Re-applies Kafka producer profiles after a configuration refresh.
+ *
+ * Producers are immutable once created, so a changed profile updates the factory
+ * configuration and resets it: in-flight records are flushed by the close and the
+ * next send creates a producer with the new linger, batch size and compression.
+ * Every producer factory bean is refreshed, with the profile {@link KafkaProducerConfig#FACTORY_PROFILES} gives it.
+ */
+@Component
+@Slf4j
+public class KafkaProducerProfileRefresher {
+
+    private final EnvironnementConfigProperties configProperties;
+    private final Map<String, ProducerFactory<?, ?>> producerFactories;
+
+    /**
+     * @param producerFactories producer factories by bean name
+     * @throws IllegalStateException when a factory has no profile, so that it can't silently miss refreshes
+     */
+    public KafkaProducerProfileRefresher(EnvironnementConfigProperties configProperties,
+                                         Map<String, ProducerFactory<?, ?>> producerFactories) {
+        producerFactories.keySet().stream()
+                .filter(name -> !KafkaProducerConfig.FACTORY_PROFILES.containsKey(name))
+                .findFirst()
+                .ifPresent(name -> {
+                    throw new IllegalStateException("Kafka producer factory '" + name
+                            + "' has no profile in KafkaProducerConfig.FACTORY_PROFILES");
+                });
+        this.configProperties = configProperties;
+        this.producerFactories = new TreeMap<>(producerFactories);
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void onRefresh() {
+        EnvironnementConfigProperties.KafkaProducerTuning tuning = configProperties.getKafka();
+        producerFactories.forEach((name, factory) ->
+                apply(name, KafkaProducerConfig.FACTORY_PROFILES.get(name).apply(tuning), tuning, factory));
+    }
+
+    private void apply(String producer, String profileName,
+                       EnvironnementConfigProperties.KafkaProducerTuning tuning, ProducerFactory<?, ?> factory) {
+        Map<String, Object> profileConfigs = tuning.profile(profileName).toProducerConfigs();
+        if (isApplied(profileConfigs, factory)) {
+            return;
+        }
+        factory.updateConfigs(profileConfigs);
+        factory.reset();
+        log.info("Kafka producer factory {} switched to profile '{}': {}", producer, profileName, profileConfigs);
+    }
+
+    private boolean isApplied(Map<String, Object> profileConfigs, ProducerFactory<?, ?> factory) {
+        Map<String, Object> current = factory.getConfigurationProperties();
+        return profileConfigs.entrySet().stream()
+                .allMatch(e -> String.valueOf(e.getValue()).equals(String.valueOf(current.get(e.getKey()))));
+    }
+}
@@ -27,6 +27,12 @@ public class KafkaTopicConfig {
     @Value("${kafka.topic.measurement-stream}")
     private String measurementTopic;
 
+    @Value("${kafka.topic.config-changes:config-changes}")
+    private String configChangesTopic;
+
+    @Value("${kafka.topic.greenhouse-anomalies:greenhouse-anomalies}")
+    private String anomaliesTopic;
+
     @Value("${kafka.topic.partitions:3}")
     private int partitions;
 
@@ -70,6 +76,36 @@ public class KafkaTopicConfig {
                 .build();
     }
 
+    /**
+     * Topic for parameter configuration changes
+     * Consumed by: API Gateway (response cache invalidation)
+     */
+    @Bean
+    public NewTopic configChangesTopic() {
+        return TopicBuilder.name(configChangesTopic)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .config("retention.ms", "86400000") // 1 day retention
+                .config("cleanup.policy", "delete")
+                .config("min.insync.replicas", "1")
+                .build();
+    }
+
+    /**
+     * Topic for measurements deviating from their sensor's recent behaviour
+     * Consumed by: Dashboard, analytics
+     */
+    @Bean
+    public NewTopic greenhouseAnomaliesTopic() {
+        return TopicBuilder.name(anomaliesTopic)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .config("retention.ms", "604800000") // 7 days retention
+                .config("cleanup.policy", "delete")
+                .config("min.insync.replicas", "1")
+                .build();
+    }
+
     /**
      * Dead Letter Queue for failed alert messages
      */
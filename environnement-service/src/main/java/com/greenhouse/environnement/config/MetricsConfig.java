@@ -39,6 +39,16 @@ public class MetricsConfig {
                 .register(meterRegistry);
     }
 
+    /**
+     * Counter for measurements flagged as anomalous by type.
+     */
+    public Counter anomalyCounter(String type) {
+        return Counter.builder("greenhouse.anomalies.total")
+                .tag("type", type)
+                .description("Total number of anomalous measurements detected")
+                .register(meterRegistry);
+    }
+
     /**
      * Timer for Kafka message publishing latency.
      */
@@ -61,4 +71,11 @@ public class MetricsConfig {
     public void incrementAlert(String type, String severity) {
         alertCounter(type, severity).increment();
     }
+
+    /**
+     * Increment anomaly counter.
+     */
+    public void incrementAnomaly(String type) {
+        anomalyCounter(type).increment();
+    }
 }
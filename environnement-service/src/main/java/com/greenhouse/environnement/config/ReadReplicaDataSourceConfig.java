@@ -0,0 +1,58 @@
+package com.greenhouse.environnement.config;
+
+import com.greenhouse.datasource.HikariPools;
+import com.greenhouse.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Primary ({@code spring.datasource}) and read replica pools behind a {@link ReplicaRoutingDataSource}.
+ * With sharding, {@link ShardingDataSourceConfig} sets up the replicas of each shard instead.
+ */
+@Configuration
+@ConditionalOnExpression("${read-replicas.enabled:false} and !${sharding.enabled:false}")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(ReadReplicaProperties properties,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             MeterRegistry meterRegistry) {
+        String driverClassName = dataSourceProperties.determineDriverClassName();
+        ReadReplicaProperties.Pool writePool = properties.getWritePool();
+        DataSource primary = HikariPools.create("primary", dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(), driverClassName,
+                writePool.getMaximumPoolSize(), writePool.getMinimumIdle(), meterRegistry);
+        return new ReplicaRoutingDataSource(ReplicaRoutingDataSource.PRIMARY, primary,
+                replicaPools("replica", properties.getReplicas(), properties, driverClassName, meterRegistry),
+                properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * One pool per replica, sized by {@code read-replicas.read-pool}
+     */
+    static Map<String, DataSource> replicaPools(String poolPrefix, Map<String, ReadReplicaProperties.Replica> replicas,
+                                                ReadReplicaProperties properties, String driverClassName,
+                                                MeterRegistry meterRegistry) {
+        ReadReplicaProperties.Pool readPool = properties.getReadPool();
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        replicas.forEach((name, replica) -> pools.put(name, HikariPools.create(poolPrefix + "-" + name,
+                replica.getUrl(), replica.getUsername(), replica.getPassword(), driverClassName,
+                readPool.getMaximumPoolSize(), readPool.getMinimumIdle(), meterRegistry)));
+        return pools;
+    }
+}
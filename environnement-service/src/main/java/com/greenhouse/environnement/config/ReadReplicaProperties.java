@@ -0,0 +1,68 @@
+package com.greenhouse.environnement.config;
+
+import com.greenhouse.datasource.ReplicaLagSettings;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read replicas serving read-only transactions, with their own pools.
+ *
+ * Without sharding, the replicas are those of {@code spring.datasource}; with sharding, each shard lists its own.
+ */
+@Component
+@ConfigurationProperties(prefix = "read-replicas")
+@Data
+public class ReadReplicaProperties implements ReplicaLagSettings {
+
+    private boolean enabled = false;
+
+    /**
+     * Replication lag beyond which a replica stops serving reads until it catches up
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(2);
+
+    /**
+     * Replication lag of a replica in seconds; 0 once it has replayed everything it received
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * Pool of the primary, which serves writes (and reads when no replica can)
+     */
+    private Pool writePool = new Pool(10, 2);
+
+    /**
+     * Pool of each replica
+     */
+    private Pool readPool = new Pool(20, 2);
+
+    /**
+     * Replica name to connection settings
+     */
+    private Map<String, Replica> replicas = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        private int maximumPoolSize;
+        private int minimumIdle;
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
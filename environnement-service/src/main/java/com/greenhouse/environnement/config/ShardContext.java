@@ -0,0 +1,29 @@
+package com.greenhouse.environnement.config;
+
+/**
+ * Shard the current thread works on, read by {@link ShardRoutingDataSource} when a connection is taken.
+ * No shard means the default one.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void set(String shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,46 @@
+package com.greenhouse.environnement.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Puts each request on the shard of its greenhouse, taken from the {@value #GREENHOUSE_HEADER} header
+ * or else the {@code greenhouseId} query parameter. Requests without a greenhouse go to the default shard.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+public class ShardContextFilter extends OncePerRequestFilter {
+
+    public static final String GREENHOUSE_HEADER = "X-Greenhouse-Id";
+
+    private final ShardRouter shardRouter;
+
+    public ShardContextFilter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String greenhouseId = request.getHeader(GREENHOUSE_HEADER);
+        if (greenhouseId == null || greenhouseId.isBlank()) {
+            greenhouseId = request.getParameter("greenhouseId");
+        }
+        ShardContext.set(greenhouseId != null && !greenhouseId.isBlank() ? shardRouter.shardOf(greenhouseId) : null);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.greenhouse.environnement.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * ID ranges of the shards: the identity sequences of a shard hand out IDs from its {@code id-range-start} up to
+ * the next shard's, so IDs are unique across shards and rows read from several shards can be merged by ID.
+ *
+ * Verified against every shard when its pool is created, so a shard whose sequences were not moved to its range
+ * stops the service before it writes a colliding ID.
+ */
+@Slf4j
+public final class ShardIdRanges {
+
+    /**
+     * Identity sequences of the tables whose IDs are returned to clients and merged across shards
+     */
+    public static final List<String> SEQUENCES = List.of("mesures_id_seq", "parametres_id_seq");
+
+    private static final String NEXT_VALUE_SQL = "SELECT coalesce(last_value, start_value) FROM pg_sequences "
+            + "WHERE schemaname = current_schema() AND sequencename = ?";
+
+    private final NavigableMap<Long, String> shardsByStart = new TreeMap<>();
+
+    public ShardIdRanges(Map<String, ShardingProperties.Shard> shards) {
+        shards.forEach((name, shard) -> {
+            String other = shardsByStart.putIfAbsent(shard.getIdRangeStart(), name);
+            if (other != null) {
+                throw new IllegalStateException("Shards " + other + " and " + name + " share id-range-start "
+                        + shard.getIdRangeStart() + "; give each shard a distinct ID range");
+            }
+        });
+    }
+
+    /**
+     * Fails unless the current value of {@code sequence} lies in the range of {@code shard}
+     */
+    public void check(String shard, String sequence, long value) {
+        Map.Entry<Long, String> owner = shardsByStart.floorEntry(value);
+        if (owner == null || !owner.getValue().equals(shard)) {
+            throw new IllegalStateException("Sequence " + sequence + " of shard " + shard + " is at " + value
+                    + ", outside the shard's ID range " + rangeOf(shard) + "; restart it within the range");
+        }
+    }
+
+    /**
+     * Reads the sequences of a shard and checks them. Sequences Hibernate has yet to create are skipped on the
+     * default shard; on the other shards they must have been provisioned.
+     */
+    public void verify(String shard, DataSource dataSource, boolean defaultShard) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(NEXT_VALUE_SQL)) {
+            for (String sequence : SEQUENCES) {
+                statement.setString(1, sequence);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        check(shard, sequence, resultSet.getLong(1));
+                    } else if (!defaultShard) {
+                        throw new IllegalStateException("Sequence " + sequence + " is missing on shard " + shard
+                                + "; provision the shard with the environnement_db schema");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not read the ID sequences of shard " + shard, e);
+        }
+        log.info("Shard {} ID sequences within {}", shard, rangeOf(shard));
+    }
+
+    private String rangeOf(String shard) {
+        return shardsByStart.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(shard))
+                .findFirst()
+                .map(entry -> {
+                    Long end = shardsByStart.higherKey(entry.getKey());
+                    return end != null ? "[" + entry.getKey() + ", " + end + ")" : "[" + entry.getKey() + ", ...)";
+                })
+                .orElse("(unknown shard)");
+    }
+}
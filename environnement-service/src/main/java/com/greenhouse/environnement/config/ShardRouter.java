@@ -0,0 +1,187 @@
+package com.greenhouse.environnement.config;
+
+import com.greenhouse.events.PartitionKeys;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs work on the shard of a greenhouse, or on every shard for queries spanning all greenhouses.
+ *
+ * When sharding is disabled everything runs once, on the single data source.
+ */
+@Component
+@Slf4j
+public class ShardRouter {
+
+    private final ShardingProperties properties;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    private final List<String> shards;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRouter(ShardingProperties properties, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.properties = properties;
+        this.transactionManager = transactionManager;
+        this.shards = properties.isEnabled() ? List.copyOf(properties.getShards().keySet()) : List.of();
+        this.fanOutExecutor = properties.isEnabled() ? fanOutExecutor(properties.getFanOutThreads()) : null;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    /**
+     * Shard holding a greenhouse; greenhouses without an explicit one are those of {@value PartitionKeys#DEFAULT_GREENHOUSE}
+     */
+    public String shardOf(String greenhouseId) {
+        String greenhouse = greenhouseId != null ? greenhouseId : PartitionKeys.DEFAULT_GREENHOUSE;
+        return properties.getGreenhouses().getOrDefault(greenhouse, properties.getDefaultShard());
+    }
+
+    /**
+     * Runs {@code work} on the shard of a greenhouse, whatever shard the caller is on
+     */
+    public <T> T inShardOf(String greenhouseId, Supplier<T> work) {
+        return isEnabled() ? inShard(shardOf(greenhouseId), work) : work.get();
+    }
+
+    public <T> T inShard(String shard, Supplier<T> work) {
+        String previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code work} on each shard in turn
+     */
+    public void forEachShard(Runnable work) {
+        if (!isEnabled()) {
+            work.run();
+            return;
+        }
+        for (String shard : shards) {
+            inShard(shard, () -> {
+                work.run();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Runs {@code work} on all shards in parallel and returns the results in shard order. Each shard runs in a
+     * transaction of its own, read-only when the caller's is, so that reads still go to replicas.
+     * Fails as a whole if any shard fails or does not answer in time: a partial result would look complete.
+     */
+    public <T> List<T> onAllShards(Supplier<T> work) {
+        if (!isEnabled()) {
+            return List.of(work.get());
+        }
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        Supplier<T> shardWork = readOnly ? () -> inReadOnlyTransaction(work) : work;
+        List<CompletableFuture<T>> calls = new ArrayList<>(shards.size());
+        try {
+            for (String shard : shards) {
+                calls.add(CompletableFuture.supplyAsync(() -> inShard(shard, shardWork), fanOutExecutor));
+            }
+        } catch (RejectedExecutionException e) {
+            calls.forEach(call -> call.cancel(true));
+            throw new IllegalStateException("Too many cross-greenhouse queries in progress", e);
+        }
+        try {
+            CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                    .get(properties.getFanOutTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            calls.forEach(call -> call.cancel(true));
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (TimeoutException e) {
+            calls.forEach(call -> call.cancel(true));
+            throw new IllegalStateException("Shards did not answer within " + properties.getFanOutTimeout(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+        return calls.stream().map(CompletableFuture::join).toList();
+    }
+
+    private <T> T inReadOnlyTransaction(Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager.getObject());
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> work.get());
+    }
+
+    /**
+     * Rows each shard must return so that their merge holds the whole requested page
+     */
+    public int fanOutWindow(int page, int size) {
+        long window = (long) (page + 1) * size;
+        if (window > properties.getMaxFanOutRows()) {
+            throw new IllegalArgumentException("Pages beyond row " + properties.getMaxFanOutRows()
+                    + " are not available across greenhouses; filter by greenhouseId");
+        }
+        return (int) window;
+    }
+
+    /**
+     * Merges the first rows of every shard into the requested page, totals added up
+     */
+    public static <T> Page<T> mergePages(List<Page<T>> shardPages, Pageable pageable, Comparator<? super T> order) {
+        List<T> content = shardPages.stream()
+                .flatMap(shardPage -> shardPage.getContent().stream())
+                .sorted(order)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        long total = shardPages.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService fanOutExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        // Shards are never queried on the caller's thread, whose open transaction may be on another shard
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "shard-fanout-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
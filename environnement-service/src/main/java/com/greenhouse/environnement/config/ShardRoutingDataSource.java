@@ -0,0 +1,37 @@
+package com.greenhouse.environnement.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Hands out connections of the shard set in {@link ShardContext}, or of the default shard when none is set.
+ *
+ * The shard is chosen when a connection is first used, behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: it must be set by then.
+ */
+@Slf4j
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    /**
+     * Closes the pools of all shards, which are not beans of their own
+     */
+    @Override
+    public void close() {
+        for (DataSource shard : getResolvedDataSources().values()) {
+            if (shard instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close shard data source: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.greenhouse.environnement.config;
+
+import com.greenhouse.datasource.HikariPools;
+import com.greenhouse.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One Hikari pool per shard behind a {@link ShardRoutingDataSource}, replacing {@code spring.datasource}.
+ * With read replicas enabled, shards listing replicas send their read-only transactions to them.
+ *
+ * Hibernate creates and updates the schema through the default shard only; the other shards get the same
+ * schema from the migration that provisions them. Each shard's ID sequences are checked against its
+ * {@link ShardIdRanges ID range} before the service starts.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+@Slf4j
+public class ShardingDataSourceConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties,
+                                                         ReadReplicaProperties readReplicaProperties,
+                                                         DataSourceProperties dataSourceProperties,
+                                                         MeterRegistry meterRegistry) {
+        if (!properties.getShards().containsKey(properties.getDefaultShard())) {
+            throw new IllegalStateException("Default shard '" + properties.getDefaultShard()
+                    + "' is not configured (shards: " + properties.getShards().keySet() + ")");
+        }
+        properties.getGreenhouses().forEach((greenhouseId, shard) -> {
+            if (!properties.getShards().containsKey(shard)) {
+                throw new IllegalStateException("Greenhouse " + greenhouseId + " is mapped to unknown shard '"
+                        + shard + "' (shards: " + properties.getShards().keySet() + ")");
+            }
+        });
+
+        ShardIdRanges idRanges = new ShardIdRanges(properties.getShards());
+
+        String driverClassName = dataSourceProperties.determineDriverClassName();
+        Map<Object, Object> shards = new LinkedHashMap<>();
+        properties.getShards().forEach((name, shard) -> {
+            DataSource primary = HikariPools.create("shard-" + name, shard.getUrl(), shard.getUsername(),
+                    shard.getPassword(), driverClassName, shard.getMaximumPoolSize(), shard.getMinimumIdle(),
+                    meterRegistry);
+            idRanges.verify(name, primary, name.equals(properties.getDefaultShard()));
+            if (readReplicaProperties.isEnabled() && !shard.getReplicas().isEmpty()) {
+                primary = new ReplicaRoutingDataSource(name, primary,
+                        ReadReplicaDataSourceConfig.replicaPools("shard-" + name, shard.getReplicas(),
+                                readReplicaProperties, driverClassName, meterRegistry),
+                        readReplicaProperties, meterRegistry);
+            }
+            shards.put(name, primary);
+        });
+
+        ShardRoutingDataSource dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(shards);
+        dataSource.setDefaultTargetDataSource(shards.get(properties.getDefaultShard()));
+        // Only a missing shard falls back to the default one, never an unknown shard name
+        dataSource.setLenientFallback(false);
+        log.info("Sharding enabled: shards {}, default {}, {} greenhouses mapped",
+                shards.keySet(), properties.getDefaultShard(), properties.getGreenhouses().size());
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
@@ -0,0 +1,69 @@
+package com.greenhouse.environnement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Database shards of environnement-service and the greenhouses they hold.
+ *
+ * Greenhouses not listed in {@code greenhouses} live on {@code default-shard}. Moving a greenhouse to another
+ * shard is a data migration, so this configuration is not refreshable.
+ */
+@Component
+@ConfigurationProperties(prefix = "sharding")
+@Data
+public class ShardingProperties {
+
+    /**
+     * When disabled, the single {@code spring.datasource} is used and nothing is fanned out
+     */
+    private boolean enabled = false;
+
+    private String defaultShard = "shard0";
+
+    /**
+     * Shard name to connection settings
+     */
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    /**
+     * Greenhouse ID to shard name
+     */
+    private Map<String, String> greenhouses = new LinkedHashMap<>();
+
+    /**
+     * Threads querying shards in parallel for cross-greenhouse queries
+     */
+    private int fanOutThreads = 8;
+
+    private Duration fanOutTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Deepest row a cross-greenhouse page may reach; each shard returns every row up to the end of the page
+     */
+    private int maxFanOutRows = 10_000;
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+
+        /**
+         * First ID of this shard's range; the range ends at the next shard's start. Must differ between shards.
+         */
+        private long idRangeStart = 0;
+
+        /**
+         * Read replicas of this shard, used when {@code read-replicas.enabled}
+         */
+        private Map<String, ReadReplicaProperties.Replica> replicas = new LinkedHashMap<>();
+    }
+}
@@ -2,7 +2,9 @@ package com.greenhouse.environnement.controller;
 
 import com.greenhouse.environnement.dto.MesureRequest;
 import com.greenhouse.environnement.dto.MesureResponse;
+import com.greenhouse.environnement.dto.MesureStatsResponse;
 import com.greenhouse.environnement.service.MesureService;
+import com.greenhouse.environnement.stats.MesureStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -20,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/mesures")
@@ -28,6 +31,7 @@ import java.util.List;
 public class MesureController {
 
     private final MesureService mesureService;
+    private final MesureStatsService mesureStatsService;
 
     @PostMapping
     @Operation(
@@ -48,13 +52,14 @@ public class MesureController {
     @GetMapping
     @Operation(
             summary = "Obtenir toutes les mesures avec pagination",
-            description = "Récupère la liste paginée de toutes les mesures"
+            description = "Récupère la liste paginée de toutes les mesures, éventuellement d'une serre"
     )
     @ApiResponse(responseCode = "200", description = "Liste des mesures récupérée avec succès")
     public ResponseEntity<Page<MesureResponse>> getAllMesures(
+            @Parameter(description = "ID de la serre (optionnel)") @RequestParam(required = false) String greenhouseId,
             @Parameter(description = "Numéro de page (0-indexé)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(mesureService.getAllMesures(page, size));
+        return ResponseEntity.ok(mesureService.getAllMesures(greenhouseId, page, size));
     }
 
     @GetMapping("/parametre/{parametreId}")
@@ -88,6 +93,21 @@ public class MesureController {
         return ResponseEntity.ok(mesureService.getRecentMesures(parametreId, limit));
     }
 
+    @GetMapping("/recent")
+    @Operation(
+            summary = "Obtenir les mesures récentes de plusieurs paramètres",
+            description = "Récupère les N dernières mesures de chaque paramètre demandé en un seul appel"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Mesures récentes par ID de paramètre"),
+            @ApiResponse(responseCode = "400", description = "Trop de paramètres ou limite invalide")
+    })
+    public ResponseEntity<Map<Long, List<MesureResponse>>> getRecentMesuresBulk(
+            @Parameter(description = "IDs des paramètres (100 au plus)") @RequestParam List<Long> parametreIds,
+            @Parameter(description = "Nombre de mesures par paramètre") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(mesureService.getRecentMesures(parametreIds, limit));
+    }
+
     @GetMapping("/filter")
     @Operation(
             summary = "Filtrer les mesures par période",
@@ -115,8 +135,27 @@ public class MesureController {
     public ResponseEntity<Page<MesureResponse>> getAlerts(
             @Parameter(description = "ID du paramètre (optionnel)")
             @RequestParam(required = false) Long parametreId,
+            @Parameter(description = "ID de la serre (optionnel, ignoré avec parametreId)")
+            @RequestParam(required = false) String greenhouseId,
             @Parameter(description = "Numéro de page") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Taille de la page") @RequestParam(defaultValue = "20") int size) {
-        return ResponseEntity.ok(mesureService.getAlerts(parametreId, page, size));
+        return ResponseEntity.ok(mesureService.getAlerts(greenhouseId, parametreId, page, size));
+    }
+
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Obtenir les statistiques des mesures",
+            description = "Nombre de mesures et d'alertes, par sévérité et par heure, d'un paramètre, d'une serre "
+                    + "ou de toutes les mesures. Tenu à jour au fil des mesures, sans parcourir l'historique : "
+                    + "les dernières secondes peuvent ne pas encore être comptées"
+    )
+    @ApiResponse(responseCode = "200", description = "Statistiques récupérées avec succès")
+    public ResponseEntity<MesureStatsResponse> getStats(
+            @Parameter(description = "ID de la serre (optionnel, ignoré avec parametreId)")
+            @RequestParam(required = false) String greenhouseId,
+            @Parameter(description = "ID du paramètre (optionnel)")
+            @RequestParam(required = false) Long parametreId,
+            @Parameter(description = "Nombre d'heures de comptes horaires") @RequestParam(defaultValue = "24") int hours) {
+        return ResponseEntity.ok(mesureStatsService.getStats(greenhouseId, parametreId, hours));
     }
 }
@@ -1,5 +1,6 @@
 package com.greenhouse.environnement.controller;
 
+import com.greenhouse.environnement.config.ShardRouter;
 import com.greenhouse.environnement.dto.ParametreRequest;
 import com.greenhouse.environnement.dto.ParametreResponse;
 import com.greenhouse.environnement.model.ParametreType;
@@ -26,6 +27,7 @@ import java.util.List;
 public class ParametreController {
 
     private final ParametreService parametreService;
+    private final ShardRouter shardRouter;
 
     @PostMapping
     @Operation(
@@ -36,21 +38,25 @@ public class ParametreController {
             @ApiResponse(responseCode = "201", description = "Paramètre créé avec succès",
                     content = @Content(schema = @Schema(implementation = ParametreResponse.class))),
             @ApiResponse(responseCode = "400", description = "Données invalides"),
-            @ApiResponse(responseCode = "409", description = "Un paramètre de ce type existe déjà")
+            @ApiResponse(responseCode = "409", description = "Un paramètre de ce type existe déjà dans cette zone")
     })
     public ResponseEntity<ParametreResponse> createParametre(
             @Valid @RequestBody ParametreRequest request) {
-        return new ResponseEntity<>(parametreService.createParametre(request), HttpStatus.CREATED);
+        // The new parameter goes to the shard of its own greenhouse, whatever the request was routed by
+        return new ResponseEntity<>(shardRouter.inShardOf(request.getGreenhouseId(),
+                () -> parametreService.createParametre(request)), HttpStatus.CREATED);
     }
 
     @GetMapping
     @Operation(
             summary = "Obtenir tous les paramètres",
-            description = "Récupère la liste de tous les paramètres configurés"
+            description = "Récupère la liste des paramètres configurés, éventuellement d'une serre ou d'une zone"
     )
     @ApiResponse(responseCode = "200", description = "Liste des paramètres récupérée avec succès")
-    public ResponseEntity<List<ParametreResponse>> getAllParametres() {
-        return ResponseEntity.ok(parametreService.getAllParametres());
+    public ResponseEntity<List<ParametreResponse>> getAllParametres(
+            @Parameter(description = "ID de la serre") @RequestParam(required = false) String greenhouseId,
+            @Parameter(description = "ID de la zone (avec greenhouseId)") @RequestParam(required = false) String zoneId) {
+        return ResponseEntity.ok(parametreService.getAllParametres(greenhouseId, zoneId));
     }
 
     @GetMapping("/{id}")
@@ -71,7 +77,8 @@ public class ParametreController {
     @GetMapping("/type/{type}")
     @Operation(
             summary = "Obtenir un paramètre par type",
-            description = "Récupère un paramètre spécifique par son type (TEMPERATURE, HUMIDITE, LUMINOSITE)"
+            description = "Récupère le paramètre d'un type (TEMPERATURE, HUMIDITE, LUMINOSITE) dans une zone, "
+                    + "la serre et la zone par défaut si elles ne sont pas précisées"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Paramètre trouvé",
@@ -79,8 +86,10 @@ public class ParametreController {
             @ApiResponse(responseCode = "404", description = "Paramètre non trouvé")
     })
     public ResponseEntity<ParametreResponse> getParametreByType(
-            @Parameter(description = "Type du paramètre") @PathVariable ParametreType type) {
-        return ResponseEntity.ok(parametreService.getParametreByType(type));
+            @Parameter(description = "Type du paramètre") @PathVariable ParametreType type,
+            @Parameter(description = "ID de la serre") @RequestParam(required = false) String greenhouseId,
+            @Parameter(description = "ID de la zone") @RequestParam(required = false) String zoneId) {
+        return ResponseEntity.ok(parametreService.getParametreByType(type, greenhouseId, zoneId));
     }
 
     @PutMapping("/{id}")
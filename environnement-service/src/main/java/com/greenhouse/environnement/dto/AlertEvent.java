@@ -1,79 +0,0 @@
-package com.greenhouse.environnement.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.time.LocalDateTime;
-import java.util.UUID;
-
-/**
- * Event DTO for environmental threshold violation alerts via Kafka
- * Topic: greenhouse-alerts
- * Producer: Environnement service
- * Consumer: Contrôle service
- */
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class AlertEvent {
-
-    /**
-     * Unique event identifier for idempotency
-     */
-    @Builder.Default
-    private String eventId = UUID.randomUUID().toString();
-
-    /**
-     * ID of the measurement that triggered the alert
-     */
-    private Long mesureId;
-
-    /**
-     * ID of the associated parameter
-     */
-    private Long parametreId;
-
-    /**
-     * Type of parameter as string (TEMPERATURE, HUMIDITE, LUMINOSITE)
-     */
-    private String parametreType;
-
-    /**
-     * Measured value that triggered the alert
-     */
-    private Double valeur;
-
-    /**
-     * Minimum threshold
-     */
-    private Double seuilMin;
-
-    /**
-     * Maximum threshold
-     */
-    private Double seuilMax;
-
-    /**
-     * Timestamp of the measurement
-     */
-    private LocalDateTime dateMesure;
-
-    /**
-     * Alert severity (LOW, MEDIUM, HIGH, CRITICAL)
-     */
-    private String severity;
-
-    /**
-     * Descriptive message about the alert
-     */
-    private String message;
-
-    /**
-     * Event creation timestamp
-     */
-    @Builder.Default
-    private LocalDateTime eventTimestamp = LocalDateTime.now();
-}
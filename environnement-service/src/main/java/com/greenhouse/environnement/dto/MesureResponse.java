@@ -8,6 +8,10 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * Also built by the projections of {@code MesureRepository} through the all-args constructor: field order is
+ * part of those queries.
+ */
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,6 +21,8 @@ public class MesureResponse {
     private Long id;
     private Long parametreId;
     private ParametreType parametreType;
+    private String greenhouseId;
+    private String zoneId;
     private Double valeur;
     private LocalDateTime dateMesure;
     private Boolean alerte;
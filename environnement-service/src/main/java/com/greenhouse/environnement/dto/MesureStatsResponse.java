@@ -0,0 +1,48 @@
+package com.greenhouse.environnement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measurement and alert counts of a parameter, a greenhouse or all of them, as of {@link #refreshedAt}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MesureStatsResponse {
+
+    private String greenhouseId;
+    private Long parametreId;
+    private long measurements;
+    private long alerts;
+
+    /**
+     * Alerts by severity; only those recorded since the counters exist have one
+     */
+    private Map<String, Long> alertsBySeverity;
+
+    /**
+     * Counts by hour of measurement, oldest first, hours without measurements omitted
+     */
+    private List<HourlyCount> hourly;
+
+    private LocalDateTime refreshedAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HourlyCount {
+
+        private LocalDateTime hour;
+        private long measurements;
+        private long alerts;
+    }
+}
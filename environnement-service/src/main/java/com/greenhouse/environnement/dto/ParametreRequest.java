@@ -27,4 +27,11 @@ public class ParametreRequest {
     @NotNull(message = "Unit is required")
     @Size(min = 1, max = 50, message = "Unit must be between 1 and 50 characters")
     private String unite;
+
+    // Default greenhouse and zone when omitted
+    @Size(max = 50, message = "Greenhouse ID must be at most 50 characters")
+    private String greenhouseId;
+
+    @Size(max = 50, message = "Zone ID must be at most 50 characters")
+    private String zoneId;
 }
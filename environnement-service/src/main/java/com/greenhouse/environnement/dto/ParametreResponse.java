@@ -16,6 +16,8 @@ public class ParametreResponse {
 
     private Long id;
     private ParametreType type;
+    private String greenhouseId;
+    private String zoneId;
     private Double seuilMin;
     private Double seuilMax;
     private String unite;
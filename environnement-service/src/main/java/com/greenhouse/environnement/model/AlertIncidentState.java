@@ -0,0 +1,50 @@
+package com.greenhouse.environnement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Open alert incident of a parameter, on the shard of its greenhouse; deleted once the incident is resolved
+ */
+@Entity
+@Table(name = "alert_incidents")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertIncidentState {
+
+    @Id
+    private Long parametreId;
+
+    @Column(nullable = false, length = 50)
+    private String greenhouseId;
+
+    @Column(nullable = false, length = 36)
+    private String incidentId;
+
+    @Column(nullable = false)
+    private LocalDateTime openedAt;
+
+    @Column(nullable = false, length = 20)
+    private String severity;
+
+    @Column(nullable = false)
+    private Double peakValeur;
+
+    @Column(nullable = false)
+    private Long breachCount;
+
+    @Column(nullable = false)
+    private Integer clearCount;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,10 +1,12 @@
 package com.greenhouse.environnement.model;
 
+import com.greenhouse.events.PartitionKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -12,8 +14,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "mesures", indexes = {
     @Index(name = "idx_parametre_id", columnList = "parametreId"),
+    @Index(name = "idx_parametre_date_mesure", columnList = "parametreId, dateMesure"),
     @Index(name = "idx_date_mesure", columnList = "dateMesure"),
-    @Index(name = "idx_alerte", columnList = "alerte")
+    @Index(name = "idx_alerte", columnList = "alerte"),
+    @Index(name = "idx_greenhouse_parametre_date_mesure", columnList = "greenhouseId, parametreId, dateMesure"),
+    @Index(name = "idx_greenhouse_alerte", columnList = "greenhouseId, alerte")
 })
 @Data
 @Builder
@@ -28,6 +33,17 @@ public class Mesure {
     @Column(nullable = false)
     private Long parametreId;
 
+    // Copied from the parameter so that greenhouse-scoped queries need no join
+    @Builder.Default
+    @ColumnDefault("'" + PartitionKeys.DEFAULT_GREENHOUSE + "'")
+    @Column(nullable = false, length = 50)
+    private String greenhouseId = PartitionKeys.DEFAULT_GREENHOUSE;
+
+    @Builder.Default
+    @ColumnDefault("'" + PartitionKeys.DEFAULT_ZONE + "'")
+    @Column(nullable = false, length = 50)
+    private String zoneId = PartitionKeys.DEFAULT_ZONE;
+
     @Column(nullable = false)
     private Double valeur;
 
@@ -0,0 +1,36 @@
+package com.greenhouse.environnement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Measurement and alert counts of a statistics row. Alerts by severity only count alerts recorded since the
+ * counters exist: backfilled history has no severity.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MesureCounts {
+
+    @Column(nullable = false)
+    private long measurements;
+
+    @Column(nullable = false)
+    private long alerts;
+
+    @Column(nullable = false)
+    private long alertsLow;
+
+    @Column(nullable = false)
+    private long alertsMedium;
+
+    @Column(nullable = false)
+    private long alertsHigh;
+
+    @Column(nullable = false)
+    private long alertsCritical;
+}
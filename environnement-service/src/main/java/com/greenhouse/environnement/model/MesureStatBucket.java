@@ -0,0 +1,55 @@
+package com.greenhouse.environnement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Measurement and alert counts of a parameter over one hour of measurement dates, incremented by the statistics
+ * flush
+ */
+@Entity
+@Table(name = "mesure_stat_buckets", indexes = {
+    @Index(name = "idx_mesure_stat_buckets_bucket_start", columnList = "bucketStart")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MesureStatBucket {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false, length = 50)
+    private String greenhouseId;
+
+    @Embedded
+    private MesureCounts counts;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(nullable = false)
+        private Long parametreId;
+
+        /**
+         * Start of the hour
+         */
+        @Column(nullable = false)
+        private LocalDateTime bucketStart;
+    }
+}
@@ -0,0 +1,35 @@
+package com.greenhouse.environnement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * All-time measurement and alert counts of a parameter, incremented by the statistics flush
+ */
+@Entity
+@Table(name = "mesure_stat_totals")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MesureStatTotal {
+
+    @Id
+    private Long parametreId;
+
+    @Column(nullable = false, length = 50)
+    private String greenhouseId;
+
+    @Embedded
+    private MesureCounts counts;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,65 @@
+package com.greenhouse.environnement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kafka event recorded in the same transaction as the business change that produced it.
+ * Rows are claimed, published and deleted in batches by the outbox relay.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_attempts_id", columnList = "attempts, id"),
+    @Index(name = "idx_outbox_topic_key_id", columnList = "topic, messageKey, id"),
+    @Index(name = "idx_outbox_claim_id", columnList = "claimId")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    @Column(length = 100)
+    private String messageKey;
+
+    /**
+     * Schema subject of the payload (e.g. alert-event)
+     */
+    @Column(nullable = false, length = 100)
+    private String eventType;
+
+    /**
+     * Event serialized as JSON, re-encoded in the configured wire format on publish
+     */
+    @Column(nullable = false, length = 8000)
+    private String payload;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * Relay batch publishing the row, until {@link #claimedUntil}
+     */
+    @Column(length = 36)
+    private String claimId;
+
+    private LocalDateTime claimedUntil;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,17 +1,21 @@
 package com.greenhouse.environnement.model;
 
+import com.greenhouse.events.PartitionKeys;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "parametres")
+@Table(name = "parametres", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_parametre_greenhouse_zone_type", columnNames = {"greenhouseId", "zoneId", "type"})
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -23,9 +27,20 @@ public class Parametre {
     private Long id;
 
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private ParametreType type;
 
+    // Unique per greenhouse and zone; rows created before scoping belong to the default ones
+    @Builder.Default
+    @ColumnDefault("'" + PartitionKeys.DEFAULT_GREENHOUSE + "'")
+    @Column(nullable = false, length = 50)
+    private String greenhouseId = PartitionKeys.DEFAULT_GREENHOUSE;
+
+    @Builder.Default
+    @ColumnDefault("'" + PartitionKeys.DEFAULT_ZONE + "'")
+    @Column(nullable = false, length = 50)
+    private String zoneId = PartitionKeys.DEFAULT_ZONE;
+
     @Column(nullable = false)
     private Double seuilMin;
 
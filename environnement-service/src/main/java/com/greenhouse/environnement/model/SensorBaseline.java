@@ -0,0 +1,41 @@
+package com.greenhouse.environnement.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of the moving statistics of a sensor, restored on its first measurement after a restart
+ */
+@Entity
+@Table(name = "sensor_baselines")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SensorBaseline {
+
+    @Id
+    private Long parametreId;
+
+    @Column(nullable = false, length = 50)
+    private String greenhouseId;
+
+    @Column(nullable = false)
+    private Double mean;
+
+    @Column(nullable = false)
+    private Double variance;
+
+    @Column(nullable = false)
+    private Long samples;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
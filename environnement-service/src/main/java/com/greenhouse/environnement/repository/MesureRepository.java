@@ -1,5 +1,6 @@
 package com.greenhouse.environnement.repository;
 
+import com.greenhouse.environnement.dto.MesureResponse;
 import com.greenhouse.environnement.model.Mesure;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,49 +10,101 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+/**
+ * List queries return {@link MesureResponse} projections joined with the thresholds of their parameter in one
+ * statement, newest first: no entity is hydrated, so the persistence context does not grow with the page.
+ */
 @Repository
 public interface MesureRepository extends JpaRepository<Mesure, Long> {
 
+    String RESPONSE = """
+            SELECT new com.greenhouse.environnement.dto.MesureResponse(
+                m.id, m.parametreId, p.type, m.greenhouseId, m.zoneId, m.valeur, m.dateMesure, m.alerte, m.createdAt,
+                p.seuilMin, p.seuilMax, p.unite)
+            FROM Mesure m LEFT JOIN m.parametre p
+            """;
+
+    String COUNT = "SELECT count(m) FROM Mesure m ";
+
+    // In the query rather than in the Pageable, which would have the query parsed and rewritten on every call
+    String NEWEST_FIRST = " ORDER BY m.dateMesure DESC";
+
     // Find all measurements with pagination
-    Page<Mesure> findAll(Pageable pageable);
+    @Query(value = RESPONSE + NEWEST_FIRST, countQuery = COUNT)
+    Page<MesureResponse> findResponses(Pageable pageable);
+
+    // Find measurements of a greenhouse with pagination
+    @Query(value = RESPONSE + "WHERE m.greenhouseId = :greenhouseId" + NEWEST_FIRST,
+            countQuery = COUNT + "WHERE m.greenhouseId = :greenhouseId")
+    Page<MesureResponse> findResponsesByGreenhouseId(@Param("greenhouseId") String greenhouseId, Pageable pageable);
 
     // Find measurements by parameter ID with pagination
-    Page<Mesure> findByParametreId(Long parametreId, Pageable pageable);
+    @Query(value = RESPONSE + "WHERE m.parametreId = :parametreId" + NEWEST_FIRST,
+            countQuery = COUNT + "WHERE m.parametreId = :parametreId")
+    Page<MesureResponse> findResponsesByParametreId(@Param("parametreId") Long parametreId, Pageable pageable);
 
     // Find measurements by parameter ID and date range
-    Page<Mesure> findByParametreIdAndDateMesureBetween(
-            Long parametreId,
-            LocalDateTime startDate,
-            LocalDateTime endDate,
+    @Query(value = RESPONSE + "WHERE m.parametreId = :parametreId AND m.dateMesure BETWEEN :startDate AND :endDate"
+            + NEWEST_FIRST,
+            countQuery = COUNT + "WHERE m.parametreId = :parametreId AND m.dateMesure BETWEEN :startDate AND :endDate")
+    Page<MesureResponse> findResponsesByParametreIdAndDateMesureBetween(
+            @Param("parametreId") Long parametreId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
             Pageable pageable
     );
 
     // Find measurements by date range
-    Page<Mesure> findByDateMesureBetween(
-            LocalDateTime startDate,
-            LocalDateTime endDate,
+    @Query(value = RESPONSE + "WHERE m.dateMesure BETWEEN :startDate AND :endDate" + NEWEST_FIRST,
+            countQuery = COUNT + "WHERE m.dateMesure BETWEEN :startDate AND :endDate")
+    Page<MesureResponse> findResponsesByDateMesureBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
             Pageable pageable
     );
 
     // Find all measurements that triggered alerts
-    Page<Mesure> findByAlerteTrue(Pageable pageable);
+    @Query(value = RESPONSE + "WHERE m.alerte = true" + NEWEST_FIRST, countQuery = COUNT + "WHERE m.alerte = true")
+    Page<MesureResponse> findAlertResponses(Pageable pageable);
+
+    // Find alerts of a greenhouse
+    @Query(value = RESPONSE + "WHERE m.greenhouseId = :greenhouseId AND m.alerte = true" + NEWEST_FIRST,
+            countQuery = COUNT + "WHERE m.greenhouseId = :greenhouseId AND m.alerte = true")
+    Page<MesureResponse> findAlertResponsesByGreenhouseId(@Param("greenhouseId") String greenhouseId,
+                                                          Pageable pageable);
 
     // Find alerts by parameter ID
-    Page<Mesure> findByParametreIdAndAlerteTrue(Long parametreId, Pageable pageable);
+    @Query(value = RESPONSE + "WHERE m.parametreId = :parametreId AND m.alerte = true" + NEWEST_FIRST,
+            countQuery = COUNT + "WHERE m.parametreId = :parametreId AND m.alerte = true")
+    Page<MesureResponse> findAlertResponsesByParametreId(@Param("parametreId") Long parametreId, Pageable pageable);
 
     // Get recent measurements for a parameter (last N entries)
-    @Query("SELECT m FROM Mesure m WHERE m.parametreId = :parametreId ORDER BY m.dateMesure DESC")
-    List<Mesure> findRecentByParametreId(@Param("parametreId") Long parametreId, Pageable pageable);
+    @Query(RESPONSE + "WHERE m.parametreId = :parametreId" + NEWEST_FIRST)
+    List<MesureResponse> findRecentResponsesByParametreId(@Param("parametreId") Long parametreId, Pageable pageable);
+
+    // Get the last N measurements of each given parameter in one round trip, newest first.
+    // Ranked in a derived table joined as is: an "id IN (ranked ids)" form makes some planners rescan the ranking.
+    @Query("""
+            SELECT new com.greenhouse.environnement.dto.MesureResponse(
+                r.id, r.parametreId, p.type, r.greenhouseId, r.zoneId, r.valeur, r.dateMesure, r.alerte, r.createdAt,
+                p.seuilMin, p.seuilMax, p.unite)
+            FROM (
+                SELECT m.id AS id, m.parametreId AS parametreId, m.greenhouseId AS greenhouseId, m.zoneId AS zoneId,
+                       m.valeur AS valeur, m.dateMesure AS dateMesure, m.alerte AS alerte, m.createdAt AS createdAt,
+                       row_number() OVER (PARTITION BY m.parametreId ORDER BY m.dateMesure DESC) AS rang
+                FROM Mesure m WHERE m.parametreId IN :parametreIds
+            ) r
+            LEFT JOIN Parametre p ON p.id = r.parametreId
+            WHERE r.rang <= :limit
+            ORDER BY r.dateMesure DESC
+            """)
+    List<MesureResponse> findRecentResponsesByParametreIdIn(@Param("parametreIds") Collection<Long> parametreIds,
+                                                            @Param("limit") int limit);
 
     // Get latest measurement for a parameter
     @Query("SELECT m FROM Mesure m WHERE m.parametreId = :parametreId ORDER BY m.dateMesure DESC")
     List<Mesure> findLatestByParametreId(@Param("parametreId") Long parametreId);
-
-    // Count alerts by parameter
-    long countByParametreIdAndAlerteTrue(Long parametreId);
-
-    // Count total alerts
-    long countByAlerteTrue();
 }
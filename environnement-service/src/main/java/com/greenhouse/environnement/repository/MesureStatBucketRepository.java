@@ -0,0 +1,58 @@
+package com.greenhouse.environnement.repository;
+
+import com.greenhouse.environnement.model.MesureStatBucket;
+import com.greenhouse.environnement.stats.CounterDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MesureStatBucketRepository extends JpaRepository<MesureStatBucket, MesureStatBucket.Key> {
+
+    /**
+     * Adds the delta to the counts of its parameter and hour in one statement
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO mesure_stat_buckets AS b (parametre_id, bucket_start, greenhouse_id, measurements, alerts,
+                                                  alerts_low, alerts_medium, alerts_high, alerts_critical, updated_at)
+            VALUES (:#{#delta.parametreId()}, :#{#delta.bucketStart()}, :#{#delta.greenhouseId()},
+                    :#{#delta.measurements()}, :#{#delta.alerts()}, :#{#delta.low()}, :#{#delta.medium()},
+                    :#{#delta.high()}, :#{#delta.critical()}, now())
+            ON CONFLICT (parametre_id, bucket_start) DO UPDATE SET
+                measurements = b.measurements + EXCLUDED.measurements,
+                alerts = b.alerts + EXCLUDED.alerts,
+                alerts_low = b.alerts_low + EXCLUDED.alerts_low,
+                alerts_medium = b.alerts_medium + EXCLUDED.alerts_medium,
+                alerts_high = b.alerts_high + EXCLUDED.alerts_high,
+                alerts_critical = b.alerts_critical + EXCLUDED.alerts_critical,
+                updated_at = now()
+            """, nativeQuery = true)
+    void increment(@Param("delta") CounterDelta delta);
+
+    @Query("SELECT b FROM MesureStatBucket b WHERE b.id.bucketStart >= :since")
+    List<MesureStatBucket> findSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM MesureStatBucket b WHERE b.id.bucketStart < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+
+    /**
+     * Hourly counts of the recent measurements created before the counters started, alerts without severity
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO mesure_stat_buckets (parametre_id, bucket_start, greenhouse_id, measurements, alerts,
+                                             alerts_low, alerts_medium, alerts_high, alerts_critical, updated_at)
+            SELECT m.parametre_id, date_trunc('hour', m.date_mesure), min(m.greenhouse_id), count(*),
+                   count(*) FILTER (WHERE m.alerte), 0, 0, 0, 0, now()
+            FROM mesures m WHERE m.created_at < :cutoff AND m.date_mesure >= :since
+            GROUP BY m.parametre_id, date_trunc('hour', m.date_mesure)
+            """, nativeQuery = true)
+    int backfill(@Param("cutoff") LocalDateTime cutoff, @Param("since") LocalDateTime since);
+}
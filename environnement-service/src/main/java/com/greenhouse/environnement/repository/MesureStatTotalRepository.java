@@ -0,0 +1,55 @@
+package com.greenhouse.environnement.repository;
+
+import com.greenhouse.environnement.model.MesureStatTotal;
+import com.greenhouse.environnement.stats.CounterDelta;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MesureStatTotalRepository extends JpaRepository<MesureStatTotal, Long> {
+
+    /**
+     * Adds the delta to the totals of its parameter in one statement, whatever other instances flush concurrently
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO mesure_stat_totals AS t (parametre_id, greenhouse_id, measurements, alerts, alerts_low,
+                                                 alerts_medium, alerts_high, alerts_critical, updated_at)
+            VALUES (:#{#delta.parametreId()}, :#{#delta.greenhouseId()}, :#{#delta.measurements()},
+                    :#{#delta.alerts()}, :#{#delta.low()}, :#{#delta.medium()}, :#{#delta.high()},
+                    :#{#delta.critical()}, now())
+            ON CONFLICT (parametre_id) DO UPDATE SET
+                measurements = t.measurements + EXCLUDED.measurements,
+                alerts = t.alerts + EXCLUDED.alerts,
+                alerts_low = t.alerts_low + EXCLUDED.alerts_low,
+                alerts_medium = t.alerts_medium + EXCLUDED.alerts_medium,
+                alerts_high = t.alerts_high + EXCLUDED.alerts_high,
+                alerts_critical = t.alerts_critical + EXCLUDED.alerts_critical,
+                updated_at = now()
+            """, nativeQuery = true)
+    void increment(@Param("delta") CounterDelta delta);
+
+    /**
+     * Serializes backfills of this database until the end of the transaction
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('mesure_stat_backfill'))", nativeQuery = true)
+    Integer lockBackfill();
+
+    /**
+     * Totals of the measurements created before the counters started, alerts without severity
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO mesure_stat_totals (parametre_id, greenhouse_id, measurements, alerts, alerts_low,
+                                            alerts_medium, alerts_high, alerts_critical, updated_at)
+            SELECT m.parametre_id, min(m.greenhouse_id), count(*), count(*) FILTER (WHERE m.alerte), 0, 0, 0, 0, now()
+            FROM mesures m WHERE m.created_at < :cutoff
+            GROUP BY m.parametre_id
+            """, nativeQuery = true)
+    int backfill(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,53 @@
+package com.greenhouse.environnement.repository;
+
+import com.greenhouse.environnement.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Serialize claims of the relay instances on this database until the end of the transaction
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('outbox_claim'))", nativeQuery = true)
+    Integer lockClaims();
+
+    // Claim the oldest pending rows for a lease, skipping any row whose topic and key still have an older row
+    // claimed by a batch in progress, so that rows of a key are never published out of order
+    @Modifying
+    @Query(value = """
+            UPDATE outbox_events SET claim_id = :claimId,
+                                     claimed_until = now() + :leaseMs * interval '1 millisecond'
+            WHERE id IN (
+                SELECT o.id FROM outbox_events o
+                WHERE o.attempts < :maxAttempts
+                  AND (o.claimed_until IS NULL OR o.claimed_until < now())
+                  AND NOT EXISTS (SELECT 1 FROM outbox_events p
+                                  WHERE p.topic = o.topic AND p.message_key = o.message_key AND p.id < o.id
+                                    AND p.claimed_until >= now())
+                ORDER BY o.id LIMIT :limit)
+            """, nativeQuery = true)
+    int claimNextBatch(@Param("claimId") String claimId, @Param("leaseMs") long leaseMs,
+                       @Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    List<OutboxEvent> findByClaimIdOrderById(String claimId);
+
+    // Record a failed publish attempt and release the rows for the next claim
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.attempts = o.attempts + 1, o.claimId = null, o.claimedUntil = null "
+            + "WHERE o.id IN :ids AND o.claimId = :claimId")
+    int failAttempts(@Param("ids") List<Long> ids, @Param("claimId") String claimId);
+
+    // Release rows not attempted, behind a failed row of their key, without counting an attempt
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.claimId = null, o.claimedUntil = null "
+            + "WHERE o.id IN :ids AND o.claimId = :claimId")
+    int release(@Param("ids") List<Long> ids, @Param("claimId") String claimId);
+
+    // Count rows still waiting to be published
+    long countByAttemptsLessThan(int maxAttempts);
+}
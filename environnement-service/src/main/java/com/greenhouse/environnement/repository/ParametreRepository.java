@@ -3,8 +3,11 @@ package com.greenhouse.environnement.repository;
 import com.greenhouse.environnement.model.Parametre;
 import com.greenhouse.environnement.model.ParametreType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +16,18 @@ public interface ParametreRepository extends JpaRepository<Parametre, Long> {
     Optional<Parametre> findByType(ParametreType type);
 
     boolean existsByType(ParametreType type);
+
+    Optional<Parametre> findByGreenhouseIdAndZoneIdAndType(String greenhouseId, String zoneId, ParametreType type);
+
+    boolean existsByGreenhouseIdAndZoneIdAndType(String greenhouseId, String zoneId, ParametreType type);
+
+    List<Parametre> findByGreenhouseId(String greenhouseId);
+
+    List<Parametre> findByGreenhouseIdAndZoneId(String greenhouseId, String zoneId);
+
+    /**
+     * Locks the row of a parameter until the end of the transaction, so its alert incident changes in turn
+     */
+    @Query(value = "SELECT id FROM parametres WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockById(@Param("id") Long id);
 }
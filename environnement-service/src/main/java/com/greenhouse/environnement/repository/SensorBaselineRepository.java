@@ -0,0 +1,9 @@
+package com.greenhouse.environnement.repository;
+
+import com.greenhouse.environnement.model.SensorBaseline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SensorBaselineRepository extends JpaRepository<SensorBaseline, Long> {
+}
@@ -1,8 +1,18 @@
 package com.greenhouse.environnement.service;
 
+import com.greenhouse.environnement.alerting.AlertAggregator;
+import com.greenhouse.environnement.alerting.AlertIncident;
+import com.greenhouse.environnement.alerting.AlertRuleEngine;
+import com.greenhouse.environnement.alerting.AlertSeverity;
+import com.greenhouse.environnement.alerting.IncidentTransition;
+import com.greenhouse.environnement.alerting.RuleBreach;
+import com.greenhouse.environnement.anomaly.Anomaly;
+import com.greenhouse.environnement.anomaly.AnomalyDetector;
 import com.greenhouse.environnement.config.MetricsConfig;
-import com.greenhouse.environnement.dto.AlertEvent;
-import com.greenhouse.environnement.dto.MeasurementEvent;
+import com.greenhouse.environnement.config.ShardRouter;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.AnomalyEvent;
+import com.greenhouse.events.MeasurementEvent;
 import com.greenhouse.environnement.dto.MesureRequest;
 import com.greenhouse.environnement.dto.MesureResponse;
 import com.greenhouse.environnement.exception.ResourceNotFoundException;
@@ -10,28 +20,45 @@ import com.greenhouse.environnement.model.Mesure;
 import com.greenhouse.environnement.model.Parametre;
 import com.greenhouse.environnement.repository.MesureRepository;
 import com.greenhouse.environnement.repository.ParametreRepository;
+import com.greenhouse.environnement.stats.MesureCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MesureService {
 
+    private static final int MAX_BULK_PARAMETRES = 100;
+    private static final int MAX_RECENT_LIMIT = 100;
+    private static final Comparator<MesureResponse> NEWEST_RESPONSE_FIRST =
+            Comparator.comparing(MesureResponse::getDateMesure).reversed();
+
     private final MesureRepository mesureRepository;
     private final ParametreRepository parametreRepository;
-    private final KafkaProducerService kafkaProducerService;
+    private final OutboxService outboxService;
     private final MetricsConfig metricsConfig;
+    private final ShardRouter shardRouter;
+    private final AlertRuleEngine alertRuleEngine;
+    private final AlertAggregator alertAggregator;
+    private final AnomalyDetector anomalyDetector;
+    private final MesureCounters mesureCounters;
 
     @Transactional
     public MesureResponse createMesure(MesureRequest request) {
@@ -46,12 +73,14 @@ public class MesureService {
                 ? request.getDateMesure()
                 : LocalDateTime.now();
 
-        // Check if value exceeds thresholds
-        boolean isAlert = request.getValeur() < parametre.getSeuilMin()
-                || request.getValeur() > parametre.getSeuilMax();
+        // Evaluate the alert rules of the parameter over its latest measurements
+        RuleBreach breach = alertRuleEngine.evaluate(parametre, request.getValeur(), dateMesure);
+        boolean isAlert = breach != null;
 
         Mesure mesure = Mesure.builder()
                 .parametreId(request.getParametreId())
+                .greenhouseId(parametre.getGreenhouseId())
+                .zoneId(parametre.getZoneId())
                 .valeur(request.getValeur())
                 .dateMesure(dateMesure)
                 .alerte(isAlert)
@@ -63,29 +92,55 @@ public class MesureService {
         // Increment measurement counter for metrics
         metricsConfig.incrementMeasurement(parametre.getType().name());
 
-        // Always send measurement to measurement-stream topic
-        sendMeasurementToKafka(savedMesure, parametre, isAlert);
+        // Events are written to the outbox in this transaction and relayed to Kafka asynchronously
+        enqueueMeasurementEvent(savedMesure, parametre, isAlert);
 
-        // If alert, send to greenhouse-alerts topic
         if (isAlert) {
             // Increment alert counter for metrics
             metricsConfig.incrementAlert(parametre.getType().name(), "warning");
-            sendAlertToKafka(savedMesure, parametre);
+        }
+
+        // Counted once committed, served by /api/mesures/stats
+        mesureCounters.record(parametre, dateMesure, isAlert
+                ? AlertSeverity.of(savedMesure.getValeur(), parametre.getSeuilMin(), parametre.getSeuilMax())
+                : null);
+
+        // Breaches are grouped into incidents: only their state changes go to greenhouse-alerts
+        IncidentTransition transition = alertAggregator.onMeasurement(parametre, savedMesure.getValeur(),
+                dateMesure, isAlert);
+        if (transition != null) {
+            enqueueAlertEvent(savedMesure, parametre, breach, transition);
+        }
+
+        // Score against the sensor's own recent behaviour, thresholds aside
+        Anomaly anomaly = anomalyDetector.observe(parametre, savedMesure.getValeur());
+        if (anomaly != null) {
+            metricsConfig.incrementAnomaly(parametre.getType().name());
+            enqueueAnomalyEvent(savedMesure, parametre, anomaly);
         }
 
         return mapToResponse(savedMesure, parametre);
     }
 
+    @Transactional(readOnly = true)
     public Page<MesureResponse> getAllMesures(int page, int size) {
-        log.info("Fetching all measurements - page: {}, size: {}", page, size);
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateMesure"));
-        return mesureRepository.findAll(pageable)
-                .map(mesure -> {
-                    Parametre parametre = parametreRepository.findById(mesure.getParametreId()).orElse(null);
-                    return mapToResponse(mesure, parametre);
-                });
+        return getAllMesures(null, page, size);
     }
 
+    /**
+     * Measurements of a greenhouse, or of all greenhouses (and all shards) when none is given
+     */
+    @Transactional(readOnly = true)
+    public Page<MesureResponse> getAllMesures(String greenhouseId, int page, int size) {
+        log.info("Fetching measurements of greenhouse {} - page: {}, size: {}", greenhouseId, page, size);
+        if (greenhouseId == null) {
+            return acrossShards(page, size, mesureRepository::findResponses);
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        return mesureRepository.findResponsesByGreenhouseId(greenhouseId, pageable);
+    }
+
+    @Transactional(readOnly = true)
     public Page<MesureResponse> getMesuresByParametreId(Long parametreId, int page, int size) {
         log.info("Fetching measurements for parameter ID: {} - page: {}, size: {}", parametreId, page, size);
         
@@ -94,14 +149,11 @@ public class MesureService {
             throw new ResourceNotFoundException("Parametre", "id", parametreId);
         }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateMesure"));
-        return mesureRepository.findByParametreId(parametreId, pageable)
-                .map(mesure -> {
-                    Parametre parametre = parametreRepository.findById(mesure.getParametreId()).orElse(null);
-                    return mapToResponse(mesure, parametre);
-                });
+        Pageable pageable = PageRequest.of(page, size);
+        return mesureRepository.findResponsesByParametreId(parametreId, pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<MesureResponse> getMesuresByDateRange(
             LocalDateTime startDate,
             LocalDateTime endDate,
@@ -112,26 +164,21 @@ public class MesureService {
         log.info("Fetching measurements between {} and {} for parameter ID: {}",
                 startDate, endDate, parametreId);
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateMesure"));
-
-        Page<Mesure> mesures;
-        if (parametreId != null) {
-            // Verify parameter exists
-            if (!parametreRepository.existsById(parametreId)) {
-                throw new ResourceNotFoundException("Parametre", "id", parametreId);
-            }
-            mesures = mesureRepository.findByParametreIdAndDateMesureBetween(
-                    parametreId, startDate, endDate, pageable);
-        } else {
-            mesures = mesureRepository.findByDateMesureBetween(startDate, endDate, pageable);
+        if (parametreId == null) {
+            return acrossShards(page, size, pageable ->
+                    mesureRepository.findResponsesByDateMesureBetween(startDate, endDate, pageable));
         }
 
-        return mesures.map(mesure -> {
-            Parametre parametre = parametreRepository.findById(mesure.getParametreId()).orElse(null);
-            return mapToResponse(mesure, parametre);
-        });
+        // Verify parameter exists
+        if (!parametreRepository.existsById(parametreId)) {
+            throw new ResourceNotFoundException("Parametre", "id", parametreId);
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        return mesureRepository.findResponsesByParametreIdAndDateMesureBetween(
+                parametreId, startDate, endDate, pageable);
     }
 
+    @Transactional(readOnly = true)
     public List<MesureResponse> getRecentMesures(Long parametreId, int limit) {
         log.info("Fetching {} recent measurements for parameter ID: {}", limit, parametreId);
 
@@ -140,48 +187,104 @@ public class MesureService {
             throw new ResourceNotFoundException("Parametre", "id", parametreId);
         }
 
-        Parametre parametre = parametreRepository.findById(parametreId).orElse(null);
-        Pageable pageable = PageRequest.of(0, limit);
+        return mesureRepository.findRecentResponsesByParametreId(parametreId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Last {@code limit} measurements of each parameter, newest first, in one query whatever the number of
+     * parameters. Unknown parameters map to an empty list instead of failing the whole batch.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<MesureResponse>> getRecentMesures(Collection<Long> parametreIds, int limit) {
+        if (parametreIds.size() > MAX_BULK_PARAMETRES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_PARAMETRES + " parameters per request");
+        }
+        if (limit < 1 || limit > MAX_RECENT_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_RECENT_LIMIT);
+        }
+        log.info("Fetching {} recent measurements for {} parameters", limit, parametreIds.size());
+
+        Set<Long> ids = new LinkedHashSet<>(parametreIds);
+        Map<Long, List<MesureResponse>> recentes = new LinkedHashMap<>();
+        ids.forEach(id -> recentes.put(id, new ArrayList<>()));
+        if (ids.isEmpty()) {
+            return recentes;
+        }
+
+        if (!shardRouter.isEnabled()) {
+            findRecentMesures(ids, limit).forEach(mesure -> recentes.get(mesure.getParametreId()).add(mesure));
+            return recentes;
+        }
+        // Parameter IDs do not say which shard holds them: every shard answers for those it has
+        shardRouter.onAllShards(() -> findRecentMesures(ids, limit)).forEach(shardMesures ->
+                shardMesures.forEach(mesure -> recentes.get(mesure.getParametreId()).add(mesure)));
+        recentes.values().forEach(mesures -> mesures.sort(NEWEST_RESPONSE_FIRST));
+        return recentes;
+    }
 
-        return mesureRepository.findRecentByParametreId(parametreId, pageable).stream()
-                .map(mesure -> mapToResponse(mesure, parametre))
-                .collect(Collectors.toList());
+    private List<MesureResponse> findRecentMesures(Set<Long> ids, int limit) {
+        return mesureRepository.findRecentResponsesByParametreIdIn(ids, limit);
     }
 
+    @Transactional(readOnly = true)
     public Page<MesureResponse> getAlerts(Long parametreId, int page, int size) {
-        log.info("Fetching alerts for parameter ID: {} - page: {}, size: {}", parametreId, page, size);
+        return getAlerts(null, parametreId, page, size);
+    }
+
+    /**
+     * Alerts of a parameter, else of a greenhouse, else of all greenhouses
+     */
+    @Transactional(readOnly = true)
+    public Page<MesureResponse> getAlerts(String greenhouseId, Long parametreId, int page, int size) {
+        log.info("Fetching alerts for parameter ID: {}, greenhouse: {} - page: {}, size: {}",
+                parametreId, greenhouseId, page, size);
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "dateMesure"));
+        if (parametreId == null && greenhouseId == null) {
+            return acrossShards(page, size, mesureRepository::findAlertResponses);
+        }
 
-        Page<Mesure> mesures;
+        Pageable pageable = PageRequest.of(page, size);
         if (parametreId != null) {
             // Verify parameter exists
             if (!parametreRepository.existsById(parametreId)) {
                 throw new ResourceNotFoundException("Parametre", "id", parametreId);
             }
-            mesures = mesureRepository.findByParametreIdAndAlerteTrue(parametreId, pageable);
-        } else {
-            mesures = mesureRepository.findByAlerteTrue(pageable);
+            return mesureRepository.findAlertResponsesByParametreId(parametreId, pageable);
         }
-
-        return mesures.map(mesure -> {
-            Parametre parametre = parametreRepository.findById(mesure.getParametreId()).orElse(null);
-            return mapToResponse(mesure, parametre);
-        });
+        return mesureRepository.findAlertResponsesByGreenhouseId(greenhouseId, pageable);
     }
 
-    private void sendAlertToKafka(Mesure mesure, Parametre parametre) {
-        String message = String.format(
-                "Alert: %s value %.2f%s is outside threshold [%.2f - %.2f]",
-                parametre.getType(),
-                mesure.getValeur(),
-                parametre.getUnite(),
-                parametre.getSeuilMin(),
-                parametre.getSeuilMax()
-        );
+    /**
+     * Runs a query spanning all greenhouses. With sharding, each shard returns its rows up to the end of the
+     * requested page and the page is cut from their merge, newest first.
+     */
+    private Page<MesureResponse> acrossShards(int page, int size, Function<Pageable, Page<MesureResponse>> query) {
+        Pageable pageable = PageRequest.of(page, size);
+        if (!shardRouter.isEnabled()) {
+            return query.apply(pageable);
+        }
+        Pageable window = PageRequest.of(0, shardRouter.fanOutWindow(page, size));
+        return ShardRouter.mergePages(shardRouter.onAllShards(() -> query.apply(window)), pageable, NEWEST_RESPONSE_FIRST);
+    }
 
-        // Determine severity based on how far the value is from the threshold
-        String severity = calculateSeverity(mesure.getValeur(), parametre.getSeuilMin(), parametre.getSeuilMax());
+    private void enqueueAlertEvent(Mesure mesure, Parametre parametre, RuleBreach breach,
+                                   IncidentTransition transition) {
+        AlertIncident incident = transition.incident();
+        String message = breach != null
+                ? String.format(
+                        "Alert: %s value %.2f%s %s",
+                        parametre.getType(),
+                        mesure.getValeur(),
+                        parametre.getUnite(),
+                        breach.detail())
+                : String.format(
+                        "Resolved: %s value %.2f%s back to normal after %d alerting measurements (peak %.2f%s)",
+                        parametre.getType(),
+                        mesure.getValeur(),
+                        parametre.getUnite(),
+                        incident.breachCount(),
+                        incident.peakValeur(),
+                        parametre.getUnite());
 
         AlertEvent alertEvent = AlertEvent.builder()
                 .mesureId(mesure.getId())
@@ -191,14 +294,40 @@ public class MesureService {
                 .seuilMin(parametre.getSeuilMin())
                 .seuilMax(parametre.getSeuilMax())
                 .dateMesure(mesure.getDateMesure())
-                .severity(severity)
+                .severity(incident.severity())
                 .message(message)
+                .greenhouseId(mesure.getGreenhouseId())
+                .zoneId(mesure.getZoneId())
+                .incidentId(incident.id())
+                .incidentState(transition.state())
+                .peakValeur(incident.peakValeur())
+                .breachCount(incident.breachCount())
+                .openedAt(incident.openedAt())
+                .rule(breach != null ? breach.rule() : null)
+                .direction(breach != null ? breach.direction() : null)
+                .build();
+
+        outboxService.enqueueAlert(alertEvent);
+    }
+
+    private void enqueueAnomalyEvent(Mesure mesure, Parametre parametre, Anomaly anomaly) {
+        AnomalyEvent anomalyEvent = AnomalyEvent.builder()
+                .mesureId(mesure.getId())
+                .parametreId(mesure.getParametreId())
+                .parametreType(parametre.getType().name())
+                .valeur(mesure.getValeur())
+                .expected(anomaly.expected())
+                .deviation(anomaly.deviation())
+                .score(anomaly.score())
+                .dateMesure(mesure.getDateMesure())
+                .greenhouseId(mesure.getGreenhouseId())
+                .zoneId(mesure.getZoneId())
                 .build();
 
-        kafkaProducerService.sendAlert(alertEvent);
+        outboxService.enqueueAnomaly(anomalyEvent);
     }
 
-    private void sendMeasurementToKafka(Mesure mesure, Parametre parametre, boolean isAlert) {
+    private void enqueueMeasurementEvent(Mesure mesure, Parametre parametre, boolean isAlert) {
         MeasurementEvent measurementEvent = MeasurementEvent.builder()
                 .mesureId(mesure.getId())
                 .parametreId(mesure.getParametreId())
@@ -210,34 +339,19 @@ public class MesureService {
                 .seuilMax(parametre.getSeuilMax())
                 .isAlert(isAlert)
                 .dateMesure(mesure.getDateMesure())
+                .greenhouseId(mesure.getGreenhouseId())
+                .zoneId(mesure.getZoneId())
                 .build();
 
-        kafkaProducerService.sendMeasurement(measurementEvent);
-    }
-
-    private String calculateSeverity(Double value, Double seuilMin, Double seuilMax) {
-        double deviation;
-        if (value < seuilMin) {
-            deviation = (seuilMin - value) / seuilMin * 100;
-        } else {
-            deviation = (value - seuilMax) / seuilMax * 100;
-        }
-
-        if (deviation > 50) {
-            return "CRITICAL";
-        } else if (deviation > 25) {
-            return "HIGH";
-        } else if (deviation > 10) {
-            return "MEDIUM";
-        } else {
-            return "LOW";
-        }
+        outboxService.enqueueMeasurement(measurementEvent);
     }
 
     private MesureResponse mapToResponse(Mesure mesure, Parametre parametre) {
         MesureResponse.MesureResponseBuilder builder = MesureResponse.builder()
                 .id(mesure.getId())
                 .parametreId(mesure.getParametreId())
+                .greenhouseId(mesure.getGreenhouseId())
+                .zoneId(mesure.getZoneId())
                 .valeur(mesure.getValeur())
                 .dateMesure(mesure.getDateMesure())
                 .alerte(mesure.getAlerte())
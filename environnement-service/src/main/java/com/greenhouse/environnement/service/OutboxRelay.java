@@ -0,0 +1,194 @@
+package com.greenhouse.environnement.service;
+
+import com.greenhouse.environnement.config.MetricsConfig;
+import com.greenhouse.environnement.config.ShardRouter;
+import com.greenhouse.environnement.model.OutboxEvent;
+import com.greenhouse.environnement.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox rows to Kafka in large batches, in order for each topic and key.
+ *
+ * A batch is claimed for a lease in a short transaction, serialized between relay instances, and then
+ * published outside of any transaction: no row lock is held while waiting for acks. A claim skips keys
+ * that still have an older row claimed elsewhere. Within a batch, rows with different keys are sent
+ * together so the producer can fill its batches. Rows with the same key are sent one after the other,
+ * so a row is never published after a newer row of its key. Once the acks are in, a second short
+ * transaction settles the batch:
+ * - acknowledged rows are deleted in one statement;
+ * - failed rows have their attempt counter bumped;
+ * - rows behind a failure of their key are released unsent, for the next claim.
+ * A relay that dies mid-batch leaves its rows to be claimed again once the lease expires.
+ * Delivery is at-least-once: consumers deduplicate on {@code eventId}. With sharding, each shard's
+ * outbox is drained in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final KafkaProducerService kafkaProducerService;
+    private final MetricsConfig metricsConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.relay.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.relay.claim-lease-ms:60000}")
+    private long claimLeaseMs;
+
+    /**
+     * Drain the outbox: keep relaying while batches come back full, up to a bounded number per run
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        shardRouter.forEachShard(this::drain);
+    }
+
+    private void drain() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claim one batch, publish it and settle it in bulk.
+     *
+     * @return number of rows claimed
+     */
+    public int relayBatch() {
+        String claimId = UUID.randomUUID().toString();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> {
+            outboxEventRepository.lockClaims();
+            if (outboxEventRepository.claimNextBatch(claimId, claimLeaseMs, maxAttempts, batchSize) == 0) {
+                return List.<OutboxEvent>of();
+            }
+            return outboxEventRepository.findByClaimIdOrderById(claimId);
+        });
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start();
+        Set<Long> attempted = ConcurrentHashMap.newKeySet();
+        Map<String, CompletableFuture<?>> lastSendByKey = new HashMap<>();
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            String key = outboxEvent.getMessageKey() != null
+                    ? outboxEvent.getTopic() + '/' + outboxEvent.getMessageKey()
+                    : null;
+            CompletableFuture<?> previous = key != null ? lastSendByKey.get(key) : null;
+            // The next row of a key is sent once the previous one is acknowledged, never after it failed.
+            // Async: the ack completes on the producer's network thread, which must not block in send().
+            CompletableFuture<?> send = previous == null
+                    ? send(outboxEvent, attempted)
+                    : previous.thenComposeAsync(ack -> send(outboxEvent, attempted));
+            sends.add(send);
+            if (key != null) {
+                lastSendByKey.put(key, send);
+            }
+        }
+
+        List<Long> published = new ArrayList<>(batch.size());
+        List<Long> failed = new ArrayList<>();
+        List<Long> released = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent outboxEvent = batch.get(i);
+            Throwable failure = awaitAck(sends.get(i), deadline);
+            if (failure == null) {
+                published.add(outboxEvent.getId());
+            } else if (attempted.contains(outboxEvent.getId())) {
+                failed.add(outboxEvent.getId());
+                log.warn("Outbox event {} not published to '{}': {}",
+                        outboxEvent.getId(), outboxEvent.getTopic(), failure.toString());
+                if (outboxEvent.getAttempts() + 1 >= maxAttempts) {
+                    log.error("Outbox event {} ({}) parked after {} failed attempts",
+                            outboxEvent.getId(), outboxEvent.getEventType(), maxAttempts);
+                }
+            } else {
+                released.add(outboxEvent.getId());
+            }
+        }
+
+        transactionTemplate.execute(status -> {
+            if (!published.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(published);
+            }
+            if (!failed.isEmpty()) {
+                outboxEventRepository.failAttempts(failed, claimId);
+            }
+            if (!released.isEmpty()) {
+                outboxEventRepository.release(released, claimId);
+            }
+            return null;
+        });
+        sample.stop(metricsConfig.kafkaPublishTimer());
+
+        log.debug("Outbox batch relayed: published={}, failed={}, released={}",
+                published.size(), failed.size(), released.size());
+        return batch.size();
+    }
+
+    private CompletableFuture<?> send(OutboxEvent outboxEvent, Set<Long> attempted) {
+        attempted.add(outboxEvent.getId());
+        try {
+            Object event = outboxService.readPayload(outboxEvent);
+            return kafkaProducerService.publish(outboxEvent.getTopic(), outboxEvent.getMessageKey(), event);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * @return null once acknowledged, else why not
+     */
+    private Throwable awaitAck(CompletableFuture<?> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send.cancel(false);
+            return e;
+        } catch (ExecutionException | TimeoutException e) {
+            // A row still waiting for its predecessor must not be sent once the batch is settled
+            send.cancel(false);
+            return e instanceof ExecutionException ? e.getCause() : e;
+        }
+    }
+}
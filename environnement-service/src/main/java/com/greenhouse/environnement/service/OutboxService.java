@@ -0,0 +1,110 @@
+package com.greenhouse.environnement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenhouse.environnement.model.OutboxEvent;
+import com.greenhouse.environnement.repository.OutboxEventRepository;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.AnomalyEvent;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.codec.EventMappers;
+import com.greenhouse.events.codec.WireFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Transactional outbox for Kafka events.
+ * Events are stored with the business change that produced them and published later
+ * by {@link OutboxRelay}, so the database and Kafka can no longer disagree.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private static final ObjectMapper MAPPER = EventMappers.forFormat(WireFormat.JSON);
+
+    private static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            AlertEvent.SUBJECT, AlertEvent.class,
+            MeasurementEvent.SUBJECT, MeasurementEvent.class,
+            ConfigChangeEvent.SUBJECT, ConfigChangeEvent.class,
+            AnomalyEvent.SUBJECT, AnomalyEvent.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Value("${kafka.topic.greenhouse-alerts}")
+    private String alertsTopic;
+
+    @Value("${kafka.topic.measurement-stream}")
+    private String measurementTopic;
+
+    @Value("${kafka.topic.config-changes:config-changes}")
+    private String configChangesTopic;
+
+    @Value("${kafka.topic.greenhouse-anomalies:greenhouse-anomalies}")
+    private String anomaliesTopic;
+
+    /**
+     * Enqueue a measurement event; must run inside the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueMeasurement(MeasurementEvent event) {
+        enqueue(measurementTopic, event.partitionKey(), MeasurementEvent.SUBJECT, event);
+    }
+
+    /**
+     * Enqueue an alert event; must run inside the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAlert(AlertEvent event) {
+        enqueue(alertsTopic, event.partitionKey(), AlertEvent.SUBJECT, event);
+    }
+
+    /**
+     * Enqueue an anomaly event; must run inside the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAnomaly(AnomalyEvent event) {
+        enqueue(anomaliesTopic, event.partitionKey(), AnomalyEvent.SUBJECT, event);
+    }
+
+    /**
+     * Enqueue a configuration change event; must run inside the caller's transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueConfigChange(ConfigChangeEvent event) {
+        enqueue(configChangesTopic, event.entityType() + ":" + event.entityId(), ConfigChangeEvent.SUBJECT, event);
+    }
+
+    /**
+     * Decode a stored payload back into its canonical event record
+     */
+    public Object readPayload(OutboxEvent outboxEvent) throws JsonProcessingException {
+        Class<?> type = EVENT_TYPES.get(outboxEvent.getEventType());
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown outbox event type: " + outboxEvent.getEventType());
+        }
+        return MAPPER.readValue(outboxEvent.getPayload(), type);
+    }
+
+    private void enqueue(String topic, String key, String eventType, Object event) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .messageKey(key)
+                    .eventType(eventType)
+                    .payload(MAPPER.writeValueAsString(event))
+                    .build());
+            log.debug("Enqueued {} for topic '{}' with key {}", eventType, topic, key);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize " + eventType + " for the outbox", e);
+        }
+    }
+}
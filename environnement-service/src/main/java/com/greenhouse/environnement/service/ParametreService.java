@@ -1,5 +1,7 @@
 package com.greenhouse.environnement.service;
 
+import com.greenhouse.environnement.alerting.AlertRuleEngine;
+import com.greenhouse.environnement.config.ShardRouter;
 import com.greenhouse.environnement.dto.ParametreRequest;
 import com.greenhouse.environnement.dto.ParametreResponse;
 import com.greenhouse.environnement.exception.DuplicateResourceException;
@@ -7,10 +9,14 @@ import com.greenhouse.environnement.exception.ResourceNotFoundException;
 import com.greenhouse.environnement.model.Parametre;
 import com.greenhouse.environnement.model.ParametreType;
 import com.greenhouse.environnement.repository.ParametreRepository;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.PartitionKeys;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -21,15 +27,21 @@ import java.util.stream.Collectors;
 public class ParametreService {
 
     private final ParametreRepository parametreRepository;
+    private final OutboxService outboxService;
+    private final ShardRouter shardRouter;
+    private final AlertRuleEngine alertRuleEngine;
 
     @Transactional
     public ParametreResponse createParametre(ParametreRequest request) {
-        log.info("Creating parameter of type: {}", request.getType());
+        String greenhouseId = orDefaultGreenhouse(request.getGreenhouseId());
+        String zoneId = orDefaultZone(request.getZoneId());
+        log.info("Creating parameter of type: {} in greenhouse {} zone {}", request.getType(), greenhouseId, zoneId);
 
-        // Check if parameter type already exists
-        if (parametreRepository.existsByType(request.getType())) {
+        // Check if parameter type already exists in this zone
+        if (parametreRepository.existsByGreenhouseIdAndZoneIdAndType(greenhouseId, zoneId, request.getType())) {
             throw new DuplicateResourceException(
-                    "Parameter with type " + request.getType() + " already exists"
+                    "Parameter with type " + request.getType() + " already exists in greenhouse "
+                            + greenhouseId + " zone " + zoneId
             );
         }
 
@@ -40,6 +52,8 @@ public class ParametreService {
 
         Parametre parametre = Parametre.builder()
                 .type(request.getType())
+                .greenhouseId(greenhouseId)
+                .zoneId(zoneId)
                 .seuilMin(request.getSeuilMin())
                 .seuilMax(request.getSeuilMax())
                 .unite(request.getUnite())
@@ -47,13 +61,39 @@ public class ParametreService {
 
         Parametre savedParametre = parametreRepository.save(parametre);
         log.info("Parameter created with ID: {}", savedParametre.getId());
+        enqueueConfigChange(savedParametre, ConfigChangeEvent.CREATED);
 
         return mapToResponse(savedParametre);
     }
 
     public List<ParametreResponse> getAllParametres() {
-        log.info("Fetching all parameters");
-        return parametreRepository.findAll().stream()
+        return getAllParametres(null, null);
+    }
+
+    /**
+     * Parameters of a greenhouse, optionally of one of its zones; all parameters of all shards when no greenhouse
+     * is given
+     */
+    public List<ParametreResponse> getAllParametres(String greenhouseId, String zoneId) {
+        log.info("Fetching parameters - greenhouse: {}, zone: {}", greenhouseId, zoneId);
+        if (greenhouseId == null && shardRouter.isEnabled()) {
+            return shardRouter.onAllShards(() -> findParametres(null, zoneId)).stream()
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+        }
+        return findParametres(greenhouseId, zoneId);
+    }
+
+    private List<ParametreResponse> findParametres(String greenhouseId, String zoneId) {
+        List<Parametre> parametres;
+        if (greenhouseId == null) {
+            parametres = parametreRepository.findAll();
+        } else if (zoneId == null) {
+            parametres = parametreRepository.findByGreenhouseId(greenhouseId);
+        } else {
+            parametres = parametreRepository.findByGreenhouseIdAndZoneId(greenhouseId, zoneId);
+        }
+        return parametres.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -65,9 +105,14 @@ public class ParametreService {
         return mapToResponse(parametre);
     }
 
-    public ParametreResponse getParametreByType(ParametreType type) {
-        log.info("Fetching parameter by type: {}", type);
-        Parametre parametre = parametreRepository.findByType(type)
+    /**
+     * Parameter of a type in a greenhouse zone, the default ones when not given
+     */
+    public ParametreResponse getParametreByType(ParametreType type, String greenhouseId, String zoneId) {
+        String greenhouse = orDefaultGreenhouse(greenhouseId);
+        String zone = orDefaultZone(zoneId);
+        log.info("Fetching parameter by type: {} in greenhouse {} zone {}", type, greenhouse, zone);
+        Parametre parametre = parametreRepository.findByGreenhouseIdAndZoneIdAndType(greenhouse, zone, type)
                 .orElseThrow(() -> new ResourceNotFoundException("Parametre", "type", type));
         return mapToResponse(parametre);
     }
@@ -79,14 +124,28 @@ public class ParametreService {
         Parametre existingParametre = parametreRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Parametre", "id", id));
 
-        // If type is being changed, check if new type already exists
-        if (!existingParametre.getType().equals(request.getType())) {
-            if (parametreRepository.existsByType(request.getType())) {
+        // Scope is kept unless given; if type or scope is being changed, check the target is free
+        String greenhouseId = request.getGreenhouseId() != null
+                ? request.getGreenhouseId() : existingParametre.getGreenhouseId();
+        String zoneId = request.getZoneId() != null ? request.getZoneId() : existingParametre.getZoneId();
+        boolean typeChanged = !existingParametre.getType().equals(request.getType());
+        if (typeChanged
+                || !existingParametre.getGreenhouseId().equals(greenhouseId)
+                || !existingParametre.getZoneId().equals(zoneId)) {
+            if (shardRouter.isEnabled()
+                    && !shardRouter.shardOf(greenhouseId).equals(shardRouter.shardOf(existingParametre.getGreenhouseId()))) {
+                throw new IllegalArgumentException("Parameter " + id + " cannot move to greenhouse " + greenhouseId
+                        + ", which lives on another shard");
+            }
+            if (parametreRepository.existsByGreenhouseIdAndZoneIdAndType(greenhouseId, zoneId, request.getType())) {
                 throw new DuplicateResourceException(
-                        "Parameter with type " + request.getType() + " already exists"
+                        "Parameter with type " + request.getType() + " already exists in greenhouse "
+                                + greenhouseId + " zone " + zoneId
                 );
             }
             existingParametre.setType(request.getType());
+            existingParametre.setGreenhouseId(greenhouseId);
+            existingParametre.setZoneId(zoneId);
         }
 
         // Validate thresholds
@@ -100,14 +159,56 @@ public class ParametreService {
 
         Parametre updatedParametre = parametreRepository.save(existingParametre);
         log.info("Parameter updated with ID: {}", updatedParametre.getId());
+        enqueueConfigChange(updatedParametre, ConfigChangeEvent.UPDATED);
+        if (typeChanged) {
+            forgetAlertRules(id);
+        }
 
         return mapToResponse(updatedParametre);
     }
 
+    /**
+     * Alert rules depend on the parameter type: rebuild them on the next measurement, once the change is committed
+     */
+    private void forgetAlertRules(Long parametreId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            alertRuleEngine.forget(parametreId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                alertRuleEngine.forget(parametreId);
+            }
+        });
+    }
+
+    /**
+     * Notify consumers (gateway response cache) once the change is committed
+     */
+    private void enqueueConfigChange(Parametre parametre, String changeType) {
+        outboxService.enqueueConfigChange(ConfigChangeEvent.builder()
+                .entityType(ConfigChangeEvent.PARAMETRE)
+                .entityId(parametre.getId())
+                .changeType(changeType)
+                .greenhouseId(parametre.getGreenhouseId())
+                .build());
+    }
+
+    private static String orDefaultGreenhouse(String greenhouseId) {
+        return greenhouseId != null ? greenhouseId : PartitionKeys.DEFAULT_GREENHOUSE;
+    }
+
+    private static String orDefaultZone(String zoneId) {
+        return zoneId != null ? zoneId : PartitionKeys.DEFAULT_ZONE;
+    }
+
     private ParametreResponse mapToResponse(Parametre parametre) {
         return ParametreResponse.builder()
                 .id(parametre.getId())
                 .type(parametre.getType())
+                .greenhouseId(parametre.getGreenhouseId())
+                .zoneId(parametre.getZoneId())
                 .seuilMin(parametre.getSeuilMin())
                 .seuilMax(parametre.getSeuilMax())
                 .unite(parametre.getUnite())
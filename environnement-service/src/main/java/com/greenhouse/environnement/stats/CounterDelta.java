@@ -0,0 +1,33 @@
+package com.greenhouse.environnement.stats;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counts recorded for a parameter and hour since the last flush
+ *
+ * @param bySeverity alerts by severity rank, LOW first
+ */
+public record CounterDelta(
+        Long parametreId,
+        String greenhouseId,
+        LocalDateTime bucketStart,
+        long measurements,
+        long alerts,
+        long[] bySeverity) {
+
+    public long low() {
+        return bySeverity[0];
+    }
+
+    public long medium() {
+        return bySeverity[1];
+    }
+
+    public long high() {
+        return bySeverity[2];
+    }
+
+    public long critical() {
+        return bySeverity[3];
+    }
+}
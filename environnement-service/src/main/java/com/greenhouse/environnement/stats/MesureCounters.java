@@ -0,0 +1,167 @@
+package com.greenhouse.environnement.stats;
+
+import com.greenhouse.environnement.alerting.AlertSeverity;
+import com.greenhouse.environnement.model.Parametre;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measurements and alerts counted in this instance since the last flush, by parameter and hour of measurement.
+ *
+ * Counts are striped {@link LongAdder}s, so concurrent measurements of a parameter do not contend on one value.
+ * A measurement is counted once its transaction commits: a rolled back measurement is never counted.
+ */
+@Component
+public class MesureCounters {
+
+    private static final Comparator<CounterDelta> WRITE_ORDER = Comparator
+            .comparing(CounterDelta::parametreId)
+            .thenComparing(CounterDelta::bucketStart);
+
+    private final ConcurrentHashMap<BucketKey, Counters> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Counters of older hours removed by the last drain, drained once more by the next one for a measurement that
+     * looked them up just before their removal
+     */
+    private Map<BucketKey, Counters> retired = new HashMap<>();
+
+    /**
+     * Measurements created before this instant were not counted by this instance
+     */
+    private final LocalDateTime countingSince = LocalDateTime.now();
+
+    /**
+     * Counts the measurement, once the current transaction commits if there is one
+     *
+     * @param severity severity of the alert, null when the measurement did not alert
+     */
+    public void record(Parametre parametre, LocalDateTime dateMesure, String severity) {
+        Long parametreId = parametre.getId();
+        String greenhouseId = parametre.getGreenhouseId();
+        LocalDateTime bucketStart = dateMesure.truncatedTo(ChronoUnit.HOURS);
+        boolean alert = severity != null;
+        int rank = alert ? AlertSeverity.rank(severity) : -1;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(parametreId, greenhouseId, bucketStart, alert, rank);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(parametreId, greenhouseId, bucketStart, alert, rank);
+            }
+        });
+    }
+
+    /**
+     * Takes the counts recorded since the last drain, ordered by parameter and hour so that concurrent flushes
+     * of several instances lock statistics rows in the same order
+     */
+    public synchronized List<CounterDelta> drain() {
+        LocalDateTime previousHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        List<CounterDelta> deltas = new ArrayList<>();
+        retired.forEach((key, counters) -> {
+            CounterDelta delta = counters.drain(key);
+            if (delta != null) {
+                deltas.add(delta);
+            }
+        });
+        Map<BucketKey, Counters> retiring = new HashMap<>();
+        pending.forEach((key, counters) -> {
+            CounterDelta delta = counters.drain(key);
+            if (delta != null) {
+                deltas.add(delta);
+            } else if (key.bucketStart().isBefore(previousHour) && pending.remove(key, counters)) {
+                // Older hours only see late measurements: drop their counters once a flush went by without any,
+                // instead of keeping one per hour forever. A later measurement is counted in a new entry.
+                retiring.put(key, counters);
+            }
+        });
+        retired = retiring;
+        deltas.sort(WRITE_ORDER);
+        return deltas;
+    }
+
+    /**
+     * Puts back counts drained by a flush that failed, for the next one
+     */
+    public void restore(List<CounterDelta> deltas) {
+        for (CounterDelta delta : deltas) {
+            counters(new BucketKey(delta.parametreId(), delta.bucketStart()), delta.greenhouseId()).add(delta);
+        }
+    }
+
+    public LocalDateTime countingSince() {
+        return countingSince;
+    }
+
+    private void increment(Long parametreId, String greenhouseId, LocalDateTime bucketStart, boolean alert, int rank) {
+        Counters counters = counters(new BucketKey(parametreId, bucketStart), greenhouseId);
+        counters.measurements.increment();
+        if (alert) {
+            counters.alerts.increment();
+            if (rank >= 0) {
+                counters.bySeverity[rank].increment();
+            }
+        }
+    }
+
+    private Counters counters(BucketKey key, String greenhouseId) {
+        // get first: computeIfAbsent would allocate its capturing lambda on every measurement
+        Counters counters = pending.get(key);
+        if (counters == null) {
+            counters = pending.computeIfAbsent(key, k -> new Counters(greenhouseId));
+        }
+        return counters;
+    }
+
+    private record BucketKey(Long parametreId, LocalDateTime bucketStart) {
+    }
+
+    private static final class Counters {
+
+        private final String greenhouseId;
+        private final LongAdder measurements = new LongAdder();
+        private final LongAdder alerts = new LongAdder();
+        private final LongAdder[] bySeverity = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+
+        Counters(String greenhouseId) {
+            this.greenhouseId = greenhouseId;
+        }
+
+        CounterDelta drain(BucketKey key) {
+            long drainedMeasurements = measurements.sumThenReset();
+            long drainedAlerts = alerts.sumThenReset();
+            long[] drainedBySeverity = new long[bySeverity.length];
+            for (int i = 0; i < bySeverity.length; i++) {
+                drainedBySeverity[i] = bySeverity[i].sumThenReset();
+            }
+            if (drainedMeasurements == 0 && drainedAlerts == 0) {
+                return null;
+            }
+            return new CounterDelta(key.parametreId(), greenhouseId, key.bucketStart(), drainedMeasurements,
+                    drainedAlerts, drainedBySeverity);
+        }
+
+        void add(CounterDelta delta) {
+            measurements.add(delta.measurements());
+            alerts.add(delta.alerts());
+            for (int i = 0; i < bySeverity.length; i++) {
+                bySeverity[i].add(delta.bySeverity()[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.greenhouse.environnement.stats;
+
+import com.greenhouse.environnement.config.ShardRouter;
+import com.greenhouse.environnement.dto.MesureStatsResponse;
+import com.greenhouse.environnement.model.MesureStatBucket;
+import com.greenhouse.environnement.model.MesureStatTotal;
+import com.greenhouse.environnement.repository.MesureStatBucketRepository;
+import com.greenhouse.environnement.repository.MesureStatTotalRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measurement and alert statistics, maintained incrementally instead of counted from {@code mesures}.
+ *
+ * Each instance counts the measurements it creates in {@link MesureCounters} and periodically adds them to
+ * {@code mesure_stat_totals} and the hourly {@code mesure_stat_buckets} of their greenhouse's shard, with upserts
+ * that add up whatever other instances flush. After each flush the statistics of all shards are read back into a
+ * snapshot that requests are served from, so they are at most one flush interval old and never scan measurements.
+ * Counts of a failed flush are kept for the next one; a crash loses at most one interval of counts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MesureStatsService {
+
+    private final StatsProperties properties;
+    private final MesureCounters mesureCounters;
+    private final MesureStatTotalRepository totalRepository;
+    private final MesureStatBucketRepository bucketRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<StatsSnapshot> snapshot = new AtomicReference<>(StatsSnapshot.EMPTY);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.isBackfillOnEmpty()) {
+            shardRouter.forEachShard(this::backfillIfEmpty);
+        }
+        refresh();
+    }
+
+    /**
+     * Adds the counts recorded since the last flush to the statistics tables, then refreshes the snapshot
+     */
+    @Scheduled(fixedDelayString = "${stats.flush-interval-ms:10000}")
+    public void flush() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<String, List<CounterDelta>> byGreenhouse = new LinkedHashMap<>();
+        for (CounterDelta delta : mesureCounters.drain()) {
+            byGreenhouse.computeIfAbsent(delta.greenhouseId(), greenhouse -> new ArrayList<>()).add(delta);
+        }
+
+        byGreenhouse.forEach((greenhouseId, deltas) -> {
+            try {
+                shardRouter.inShardOf(greenhouseId, () -> transactionTemplate.execute(status -> {
+                    for (CounterDelta delta : deltas) {
+                        totalRepository.increment(delta);
+                        bucketRepository.increment(delta);
+                    }
+                    return null;
+                }));
+            } catch (RuntimeException e) {
+                log.warn("Measurement statistics of greenhouse {} not flushed: {}", greenhouseId, e.toString());
+                mesureCounters.restore(deltas);
+            }
+        });
+
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Measurement statistics not refreshed, serving those of {}: {}",
+                    snapshot.get().refreshedAt(), e.toString());
+        }
+    }
+
+    /**
+     * Drops hourly counts older than the served hours
+     */
+    @Scheduled(fixedDelayString = "${stats.purge-interval-ms:3600000}")
+    public void purge() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime before = firstServedHour();
+        shardRouter.forEachShard(() -> {
+            Integer purged = transactionTemplate.execute(status -> bucketRepository.deleteOlderThan(before));
+            log.debug("Purged {} hourly measurement statistics before {}", purged, before);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Reads the statistics of all shards into the snapshot served
+     */
+    public void refresh() {
+        LocalDateTime since = firstServedHour();
+        List<MesureStatTotal> totals = new ArrayList<>();
+        shardRouter.onAllShards(totalRepository::findAll).forEach(totals::addAll);
+        List<MesureStatBucket> buckets = new ArrayList<>();
+        shardRouter.onAllShards(() -> bucketRepository.findSince(since)).forEach(buckets::addAll);
+        snapshot.set(StatsSnapshot.of(totals, buckets, LocalDateTime.now()));
+    }
+
+    /**
+     * Statistics of a parameter, else of a greenhouse, else of all measurements
+     *
+     * @param hours hours of hourly counts, up to {@link StatsProperties#getRecentHours()}
+     */
+    public MesureStatsResponse getStats(String greenhouseId, Long parametreId, int hours) {
+        StatsSnapshot current = snapshot.get();
+        StatCounts counts;
+        NavigableMap<LocalDateTime, StatCounts> hourly;
+        if (parametreId != null) {
+            counts = current.byParametre().getOrDefault(parametreId, StatCounts.ZERO);
+            hourly = current.hourlyByParametre().get(parametreId);
+            greenhouseId = null;
+        } else if (greenhouseId != null) {
+            counts = current.byGreenhouse().getOrDefault(greenhouseId, StatCounts.ZERO);
+            hourly = current.hourlyByGreenhouse().get(greenhouseId);
+        } else {
+            counts = current.total();
+            hourly = current.hourly();
+        }
+
+        int servedHours = Math.max(1, Math.min(hours, properties.getRecentHours()));
+        LocalDateTime since = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(servedHours - 1L);
+        return MesureStatsResponse.builder()
+                .greenhouseId(greenhouseId)
+                .parametreId(parametreId)
+                .measurements(counts.measurements())
+                .alerts(counts.alerts())
+                .alertsBySeverity(bySeverity(counts))
+                .hourly(hourly != null ? hourlyCounts(hourly.tailMap(since, true).entrySet()) : List.of())
+                .refreshedAt(current.refreshedAt())
+                .build();
+    }
+
+    /**
+     * Counts the measurements created before this instance started counting, at the first start of the counters.
+     * Serialized between instances by an advisory lock, and skipped once any statistics exist on the shard.
+     * Alerts of that history have no severity. Measurements created meanwhile by instances that do not count
+     * yet, during a rolling upgrade, are not counted.
+     */
+    private void backfillIfEmpty() {
+        LocalDateTime cutoff = mesureCounters.countingSince();
+        LocalDateTime since = firstServedHour();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                totalRepository.lockBackfill();
+                if (totalRepository.count() > 0) {
+                    return;
+                }
+                int parametres = totalRepository.backfill(cutoff);
+                int hours = bucketRepository.backfill(cutoff, since);
+                log.info("Backfilled measurement statistics of {} parameters ({} hourly rows) before {}",
+                        parametres, hours, cutoff);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Measurement statistics not backfilled: {}", e.toString());
+        }
+    }
+
+    private LocalDateTime firstServedHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(properties.getRecentHours() - 1L);
+    }
+
+    private static Map<String, Long> bySeverity(StatCounts counts) {
+        Map<String, Long> bySeverity = new LinkedHashMap<>();
+        bySeverity.put("LOW", counts.low());
+        bySeverity.put("MEDIUM", counts.medium());
+        bySeverity.put("HIGH", counts.high());
+        bySeverity.put("CRITICAL", counts.critical());
+        return bySeverity;
+    }
+
+    private static List<MesureStatsResponse.HourlyCount> hourlyCounts(
+            Collection<Map.Entry<LocalDateTime, StatCounts>> entries) {
+        List<MesureStatsResponse.HourlyCount> hourly = new ArrayList<>(entries.size());
+        for (Map.Entry<LocalDateTime, StatCounts> entry : entries) {
+            hourly.add(MesureStatsResponse.HourlyCount.builder()
+                    .hour(entry.getKey())
+                    .measurements(entry.getValue().measurements())
+                    .alerts(entry.getValue().alerts())
+                    .build());
+        }
+        return hourly;
+    }
+}
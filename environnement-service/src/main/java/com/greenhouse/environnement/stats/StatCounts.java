@@ -0,0 +1,21 @@
+package com.greenhouse.environnement.stats;
+
+import com.greenhouse.environnement.model.MesureCounts;
+
+/**
+ * Immutable measurement and alert counts, as served
+ */
+public record StatCounts(long measurements, long alerts, long low, long medium, long high, long critical) {
+
+    public static final StatCounts ZERO = new StatCounts(0, 0, 0, 0, 0, 0);
+
+    public static StatCounts of(MesureCounts counts) {
+        return new StatCounts(counts.getMeasurements(), counts.getAlerts(), counts.getAlertsLow(),
+                counts.getAlertsMedium(), counts.getAlertsHigh(), counts.getAlertsCritical());
+    }
+
+    public StatCounts plus(StatCounts other) {
+        return new StatCounts(measurements + other.measurements, alerts + other.alerts, low + other.low,
+                medium + other.medium, high + other.high, critical + other.critical);
+    }
+}
@@ -0,0 +1,36 @@
+package com.greenhouse.environnement.stats;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measurement and alert counters maintained as measurements are created
+ */
+@Component
+@ConfigurationProperties(prefix = "stats")
+@Data
+public class StatsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How often counted measurements are added to the statistics tables and the served statistics refreshed
+     */
+    private long flushIntervalMs = 10_000;
+
+    /**
+     * Hours of hourly counts served and kept; older hourly rows are purged, totals are kept
+     */
+    private int recentHours = 48;
+
+    /**
+     * How often hourly rows older than {@link #recentHours} are purged
+     */
+    private long purgeIntervalMs = 3_600_000;
+
+    /**
+     * Counts the existing measurements when the statistics tables are empty, at the first start of the counters
+     */
+    private boolean backfillOnEmpty = true;
+}
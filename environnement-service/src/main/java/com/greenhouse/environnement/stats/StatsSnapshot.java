@@ -0,0 +1,56 @@
+package com.greenhouse.environnement.stats;
+
+import com.greenhouse.environnement.model.MesureStatBucket;
+import com.greenhouse.environnement.model.MesureStatTotal;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Statistics read from all shards, summed up front by parameter, by greenhouse and overall so that serving them
+ * is a lookup
+ */
+record StatsSnapshot(
+        LocalDateTime refreshedAt,
+        StatCounts total,
+        Map<Long, StatCounts> byParametre,
+        Map<String, StatCounts> byGreenhouse,
+        NavigableMap<LocalDateTime, StatCounts> hourly,
+        Map<Long, NavigableMap<LocalDateTime, StatCounts>> hourlyByParametre,
+        Map<String, NavigableMap<LocalDateTime, StatCounts>> hourlyByGreenhouse) {
+
+    static final StatsSnapshot EMPTY = new StatsSnapshot(null, StatCounts.ZERO, Map.of(), Map.of(), new TreeMap<>(),
+            Map.of(), Map.of());
+
+    static StatsSnapshot of(Collection<MesureStatTotal> totals, Collection<MesureStatBucket> buckets,
+                            LocalDateTime refreshedAt) {
+        StatCounts total = StatCounts.ZERO;
+        Map<Long, StatCounts> byParametre = new HashMap<>();
+        Map<String, StatCounts> byGreenhouse = new HashMap<>();
+        for (MesureStatTotal row : totals) {
+            StatCounts counts = StatCounts.of(row.getCounts());
+            total = total.plus(counts);
+            byParametre.put(row.getParametreId(), counts);
+            byGreenhouse.merge(row.getGreenhouseId(), counts, StatCounts::plus);
+        }
+
+        NavigableMap<LocalDateTime, StatCounts> hourly = new TreeMap<>();
+        Map<Long, NavigableMap<LocalDateTime, StatCounts>> hourlyByParametre = new HashMap<>();
+        Map<String, NavigableMap<LocalDateTime, StatCounts>> hourlyByGreenhouse = new HashMap<>();
+        for (MesureStatBucket row : buckets) {
+            StatCounts counts = StatCounts.of(row.getCounts());
+            LocalDateTime hour = row.getId().getBucketStart();
+            hourly.merge(hour, counts, StatCounts::plus);
+            hourlyByParametre.computeIfAbsent(row.getId().getParametreId(), id -> new TreeMap<>())
+                    .merge(hour, counts, StatCounts::plus);
+            hourlyByGreenhouse.computeIfAbsent(row.getGreenhouseId(), greenhouse -> new TreeMap<>())
+                    .merge(hour, counts, StatCounts::plus);
+        }
+        return new StatsSnapshot(refreshedAt, total, byParametre, byGreenhouse, hourly, hourlyByParametre,
+                hourlyByGreenhouse);
+    }
+}
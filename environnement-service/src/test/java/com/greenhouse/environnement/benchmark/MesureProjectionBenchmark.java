@@ -0,0 +1,264 @@
+package com.greenhouse.environnement.benchmark;
+
+import com.greenhouse.environnement.dto.MesureResponse;
+import com.greenhouse.environnement.model.Mesure;
+import com.greenhouse.environnement.model.Parametre;
+import com.greenhouse.environnement.model.ParametreType;
+import com.greenhouse.environnement.repository.MesureRepository;
+import com.greenhouse.environnement.repository.ParametreRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Measurement list queries with entity loading (the path before projections) and with {@link MesureResponse}
+ * projections, against a database of {@code -Drows} measurements: in-memory H2 by default, or the scratch
+ * PostgreSQL database given by {@code -Durl}, {@code -Duser} and {@code -Dpassword} (its tables are recreated).
+ *
+ * <ul>
+ *     <li>first pages: the first {@value #FIRST_PAGES} pages of {@value #REQUEST_PAGE_SIZE} measurements of every
+ *     parameter, one read-only transaction per page, as separate requests;</li>
+ *     <li>full walk: every page of {@value #WALK_PAGE_SIZE} of every parameter in one read-only transaction, as a
+ *     long-lived persistence context would see them;</li>
+ *     <li>bulk recent: the last {@value #RECENT_LIMIT} measurements of all parameters. Its entity path is the
+ *     native query it ran before, whose {@code id IN (...)} form H2 evaluates much more slowly than the derived
+ *     table of the projection.</li>
+ * </ul>
+ *
+ * Reported per scenario: best time of {@value #ROUNDS} rounds, SQL statements and heap allocated per round, and
+ * the most entities left in a persistence context at the end of a transaction.
+ * H2 joins all the rows of a parameter before sorting them, where PostgreSQL walks the index and joins only the
+ * rows up to the page: compare query times on PostgreSQL, statements, allocations and managed entities on either.
+ *
+ * Run with: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.greenhouse.environnement.benchmark.MesureProjectionBenchmark -Drows=100000}
+ */
+public class MesureProjectionBenchmark {
+
+    private static final int ROWS = Integer.getInteger("rows", 100_000);
+    private static final int PARAMETRES = 20;
+    private static final int FIRST_PAGES = 5;
+    private static final int REQUEST_PAGE_SIZE = 20;
+    private static final int WALK_PAGE_SIZE = 100;
+    private static final int RECENT_LIMIT = 10;
+    private static final int ROUNDS = 5;
+    private static final String RECENT_ENTITIES = """
+            SELECT * FROM mesures WHERE id IN (
+                SELECT id FROM (
+                    SELECT id, ROW_NUMBER() OVER (PARTITION BY parametre_id ORDER BY date_mesure DESC) AS rang
+                    FROM mesures WHERE parametre_id IN (:parametreIds)
+                ) recentes WHERE rang <= :limit
+            )
+            """;
+
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Mesure.class)
+    @EnableJpaRepositories(basePackageClasses = MesureRepository.class)
+    static class Database {
+    }
+
+    private record Result(long nanos, long statements, long allocatedBytes, int managedEntities) {
+    }
+
+    private record Bench(TransactionTemplate readOnly, EntityManager entityManager, Statistics statistics) {
+    }
+
+    public static void main(String[] args) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Database.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.location=optional:classpath:/none/",
+                        "spring.datasource.url=" + System.getProperty("url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1"),
+                        "spring.datasource.username=" + System.getProperty("user", "sa"),
+                        "spring.datasource.password=" + System.getProperty("password", ""),
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "logging.level.root=WARN");
+        try (ConfigurableApplicationContext context = builder.run()) {
+            MesureRepository mesures = context.getBean(MesureRepository.class);
+            ParametreRepository parametres = context.getBean(ParametreRepository.class);
+            List<Long> parametreIds = populate(parametres, context.getBean(JdbcTemplate.class));
+            TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            readOnly.setReadOnly(true);
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            Bench bench = new Bench(readOnly, entityManager,
+                    context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics());
+            BiFunction<Long, Pageable, Page<MesureResponse>> entities =
+                    (parametreId, pageable) -> entityPage(entityManager, parametres, parametreId, pageable);
+            BiFunction<Long, Pageable, Page<MesureResponse>> projections = mesures::findResponsesByParametreId;
+
+            System.out.printf("%,d measurements of %d parameters%n", ROWS, PARAMETRES);
+            System.out.printf("%-26s %10s %12s %12s %10s%n", "scenario", "ms", "statements", "alloc MB", "managed");
+            int requests = PARAMETRES * FIRST_PAGES;
+            report("first pages, entities", bench, requests, request -> entities.apply(
+                    parametreIds.get(request / FIRST_PAGES), PageRequest.of(request % FIRST_PAGES, REQUEST_PAGE_SIZE)));
+            report("first pages, projection", bench, requests, request -> projections.apply(
+                    parametreIds.get(request / FIRST_PAGES), PageRequest.of(request % FIRST_PAGES, REQUEST_PAGE_SIZE)));
+            report("full walk, entities", bench, 1, request -> walk(parametreIds, entities));
+            report("full walk, projection", bench, 1, request -> walk(parametreIds, projections));
+            report("bulk recent, entities", bench, 1,
+                    request -> recentEntities(entityManager, parametres, parametreIds));
+            report("bulk recent, projection", bench, 1,
+                    request -> mesures.findRecentResponsesByParametreIdIn(parametreIds, RECENT_LIMIT));
+        }
+    }
+
+    private static List<Long> populate(ParametreRepository parametres, JdbcTemplate jdbc) {
+        List<Long> ids = new ArrayList<>();
+        ParametreType[] types = ParametreType.values();
+        for (int i = 0; i < PARAMETRES; i++) {
+            ids.add(parametres.save(Parametre.builder()
+                    .type(types[i % types.length])
+                    .greenhouseId("gh-" + i / types.length)
+                    .seuilMin(10.0)
+                    .seuilMax(30.0)
+                    .unite("u")
+                    .build()).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            double valeur = 5 + (i * 7919 % 300) / 10.0;
+            rows.add(new Object[]{ids.get(i % PARAMETRES), "gh-" + (i % PARAMETRES) / types.length, "default",
+                    valeur, Timestamp.valueOf(start.plusSeconds(i * 20L)), valeur < 10 || valeur > 30,
+                    Timestamp.valueOf(start)});
+        }
+        jdbc.batchUpdate("INSERT INTO mesures (parametre_id, greenhouse_id, zone_id, valeur, date_mesure, alerte,"
+                + " created_at) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        return ids;
+    }
+
+    private static void walk(List<Long> parametreIds, BiFunction<Long, Pageable, Page<MesureResponse>> query) {
+        for (Long parametreId : parametreIds) {
+            Page<MesureResponse> page;
+            int number = 0;
+            do {
+                page = query.apply(parametreId, PageRequest.of(number++, WALK_PAGE_SIZE));
+            } while (page.hasNext());
+        }
+    }
+
+    /**
+     * Entities of the page, each mapped with its parameter looked up by ID
+     */
+    private static Page<MesureResponse> entityPage(EntityManager entityManager, ParametreRepository parametres,
+                                                   Long parametreId, Pageable pageable) {
+        List<Mesure> content = entityManager.createQuery(
+                        "SELECT m FROM Mesure m WHERE m.parametreId = :parametreId ORDER BY m.dateMesure DESC",
+                        Mesure.class)
+                .setParameter("parametreId", parametreId)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        long total = entityManager.createQuery(
+                        "SELECT count(m) FROM Mesure m WHERE m.parametreId = :parametreId", Long.class)
+                .setParameter("parametreId", parametreId)
+                .getSingleResult();
+        return new PageImpl<>(content, pageable, total).map(mesure -> toResponse(mesure,
+                parametres.findById(mesure.getParametreId()).orElse(null)));
+    }
+
+    /**
+     * Last measurements of each parameter as entities, parameters loaded in a second query
+     */
+    @SuppressWarnings("unchecked")
+    private static List<MesureResponse> recentEntities(EntityManager entityManager, ParametreRepository parametres,
+                                                       List<Long> parametreIds) {
+        Map<Long, Parametre> byId = parametres.findAllById(parametreIds).stream()
+                .collect(Collectors.toMap(Parametre::getId, Function.identity()));
+        List<Mesure> recent = entityManager.createNativeQuery(RECENT_ENTITIES, Mesure.class)
+                .setParameter("parametreIds", parametreIds)
+                .setParameter("limit", RECENT_LIMIT)
+                .getResultList();
+        return recent.stream()
+                .sorted(Comparator.comparing(Mesure::getDateMesure).reversed())
+                .map(mesure -> toResponse(mesure, byId.get(mesure.getParametreId())))
+                .toList();
+    }
+
+    private static MesureResponse toResponse(Mesure mesure, Parametre parametre) {
+        MesureResponse.MesureResponseBuilder builder = MesureResponse.builder()
+                .id(mesure.getId())
+                .parametreId(mesure.getParametreId())
+                .greenhouseId(mesure.getGreenhouseId())
+                .zoneId(mesure.getZoneId())
+                .valeur(mesure.getValeur())
+                .dateMesure(mesure.getDateMesure())
+                .alerte(mesure.getAlerte())
+                .createdAt(mesure.getCreatedAt());
+        if (parametre != null) {
+            builder.parametreType(parametre.getType())
+                    .seuilMin(parametre.getSeuilMin())
+                    .seuilMax(parametre.getSeuilMax())
+                    .unite(parametre.getUnite());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Runs {@code requests} read-only transactions per round
+     */
+    private static void report(String scenario, Bench bench, int requests, IntConsumer request) {
+        Result best = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            Result result = measure(bench, requests, request);
+            if (best == null || result.nanos() < best.nanos()) {
+                best = result;
+            }
+        }
+        System.out.printf("%-26s %10.1f %,12d %12.1f %,10d%n", scenario, best.nanos() / 1e6, best.statements(),
+                best.allocatedBytes() / 1024.0 / 1024.0, best.managedEntities());
+    }
+
+    private static Result measure(Bench bench, int requests, IntConsumer request) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        bench.statistics().clear();
+        int managed = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int current = i;
+            managed = Math.max(managed, bench.readOnly().execute(status -> {
+                request.accept(current);
+                return bench.entityManager().unwrap(Session.class).getStatistics().getEntityCount();
+            }));
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(nanos, bench.statistics().getPrepareStatementCount(), allocated, managed);
+    }
+}
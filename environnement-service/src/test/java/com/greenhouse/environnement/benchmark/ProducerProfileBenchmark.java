@@ -0,0 +1,138 @@
+package com.greenhouse.environnement.benchmark;
+
+import com.greenhouse.environnement.config.EnvironnementConfigProperties;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.codec.EventSchema;
+import com.greenhouse.events.codec.EventSerializer;
+import com.greenhouse.events.codec.WireFormat;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput and send latency of each Kafka producer profile against an embedded broker.
+ *
+ * Throughput: {@value #THROUGHPUT_EVENTS} measurement events sent as fast as possible, best of {@value #ROUNDS}.
+ * Latency: {@value #LATENCY_EVENTS} events paced at one per millisecond, timed from send to ack.
+ *
+ * Run with: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.greenhouse.environnement.benchmark.ProducerProfileBenchmark}
+ */
+public class ProducerProfileBenchmark {
+
+    private static final String TOPIC = "measurement-stream-bench";
+    private static final int THROUGHPUT_EVENTS = 200_000;
+    private static final int LATENCY_EVENTS = 2_000;
+    private static final int SENSORS = 50;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 3, TOPIC);
+        broker.afterPropertiesSet();
+        try {
+            EnvironnementConfigProperties.KafkaProducerTuning tuning = new EnvironnementConfigProperties().getKafka();
+            System.out.printf("%-12s %14s %10s %10s %10s%n", "profile", "events/s", "p50 ms", "p99 ms", "max ms");
+            for (Map.Entry<String, EnvironnementConfigProperties.ProducerProfile> entry : tuning.getProfiles().entrySet()) {
+                Map<String, Object> configs = producerConfigs(broker.getBrokersAsString(), entry.getValue());
+                double throughput = 0;
+                for (int round = 0; round < ROUNDS; round++) {
+                    throughput = Math.max(throughput, measureThroughput(configs));
+                }
+                double[] latencies = measureLatency(configs);
+                System.out.printf("%-12s %,14.0f %10.2f %10.2f %10.2f%n", entry.getKey(), throughput,
+                        percentile(latencies, 50), percentile(latencies, 99), percentile(latencies, 100));
+            }
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static Map<String, Object> producerConfigs(String bootstrapServers,
+                                                       EnvironnementConfigProperties.ProducerProfile profile) {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(ProducerConfig.ACKS_CONFIG, "all");
+        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configs.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configs.putAll(profile.toProducerConfigs());
+        return configs;
+    }
+
+    private static KafkaProducer<String, MeasurementEvent> producer(Map<String, Object> configs) {
+        return new KafkaProducer<>(configs, new StringSerializer(),
+                new EventSerializer<>(WireFormat.CBOR, new EventSchema(MeasurementEvent.SUBJECT, 2, List.of())));
+    }
+
+    private static double measureThroughput(Map<String, Object> configs) throws InterruptedException {
+        try (KafkaProducer<String, MeasurementEvent> producer = producer(configs)) {
+            warmUp(producer);
+            CountDownLatch acked = new CountDownLatch(THROUGHPUT_EVENTS);
+            long start = System.nanoTime();
+            for (int i = 0; i < THROUGHPUT_EVENTS; i++) {
+                producer.send(record(i), (metadata, exception) -> acked.countDown());
+            }
+            acked.await(2, TimeUnit.MINUTES);
+            return THROUGHPUT_EVENTS / ((System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static double[] measureLatency(Map<String, Object> configs) throws InterruptedException {
+        try (KafkaProducer<String, MeasurementEvent> producer = producer(configs)) {
+            warmUp(producer);
+            double[] latencies = new double[LATENCY_EVENTS];
+            CountDownLatch acked = new CountDownLatch(LATENCY_EVENTS);
+            for (int i = 0; i < LATENCY_EVENTS; i++) {
+                int index = i;
+                long sentAt = System.nanoTime();
+                producer.send(record(i), (metadata, exception) -> {
+                    latencies[index] = (System.nanoTime() - sentAt) / 1e6;
+                    acked.countDown();
+                });
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            acked.await(1, TimeUnit.MINUTES);
+            Arrays.sort(latencies);
+            return latencies;
+        }
+    }
+
+    private static void warmUp(KafkaProducer<String, MeasurementEvent> producer) {
+        for (int i = 0; i < 1_000; i++) {
+            producer.send(record(i));
+        }
+        producer.flush();
+    }
+
+    private static ProducerRecord<String, MeasurementEvent> record(int i) {
+        long parametreId = i % SENSORS;
+        MeasurementEvent event = MeasurementEvent.builder()
+                .mesureId((long) i)
+                .parametreId(parametreId)
+                .parametreType("TEMPERATURE")
+                .parametreName("TEMPERATURE")
+                .valeur(20.0 + (i % 100) / 10.0)
+                .unite("°C")
+                .seuilMin(15.0)
+                .seuilMax(30.0)
+                .isAlert(false)
+                .dateMesure(LocalDateTime.now())
+                .build();
+        return new ProducerRecord<>(TOPIC, Long.toString(parametreId), event);
+    }
+
+    private static double percentile(double[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -1,7 +1,7 @@
 package com.greenhouse.environnement.integration.kafka;
 
-import com.greenhouse.environnement.dto.AlertEvent;
-import com.greenhouse.environnement.dto.MeasurementEvent;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.MeasurementEvent;
 import com.greenhouse.environnement.service.KafkaProducerService;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -85,7 +85,7 @@ class KafkaAlertProducerTest {
                 .build();
 
         // When
-        kafkaProducerService.sendAlert(alertEvent);
+        kafkaProducerService.publish("greenhouse-alerts", alertEvent.partitionKey(), alertEvent);
 
         // Then
         ConsumerRecords<String, Object> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10));
@@ -108,7 +108,7 @@ class KafkaAlertProducerTest {
                 .build();
 
         // When
-        kafkaProducerService.sendMeasurement(measurementEvent);
+        kafkaProducerService.publish("measurement-stream", measurementEvent.partitionKey(), measurementEvent);
 
         // Then
         ConsumerRecords<String, Object> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10));
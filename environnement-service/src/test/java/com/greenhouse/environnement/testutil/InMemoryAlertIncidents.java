@@ -0,0 +1,33 @@
+package com.greenhouse.environnement.testutil;
+
+import com.greenhouse.environnement.model.AlertIncidentState;
+import com.greenhouse.environnement.repository.AlertIncidentStateRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Incident repository backed by a map, for tests running the alert aggregation without a database
+ */
+public class InMemoryAlertIncidents {
+
+    public static AlertIncidentStateRepository repository() {
+        Map<Long, AlertIncidentState> rows = new HashMap<>();
+        AlertIncidentStateRepository repository = mock(AlertIncidentStateRepository.class);
+        when(repository.existsById(any())).thenAnswer(invocation -> rows.containsKey(invocation.<Long>getArgument(0)));
+        when(repository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(rows.get(invocation.<Long>getArgument(0))));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            AlertIncidentState state = invocation.getArgument(0);
+            rows.put(state.getParametreId(), state);
+            return state;
+        });
+        doAnswer(invocation -> rows.remove(invocation.<AlertIncidentState>getArgument(0).getParametreId()))
+                .when(repository).delete(any());
+        return repository;
+    }
+}
@@ -0,0 +1,163 @@
+package com.greenhouse.environnement.unit.alerting;
+
+import com.greenhouse.environnement.alerting.AlertAggregator;
+import com.greenhouse.environnement.alerting.AlertRuleProperties;
+import com.greenhouse.environnement.alerting.IncidentTransition;
+import com.greenhouse.environnement.model.AlertIncidentState;
+import com.greenhouse.environnement.model.Parametre;
+import com.greenhouse.environnement.repository.AlertIncidentStateRepository;
+import com.greenhouse.environnement.repository.ParametreRepository;
+import com.greenhouse.environnement.testutil.InMemoryAlertIncidents;
+import com.greenhouse.environnement.testutil.TestDataBuilder;
+import com.greenhouse.events.AlertEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AlertAggregator Unit Tests")
+class AlertAggregatorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 7, 1, 12, 0);
+
+    private AlertRuleProperties properties;
+    private AlertIncidentStateRepository incidentRepository;
+    private ParametreRepository parametreRepository;
+    private AlertAggregator aggregator;
+    private Parametre temperature;
+    private int minute;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AlertRuleProperties();
+        properties.setResolveAfterClearMeasurements(2);
+        incidentRepository = InMemoryAlertIncidents.repository();
+        parametreRepository = mock(ParametreRepository.class);
+        aggregator = new AlertAggregator(properties, incidentRepository, parametreRepository);
+        temperature = TestDataBuilder.createTemperatureParameter(); // 15 - 30
+        minute = 0;
+    }
+
+    private IncidentTransition measure(double valeur) {
+        boolean breached = valeur < temperature.getSeuilMin() || valeur > temperature.getSeuilMax();
+        return aggregator.onMeasurement(temperature, valeur, START.plusMinutes(minute++), breached);
+    }
+
+    private IncidentTransition measureNotFiring(double valeur) {
+        return aggregator.onMeasurement(temperature, valeur, START.plusMinutes(minute++), false);
+    }
+
+    @Test
+    @DisplayName("should open one incident for consecutive breaches and publish nothing in between")
+    void shouldGroupConsecutiveBreaches() {
+        assertThat(measure(22.0)).isNull();
+
+        IncidentTransition opened = measure(32.0);
+        assertThat(measure(32.5)).isNull();
+        assertThat(measure(31.0)).isNull();
+
+        assertThat(opened.state()).isEqualTo(AlertEvent.OPENED);
+        assertThat(opened.incident().openedAt()).isEqualTo(START.plusMinutes(1));
+        assertThat(aggregator.openIncident(temperature.getId())).satisfies(incident -> {
+            assertThat(incident.id()).isEqualTo(opened.incident().id());
+            assertThat(incident.breachCount()).isEqualTo(3);
+            assertThat(incident.peakValeur()).isEqualTo(32.5);
+            assertThat(incident.severity()).isEqualTo("LOW");
+        });
+    }
+
+    @Test
+    @DisplayName("should publish an escalation as soon as a breach is more severe")
+    void shouldEscalateImmediately() {
+        IncidentTransition opened = measure(32.0); // LOW
+        measure(31.0);
+
+        IncidentTransition escalated = measure(46.0); // CRITICAL
+
+        assertThat(escalated.state()).isEqualTo(AlertEvent.ESCALATED);
+        assertThat(escalated.incident().id()).isEqualTo(opened.incident().id());
+        assertThat(escalated.incident().severity()).isEqualTo("CRITICAL");
+        assertThat(escalated.incident().breachCount()).isEqualTo(3);
+        assertThat(measure(36.0)).isNull(); // back to MEDIUM: no de-escalation
+    }
+
+    @Test
+    @DisplayName("should resolve after enough consecutive measurements within thresholds")
+    void shouldResolveAfterClearMeasurements() {
+        IncidentTransition opened = measure(10.0);
+        measure(8.0);
+        assertThat(measure(20.0)).isNull();
+        assertThat(measure(9.0)).isNull(); // a breach resets the clear count
+        assertThat(measure(20.0)).isNull();
+
+        IncidentTransition resolved = measure(21.0);
+
+        assertThat(resolved.state()).isEqualTo(AlertEvent.RESOLVED);
+        assertThat(resolved.incident().id()).isEqualTo(opened.incident().id());
+        assertThat(resolved.incident().breachCount()).isEqualTo(3);
+        assertThat(resolved.incident().peakValeur()).isEqualTo(8.0);
+        assertThat(aggregator.openIncident(temperature.getId())).isNull();
+        assertThat(measure(35.0).incident().id()).isNotEqualTo(opened.incident().id());
+    }
+
+    @Test
+    @DisplayName("should not resolve on measurements still outside thresholds that no rule fired on")
+    void shouldNotResolveOutsideThresholds() {
+        IncidentTransition opened = measure(32.0);
+        assertThat(measureNotFiring(31.0)).isNull();
+        assertThat(measureNotFiring(33.0)).isNull();
+        assertThat(measureNotFiring(31.5)).isNull();
+        assertThat(aggregator.openIncident(temperature.getId()).clearCount()).isZero();
+
+        assertThat(measure(25.0)).isNull();
+        assertThat(measureNotFiring(31.0)).isNull(); // starts the clear count over
+        assertThat(measure(25.0)).isNull();
+
+        IncidentTransition resolved = measure(24.0);
+
+        assertThat(resolved.state()).isEqualTo(AlertEvent.RESOLVED);
+        assertThat(resolved.incident().id()).isEqualTo(opened.incident().id());
+        assertThat(resolved.incident().breachCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should read the incident under the parameter's lock, and take none when nothing changes")
+    void shouldLockBeforeReading() {
+        assertThat(measure(22.0)).isNull();
+        verify(parametreRepository, never()).lockById(anyLong());
+        verify(incidentRepository, never()).findById(anyLong());
+
+        measure(32.0);
+
+        InOrder inOrder = inOrder(parametreRepository, incidentRepository);
+        inOrder.verify(parametreRepository).lockById(temperature.getId());
+        inOrder.verify(incidentRepository).findById(temperature.getId());
+    }
+
+    @Test
+    @DisplayName("should carry on an incident opened through another instance")
+    void shouldContinueSharedIncident() {
+        incidentRepository.save(AlertIncidentState.builder()
+                .parametreId(temperature.getId())
+                .greenhouseId(temperature.getGreenhouseId())
+                .incidentId("opened-elsewhere")
+                .openedAt(START)
+                .severity("LOW")
+                .peakValeur(32.0)
+                .breachCount(2L)
+                .clearCount(0)
+                .build());
+
+        IncidentTransition escalated = measure(46.0);
+
+        assertThat(escalated.state()).isEqualTo(AlertEvent.ESCALATED);
+        assertThat(escalated.incident().id()).isEqualTo("opened-elsewhere");
+        assertThat(escalated.incident().breachCount()).isEqualTo(3);
+    }
+}
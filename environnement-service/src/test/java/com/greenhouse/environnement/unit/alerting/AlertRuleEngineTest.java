@@ -0,0 +1,349 @@
+package com.greenhouse.environnement.unit.alerting;
+
+import com.greenhouse.environnement.alerting.AlertRuleEngine;
+import com.greenhouse.environnement.alerting.AlertRuleProperties;
+import com.greenhouse.environnement.alerting.AlertSeverity;
+import com.greenhouse.environnement.alerting.RuleBreach;
+import com.greenhouse.environnement.alerting.SampleWindow;
+import com.greenhouse.environnement.model.Parametre;
+import com.greenhouse.environnement.testutil.TestDataBuilder;
+import com.greenhouse.events.AlertEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AlertRuleEngine Unit Tests")
+class AlertRuleEngineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 7, 1, 12, 0);
+
+    private AlertRuleProperties properties;
+    private AlertRuleEngine engine;
+    private Parametre temperature;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AlertRuleProperties();
+        engine = new AlertRuleEngine(properties);
+        temperature = TestDataBuilder.createTemperatureParameter(); // 15 - 30
+    }
+
+    private RuleBreach evaluate(double valeur, int minute) {
+        return engine.evaluate(temperature, valeur, START.plusMinutes(minute));
+    }
+
+    @Nested
+    @DisplayName("default rules")
+    class DefaultRules {
+
+        @Test
+        @DisplayName("should alert on every measurement outside the thresholds")
+        void shouldAlertOutsideThresholds() {
+            assertThat(evaluate(22.5, 0)).isNull();
+            assertThat(evaluate(35.0, 1)).isNotNull()
+                    .extracting(RuleBreach::rule).isEqualTo("sustained-breach");
+            assertThat(evaluate(10.0, 2).detail()).isEqualTo("is outside threshold [15.00 - 30.00]");
+            assertThat(evaluate(30.0, 3)).isNull();
+        }
+
+        @Test
+        @DisplayName("should report the side of the band the value left by")
+        void shouldReportDirection() {
+            assertThat(evaluate(35.0, 0).direction()).isEqualTo(AlertEvent.RISING);
+            assertThat(evaluate(10.0, 1).direction()).isEqualTo(AlertEvent.FALLING);
+        }
+
+        @Test
+        @DisplayName("should use thresholds of the parameter at evaluation time")
+        void shouldUseCurrentThresholds() {
+            assertThat(evaluate(33.0, 0)).isNotNull();
+
+            temperature.setSeuilMax(35.0);
+
+            assertThat(evaluate(33.0, 1)).isNull();
+        }
+
+        @Test
+        @DisplayName("should apply refreshed alerting configuration")
+        void shouldRebuildRulesOnRefresh() {
+            assertThat(evaluate(35.0, 0)).isNotNull();
+            AlertRuleProperties.RuleSet ruleSet = new AlertRuleProperties.RuleSet();
+            ruleSet.setSustainedBreaches(2);
+            ruleSet.setSustainedWindow(2);
+            properties.getTypes().put("TEMPERATURE", ruleSet);
+
+            engine.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("server.port")));
+            assertThat(evaluate(35.0, 1)).isNotNull();
+
+            engine.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("alerting.types.TEMPERATURE.sustained-breaches")));
+            assertThat(evaluate(35.0, 2)).isNull();
+            assertThat(evaluate(35.0, 3)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should rebuild the rules of a forgotten parameter")
+        void shouldRebuildForgottenParameter() {
+            evaluate(35.0, 0);
+            AlertRuleProperties.RuleSet ruleSet = new AlertRuleProperties.RuleSet();
+            ruleSet.setSustainedBreaches(2);
+            ruleSet.setSustainedWindow(2);
+            properties.getParametres().put(temperature.getId(), ruleSet);
+
+            engine.forget(temperature.getId());
+
+            assertThat(evaluate(35.0, 1)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("sustained breaches")
+    class SustainedBreaches {
+
+        @BeforeEach
+        void configure() {
+            AlertRuleProperties.RuleSet ruleSet = new AlertRuleProperties.RuleSet();
+            ruleSet.setSustainedBreaches(3);
+            ruleSet.setSustainedWindow(5);
+            properties.getTypes().put("TEMPERATURE", ruleSet);
+        }
+
+        @Test
+        @DisplayName("should ignore isolated spikes and alert once N of the last M measurements breach")
+        void shouldAlertOnSustainedBreach() {
+            assertThat(evaluate(35.0, 0)).isNull();
+            assertThat(evaluate(22.0, 1)).isNull();
+            assertThat(evaluate(36.0, 2)).isNull();
+            assertThat(evaluate(22.0, 3)).isNull();
+
+            RuleBreach breach = evaluate(37.0, 4);
+
+            assertThat(breach).isNotNull();
+            assertThat(breach.detail()).endsWith("in 3 of the last 5 measurements");
+        }
+
+        @Test
+        @DisplayName("should not alert on a measurement back within thresholds")
+        void shouldNotAlertWithinThresholds() {
+            evaluate(35.0, 0);
+            evaluate(35.0, 1);
+            evaluate(35.0, 2);
+
+            assertThat(evaluate(25.0, 3)).isNull();
+        }
+
+        @Test
+        @DisplayName("should forget breaches older than the window")
+        void shouldForgetOldBreaches() {
+            evaluate(35.0, 0);
+            evaluate(35.0, 1);
+            for (int minute = 2; minute < 6; minute++) {
+                evaluate(22.0, minute);
+            }
+
+            assertThat(evaluate(35.0, 6)).isNull();
+        }
+
+        @Test
+        @DisplayName("should prefer the rule set of the parameter over the one of its type")
+        void shouldPreferParameterRuleSet() {
+            properties.getParametres().put(temperature.getId(), new AlertRuleProperties.RuleSet());
+
+            assertThat(evaluate(35.0, 0)).isNotNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("rate of change")
+    class RateOfChange {
+
+        @BeforeEach
+        void configure() {
+            properties.getDefaults().setMaxChangePerMinute(2.0);
+        }
+
+        @Test
+        @DisplayName("should alert on a fast change within thresholds")
+        void shouldAlertOnFastChange() {
+            assertThat(evaluate(18.0, 0)).isNull();
+            assertThat(evaluate(19.5, 1)).isNull();
+
+            RuleBreach breach = evaluate(27.5, 3); // +4 per minute
+
+            assertThat(breach).isNotNull();
+            assertThat(breach.rule()).isEqualTo("rate-of-change");
+            assertThat(breach.detail()).isEqualTo("changed by 4.00 per minute (max 2.00)");
+            assertThat(breach.direction()).isEqualTo(AlertEvent.RISING);
+        }
+
+        @Test
+        @DisplayName("should report a fast drop within thresholds as falling")
+        void shouldReportFallingChange() {
+            evaluate(27.5, 0);
+
+            assertThat(evaluate(20.0, 1).direction()).isEqualTo(AlertEvent.FALLING);
+        }
+
+        @Test
+        @DisplayName("should skip measurements received out of order")
+        void shouldSkipOutOfOrderMeasurements() {
+            evaluate(18.0, 10);
+
+            assertThat(evaluate(28.0, 5)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("moving average deviation")
+    class MovingAverageDeviation {
+
+        @BeforeEach
+        void configure() {
+            properties.getDefaults().setAverageSamples(3);
+            properties.getDefaults().setMaxAverageDeviation(0.2); // 3 degrees on a 15 - 30 band
+        }
+
+        @Test
+        @DisplayName("should wait for a full window before alerting")
+        void shouldWaitForFullWindow() {
+            assertThat(evaluate(20.0, 0)).isNull();
+            assertThat(evaluate(26.0, 1)).isNull();
+        }
+
+        @Test
+        @DisplayName("should alert when a measurement departs from the recent average")
+        void shouldAlertOnDeviation() {
+            evaluate(20.0, 0);
+            evaluate(21.0, 1);
+            evaluate(22.0, 2);
+            assertThat(evaluate(23.5, 3)).isNull();
+
+            RuleBreach breach = evaluate(26.5, 4);
+
+            assertThat(breach).isNotNull();
+            assertThat(breach.rule()).isEqualTo("moving-average-deviation");
+            assertThat(breach.direction()).isEqualTo(AlertEvent.RISING);
+        }
+    }
+
+    @Nested
+    @DisplayName("rolled back measurements")
+    class RolledBack {
+
+        @BeforeEach
+        void configure() {
+            properties.getDefaults().setMaxChangePerMinute(2.0);
+        }
+
+        @Test
+        @DisplayName("should take the sample of a rolled back measurement out of the window")
+        void shouldUndoRolledBackSample() {
+            evaluate(18.0, 0);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                evaluate(18.5, 1);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            // Compared with 18.0 at minute 0: +3 per minute; had 18.5 stayed, +9.5
+            assertThat(evaluate(27.0, 3)).isNotNull()
+                    .extracting(RuleBreach::detail).isEqualTo("changed by 3.00 per minute (max 2.00)");
+        }
+
+        @Test
+        @DisplayName("should keep the sample of a committed measurement")
+        void shouldKeepCommittedSample() {
+            evaluate(18.0, 0);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                evaluate(18.5, 1);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertThat(evaluate(27.0, 2)).isNotNull()
+                    .extracting(RuleBreach::detail).isEqualTo("changed by 8.50 per minute (max 2.00)");
+        }
+    }
+
+    @Nested
+    @DisplayName("SampleWindow")
+    class Window {
+
+        @Test
+        @DisplayName("should read samples by age once the ring wrapped")
+        void shouldReadByAge() {
+            SampleWindow window = new SampleWindow(3);
+            for (int i = 1; i <= 5; i++) {
+                window.add(i, i * 1000L);
+            }
+
+            assertThat(window.size()).isEqualTo(3);
+            assertThat(window.value(0)).isEqualTo(5.0);
+            assertThat(window.time(2)).isEqualTo(3000L);
+            assertThat(window.average(0, 3)).isEqualTo(4.0);
+            assertThat(window.countOutside(3, 0, 3.5)).isEqualTo(2);
+            assertThatThrownBy(() -> window.value(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        }
+
+        @Test
+        @DisplayName("should restore the overwritten sample when the latest is removed")
+        void shouldRemoveLatest() {
+            SampleWindow window = new SampleWindow(2);
+            window.add(1, 1000L);
+            window.add(2, 2000L);
+            window.add(3, 3000L);
+
+            window.removeLatest(true, 1, 1000L);
+
+            assertThat(window.size()).isEqualTo(2);
+            assertThat(window.value(0)).isEqualTo(2.0);
+            assertThat(window.time(1)).isEqualTo(1000L);
+
+            window.removeLatest(false, 0, 0L);
+            window.removeLatest(false, 0, 0L);
+
+            assertThat(window.size()).isZero();
+            assertThatThrownBy(() -> window.removeLatest(false, 0, 0L)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("AlertSeverity")
+    class Severity {
+
+        @ParameterizedTest
+        @CsvSource({
+            "32.0, 15.0, 30.0, LOW",
+            "35.0, 15.0, 30.0, MEDIUM",
+            "40.0, 15.0, 30.0, HIGH",
+            "50.0, 15.0, 30.0, CRITICAL",
+            "10.0, 15.0, 30.0, HIGH",
+            "22.5, 15.0, 30.0, LOW",
+            "-1.5, 0.0, 10.0, MEDIUM",  // Minimum of 0: relative to the band
+            "-6.0, 0.0, 10.0, CRITICAL",
+            "-12.0, -10.0, 5.0, MEDIUM" // Negative threshold
+        })
+        @DisplayName("should grade how far the value is past the crossed threshold")
+        void shouldGradeDeviation(double value, double seuilMin, double seuilMax, String expected) {
+            assertThat(AlertSeverity.of(value, seuilMin, seuilMax)).isEqualTo(expected);
+        }
+    }
+}
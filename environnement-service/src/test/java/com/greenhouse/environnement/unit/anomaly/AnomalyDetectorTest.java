@@ -0,0 +1,169 @@
+package com.greenhouse.environnement.unit.anomaly;
+
+import com.greenhouse.environnement.anomaly.Anomaly;
+import com.greenhouse.environnement.anomaly.AnomalyDetector;
+import com.greenhouse.environnement.anomaly.AnomalyProperties;
+import com.greenhouse.environnement.config.ShardRouter;
+import com.greenhouse.environnement.model.Parametre;
+import com.greenhouse.environnement.model.SensorBaseline;
+import com.greenhouse.environnement.repository.SensorBaselineRepository;
+import com.greenhouse.environnement.testutil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AnomalyDetector Unit Tests")
+class AnomalyDetectorTest {
+
+    @Mock
+    private SensorBaselineRepository sensorBaselineRepository;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AnomalyProperties properties;
+    private AnomalyDetector detector;
+    private Parametre temperature;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnomalyProperties();
+        properties.setWarmUpSamples(10);
+        detector = new AnomalyDetector(properties, sensorBaselineRepository, shardRouter, transactionTemplate);
+        temperature = TestDataBuilder.createTemperatureParameter(); // 15 - 30
+    }
+
+    private void feed(int samples) {
+        for (int i = 0; i < samples; i++) {
+            assertThat(detector.observe(temperature, i % 2 == 0 ? 21.0 : 23.0)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("should not score a sensor while it warms up")
+    void shouldNotScoreWhileWarmingUp() {
+        when(sensorBaselineRepository.findById(1L)).thenReturn(Optional.empty());
+
+        feed(9);
+
+        assertThat(detector.observe(temperature, 29.0)).isNull();
+    }
+
+    @Test
+    @DisplayName("should flag a reading far from the sensor's usual range, within thresholds")
+    void shouldFlagDeviatingReading() {
+        when(sensorBaselineRepository.findById(1L)).thenReturn(Optional.empty());
+        feed(40);
+
+        Anomaly anomaly = detector.observe(temperature, 29.0);
+
+        assertThat(anomaly).isNotNull();
+        assertThat(anomaly.expected()).isCloseTo(22.0, within(0.5));
+        assertThat(anomaly.score()).isGreaterThan(properties.getThreshold());
+        assertThat(detector.observe(temperature, 22.5)).isNull();
+    }
+
+    @Test
+    @DisplayName("should resume from the checkpoint without a warm-up")
+    void shouldResumeFromCheckpoint() {
+        when(sensorBaselineRepository.findById(1L)).thenReturn(Optional.of(SensorBaseline.builder()
+                .parametreId(1L).greenhouseId("default").mean(22.0).variance(1.0).samples(500L).build()));
+
+        assertThat(detector.observe(temperature, 22.5)).isNull();
+        Anomaly anomaly = detector.observe(temperature, 15.5);
+
+        assertThat(anomaly).isNotNull();
+        assertThat(anomaly.score()).isLessThan(-4.0);
+        verify(sensorBaselineRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("should take back the update of a rolled back measurement")
+    void shouldUndoRolledBackUpdate() {
+        when(sensorBaselineRepository.findById(1L)).thenReturn(Optional.of(SensorBaseline.builder()
+                .parametreId(1L).greenhouseId("default").mean(22.0).variance(1.0).samples(500L).build()));
+        detector.observe(temperature, 22.0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            detector.observe(temperature, 27.0);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Had the reading stayed, the mean would have moved to 22.15
+        assertThat(detector.observe(temperature, 27.0)).isNotNull()
+                .satisfies(anomaly -> assertThat(anomaly.expected()).isCloseTo(22.0, within(0.01)));
+    }
+
+    @Test
+    @DisplayName("should use the minimum deviation for a flat sensor")
+    void shouldUseMinimumDeviation() {
+        when(sensorBaselineRepository.findById(1L)).thenReturn(Optional.of(SensorBaseline.builder()
+                .parametreId(1L).greenhouseId("default").mean(22.0).variance(0.0).samples(500L).build()));
+
+        // Minimum deviation is 1% of the 15 - 30 band: 0.15
+        assertThat(detector.observe(temperature, 22.5)).isNull();
+        assertThat(detector.observe(temperature, 23.0)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should checkpoint changed statistics once, on the shard of their greenhouse")
+    @SuppressWarnings("unchecked")
+    void shouldCheckpointChangedStatistics() {
+        when(sensorBaselineRepository.findById(1L)).thenReturn(Optional.empty());
+        when(shardRouter.inShardOf(eq("default"), any())).thenAnswer(invocation ->
+                ((Supplier<?>) invocation.getArgument(1)).get());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+        feed(3);
+
+        detector.checkpoint();
+        detector.checkpoint();
+
+        ArgumentCaptor<List<SensorBaseline>> saved = ArgumentCaptor.forClass(List.class);
+        verify(sensorBaselineRepository, times(1)).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement().satisfies(baseline -> {
+            assertThat(baseline.getParametreId()).isEqualTo(1L);
+            assertThat(baseline.getSamples()).isEqualTo(3L);
+            assertThat(baseline.getMean()).isCloseTo(21.667, within(0.01));
+        });
+    }
+
+    @Test
+    @DisplayName("should retry a failed checkpoint on the next run")
+    void shouldRetryFailedCheckpoint() {
+        when(sensorBaselineRepository.findById(1L)).thenReturn(Optional.empty());
+        when(shardRouter.inShardOf(eq("default"), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(null);
+        feed(1);
+
+        detector.checkpoint();
+        detector.checkpoint();
+
+        verify(shardRouter, times(2)).inShardOf(eq("default"), any());
+    }
+}
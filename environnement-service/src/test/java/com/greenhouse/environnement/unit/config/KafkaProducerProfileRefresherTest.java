@@ -0,0 +1,124 @@
+package com.greenhouse.environnement.unit.config;
+
+import com.greenhouse.environnement.config.EnvironnementConfigProperties;
+import com.greenhouse.environnement.config.KafkaProducerProfileRefresher;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.AnomalyEvent;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.MeasurementEvent;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("KafkaProducerProfileRefresher Unit Tests")
+class KafkaProducerProfileRefresherTest {
+
+    private EnvironnementConfigProperties properties;
+    private DefaultKafkaProducerFactory<String, AlertEvent> alertFactory;
+    private DefaultKafkaProducerFactory<String, MeasurementEvent> measurementFactory;
+    private DefaultKafkaProducerFactory<String, ConfigChangeEvent> configChangeFactory;
+    private DefaultKafkaProducerFactory<String, AnomalyEvent> anomalyFactory;
+    private DefaultKafkaProducerFactory<String, Object> genericFactory;
+    private KafkaProducerProfileRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EnvironnementConfigProperties();
+        EnvironnementConfigProperties.KafkaProducerTuning tuning = properties.getKafka();
+        alertFactory = new DefaultKafkaProducerFactory<>(configsFor(tuning.getAlertProfile()));
+        measurementFactory = new DefaultKafkaProducerFactory<>(configsFor(tuning.getMeasurementProfile()));
+        configChangeFactory = new DefaultKafkaProducerFactory<>(configsFor(tuning.getConfigChangeProfile()));
+        anomalyFactory = new DefaultKafkaProducerFactory<>(configsFor(tuning.getAlertProfile()));
+        genericFactory = new DefaultKafkaProducerFactory<>(configsFor(tuning.getDefaultProfile()));
+        refresher = new KafkaProducerProfileRefresher(properties, Map.of(
+                "alertProducerFactory", alertFactory,
+                "measurementProducerFactory", measurementFactory,
+                "configChangeProducerFactory", configChangeFactory,
+                "anomalyProducerFactory", anomalyFactory,
+                "genericProducerFactory", genericFactory));
+    }
+
+    @Test
+    @DisplayName("Should use low-latency for alerts and throughput for measurements by default")
+    void shouldUseTopicSpecificDefaults() {
+        assertThat(alertFactory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 0)
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "none");
+        assertThat(measurementFactory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 50)
+                .containsEntry(ProducerConfig.BATCH_SIZE_CONFIG, 262144)
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+    }
+
+    @Test
+    @DisplayName("Should switch a producer to the newly selected profile on refresh")
+    void shouldApplySelectedProfileOnRefresh() {
+        properties.getKafka().setMeasurementProfile("balanced");
+
+        refresher.onRefresh();
+
+        assertThat(measurementFactory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 5)
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "gzip");
+        assertThat(alertFactory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 0);
+    }
+
+    @Test
+    @DisplayName("Should apply edited profile values on refresh")
+    void shouldApplyEditedProfileOnRefresh() {
+        properties.getKafka().profile("throughput").setCompressionType("zstd");
+
+        refresher.onRefresh();
+
+        assertThat(measurementFactory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd");
+    }
+
+    @Test
+    @DisplayName("Should refresh every producer factory, anomalies with the alert profile")
+    void shouldRefreshEveryFactory() {
+        properties.getKafka().setAlertProfile("balanced");
+        properties.getKafka().setConfigChangeProfile("throughput");
+
+        refresher.onRefresh();
+
+        assertThat(anomalyFactory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "gzip");
+        assertThat(configChangeFactory.getConfigurationProperties())
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+    }
+
+    @Test
+    @DisplayName("Should refuse a producer factory without a profile")
+    void shouldRefuseFactoryWithoutProfile() {
+        assertThatThrownBy(() -> new KafkaProducerProfileRefresher(properties,
+                Map.of("auditProducerFactory", genericFactory)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("auditProducerFactory");
+    }
+
+    @Test
+    @DisplayName("Should reject unknown profile names")
+    void shouldRejectUnknownProfile() {
+        properties.getKafka().setAlertProfile("turbo");
+
+        assertThatThrownBy(() -> refresher.onRefresh())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("turbo");
+    }
+
+    private Map<String, Object> configsFor(String profile) {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        configs.putAll(properties.getKafka().profile(profile).toProducerConfigs());
+        return configs;
+    }
+}
@@ -0,0 +1,88 @@
+package com.greenhouse.environnement.unit.config;
+
+import com.greenhouse.environnement.config.ShardIdRanges;
+import com.greenhouse.environnement.config.ShardingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ShardIdRanges Unit Tests")
+class ShardIdRangesTest {
+
+    private static final long SHARD1_START = 1_000_000_000_000L;
+
+    private Map<String, ShardingProperties.Shard> shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = new LinkedHashMap<>();
+        shards.put("shard0", shard(0));
+        shards.put("shard1", shard(SHARD1_START));
+    }
+
+    private static ShardingProperties.Shard shard(long idRangeStart) {
+        ShardingProperties.Shard shard = new ShardingProperties.Shard();
+        shard.setIdRangeStart(idRangeStart);
+        return shard;
+    }
+
+    @Test
+    @DisplayName("should refuse shards sharing an ID range")
+    void shouldRejectOverlappingRanges() {
+        shards.put("shard2", shard(SHARD1_START));
+
+        assertThatThrownBy(() -> new ShardIdRanges(shards))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shard1 and shard2");
+    }
+
+    @Test
+    @DisplayName("should accept sequences inside their shard's range only")
+    void shouldCheckSequenceAgainstRange() {
+        ShardIdRanges ranges = new ShardIdRanges(shards);
+
+        assertThatCode(() -> ranges.check("shard0", "mesures_id_seq", 42)).doesNotThrowAnyException();
+        assertThatCode(() -> ranges.check("shard1", "mesures_id_seq", SHARD1_START + 42)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> ranges.check("shard1", "mesures_id_seq", 42))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("[1000000000000, ...)");
+        assertThatThrownBy(() -> ranges.check("shard0", "parametres_id_seq", SHARD1_START))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("[0, 1000000000000)");
+    }
+
+    @Test
+    @DisplayName("should require provisioned sequences except on the default shard")
+    void shouldRequireSequencesOnOtherShards() throws Exception {
+        ShardIdRanges ranges = new ShardIdRanges(shards);
+        DataSource dataSource = dataSourceWithoutSequences();
+
+        assertThatCode(() -> ranges.verify("shard0", dataSource, true)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> ranges.verify("shard1", dataSource, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("mesures_id_seq is missing on shard shard1");
+    }
+
+    private static DataSource dataSourceWithoutSequences() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(false);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
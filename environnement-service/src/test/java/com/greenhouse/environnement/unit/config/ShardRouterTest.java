@@ -0,0 +1,163 @@
+package com.greenhouse.environnement.unit.config;
+
+import com.greenhouse.environnement.config.ShardContext;
+import com.greenhouse.environnement.config.ShardRouter;
+import com.greenhouse.environnement.config.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ShardRouter Unit Tests")
+class ShardRouterTest {
+
+    private ShardRouter shardRouter;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        ObjectProvider<PlatformTransactionManager> transactionManagerProvider = mock(ObjectProvider.class);
+        when(transactionManagerProvider.getObject()).thenReturn(transactionManager);
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.getShards().put("shard0", new ShardingProperties.Shard());
+        properties.getShards().put("shard1", new ShardingProperties.Shard());
+        properties.getGreenhouses().put("gh-2", "shard1");
+        properties.setMaxFanOutRows(100);
+        properties.setFanOutTimeout(Duration.ofMillis(200));
+        shardRouter = new ShardRouter(properties, transactionManagerProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.shutdown();
+        ShardContext.clear();
+    }
+
+    @Nested
+    @DisplayName("routing")
+    class Routing {
+
+        @Test
+        @DisplayName("should send mapped greenhouses to their shard and the others to the default one")
+        void shouldResolveShardOfGreenhouse() {
+            assertThat(shardRouter.shardOf("gh-2")).isEqualTo("shard1");
+            assertThat(shardRouter.shardOf("gh-1")).isEqualTo("shard0");
+            assertThat(shardRouter.shardOf(null)).isEqualTo("shard0");
+        }
+
+        @Test
+        @DisplayName("should restore the caller's shard after running on another one")
+        void shouldRestoreShardOfCaller() {
+            ShardContext.set("shard0");
+
+            String seen = shardRouter.inShardOf("gh-2", ShardContext::current);
+
+            assertThat(seen).isEqualTo("shard1");
+            assertThat(ShardContext.current()).isEqualTo("shard0");
+        }
+
+        @Test
+        @DisplayName("should not touch the shard when sharding is disabled")
+        void shouldRunInPlaceWhenDisabled() {
+            ShardRouter disabled = new ShardRouter(new ShardingProperties(), mock(ObjectProvider.class));
+            List<String> seen = new ArrayList<>();
+
+            disabled.forEachShard(() -> seen.add(ShardContext.current()));
+
+            assertThat(seen).containsExactly((String) null);
+            assertThat(disabled.onAllShards(() -> "only")).containsExactly("only");
+        }
+    }
+
+    @Nested
+    @DisplayName("fan-out")
+    class FanOut {
+
+        @Test
+        @DisplayName("should run the query once on every shard, in shard order")
+        void shouldQueryEveryShard() {
+            assertThat(shardRouter.onAllShards(ShardContext::current)).containsExactly("shard0", "shard1");
+        }
+
+        @Test
+        @DisplayName("should query each shard in a read-only transaction when the caller's is read-only")
+        void shouldKeepReadOnlyTransactionsOnShards() {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                shardRouter.onAllShards(ShardContext::current);
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+
+            ArgumentCaptor<TransactionDefinition> transactions = ArgumentCaptor.forClass(TransactionDefinition.class);
+            verify(transactionManager, times(2)).getTransaction(transactions.capture());
+            assertThat(transactions.getAllValues()).allMatch(TransactionDefinition::isReadOnly);
+        }
+
+        @Test
+        @DisplayName("should fail as a whole when one shard fails")
+        void shouldFailWhenOneShardFails() {
+            assertThatThrownBy(() -> shardRouter.onAllShards(() -> {
+                if ("shard1".equals(ShardContext.current())) {
+                    throw new IllegalStateException("shard1 down");
+                }
+                return 1;
+            })).isInstanceOf(IllegalStateException.class).hasMessage("shard1 down");
+        }
+
+        @Test
+        @DisplayName("should fail when a shard does not answer in time")
+        void shouldFailOnTimeout() {
+            assertThatThrownBy(() -> shardRouter.onAllShards(() -> {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 1;
+            })).isInstanceOf(IllegalStateException.class).hasMessageContaining("did not answer");
+        }
+
+        @Test
+        @DisplayName("should cut the requested page from the merged rows of all shards")
+        void shouldMergePages() {
+            Page<Integer> shard0 = new PageImpl<>(List.of(9, 6, 2), PageRequest.of(0, 4), 3);
+            Page<Integer> shard1 = new PageImpl<>(List.of(8, 7, 5, 4), PageRequest.of(0, 4), 40);
+
+            Page<Integer> merged = ShardRouter.mergePages(List.of(shard0, shard1), PageRequest.of(1, 2),
+                    Comparator.<Integer>reverseOrder());
+
+            assertThat(merged.getContent()).containsExactly(7, 6);
+            assertThat(merged.getTotalElements()).isEqualTo(43);
+            assertThat(merged.getNumber()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should refuse pages deeper than the fan-out limit")
+        void shouldRefuseDeepPages() {
+            assertThat(shardRouter.fanOutWindow(4, 20)).isEqualTo(100);
+            assertThatThrownBy(() -> shardRouter.fanOutWindow(5, 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package com.greenhouse.environnement.unit.service;
 
-import com.greenhouse.environnement.dto.AlertEvent;
-import com.greenhouse.environnement.dto.MeasurementEvent;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.AnomalyEvent;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.MeasurementEvent;
 import com.greenhouse.environnement.service.KafkaProducerService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -16,8 +18,7 @@ import org.springframework.kafka.support.SendResult;
 import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,95 +31,75 @@ class KafkaProducerServiceTest {
     @Mock
     private KafkaTemplate<String, MeasurementEvent> measurementKafkaTemplate;
 
-    @InjectMocks
+    @Mock
+    private KafkaTemplate<String, ConfigChangeEvent> configChangeKafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, AnomalyEvent> anomalyKafkaTemplate;
+
     private KafkaProducerService kafkaProducerService;
 
+    @BeforeEach
+    void setUp() {
+        // Built by hand: the templates only differ by generic type, which injection by type can't tell apart
+        kafkaProducerService = new KafkaProducerService(alertKafkaTemplate, measurementKafkaTemplate,
+                configChangeKafkaTemplate, anomalyKafkaTemplate);
+    }
+
     @Nested
-    @DisplayName("sendAlert")
-    class SendAlert {
+    @DisplayName("publish")
+    class Publish {
 
         @Test
-        @DisplayName("should send alert event to correct topic")
-        void shouldSendAlertEventToCorrectTopic() {
+        @DisplayName("should send an alert with the alert template, on the given topic and key")
+        void shouldPublishAlert() {
             // Given
             AlertEvent alertEvent = AlertEvent.builder()
                     .parametreId(1L)
                     .parametreType("TEMPERATURE")
                     .valeur(35.0)
-                    .seuilMin(15.0)
-                    .seuilMax(30.0)
                     .dateMesure(LocalDateTime.now())
                     .severity("HIGH")
-                    .message("Temperature exceeded threshold")
-                    .eventId("test-event-1")
                     .build();
-
             CompletableFuture<SendResult<String, AlertEvent>> future = new CompletableFuture<>();
-            when(alertKafkaTemplate.send(anyString(), anyString(), any(AlertEvent.class))).thenReturn(future);
+            when(alertKafkaTemplate.send("greenhouse-alerts", "default:1", alertEvent)).thenReturn(future);
 
             // When
-            kafkaProducerService.sendAlert(alertEvent);
+            CompletableFuture<?> sent = kafkaProducerService.publish("greenhouse-alerts", "default:1", alertEvent);
 
             // Then
-            verify(alertKafkaTemplate).send(anyString(), anyString(), eq(alertEvent));
+            assertThat(sent).isSameAs(future);
+            verifyNoInteractions(measurementKafkaTemplate, configChangeKafkaTemplate, anomalyKafkaTemplate);
         }
-    }
-
-    @Nested
-    @DisplayName("sendMeasurement")
-    class SendMeasurement {
 
         @Test
-        @DisplayName("should send measurement event to correct topic")
-        void shouldSendMeasurementEventToCorrectTopic() {
+        @DisplayName("should send a measurement with the measurement template")
+        void shouldPublishMeasurement() {
             // Given
             MeasurementEvent measurementEvent = MeasurementEvent.builder()
                     .parametreId(1L)
-                    .parametreType("TEMPERATURE")
                     .valeur(22.5)
-                    .unite("°C")
-                    .dateMesure(LocalDateTime.now())
                     .isAlert(false)
-                    .eventId("test-event-2")
                     .build();
-
             CompletableFuture<SendResult<String, MeasurementEvent>> future = new CompletableFuture<>();
-            when(measurementKafkaTemplate.send(anyString(), anyString(), any(MeasurementEvent.class))).thenReturn(future);
+            when(measurementKafkaTemplate.send("measurement-stream", "default:1", measurementEvent)).thenReturn(future);
 
             // When
-            kafkaProducerService.sendMeasurement(measurementEvent);
+            kafkaProducerService.publish("measurement-stream", "default:1", measurementEvent);
 
             // Then
-            verify(measurementKafkaTemplate).send(anyString(), anyString(), eq(measurementEvent));
+            verify(measurementKafkaTemplate).send("measurement-stream", "default:1", measurementEvent);
+            verifyNoInteractions(alertKafkaTemplate);
         }
-    }
-
-    @Nested
-    @DisplayName("sendAlertSync")
-    class SendAlertSync {
 
         @Test
-        @DisplayName("should send alert synchronously and return true on success")
-        void shouldSendAlertSyncAndReturnTrueOnSuccess() throws Exception {
-            // Given
-            AlertEvent alertEvent = AlertEvent.builder()
-                    .parametreId(1L)
-                    .parametreType("TEMPERATURE")
-                    .valeur(35.0)
-                    .eventId("test-sync-event")
-                    .build();
-
-            CompletableFuture<SendResult<String, AlertEvent>> future = new CompletableFuture<>();
-            SendResult<String, AlertEvent> sendResult = mock(SendResult.class);
-            future.complete(sendResult);
-
-            when(alertKafkaTemplate.send(anyString(), anyString(), any(AlertEvent.class))).thenReturn(future);
-
-            // When
-            boolean result = kafkaProducerService.sendAlertSync(alertEvent);
+        @DisplayName("should fail an unsupported event type without sending")
+        void shouldFailUnsupportedType() {
+            CompletableFuture<?> sent = kafkaProducerService.publish("greenhouse-alerts", "1", "not an event");
 
-            // Then - the method should have been called
-            verify(alertKafkaTemplate).send(anyString(), anyString(), eq(alertEvent));
+            assertThat(sent).isCompletedExceptionally();
+            verifyNoInteractions(alertKafkaTemplate, measurementKafkaTemplate,
+                    configChangeKafkaTemplate, anomalyKafkaTemplate);
         }
     }
 }
@@ -1,5 +1,12 @@
 package com.greenhouse.environnement.unit.service;
 
+import com.greenhouse.environnement.alerting.AlertAggregator;
+import com.greenhouse.environnement.alerting.AlertRuleEngine;
+import com.greenhouse.environnement.alerting.AlertRuleProperties;
+import com.greenhouse.environnement.anomaly.Anomaly;
+import com.greenhouse.environnement.anomaly.AnomalyDetector;
+import com.greenhouse.environnement.config.MetricsConfig;
+import com.greenhouse.environnement.config.ShardRouter;
 import com.greenhouse.environnement.dto.MesureRequest;
 import com.greenhouse.environnement.dto.MesureResponse;
 import com.greenhouse.environnement.exception.ResourceNotFoundException;
@@ -8,9 +15,14 @@ import com.greenhouse.environnement.model.Parametre;
 import com.greenhouse.environnement.model.ParametreType;
 import com.greenhouse.environnement.repository.MesureRepository;
 import com.greenhouse.environnement.repository.ParametreRepository;
-import com.greenhouse.environnement.service.KafkaProducerService;
 import com.greenhouse.environnement.service.MesureService;
+import com.greenhouse.environnement.service.OutboxService;
+import com.greenhouse.environnement.stats.MesureCounters;
+import com.greenhouse.environnement.testutil.InMemoryAlertIncidents;
 import com.greenhouse.environnement.testutil.TestDataBuilder;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.AnomalyEvent;
+import com.greenhouse.events.MeasurementEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,8 +30,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -27,7 +41,11 @@ import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,7 +62,26 @@ class MesureServiceTest {
     private ParametreRepository parametreRepository;
 
     @Mock
-    private KafkaProducerService kafkaProducerService;
+    private OutboxService outboxService;
+
+    @Mock
+    private MetricsConfig metricsConfig;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Spy
+    private AlertRuleEngine alertRuleEngine = new AlertRuleEngine(new AlertRuleProperties());
+
+    @Spy
+    private AlertAggregator alertAggregator = new AlertAggregator(new AlertRuleProperties(),
+            InMemoryAlertIncidents.repository(), mock(ParametreRepository.class));
+
+    @Mock
+    private AnomalyDetector anomalyDetector;
+
+    @Mock
+    private MesureCounters mesureCounters;
 
     @InjectMocks
     private MesureService mesureService;
@@ -58,6 +95,23 @@ class MesureServiceTest {
         testMesure = TestDataBuilder.createNormalMeasurement(1L);
     }
 
+    /**
+     * Row of a list query, as projected by the repository
+     */
+    private MesureResponse response(Long id, Long parametreId, LocalDateTime dateMesure) {
+        return MesureResponse.builder()
+                .id(id)
+                .parametreId(parametreId)
+                .parametreType(testParametre.getType())
+                .valeur(22.5)
+                .dateMesure(dateMesure)
+                .alerte(false)
+                .seuilMin(testParametre.getSeuilMin())
+                .seuilMax(testParametre.getSeuilMax())
+                .unite(testParametre.getUnite())
+                .build();
+    }
+
     @Nested
     @DisplayName("createMesure")
     class CreateMesure {
@@ -82,7 +136,8 @@ class MesureServiceTest {
             assertThat(response).isNotNull();
             assertThat(response.getValeur()).isEqualTo(22.5);
             verify(mesureRepository).save(any(Mesure.class));
-            verify(kafkaProducerService).sendMeasurement(any());
+            verify(outboxService).enqueueMeasurement(any());
+            verify(mesureCounters).record(eq(testParametre), any(LocalDateTime.class), isNull());
         }
 
         @Test
@@ -108,8 +163,9 @@ class MesureServiceTest {
 
             // Then
             assertThat(response).isNotNull();
-            verify(kafkaProducerService).sendAlert(any());
-            verify(kafkaProducerService).sendMeasurement(any());
+            verify(outboxService).enqueueAlert(any());
+            verify(outboxService).enqueueMeasurement(any());
+            verify(mesureCounters).record(eq(testParametre), any(LocalDateTime.class), eq("MEDIUM"));
         }
 
         @Test
@@ -135,7 +191,100 @@ class MesureServiceTest {
 
             // Then
             assertThat(response).isNotNull();
-            verify(kafkaProducerService).sendAlert(any());
+            verify(outboxService).enqueueAlert(any());
+        }
+
+        @Test
+        @DisplayName("should scope the measurement and its events to the parameter's greenhouse and zone")
+        void shouldScopeMeasurementToParameterZone() {
+            // Given
+            testParametre.setGreenhouseId("gh-2");
+            testParametre.setZoneId("nord");
+            MesureRequest request = MesureRequest.builder()
+                    .parametreId(1L)
+                    .valeur(35.0)
+                    .build();
+
+            when(parametreRepository.findById(1L)).thenReturn(Optional.of(testParametre));
+            when(mesureRepository.save(any(Mesure.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            MesureResponse response = mesureService.createMesure(request);
+
+            // Then
+            assertThat(response.getGreenhouseId()).isEqualTo("gh-2");
+            assertThat(response.getZoneId()).isEqualTo("nord");
+            ArgumentCaptor<MeasurementEvent> measurement = ArgumentCaptor.forClass(MeasurementEvent.class);
+            ArgumentCaptor<AlertEvent> alert = ArgumentCaptor.forClass(AlertEvent.class);
+            verify(outboxService).enqueueMeasurement(measurement.capture());
+            verify(outboxService).enqueueAlert(alert.capture());
+            assertThat(measurement.getValue().zoneId()).isEqualTo("nord");
+            assertThat(measurement.getValue().partitionKey()).isEqualTo("gh-2:1");
+            assertThat(alert.getValue().partitionKey()).isEqualTo("gh-2:1");
+            assertThat(alert.getValue().rule()).isEqualTo("sustained-breach");
+            assertThat(alert.getValue().direction()).isEqualTo(AlertEvent.RISING);
+        }
+
+        @Test
+        @DisplayName("should publish incident state changes rather than every alerting measurement")
+        void shouldPublishIncidentStateChanges() {
+            // Given
+            when(parametreRepository.findById(1L)).thenReturn(Optional.of(testParametre));
+            when(mesureRepository.save(any(Mesure.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            LocalDateTime start = LocalDateTime.now();
+            double[] valeurs = {32.0, 32.5, 31.0, 46.0, 40.0, 22.0, 23.0, 22.5};
+
+            // When
+            for (int i = 0; i < valeurs.length; i++) {
+                mesureService.createMesure(MesureRequest.builder()
+                        .parametreId(1L)
+                        .valeur(valeurs[i])
+                        .dateMesure(start.plusSeconds(5L * i))
+                        .build());
+            }
+
+            // Then
+            ArgumentCaptor<AlertEvent> alerts = ArgumentCaptor.forClass(AlertEvent.class);
+            verify(outboxService, times(3)).enqueueAlert(alerts.capture());
+            verify(outboxService, times(valeurs.length)).enqueueMeasurement(any());
+            assertThat(alerts.getAllValues())
+                    .extracting(AlertEvent::incidentState, AlertEvent::severity, AlertEvent::breachCount)
+                    .containsExactly(
+                            tuple(AlertEvent.OPENED, "LOW", 1L),
+                            tuple(AlertEvent.ESCALATED, "CRITICAL", 4L),
+                            tuple(AlertEvent.RESOLVED, "CRITICAL", 5L));
+            assertThat(alerts.getAllValues()).extracting(AlertEvent::incidentId).containsOnly(
+                    alerts.getAllValues().get(0).incidentId());
+            AlertEvent resolved = alerts.getAllValues().get(2);
+            assertThat(resolved.peakValeur()).isEqualTo(46.0);
+            assertThat(resolved.message()).startsWith("Resolved: TEMPERATURE value 22.50");
+        }
+
+        @Test
+        @DisplayName("should publish an anomaly event when the sensor deviates from its recent behaviour")
+        void shouldPublishAnomalyEvent() {
+            // Given
+            MesureRequest request = MesureRequest.builder()
+                    .parametreId(1L)
+                    .valeur(28.0) // Within thresholds
+                    .dateMesure(LocalDateTime.now())
+                    .build();
+
+            when(parametreRepository.findById(1L)).thenReturn(Optional.of(testParametre));
+            when(mesureRepository.save(any(Mesure.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(anomalyDetector.observe(testParametre, 28.0)).thenReturn(new Anomaly(21.0, 1.5, 4.67));
+
+            // When
+            mesureService.createMesure(request);
+
+            // Then
+            ArgumentCaptor<AnomalyEvent> anomaly = ArgumentCaptor.forClass(AnomalyEvent.class);
+            verify(outboxService).enqueueAnomaly(anomaly.capture());
+            verify(outboxService, never()).enqueueAlert(any());
+            verify(metricsConfig).incrementAnomaly("TEMPERATURE");
+            assertThat(anomaly.getValue().expected()).isEqualTo(21.0);
+            assertThat(anomaly.getValue().score()).isEqualTo(4.67);
+            assertThat(anomaly.getValue().partitionKey()).isEqualTo("default:1");
         }
 
         @Test
@@ -185,12 +334,10 @@ class MesureServiceTest {
         @DisplayName("should return paginated measurements")
         void shouldReturnPaginatedMeasurements() {
             // Given
-            Mesure mesure1 = TestDataBuilder.aMesure().withId(1L).build();
-            Mesure mesure2 = TestDataBuilder.aMesure().withId(2L).build();
-            Page<Mesure> page = new PageImpl<>(Arrays.asList(mesure1, mesure2));
+            Page<MesureResponse> page = new PageImpl<>(Arrays.asList(response(1L, 1L, LocalDateTime.now()),
+                    response(2L, 1L, LocalDateTime.now())));
 
-            when(mesureRepository.findAll(any(Pageable.class))).thenReturn(page);
-            when(parametreRepository.findById(any())).thenReturn(Optional.of(testParametre));
+            when(mesureRepository.findResponses(any(Pageable.class))).thenReturn(page);
 
             // When
             Page<MesureResponse> responses = mesureService.getAllMesures(0, 10);
@@ -208,10 +355,10 @@ class MesureServiceTest {
         @DisplayName("should return measurements for specific parameter")
         void shouldReturnMeasurementsForParameter() {
             // Given
-            Page<Mesure> page = new PageImpl<>(Arrays.asList(testMesure));
+            Page<MesureResponse> page = new PageImpl<>(Arrays.asList(response(1L, 1L, LocalDateTime.now())));
 
-            when(parametreRepository.findById(1L)).thenReturn(Optional.of(testParametre));
-            when(mesureRepository.findByParametreId(eq(1L), any(Pageable.class))).thenReturn(page);
+            when(parametreRepository.existsById(1L)).thenReturn(true);
+            when(mesureRepository.findResponsesByParametreId(eq(1L), any(Pageable.class))).thenReturn(page);
 
             // When
             Page<MesureResponse> responses = mesureService.getMesuresByParametreId(1L, 0, 10);
@@ -221,6 +368,46 @@ class MesureServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("getRecentMesures (bulk)")
+    class GetRecentMesuresBulk {
+
+        @Test
+        @DisplayName("should group measurements by parameter, newest first, in one query")
+        void shouldGroupByParameter() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            MesureResponse newer = response(2L, 1L, now);
+            MesureResponse humid = response(3L, 2L, now);
+            MesureResponse older = response(1L, 1L, now.minusMinutes(5));
+
+            when(mesureRepository.findRecentResponsesByParametreIdIn(any(), eq(5))).thenReturn(List.of(newer, humid, older));
+
+            // When
+            Map<Long, List<MesureResponse>> recentes = mesureService.getRecentMesures(List.of(1L, 2L, 99L, 1L), 5);
+
+            // Then
+            assertThat(recentes).containsOnlyKeys(1L, 2L, 99L);
+            assertThat(recentes.get(1L)).extracting(MesureResponse::getId).containsExactly(2L, 1L);
+            assertThat(recentes.get(2L)).containsExactly(humid);
+            assertThat(recentes.get(99L)).isEmpty();
+            verify(mesureRepository, times(1)).findRecentResponsesByParametreIdIn(any(), eq(5));
+            verifyNoInteractions(parametreRepository);
+        }
+
+        @Test
+        @DisplayName("should reject oversized batches and invalid limits")
+        void shouldRejectInvalidRequests() {
+            List<Long> tooMany = LongStream.rangeClosed(1, 101).boxed().toList();
+
+            assertThatThrownBy(() -> mesureService.getRecentMesures(tooMany, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> mesureService.getRecentMesures(List.of(1L), 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(mesureRepository);
+        }
+    }
+
     @Nested
     @DisplayName("getAlerts")
     class GetAlerts {
@@ -229,11 +416,9 @@ class MesureServiceTest {
         @DisplayName("should return only alert measurements")
         void shouldReturnOnlyAlertMeasurements() {
             // Given
-            Mesure alertMesure = TestDataBuilder.aMesure().asAlert().build();
-            Page<Mesure> page = new PageImpl<>(Arrays.asList(alertMesure));
+            Page<MesureResponse> page = new PageImpl<>(Arrays.asList(response(1L, 1L, LocalDateTime.now())));
 
-            when(mesureRepository.findByAlerteTrue(any(Pageable.class))).thenReturn(page);
-            when(parametreRepository.findById(any())).thenReturn(Optional.of(testParametre));
+            when(mesureRepository.findAlertResponses(any(Pageable.class))).thenReturn(page);
 
             // When
             Page<MesureResponse> responses = mesureService.getAlerts(null, 0, 10);
@@ -241,5 +426,34 @@ class MesureServiceTest {
             // Then
             assertThat(responses.getContent()).hasSize(1);
         }
+
+        @Test
+        @DisplayName("should merge alerts of all shards newest first when no greenhouse is given")
+        void shouldMergeAlertsOfAllShards() {
+            // Given
+            LocalDateTime now = LocalDateTime.now();
+            MesureResponse shard0Newest = response(1L, 1L, now);
+            MesureResponse shard0Oldest = response(2L, 1L, now.minusHours(3));
+            MesureResponse shard1 = response(1L, 1L, now.minusHours(1));
+
+            when(shardRouter.isEnabled()).thenReturn(true);
+            when(shardRouter.fanOutWindow(0, 2)).thenReturn(2);
+            when(shardRouter.onAllShards(any())).thenAnswer(invocation -> {
+                Supplier<?> query = invocation.getArgument(0);
+                return List.of(query.get(), query.get());
+            });
+            when(mesureRepository.findAlertResponses(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(shard0Newest, shard0Oldest), Pageable.ofSize(2), 5))
+                    .thenReturn(new PageImpl<>(List.of(shard1), Pageable.ofSize(2), 1));
+
+            // When
+            Page<MesureResponse> responses = mesureService.getAlerts(null, null, 0, 2);
+
+            // Then
+            assertThat(responses.getContent()).extracting(MesureResponse::getDateMesure)
+                    .containsExactly(now, now.minusHours(1));
+            assertThat(responses.getTotalElements()).isEqualTo(6);
+            verify(mesureRepository, never()).findAlertResponsesByGreenhouseId(any(), any());
+        }
     }
 }
@@ -0,0 +1,245 @@
+package com.greenhouse.environnement.unit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenhouse.environnement.config.MetricsConfig;
+import com.greenhouse.environnement.config.ShardRouter;
+import com.greenhouse.environnement.config.ShardingProperties;
+import com.greenhouse.environnement.model.OutboxEvent;
+import com.greenhouse.environnement.repository.OutboxEventRepository;
+import com.greenhouse.environnement.service.KafkaProducerService;
+import com.greenhouse.environnement.service.OutboxRelay;
+import com.greenhouse.environnement.service.OutboxService;
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.codec.EventMappers;
+import com.greenhouse.events.codec.WireFormat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+class OutboxRelayTest {
+
+    private static final ObjectMapper MAPPER = EventMappers.forFormat(WireFormat.JSON);
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxService outboxService = new OutboxService(outboxEventRepository);
+        outboxRelay = new OutboxRelay(outboxEventRepository, outboxService, kafkaProducerService,
+                new MetricsConfig(new SimpleMeterRegistry()), transactionTemplate,
+                new ShardRouter(new ShardingProperties(), mock(ObjectProvider.class)));
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 500);
+        ReflectionTestUtils.setField(outboxRelay, "maxBatchesPerRun", 20);
+        ReflectionTestUtils.setField(outboxRelay, "maxAttempts", 10);
+        ReflectionTestUtils.setField(outboxRelay, "sendTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(outboxRelay, "claimLeaseMs", 60000L);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private void claim(OutboxEvent... rows) {
+        when(outboxEventRepository.claimNextBatch(anyString(), eq(60000L), eq(10), eq(500))).thenReturn(rows.length);
+        lenient().when(outboxEventRepository.findByClaimIdOrderById(anyString())).thenReturn(List.of(rows));
+    }
+
+    @Nested
+    @DisplayName("relayBatch")
+    class RelayBatch {
+
+        @Test
+        @DisplayName("should publish decoded events and delete them in one batch")
+        void shouldPublishAndDeleteInBatch() throws Exception {
+            // Given
+            OutboxEvent alert = row(1L, "greenhouse-alerts", "1", AlertEvent.SUBJECT,
+                    AlertEvent.builder().parametreId(1L).valeur(35.0).severity("HIGH").build());
+            OutboxEvent measurement = row(2L, "measurement-stream", "1", MeasurementEvent.SUBJECT,
+                    MeasurementEvent.builder().parametreId(1L).valeur(35.0).isAlert(true).build());
+
+            claim(alert, measurement);
+            doReturn(CompletableFuture.completedFuture(null))
+                    .when(kafkaProducerService).publish(anyString(), anyString(), any());
+
+            // When
+            int polled = outboxRelay.relayBatch();
+
+            // Then
+            assertThat(polled).isEqualTo(2);
+            verify(outboxEventRepository).lockClaims();
+            verify(kafkaProducerService).publish(eq("greenhouse-alerts"), eq("1"), any(AlertEvent.class));
+            verify(kafkaProducerService).publish(eq("measurement-stream"), eq("1"), any(MeasurementEvent.class));
+            verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+            verify(outboxEventRepository, never()).failAttempts(any(), any());
+        }
+
+        @Test
+        @DisplayName("should keep failed events and increment their attempts")
+        void shouldIncrementAttemptsOnFailure() throws Exception {
+            // Given
+            OutboxEvent ok = row(1L, "greenhouse-alerts", "1", AlertEvent.SUBJECT,
+                    AlertEvent.builder().parametreId(1L).build());
+            OutboxEvent failing = row(2L, "greenhouse-alerts", "2", AlertEvent.SUBJECT,
+                    AlertEvent.builder().parametreId(2L).build());
+
+            claim(ok, failing);
+            doReturn(CompletableFuture.completedFuture(null))
+                    .when(kafkaProducerService).publish(anyString(), eq("1"), any());
+            doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                    .when(kafkaProducerService).publish(anyString(), eq("2"), any());
+
+            // When
+            outboxRelay.relayBatch();
+
+            // Then
+            verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+            verify(outboxEventRepository).failAttempts(eq(List.of(2L)), anyString());
+            verify(outboxEventRepository, never()).release(any(), any());
+        }
+
+        @Test
+        @DisplayName("should send the rows of a key one after the other, in order")
+        void shouldSendRowsOfKeyInOrder() throws Exception {
+            // Given
+            OutboxEvent opened = row(1L, "greenhouse-alerts", "1", AlertEvent.SUBJECT,
+                    AlertEvent.builder().parametreId(1L).incidentState(AlertEvent.OPENED).build());
+            OutboxEvent resolved = row(2L, "greenhouse-alerts", "1", AlertEvent.SUBJECT,
+                    AlertEvent.builder().parametreId(1L).incidentState(AlertEvent.RESOLVED).build());
+
+            claim(opened, resolved);
+            doReturn(CompletableFuture.completedFuture(null))
+                    .when(kafkaProducerService).publish(anyString(), anyString(), any());
+
+            // When
+            outboxRelay.relayBatch();
+
+            // Then
+            InOrder order = inOrder(kafkaProducerService);
+            order.verify(kafkaProducerService).publish(eq("greenhouse-alerts"), eq("1"),
+                    argThat(event -> AlertEvent.OPENED.equals(((AlertEvent) event).incidentState())));
+            order.verify(kafkaProducerService).publish(eq("greenhouse-alerts"), eq("1"),
+                    argThat(event -> AlertEvent.RESOLVED.equals(((AlertEvent) event).incidentState())));
+            verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        }
+
+        @Test
+        @DisplayName("should not send the rows behind a failed row of their key, and release them unattempted")
+        void shouldHoldBackRowsBehindFailure() throws Exception {
+            // Given
+            OutboxEvent failing = row(1L, "greenhouse-alerts", "1", AlertEvent.SUBJECT,
+                    AlertEvent.builder().parametreId(1L).build());
+            OutboxEvent next = row(2L, "greenhouse-alerts", "1", AlertEvent.SUBJECT,
+                    AlertEvent.builder().parametreId(1L).build());
+            OutboxEvent otherKey = row(3L, "greenhouse-alerts", "2", AlertEvent.SUBJECT,
+                    AlertEvent.builder().parametreId(2L).build());
+
+            claim(failing, next, otherKey);
+            doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                    .when(kafkaProducerService).publish(anyString(), eq("1"), any());
+            doReturn(CompletableFuture.completedFuture(null))
+                    .when(kafkaProducerService).publish(anyString(), eq("2"), any());
+
+            // When
+            outboxRelay.relayBatch();
+
+            // Then
+            verify(kafkaProducerService, times(1)).publish(anyString(), eq("1"), any());
+            verify(outboxEventRepository).deleteAllByIdInBatch(List.of(3L));
+            verify(outboxEventRepository).failAttempts(eq(List.of(1L)), anyString());
+            verify(outboxEventRepository).release(eq(List.of(2L)), anyString());
+        }
+
+        @Test
+        @DisplayName("should treat an unknown event type as a failed attempt")
+        void shouldFailUnknownEventType() {
+            // Given
+            OutboxEvent unknown = OutboxEvent.builder()
+                    .id(3L).topic("greenhouse-alerts").messageKey("1").eventType("unknown").payload("{}").build();
+            claim(unknown);
+
+            // When
+            outboxRelay.relayBatch();
+
+            // Then
+            verifyNoInteractions(kafkaProducerService);
+            verify(outboxEventRepository).failAttempts(eq(List.of(3L)), anyString());
+            verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        }
+
+        @Test
+        @DisplayName("should do nothing when the outbox is empty")
+        void shouldDoNothingWhenEmpty() {
+            claim();
+
+            assertThat(outboxRelay.relayBatch()).isZero();
+
+            verifyNoInteractions(kafkaProducerService);
+            verify(outboxEventRepository, never()).findByClaimIdOrderById(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("relay")
+    class Relay {
+
+        @Test
+        @DisplayName("should keep draining while batches come back full")
+        void shouldDrainWhileBatchesAreFull() throws Exception {
+            // Given
+            ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+            OutboxEvent first = row(1L, "measurement-stream", "1", MeasurementEvent.SUBJECT,
+                    MeasurementEvent.builder().parametreId(1L).build());
+            OutboxEvent second = row(2L, "measurement-stream", "2", MeasurementEvent.SUBJECT,
+                    MeasurementEvent.builder().parametreId(2L).build());
+            when(outboxEventRepository.claimNextBatch(anyString(), anyLong(), anyInt(), eq(2))).thenReturn(2, 2, 1);
+            when(outboxEventRepository.findByClaimIdOrderById(anyString()))
+                    .thenReturn(List.of(first, second), List.of(first, second), List.of(first));
+            doReturn(CompletableFuture.completedFuture(null))
+                    .when(kafkaProducerService).publish(anyString(), anyString(), any());
+
+            // When
+            outboxRelay.relay();
+
+            // Then
+            verify(outboxEventRepository, times(3)).claimNextBatch(anyString(), anyLong(), anyInt(), eq(2));
+        }
+    }
+
+    private static OutboxEvent row(Long id, String topic, String key, String subject, Object event) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(topic)
+                .messageKey(key)
+                .eventType(subject)
+                .payload(MAPPER.writeValueAsString(event))
+                .attempts(0)
+                .build();
+    }
+}
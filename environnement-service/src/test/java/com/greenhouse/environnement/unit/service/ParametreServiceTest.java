@@ -1,5 +1,7 @@
 package com.greenhouse.environnement.unit.service;
 
+import com.greenhouse.environnement.alerting.AlertRuleEngine;
+import com.greenhouse.environnement.config.ShardRouter;
 import com.greenhouse.environnement.dto.ParametreRequest;
 import com.greenhouse.environnement.dto.ParametreResponse;
 import com.greenhouse.environnement.exception.DuplicateResourceException;
@@ -7,13 +9,16 @@ import com.greenhouse.environnement.exception.ResourceNotFoundException;
 import com.greenhouse.environnement.model.Parametre;
 import com.greenhouse.environnement.model.ParametreType;
 import com.greenhouse.environnement.repository.ParametreRepository;
+import com.greenhouse.environnement.service.OutboxService;
 import com.greenhouse.environnement.service.ParametreService;
 import com.greenhouse.environnement.testutil.TestDataBuilder;
+import com.greenhouse.events.ConfigChangeEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -30,9 +35,20 @@ import static org.mockito.Mockito.*;
 @DisplayName("ParametreService Unit Tests")
 class ParametreServiceTest {
 
+    private static final String DEFAULT = "default";
+
     @Mock
     private ParametreRepository parametreRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private AlertRuleEngine alertRuleEngine;
+
     @InjectMocks
     private ParametreService parametreService;
 
@@ -55,7 +71,7 @@ class ParametreServiceTest {
         @DisplayName("should create parameter successfully when type does not exist")
         void shouldCreateParameterSuccessfully() {
             // Given
-            when(parametreRepository.existsByType(ParametreType.TEMPERATURE)).thenReturn(false);
+            when(parametreRepository.existsByGreenhouseIdAndZoneIdAndType(DEFAULT, DEFAULT, ParametreType.TEMPERATURE)).thenReturn(false);
             when(parametreRepository.save(any(Parametre.class))).thenReturn(testParametre);
 
             // When
@@ -69,11 +85,29 @@ class ParametreServiceTest {
             verify(parametreRepository).save(any(Parametre.class));
         }
 
+        @Test
+        @DisplayName("should enqueue a config change event for the created parameter")
+        void shouldEnqueueConfigChange() {
+            // Given
+            when(parametreRepository.existsByGreenhouseIdAndZoneIdAndType(DEFAULT, DEFAULT, ParametreType.TEMPERATURE)).thenReturn(false);
+            when(parametreRepository.save(any(Parametre.class))).thenReturn(testParametre);
+
+            // When
+            parametreService.createParametre(testRequest);
+
+            // Then
+            ArgumentCaptor<ConfigChangeEvent> captor = ArgumentCaptor.forClass(ConfigChangeEvent.class);
+            verify(outboxService).enqueueConfigChange(captor.capture());
+            assertThat(captor.getValue().entityType()).isEqualTo(ConfigChangeEvent.PARAMETRE);
+            assertThat(captor.getValue().entityId()).isEqualTo(testParametre.getId());
+            assertThat(captor.getValue().changeType()).isEqualTo(ConfigChangeEvent.CREATED);
+        }
+
         @Test
         @DisplayName("should throw DuplicateResourceException when type already exists")
         void shouldThrowExceptionWhenTypeExists() {
             // Given
-            when(parametreRepository.existsByType(ParametreType.TEMPERATURE)).thenReturn(true);
+            when(parametreRepository.existsByGreenhouseIdAndZoneIdAndType(DEFAULT, DEFAULT, ParametreType.TEMPERATURE)).thenReturn(true);
 
             // When/Then
             assertThatThrownBy(() -> parametreService.createParametre(testRequest))
@@ -81,6 +115,26 @@ class ParametreServiceTest {
                     .hasMessageContaining("already exists");
 
             verify(parametreRepository, never()).save(any());
+            verifyNoInteractions(outboxService);
+        }
+
+        @Test
+        @DisplayName("should scope the parameter to the requested greenhouse and zone")
+        void shouldCreateParameterInRequestedZone() {
+            // Given
+            testRequest.setGreenhouseId("gh-2");
+            testRequest.setZoneId("nord");
+            when(parametreRepository.existsByGreenhouseIdAndZoneIdAndType("gh-2", "nord", ParametreType.TEMPERATURE))
+                    .thenReturn(false);
+            when(parametreRepository.save(any(Parametre.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            ParametreResponse response = parametreService.createParametre(testRequest);
+
+            // Then
+            assertThat(response.getGreenhouseId()).isEqualTo("gh-2");
+            assertThat(response.getZoneId()).isEqualTo("nord");
+            verify(outboxService).enqueueConfigChange(argThat(event -> "gh-2".equals(event.greenhouseId())));
         }
 
         @Test
@@ -94,7 +148,7 @@ class ParametreServiceTest {
                     .unite("°C")
                     .build();
 
-            when(parametreRepository.existsByType(ParametreType.TEMPERATURE)).thenReturn(false);
+            when(parametreRepository.existsByGreenhouseIdAndZoneIdAndType(DEFAULT, DEFAULT, ParametreType.TEMPERATURE)).thenReturn(false);
 
             // When/Then
             assertThatThrownBy(() -> parametreService.createParametre(invalidRequest))
@@ -192,6 +246,30 @@ class ParametreServiceTest {
             // Then
             assertThat(response).isNotNull();
             verify(parametreRepository).save(any(Parametre.class));
+            verify(outboxService).enqueueConfigChange(argThat(event ->
+                    ConfigChangeEvent.UPDATED.equals(event.changeType())));
+            verify(alertRuleEngine, never()).forget(any());
+        }
+
+        @Test
+        @DisplayName("should drop the alert rules of a parameter whose type changed")
+        void shouldForgetAlertRulesOnTypeChange() {
+            // Given
+            ParametreRequest updateRequest = ParametreRequest.builder()
+                    .type(ParametreType.HUMIDITE)
+                    .seuilMin(40.0)
+                    .seuilMax(80.0)
+                    .unite("%")
+                    .build();
+
+            when(parametreRepository.findById(1L)).thenReturn(Optional.of(testParametre));
+            when(parametreRepository.save(any(Parametre.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            parametreService.updateParametre(1L, updateRequest);
+
+            // Then
+            verify(alertRuleEngine).forget(1L);
         }
 
         @Test
@@ -206,11 +284,36 @@ class ParametreServiceTest {
                     .build();
 
             when(parametreRepository.findById(1L)).thenReturn(Optional.of(testParametre));
-            when(parametreRepository.existsByType(ParametreType.HUMIDITE)).thenReturn(true);
+            when(parametreRepository.existsByGreenhouseIdAndZoneIdAndType(DEFAULT, DEFAULT, ParametreType.HUMIDITE)).thenReturn(true);
 
             // When/Then
             assertThatThrownBy(() -> parametreService.updateParametre(1L, updateRequest))
                     .isInstanceOf(DuplicateResourceException.class);
         }
+
+        @Test
+        @DisplayName("should keep the greenhouse and zone when the request omits them")
+        void shouldKeepScopeWhenOmitted() {
+            // Given
+            testParametre.setGreenhouseId("gh-2");
+            testParametre.setZoneId("nord");
+            ParametreRequest updateRequest = ParametreRequest.builder()
+                    .type(ParametreType.TEMPERATURE)
+                    .seuilMin(10.0)
+                    .seuilMax(35.0)
+                    .unite("°C")
+                    .build();
+
+            when(parametreRepository.findById(1L)).thenReturn(Optional.of(testParametre));
+            when(parametreRepository.save(any(Parametre.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // When
+            ParametreResponse response = parametreService.updateParametre(1L, updateRequest);
+
+            // Then
+            assertThat(response.getGreenhouseId()).isEqualTo("gh-2");
+            assertThat(response.getZoneId()).isEqualTo("nord");
+            verify(parametreRepository, never()).existsByGreenhouseIdAndZoneIdAndType(any(), any(), any());
+        }
     }
 }
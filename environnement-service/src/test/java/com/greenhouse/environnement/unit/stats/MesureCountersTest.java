@@ -0,0 +1,137 @@
+package com.greenhouse.environnement.unit.stats;
+
+import com.greenhouse.environnement.model.Parametre;
+import com.greenhouse.environnement.stats.CounterDelta;
+import com.greenhouse.environnement.stats.MesureCounters;
+import com.greenhouse.environnement.testutil.TestDataBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MesureCounters Unit Tests")
+class MesureCountersTest {
+
+    private MesureCounters counters;
+    private Parametre temperature;
+    private LocalDateTime hour;
+
+    @BeforeEach
+    void setUp() {
+        counters = new MesureCounters();
+        temperature = TestDataBuilder.createTemperatureParameter();
+        hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should count measurements and alerts by hour and severity, then reset")
+    void shouldCountByHourAndSeverity() {
+        counters.record(temperature, hour.plusMinutes(5), null);
+        counters.record(temperature, hour.plusMinutes(10), "HIGH");
+        counters.record(temperature, hour.minusMinutes(1), "LOW");
+
+        List<CounterDelta> deltas = counters.drain();
+
+        assertThat(deltas).hasSize(2);
+        assertThat(deltas.get(0).bucketStart()).isEqualTo(hour.minusHours(1));
+        assertThat(deltas.get(0).low()).isEqualTo(1);
+        assertThat(deltas.get(1).bucketStart()).isEqualTo(hour);
+        assertThat(deltas.get(1).measurements()).isEqualTo(2);
+        assertThat(deltas.get(1).alerts()).isEqualTo(1);
+        assertThat(deltas.get(1).high()).isEqualTo(1);
+        assertThat(deltas.get(1).greenhouseId()).isEqualTo(temperature.getGreenhouseId());
+        assertThat(counters.drain()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should count a measurement only once its transaction commits")
+    void shouldCountOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        counters.record(temperature, hour, "LOW");
+        counters.record(temperature, hour, null);
+
+        assertThat(counters.drain()).isEmpty();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.get(0).afterCommit();
+        synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(counters.drain()).singleElement().satisfies(delta -> {
+            assertThat(delta.measurements()).isEqualTo(1);
+            assertThat(delta.alerts()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("should put back the counts of a failed flush")
+    void shouldRestoreFailedFlush() {
+        counters.record(temperature, hour, "CRITICAL");
+        List<CounterDelta> failed = counters.drain();
+        counters.record(temperature, hour, null);
+
+        counters.restore(failed);
+
+        assertThat(counters.drain()).singleElement().satisfies(delta -> {
+            assertThat(delta.measurements()).isEqualTo(2);
+            assertThat(delta.critical()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("should keep counting late measurements of an older hour across drains")
+    void shouldCountLateMeasurementsAcrossDrains() {
+        LocalDateTime olderHour = hour.minusHours(3);
+        counters.record(temperature, olderHour, null);
+        assertThat(counters.drain()).singleElement()
+                .satisfies(delta -> assertThat(delta.measurements()).isEqualTo(1));
+
+        counters.record(temperature, olderHour.plusMinutes(30), "LOW");
+        assertThat(counters.drain()).singleElement()
+                .satisfies(delta -> assertThat(delta.low()).isEqualTo(1));
+
+        // Quiet for one flush: its counters are dropped, and a later measurement starts new ones
+        assertThat(counters.drain()).isEmpty();
+        counters.record(temperature, olderHour, null);
+
+        assertThat(counters.drain()).singleElement().satisfies(delta -> {
+            assertThat(delta.bucketStart()).isEqualTo(olderHour);
+            assertThat(delta.measurements()).isEqualTo(1);
+        });
+        assertThat(counters.drain()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should not lose counts recorded concurrently")
+    void shouldCountConcurrently() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4_000; i++) {
+            String severity = i % 4 == 0 ? "MEDIUM" : null;
+            executor.execute(() -> counters.record(temperature, hour, severity));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(counters.drain()).singleElement().satisfies(delta -> {
+            assertThat(delta.measurements()).isEqualTo(4_000);
+            assertThat(delta.medium()).isEqualTo(1_000);
+        });
+    }
+}
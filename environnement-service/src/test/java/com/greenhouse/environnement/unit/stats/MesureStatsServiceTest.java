@@ -0,0 +1,156 @@
+package com.greenhouse.environnement.unit.stats;
+
+import com.greenhouse.environnement.config.ShardRouter;
+import com.greenhouse.environnement.dto.MesureStatsResponse;
+import com.greenhouse.environnement.model.MesureCounts;
+import com.greenhouse.environnement.model.MesureStatBucket;
+import com.greenhouse.environnement.model.MesureStatTotal;
+import com.greenhouse.environnement.model.Parametre;
+import com.greenhouse.environnement.repository.MesureStatBucketRepository;
+import com.greenhouse.environnement.repository.MesureStatTotalRepository;
+import com.greenhouse.environnement.stats.CounterDelta;
+import com.greenhouse.environnement.stats.MesureCounters;
+import com.greenhouse.environnement.stats.MesureStatsService;
+import com.greenhouse.environnement.stats.StatsProperties;
+import com.greenhouse.environnement.testutil.TestDataBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("MesureStatsService Unit Tests")
+class MesureStatsServiceTest {
+
+    @Mock
+    private MesureStatTotalRepository totalRepository;
+
+    @Mock
+    private MesureStatBucketRepository bucketRepository;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MesureCounters counters;
+    private MesureStatsService service;
+    private Parametre temperature;
+    private LocalDateTime hour;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        counters = new MesureCounters();
+        service = new MesureStatsService(new StatsProperties(), counters, totalRepository, bucketRepository,
+                shardRouter, transactionTemplate);
+        temperature = TestDataBuilder.createTemperatureParameter();
+        hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+
+        when(shardRouter.inShardOf(any(), any())).thenAnswer(invocation ->
+                ((Supplier<?>) invocation.getArgument(1)).get());
+        when(shardRouter.onAllShards(any())).thenAnswer(invocation ->
+                List.of(((Supplier<?>) invocation.getArgument(0)).get()));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<?>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    private static MesureStatTotal total(Long parametreId, String greenhouseId, long measurements, long alerts) {
+        return MesureStatTotal.builder()
+                .parametreId(parametreId)
+                .greenhouseId(greenhouseId)
+                .counts(new MesureCounts(measurements, alerts, alerts, 0, 0, 0))
+                .build();
+    }
+
+    private static MesureStatBucket bucket(Long parametreId, String greenhouseId, LocalDateTime start,
+                                           long measurements) {
+        return MesureStatBucket.builder()
+                .id(new MesureStatBucket.Key(parametreId, start))
+                .greenhouseId(greenhouseId)
+                .counts(new MesureCounts(measurements, 0, 0, 0, 0, 0))
+                .build();
+    }
+
+    @Test
+    @DisplayName("should add counted measurements to the totals and hours of their greenhouse's shard")
+    void shouldFlushCounts() {
+        counters.record(temperature, hour, "LOW");
+        counters.record(temperature, hour, null);
+
+        service.flush();
+        service.flush();
+
+        verify(shardRouter, times(1)).inShardOf(eq(temperature.getGreenhouseId()), any());
+        verify(totalRepository, times(1)).increment(argThat(delta -> delta.measurements() == 2
+                && delta.alerts() == 1 && delta.low() == 1));
+        verify(bucketRepository, times(1)).increment(argThat(delta -> delta.bucketStart().equals(hour)));
+    }
+
+    @Test
+    @DisplayName("should keep the counts of a failed flush for the next one")
+    void shouldRetryFailedFlush() {
+        counters.record(temperature, hour, null);
+        doThrow(new IllegalStateException("database down")).doNothing()
+                .when(totalRepository).increment(any(CounterDelta.class));
+
+        service.flush();
+        service.flush();
+
+        verify(totalRepository, times(2)).increment(argThat(delta -> delta.measurements() == 1));
+    }
+
+    @Test
+    @DisplayName("should serve the statistics of a parameter, a greenhouse or all, from the last refresh")
+    void shouldServeRefreshedStatistics() {
+        when(totalRepository.findAll()).thenReturn(List.of(
+                total(1L, "serre-1", 100, 10),
+                total(2L, "serre-1", 50, 0),
+                total(3L, "serre-2", 20, 5)));
+        when(bucketRepository.findSince(any())).thenReturn(List.of(
+                bucket(1L, "serre-1", hour.minusHours(30), 4),
+                bucket(1L, "serre-1", hour.minusHours(1), 6),
+                bucket(2L, "serre-1", hour.minusHours(1), 2)));
+
+        service.refresh();
+
+        MesureStatsResponse parametre = service.getStats("serre-2", 1L, 24);
+        assertThat(parametre.getGreenhouseId()).isNull();
+        assertThat(parametre.getMeasurements()).isEqualTo(100);
+        assertThat(parametre.getAlertsBySeverity()).containsEntry("LOW", 10L).containsEntry("CRITICAL", 0L);
+        assertThat(parametre.getHourly()).singleElement().satisfies(count -> {
+            assertThat(count.getHour()).isEqualTo(hour.minusHours(1));
+            assertThat(count.getMeasurements()).isEqualTo(6);
+        });
+
+        MesureStatsResponse greenhouse = service.getStats("serre-1", null, 48);
+        assertThat(greenhouse.getMeasurements()).isEqualTo(150);
+        assertThat(greenhouse.getHourly()).extracting(MesureStatsResponse.HourlyCount::getMeasurements)
+                .containsExactly(4L, 8L);
+
+        MesureStatsResponse all = service.getStats(null, null, 24);
+        assertThat(all.getMeasurements()).isEqualTo(170);
+        assertThat(all.getAlerts()).isEqualTo(15);
+        assertThat(all.getRefreshedAt()).isNotNull();
+
+        assertThat(service.getStats(null, 99L, 24).getMeasurements()).isZero();
+        verify(totalRepository, times(1)).findAll();
+    }
+}
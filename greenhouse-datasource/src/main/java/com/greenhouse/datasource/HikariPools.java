@@ -0,0 +1,30 @@
+package com.greenhouse.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Connection pools built outside {@code spring.datasource} (shards, replicas), with the usual hikaricp metrics
+ */
+public final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    public static HikariDataSource create(String poolName, String url, String username, String password,
+                                          String driverClassName, int maximumPoolSize, int minimumIdle,
+                                          MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setDriverClassName(driverClassName);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMinimumIdle(minimumIdle);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,21 @@
+package com.greenhouse.datasource;
+
+import java.time.Duration;
+
+/**
+ * Lag settings of a {@link ReplicaRoutingDataSource}, read on every check so refreshed values apply at once
+ */
+public interface ReplicaLagSettings {
+
+    /**
+     * Replication lag beyond which a replica stops serving reads until it catches up
+     */
+    Duration getMaxLag();
+
+    Duration getLagCheckInterval();
+
+    /**
+     * Query returning the replication lag of a replica in seconds
+     */
+    String getLagQuery();
+}
@@ -0,0 +1,161 @@
+package com.greenhouse.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to the replicas of a primary, in turn, and everything else to the primary.
+ *
+ * The lag of every replica is checked in the background; a replica behind by more than the allowed lag, or
+ * unreachable, serves no reads until it catches up. Reads fall back to the primary when no replica can serve them.
+ * The target is chosen when a connection is taken, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction is only known to be
+ * read-only once it has begun.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final String name;
+    private final Map<String, DataSource> replicas;
+    private final ReplicaLagSettings settings;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+
+    private final Counter writes;
+    private final Counter fallbacks;
+    private final Map<String, Counter> reads = new LinkedHashMap<>();
+    private final ScheduledExecutorService lagChecker;
+
+    /**
+     * @param name data source being replicated ({@code primary}, or a shard), used as a metric tag
+     */
+    public ReplicaRoutingDataSource(String name, DataSource primary, Map<String, DataSource> replicas,
+                                    ReplicaLagSettings settings, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.replicas = Map.copyOf(replicas);
+        this.settings = settings;
+
+        Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        writes = routingCounter(meterRegistry, PRIMARY, "write");
+        fallbacks = routingCounter(meterRegistry, PRIMARY, "no-replica");
+        for (String replica : replicas.keySet()) {
+            reads.put(replica, routingCounter(meterRegistry, replica, "read"));
+            lagSeconds.put(replica, Double.NaN);
+            Gauge.builder("greenhouse.datasource.replica.lag", lagSeconds, lags -> lags.get(replica))
+                    .description("Replication lag of a read replica, NaN while unreachable")
+                    .baseUnit("seconds")
+                    .tag("datasource", name)
+                    .tag("replica", replica)
+                    .register(meterRegistry);
+        }
+
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.getLagCheckInterval().toMillis();
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            fallbacks.increment();
+            return PRIMARY;
+        }
+        String replica = candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+        reads.get(replica).increment();
+        return replica;
+    }
+
+    /**
+     * Measures the lag of every replica and keeps those within the allowed lag
+     */
+    public void checkLag() {
+        double maxLagSeconds = settings.getMaxLag().toMillis() / 1000.0;
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            double lag = lagOf(replica.getKey(), replica.getValue());
+            lagSeconds.put(replica.getKey(), lag);
+            if (lag <= maxLagSeconds) {
+                healthy.add(replica.getKey());
+            }
+        }
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Replicas of {} serving reads: {} (of {})", name, healthy, replicas.keySet());
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    private double lagOf(String replica, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(settings.getLagQuery())) {
+            // No replay timestamp yet: nothing replicated, nothing to lag behind
+            return result.next() ? result.getDouble(1) : 0;
+        } catch (SQLException e) {
+            log.warn("Lag check of replica {} of {} failed: {}", replica, name, e.getMessage());
+            return Double.NaN;
+        }
+    }
+
+    private Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("greenhouse.datasource.routing")
+                .description("Connections taken, by target and reason")
+                .tag("datasource", name)
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops the lag checks and closes the pools, which are not beans of their own
+     */
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close data source of {}: {}", name, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.greenhouse.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ReplicaRoutingDataSource Unit Tests")
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaLagSettings settings;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        settings = mock(ReplicaLagSettings.class);
+        when(settings.getMaxLag()).thenReturn(Duration.ofSeconds(5));
+        // Checked explicitly by the tests
+        when(settings.getLagCheckInterval()).thenReturn(Duration.ofHours(1));
+        when(settings.getLagQuery()).thenReturn("SELECT seconds FROM replication_lag");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    private static DataSource database(String name, double lagSeconds) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))");
+        jdbc.execute("DELETE FROM whoami");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS replication_lag (seconds DOUBLE)");
+        jdbc.execute("DELETE FROM replication_lag");
+        jdbc.update("INSERT INTO replication_lag VALUES (?)", lagSeconds);
+        return dataSource;
+    }
+
+    private ReplicaRoutingDataSource routing(Map<String, DataSource> replicas) {
+        routing = new ReplicaRoutingDataSource("primary", database("primary", 0), replicas, settings, meterRegistry);
+        routing.checkLag();
+        return routing;
+    }
+
+    private String target(boolean readOnly) {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        return new JdbcTemplate(routing).queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get("greenhouse.datasource.routing")
+                .tag("target", target).tag("reason", reason).counter().count();
+    }
+
+    @Nested
+    @DisplayName("routing")
+    class Routing {
+
+        @Test
+        @DisplayName("should send writes to the primary")
+        void shouldSendWritesToPrimary() {
+            routing(Map.of("replica1", database("replica1", 0)));
+
+            assertThat(target(false)).isEqualTo("primary");
+            assertThat(routed("primary", "write")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should spread read-only transactions over the replicas")
+        void shouldSendReadsToReplicas() {
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            replicas.put("replica1", database("replica1", 0));
+            replicas.put("replica2", database("replica2", 1.5));
+            routing(replicas);
+
+            assertThat(List.of(target(true), target(true))).containsExactlyInAnyOrder("replica1", "replica2");
+            assertThat(routed("replica1", "read")).isEqualTo(1);
+            assertThat(meterRegistry.get("greenhouse.datasource.replica.lag").tag("replica", "replica2").gauge().value())
+                    .isEqualTo(1.5);
+        }
+    }
+
+    @Nested
+    @DisplayName("lag-aware fallback")
+    class Fallback {
+
+        @Test
+        @DisplayName("should skip replicas lagging beyond the allowed lag")
+        void shouldSkipLaggingReplica() {
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            replicas.put("replica1", database("lagging", 30));
+            replicas.put("replica2", database("replica2", 0));
+            routing(replicas);
+
+            assertThat(target(true)).isEqualTo("replica2");
+            assertThat(target(true)).isEqualTo("replica2");
+        }
+
+        @Test
+        @DisplayName("should read from the primary when no replica is within the allowed lag or reachable")
+        void shouldFallBackToPrimary() throws SQLException {
+            DataSource unreachable = mock(DataSource.class);
+            when(unreachable.getConnection()).thenThrow(new SQLException("connection refused"));
+            Map<String, DataSource> replicas = new LinkedHashMap<>();
+            replicas.put("replica1", database("far-behind", 60));
+            replicas.put("replica2", unreachable);
+            routing(replicas);
+
+            assertThat(target(true)).isEqualTo("primary");
+            assertThat(routed("primary", "no-replica")).isEqualTo(1);
+            assertThat(meterRegistry.get("greenhouse.datasource.replica.lag").tag("replica", "replica2").gauge().value())
+                    .isNaN();
+        }
+
+        @Test
+        @DisplayName("should serve reads again once the replica catches up")
+        void shouldRestoreReplicaWhenCaughtUp() {
+            DataSource replica = database("catching-up", 60);
+            routing(Map.of("replica1", replica));
+            assertThat(target(true)).isEqualTo("primary");
+
+            new JdbcTemplate(replica).update("UPDATE replication_lag SET seconds = 0");
+            routing.checkLag();
+
+            assertThat(target(true)).isEqualTo("catching-up");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.greenhouse.events;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Environmental alert incident state change: a parameter's consecutive breaches form one incident, published when
+ * it is opened, when its severity escalates and when it is resolved.
+ * Topic: greenhouse-alerts
+ * Producer: Environnement service
+ * Consumers: Contrôle service, API Gateway (SSE)
+ *
+ * @param eventId        unique event identifier for idempotency
+ * @param mesureId       ID of the measurement that changed the incident state
+ * @param parametreId    ID of the associated parameter
+ * @param parametreType  type of parameter (TEMPERATURE, HUMIDITE, LUMINOSITE, CO2)
+ * @param valeur         measured value that changed the incident state
+ * @param seuilMin       minimum threshold
+ * @param seuilMax       maximum threshold
+ * @param dateMesure     timestamp of the measurement
+ * @param severity       highest severity the incident reached (LOW, MEDIUM, HIGH, CRITICAL)
+ * @param message        descriptive message about the alert
+ * @param greenhouseId   greenhouse the sensor belongs to, when known
+ * @param zoneId         zone of the greenhouse the sensor belongs to, when known
+ * @param incidentId     incident this state change belongs to
+ * @param incidentState  OPENED, ESCALATED or RESOLVED
+ * @param peakValeur     value farthest past the thresholds during the incident so far
+ * @param breachCount    measurements that breached during the incident so far
+ * @param openedAt       date of the measurement that opened the incident
+ * @param rule           alert rule that fired on the measurement (sustained-breach, rate-of-change,
+ *                       moving-average-deviation); null on RESOLVED
+ * @param direction      RISING or FALLING: the side of the band the value left by, or for a rule that fired within
+ *                       the thresholds, the way the value moved; null on RESOLVED
+ * @param eventTimestamp event creation timestamp
+ */
+@Builder(toBuilder = true)
+public record AlertEvent(
+        String eventId,
+        Long mesureId,
+        Long parametreId,
+        String parametreType,
+        Double valeur,
+        Double seuilMin,
+        Double seuilMax,
+        LocalDateTime dateMesure,
+        String severity,
+        String message,
+        String greenhouseId,
+        String zoneId,
+        String incidentId,
+        String incidentState,
+        Double peakValeur,
+        Long breachCount,
+        LocalDateTime openedAt,
+        String rule,
+        String direction,
+        LocalDateTime eventTimestamp) {
+
+    /**
+     * Schema registry subject of this event
+     */
+    public static final String SUBJECT = "alert-event";
+
+    public static final String OPENED = "OPENED";
+    public static final String ESCALATED = "ESCALATED";
+    public static final String RESOLVED = "RESOLVED";
+
+    public static final String RISING = "RISING";
+    public static final String FALLING = "FALLING";
+
+    public AlertEvent {
+        if (eventId == null) {
+            eventId = UUID.randomUUID().toString();
+        }
+        if (eventTimestamp == null) {
+            eventTimestamp = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Whether this event closes its incident, the parameter being back within its thresholds
+     */
+    public boolean resolvesIncident() {
+        return RESOLVED.equals(incidentState);
+    }
+
+    /**
+     * Whether the value is within the thresholds, i.e. a rule fired on how it moved rather than on where it is
+     */
+    public boolean withinThresholds() {
+        return valeur != null && seuilMin != null && seuilMax != null && valeur >= seuilMin && valeur <= seuilMax;
+    }
+
+    /**
+     * Whether the alert is on the high side: above the maximum, or within the thresholds and rising
+     */
+    public boolean highSide() {
+        if (withinThresholds()) {
+            return RISING.equals(direction);
+        }
+        return valeur != null && seuilMax != null && valeur > seuilMax;
+    }
+
+    /**
+     * Threshold that was crossed, or is being approached: the maximum on the high side, the minimum otherwise
+     */
+    public Double violatedThreshold() {
+        return highSide() ? seuilMax : seuilMin;
+    }
+
+    /**
+     * Kafka key: greenhouse and parameter, so events of one parameter stay ordered
+     */
+    public String partitionKey() {
+        return PartitionKeys.of(greenhouseId, parametreId);
+    }
+}
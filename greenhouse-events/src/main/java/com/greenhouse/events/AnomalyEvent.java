@@ -0,0 +1,62 @@
+package com.greenhouse.events;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Measurement deviating from the recent behaviour of its sensor, whatever its thresholds.
+ * Topic: greenhouse-anomalies
+ * Producer: Environnement service
+ * Consumers: dashboards, analytics
+ *
+ * @param eventId        unique event identifier for idempotency
+ * @param mesureId       ID of the anomalous measurement
+ * @param parametreId    ID of the associated parameter
+ * @param parametreType  type of parameter (TEMPERATURE, HUMIDITE, LUMINOSITE, CO2)
+ * @param valeur         measured value
+ * @param expected       value expected from the sensor's recent measurements (moving mean)
+ * @param deviation      usual spread of the sensor's measurements (moving standard deviation)
+ * @param score          distance between the value and the expected one, in deviations
+ * @param dateMesure     timestamp of the measurement
+ * @param greenhouseId   greenhouse the sensor belongs to, when known
+ * @param zoneId         zone of the greenhouse the sensor belongs to, when known
+ * @param eventTimestamp event creation timestamp
+ */
+@Builder(toBuilder = true)
+public record AnomalyEvent(
+        String eventId,
+        Long mesureId,
+        Long parametreId,
+        String parametreType,
+        Double valeur,
+        Double expected,
+        Double deviation,
+        Double score,
+        LocalDateTime dateMesure,
+        String greenhouseId,
+        String zoneId,
+        LocalDateTime eventTimestamp) {
+
+    /**
+     * Schema registry subject of this event
+     */
+    public static final String SUBJECT = "anomaly-event";
+
+    public AnomalyEvent {
+        if (eventId == null) {
+            eventId = UUID.randomUUID().toString();
+        }
+        if (eventTimestamp == null) {
+            eventTimestamp = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Kafka key: greenhouse and parameter, so events of one parameter stay ordered
+     */
+    public String partitionKey() {
+        return PartitionKeys.of(greenhouseId, parametreId);
+    }
+}
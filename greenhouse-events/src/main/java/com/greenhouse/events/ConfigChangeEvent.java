@@ -0,0 +1,50 @@
+package com.greenhouse.events;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Configuration change notification, published when a parameter or an equipment is created or updated.
+ * Topic: config-changes
+ * Producers: Environnement service (parameters), Contrôle service (equipment)
+ * Consumers: API Gateway (response cache invalidation)
+ *
+ * @param eventId        unique event identifier for idempotency
+ * @param entityType     changed entity (PARAMETRE, EQUIPEMENT)
+ * @param entityId       ID of the changed entity
+ * @param changeType     kind of change (CREATED, UPDATED, DELETED)
+ * @param greenhouseId   greenhouse the entity belongs to, when known
+ * @param eventTimestamp event creation timestamp
+ */
+@Builder(toBuilder = true)
+public record ConfigChangeEvent(
+        String eventId,
+        String entityType,
+        Long entityId,
+        String changeType,
+        String greenhouseId,
+        LocalDateTime eventTimestamp) {
+
+    /**
+     * Schema registry subject of this event
+     */
+    public static final String SUBJECT = "config-change-event";
+
+    public static final String PARAMETRE = "PARAMETRE";
+    public static final String EQUIPEMENT = "EQUIPEMENT";
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    public ConfigChangeEvent {
+        if (eventId == null) {
+            eventId = UUID.randomUUID().toString();
+        }
+        if (eventTimestamp == null) {
+            eventTimestamp = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.greenhouse.events;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Equipment action notification.
+ * Topic: equipment-actions
+ * Producer: Contrôle service
+ * Consumers: API Gateway (SSE), notifications
+ *
+ * @param eventId        unique event identifier for idempotency
+ * @param equipementId   ID of the equipment
+ * @param equipementName equipment name
+ * @param equipementType equipment type (VENTILATEUR, POMPE, CHAUFFAGE, ECLAIRAGE)
+ * @param actionId       ID of the action
+ * @param typeAction     action type (ACTIVER, DESACTIVER, AJUSTER)
+ * @param statut         action status (EN_ATTENTE, EXECUTEE, ECHOUEE)
+ * @param valeurCible    target value
+ * @param valeurActuelle value measured when the action was created
+ * @param parametreId    ID of the parameter the action corrects
+ * @param dateExecution  execution timestamp
+ * @param resultat       execution result message
+ * @param isAutomatic    whether the action was triggered by an alert
+ * @param greenhouseId   greenhouse the equipment belongs to, when known
+ * @param zoneId         zone of the greenhouse the equipment belongs to, when known
+ * @param eventTimestamp event creation timestamp
+ */
+@Builder(toBuilder = true)
+public record EquipmentActionEvent(
+        String eventId,
+        Long equipementId,
+        String equipementName,
+        String equipementType,
+        Long actionId,
+        String typeAction,
+        String statut,
+        Double valeurCible,
+        Double valeurActuelle,
+        Long parametreId,
+        LocalDateTime dateExecution,
+        String resultat,
+        Boolean isAutomatic,
+        String greenhouseId,
+        String zoneId,
+        LocalDateTime eventTimestamp) {
+
+    /**
+     * Schema registry subject of this event
+     */
+    public static final String SUBJECT = "equipment-action-event";
+
+    public EquipmentActionEvent {
+        if (eventId == null) {
+            eventId = UUID.randomUUID().toString();
+        }
+        if (eventTimestamp == null) {
+            eventTimestamp = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Kafka key: greenhouse and equipment, so events of one equipment stay ordered
+     */
+    public String partitionKey() {
+        return PartitionKeys.of(greenhouseId, equipementId);
+    }
+}
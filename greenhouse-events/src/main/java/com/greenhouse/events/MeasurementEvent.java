@@ -0,0 +1,66 @@
+package com.greenhouse.events;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Real-time sensor measurement.
+ * Topic: measurement-stream
+ * Producer: Environnement service
+ * Consumers: API Gateway (SSE), analytics
+ *
+ * @param eventId        unique event identifier for idempotency
+ * @param mesureId       ID of the measurement record
+ * @param parametreId    ID of the associated parameter
+ * @param parametreType  type of parameter (TEMPERATURE, HUMIDITE, LUMINOSITE, CO2)
+ * @param parametreName  parameter display name
+ * @param valeur         measured value
+ * @param unite          unit of measurement
+ * @param seuilMin       minimum threshold
+ * @param seuilMax       maximum threshold
+ * @param isAlert        whether the value is outside the thresholds
+ * @param dateMesure     timestamp of the measurement
+ * @param greenhouseId   greenhouse the sensor belongs to, when known
+ * @param zoneId         zone of the greenhouse the sensor belongs to, when known
+ * @param eventTimestamp event creation timestamp
+ */
+@Builder(toBuilder = true)
+public record MeasurementEvent(
+        String eventId,
+        Long mesureId,
+        Long parametreId,
+        String parametreType,
+        String parametreName,
+        Double valeur,
+        String unite,
+        Double seuilMin,
+        Double seuilMax,
+        Boolean isAlert,
+        LocalDateTime dateMesure,
+        String greenhouseId,
+        String zoneId,
+        LocalDateTime eventTimestamp) {
+
+    /**
+     * Schema registry subject of this event
+     */
+    public static final String SUBJECT = "measurement-event";
+
+    public MeasurementEvent {
+        if (eventId == null) {
+            eventId = UUID.randomUUID().toString();
+        }
+        if (eventTimestamp == null) {
+            eventTimestamp = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Kafka key: greenhouse and parameter, so events of one parameter stay ordered
+     */
+    public String partitionKey() {
+        return PartitionKeys.of(greenhouseId, parametreId);
+    }
+}
@@ -0,0 +1,71 @@
+package com.greenhouse.events;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Aggregate of the measurements of one parameter over a closed time window.
+ * Topic: measurement-summaries
+ * Producer: Measurement analytics
+ * Consumers: dashboards, reporting
+ *
+ * @param eventId        unique event identifier for idempotency
+ * @param parametreId    ID of the parameter
+ * @param parametreType  type of parameter (TEMPERATURE, HUMIDITE, LUMINOSITE, CO2)
+ * @param unite          unit of measurement
+ * @param windowType     TUMBLING or HOPPING
+ * @param windowStart    start of the window, inclusive
+ * @param windowEnd      end of the window, exclusive
+ * @param count          number of measurements in the window
+ * @param min            lowest measured value
+ * @param max            highest measured value
+ * @param mean           average measured value
+ * @param alerts         measurements outside the thresholds
+ * @param greenhouseId   greenhouse the sensor belongs to, when known
+ * @param zoneId         zone of the greenhouse the sensor belongs to, when known
+ * @param eventTimestamp event creation timestamp
+ */
+@Builder(toBuilder = true)
+public record MeasurementSummaryEvent(
+        String eventId,
+        Long parametreId,
+        String parametreType,
+        String unite,
+        String windowType,
+        LocalDateTime windowStart,
+        LocalDateTime windowEnd,
+        Long count,
+        Double min,
+        Double max,
+        Double mean,
+        Long alerts,
+        String greenhouseId,
+        String zoneId,
+        LocalDateTime eventTimestamp) {
+
+    /**
+     * Schema registry subject of this event
+     */
+    public static final String SUBJECT = "measurement-summary-event";
+
+    public static final String TUMBLING = "TUMBLING";
+    public static final String HOPPING = "HOPPING";
+
+    public MeasurementSummaryEvent {
+        if (eventId == null) {
+            eventId = UUID.randomUUID().toString();
+        }
+        if (eventTimestamp == null) {
+            eventTimestamp = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Kafka key: greenhouse and parameter, the key of the measurements summarized
+     */
+    public String partitionKey() {
+        return PartitionKeys.of(greenhouseId, parametreId);
+    }
+}
@@ -0,0 +1,28 @@
+package com.greenhouse.events;
+
+/**
+ * Kafka message keys scoped by greenhouse.
+ *
+ * Keys are {@code greenhouseId:entityId}: events of one entity stay ordered on one partition while the same
+ * parameter of different greenhouses spreads over the topic. Events without a greenhouse fall in
+ * {@value #DEFAULT_GREENHOUSE}.
+ */
+public final class PartitionKeys {
+
+    /**
+     * Greenhouse of entities created before greenhouse scoping, or without an explicit one
+     */
+    public static final String DEFAULT_GREENHOUSE = "default";
+
+    /**
+     * Zone of entities created before zone scoping, or without an explicit one
+     */
+    public static final String DEFAULT_ZONE = "default";
+
+    private PartitionKeys() {
+    }
+
+    public static String of(String greenhouseId, Object entityId) {
+        return (greenhouseId != null ? greenhouseId : DEFAULT_GREENHOUSE) + ':' + entityId;
+    }
+}
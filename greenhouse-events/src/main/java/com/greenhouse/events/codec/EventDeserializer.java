@@ -0,0 +1,45 @@
+package com.greenhouse.events.codec;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka deserializer selecting the codec from the record content-type header.
+ * Records without the header are decoded as JSON.
+ */
+public class EventDeserializer<T> implements Deserializer<T> {
+
+    private final ObjectReader jsonReader;
+    private final ObjectReader cborReader;
+
+    public EventDeserializer(Class<T> targetType) {
+        this.jsonReader = EventMappers.forFormat(WireFormat.JSON).readerFor(targetType);
+        this.cborReader = EventMappers.forFormat(WireFormat.CBOR).readerFor(targetType);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return decode(topic, WireFormat.JSON, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        WireFormat format = WireFormat.fromContentType(EventHeaders.lastValue(headers, EventHeaders.CONTENT_TYPE));
+        return decode(topic, format, data);
+    }
+
+    private T decode(String topic, WireFormat format, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return (format == WireFormat.CBOR ? cborReader : jsonReader).readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize " + format + " event from topic " + topic, e);
+        }
+    }
+}
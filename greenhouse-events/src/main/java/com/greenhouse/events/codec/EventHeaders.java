@@ -0,0 +1,32 @@
+package com.greenhouse.events.codec;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kafka record header names used by the event codec layer
+ */
+public final class EventHeaders {
+
+    public static final String CONTENT_TYPE = "content-type";
+    public static final String SCHEMA_SUBJECT = "x-schema-subject";
+    public static final String SCHEMA_VERSION = "x-schema-version";
+
+    private EventHeaders() {
+    }
+
+    public static String lastValue(Headers headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        Header header = headers.lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    static void replace(Headers headers, String name, String value) {
+        headers.remove(name);
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
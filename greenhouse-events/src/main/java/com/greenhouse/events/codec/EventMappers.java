@@ -0,0 +1,32 @@
+package com.greenhouse.events.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Shared, thread-safe Jackson mappers for each wire format.
+ * Mappers are expensive to build, so they are created once per JVM.
+ */
+public final class EventMappers {
+
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    // Dates stay numeric in CBOR: a LocalDateTime becomes a small int array instead of a 26 char string
+    private static final ObjectMapper CBOR = CBORMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private EventMappers() {
+    }
+
+    public static ObjectMapper forFormat(WireFormat format) {
+        return format == WireFormat.CBOR ? CBOR : JSON;
+    }
+}
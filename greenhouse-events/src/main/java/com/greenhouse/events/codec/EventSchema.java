@@ -0,0 +1,13 @@
+package com.greenhouse.events.codec;
+
+import java.util.List;
+
+/**
+ * One version of an event schema, as declared in the schema registry directory.
+ *
+ * @param subject logical event name (e.g. {@code alert-event})
+ * @param version monotonically increasing schema version
+ * @param fields  field names carried by this version
+ */
+public record EventSchema(String subject, int version, List<String> fields) {
+}
@@ -0,0 +1,88 @@
+package com.greenhouse.events.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * File-based stand-in for a schema registry.
+ * Loads every {@code *.json} schema descriptor below the configured location
+ * (classpath or filesystem) and keeps the latest version per subject.
+ */
+@Slf4j
+public class EventSchemaRegistry {
+
+    /**
+     * Schemas shipped inside the greenhouse-events jar
+     */
+    public static final String DEFAULT_LOCATION = "classpath*:schemas/";
+
+    private final Map<String, EventSchema> latestBySubject = new HashMap<>();
+
+    public EventSchemaRegistry(String location) {
+        String pattern = (location.endsWith("/") ? location : location + "/") + "**/*.json";
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(pattern);
+            ObjectMapper mapper = EventMappers.forFormat(WireFormat.JSON);
+            for (Resource resource : resources) {
+                try (InputStream in = resource.getInputStream()) {
+                    register(mapper.readValue(in, EventSchema.class));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load event schemas from " + location, e);
+        }
+        log.info("Event schema registry loaded from '{}': {}", location, latestBySubject.keySet());
+    }
+
+    private void register(EventSchema schema) {
+        latestBySubject.merge(schema.subject(), schema,
+                (current, candidate) -> candidate.version() > current.version() ? candidate : current);
+    }
+
+    /**
+     * Latest registered schema for a subject
+     */
+    public EventSchema latest(String subject) {
+        EventSchema schema = latestBySubject.get(subject);
+        if (schema == null) {
+            throw new IllegalArgumentException("No schema registered for subject: " + subject);
+        }
+        return schema;
+    }
+
+    /**
+     * Fail fast when an event class no longer matches the latest registered schema,
+     * so a field rename cannot reach the topic without a version bump.
+     */
+    public EventSchema verify(String subject, Class<?> eventType) {
+        EventSchema schema = latest(subject);
+        ObjectMapper mapper = EventMappers.forFormat(WireFormat.JSON);
+        JavaType javaType = mapper.constructType(eventType);
+        Set<String> properties = mapper.getSerializationConfig().introspect(javaType).findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toSet());
+        Set<String> declared = Set.copyOf(schema.fields());
+        if (!properties.equals(declared)) {
+            throw new IllegalStateException(String.format(
+                    "Event %s does not match schema %s v%d: class fields=%s, schema fields=%s",
+                    eventType.getSimpleName(), subject, schema.version(), properties, declared));
+        }
+        return schema;
+    }
+
+    public List<EventSchema> all() {
+        return List.copyOf(latestBySubject.values());
+    }
+}
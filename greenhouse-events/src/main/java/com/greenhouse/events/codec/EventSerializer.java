@@ -0,0 +1,48 @@
+package com.greenhouse.events.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing events in the configured wire format.
+ * Every record carries content-type, schema subject and schema version headers.
+ */
+public class EventSerializer<T> implements Serializer<T> {
+
+    private final WireFormat format;
+    private final ObjectWriter writer;
+    private final EventSchema schema;
+
+    public EventSerializer(WireFormat format, EventSchema schema) {
+        this.format = format;
+        this.writer = EventMappers.forFormat(format).writer();
+        this.schema = schema;
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return writer.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Can't serialize " + schema.subject() + " for topic " + topic, e);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        EventHeaders.replace(headers, EventHeaders.CONTENT_TYPE, format.getContentType());
+        EventHeaders.replace(headers, EventHeaders.SCHEMA_SUBJECT, schema.subject());
+        EventHeaders.replace(headers, EventHeaders.SCHEMA_VERSION, Integer.toString(schema.version()));
+        return serialize(topic, data);
+    }
+
+    public WireFormat getFormat() {
+        return format;
+    }
+}
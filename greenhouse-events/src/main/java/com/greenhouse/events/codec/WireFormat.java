@@ -0,0 +1,49 @@
+package com.greenhouse.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Wire formats supported for inter-service Kafka events.
+ * The format is announced on every record through the {@code content-type} header,
+ * so consumers can decode both formats during a rolling switch.
+ */
+public enum WireFormat {
+
+    /**
+     * Human-readable JSON, kept for debugging with console consumers
+     */
+    JSON("application/json"),
+
+    /**
+     * Compact binary encoding (RFC 8949)
+     */
+    CBOR("application/cbor");
+
+    private final String contentType;
+
+    WireFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Resolve a wire format from a content-type header value.
+     * Records without the header were produced before the codec layer existed and are JSON.
+     *
+     * @throws SerializationException for any other content type, so that the record is handled as undecodable
+     */
+    public static WireFormat fromContentType(String contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        for (WireFormat format : values()) {
+            if (format.contentType.equalsIgnoreCase(contentType)) {
+                return format;
+            }
+        }
+        throw new SerializationException("Unsupported event content type: " + contentType);
+    }
+}
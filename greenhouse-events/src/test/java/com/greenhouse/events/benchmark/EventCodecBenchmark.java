@@ -0,0 +1,98 @@
+package com.greenhouse.events.benchmark;
+
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.codec.EventDeserializer;
+import com.greenhouse.events.codec.EventSchema;
+import com.greenhouse.events.codec.EventSerializer;
+import com.greenhouse.events.codec.WireFormat;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost and payload size of a measurement event per wire format.
+ * Run with: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.greenhouse.events.benchmark.EventCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    private static final String TOPIC = "measurement-stream";
+
+    @Param({"JSON", "CBOR"})
+    private WireFormat format;
+
+    private MeasurementEvent event;
+    private EventSerializer<MeasurementEvent> serializer;
+    private EventDeserializer<MeasurementEvent> deserializer;
+    private Headers headers;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        event = sampleEvent();
+        serializer = new EventSerializer<>(format, new EventSchema(MeasurementEvent.SUBJECT, 2, List.of()));
+        deserializer = new EventDeserializer<>(MeasurementEvent.class);
+        headers = new RecordHeaders();
+        payload = serializer.serialize(TOPIC, headers, event);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public MeasurementEvent deserialize() {
+        return deserializer.deserialize(TOPIC, headers, payload);
+    }
+
+    static MeasurementEvent sampleEvent() {
+        return MeasurementEvent.builder()
+                .mesureId(123456L)
+                .parametreId(3L)
+                .parametreType("TEMPERATURE")
+                .parametreName("Température serre nord")
+                .valeur(23.47)
+                .unite("°C")
+                .seuilMin(15.0)
+                .seuilMax(30.0)
+                .isAlert(false)
+                .dateMesure(LocalDateTime.of(2024, 1, 15, 10, 30, 12))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        EventSchema schema = new EventSchema(MeasurementEvent.SUBJECT, 2, List.of());
+        MeasurementEvent event = sampleEvent();
+        for (WireFormat format : WireFormat.values()) {
+            int size = new EventSerializer<MeasurementEvent>(format, schema).serialize(TOPIC, event).length;
+            System.out.printf("%s payload: %d bytes/event%n", format, size);
+        }
+        new Runner(new OptionsBuilder()
+                .include(EventCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,169 @@
+package com.greenhouse.events.codec;
+
+import com.greenhouse.events.AlertEvent;
+import com.greenhouse.events.AnomalyEvent;
+import com.greenhouse.events.ConfigChangeEvent;
+import com.greenhouse.events.EquipmentActionEvent;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.MeasurementSummaryEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Event codec Unit Tests")
+class EventCodecTest {
+
+    private static final String TOPIC = "measurement-stream";
+
+    private EventSchemaRegistry registry;
+    private MeasurementEvent event;
+
+    @BeforeEach
+    void setUp() {
+        registry = new EventSchemaRegistry(EventSchemaRegistry.DEFAULT_LOCATION);
+        event = MeasurementEvent.builder()
+                .mesureId(42L)
+                .parametreId(1L)
+                .parametreType("TEMPERATURE")
+                .parametreName("Température serre")
+                .valeur(23.5)
+                .unite("°C")
+                .seuilMin(15.0)
+                .seuilMax(30.0)
+                .isAlert(false)
+                .dateMesure(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Round trip")
+    class RoundTrip {
+
+        @ParameterizedTest
+        @EnumSource(WireFormat.class)
+        @DisplayName("Should decode what was encoded in each wire format")
+        void shouldRoundTrip(WireFormat format) {
+            EventSerializer<MeasurementEvent> serializer =
+                    new EventSerializer<>(format, registry.latest(MeasurementEvent.SUBJECT));
+            Headers headers = new RecordHeaders();
+
+            byte[] payload = serializer.serialize(TOPIC, headers, event);
+            MeasurementEvent decoded = new EventDeserializer<>(MeasurementEvent.class)
+                    .deserialize(TOPIC, headers, payload);
+
+            assertThat(decoded).isEqualTo(event);
+        }
+
+        @Test
+        @DisplayName("Should stamp content-type and schema headers")
+        void shouldStampHeaders() {
+            EventSerializer<MeasurementEvent> serializer =
+                    new EventSerializer<>(WireFormat.CBOR, registry.latest(MeasurementEvent.SUBJECT));
+            Headers headers = new RecordHeaders();
+
+            serializer.serialize(TOPIC, headers, event);
+
+            assertThat(EventHeaders.lastValue(headers, EventHeaders.CONTENT_TYPE)).isEqualTo("application/cbor");
+            assertThat(EventHeaders.lastValue(headers, EventHeaders.SCHEMA_SUBJECT)).isEqualTo(MeasurementEvent.SUBJECT);
+            assertThat(EventHeaders.lastValue(headers, EventHeaders.SCHEMA_VERSION)).isEqualTo("3");
+        }
+
+        @Test
+        @DisplayName("Should default event id and timestamp on decoded records")
+        void shouldDefaultIdentity() {
+            byte[] json = "{\"mesureId\":42}".getBytes(StandardCharsets.UTF_8);
+
+            MeasurementEvent decoded = new EventDeserializer<>(MeasurementEvent.class)
+                    .deserialize(TOPIC, new RecordHeaders(), json);
+
+            assertThat(decoded.eventId()).isNotBlank();
+            assertThat(decoded.eventTimestamp()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("Should decode legacy JSON records without headers")
+        void shouldDecodeLegacyJson() {
+            byte[] json = ("{\"mesureId\":42,\"valeur\":23.5,\"dateMesure\":\"2024-01-15T10:30:00\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+
+            MeasurementEvent decoded = new EventDeserializer<>(MeasurementEvent.class)
+                    .deserialize(TOPIC, new RecordHeaders(), json);
+
+            assertThat(decoded.mesureId()).isEqualTo(42L);
+            assertThat(decoded.valeur()).isEqualTo(23.5);
+        }
+
+        @Test
+        @DisplayName("CBOR payload should be smaller than JSON")
+        void cborShouldBeSmallerThanJson() {
+            EventSchema schema = registry.latest(MeasurementEvent.SUBJECT);
+            byte[] json = new EventSerializer<MeasurementEvent>(WireFormat.JSON, schema).serialize(TOPIC, event);
+            byte[] cbor = new EventSerializer<MeasurementEvent>(WireFormat.CBOR, schema).serialize(TOPIC, event);
+
+            assertThat(cbor.length).isLessThan(json.length);
+        }
+
+        @Test
+        @DisplayName("Should reject an unknown content type as undecodable")
+        void shouldRejectUnknownContentType() {
+            Headers headers = new RecordHeaders();
+            headers.add(EventHeaders.CONTENT_TYPE, "application/avro".getBytes(StandardCharsets.UTF_8));
+            byte[] json = "{\"mesureId\":42}".getBytes(StandardCharsets.UTF_8);
+
+            assertThatThrownBy(() -> new EventDeserializer<>(MeasurementEvent.class).deserialize(TOPIC, headers, json))
+                    .isInstanceOf(SerializationException.class)
+                    .hasMessageContaining("application/avro");
+        }
+    }
+
+    @Nested
+    @DisplayName("Schema registry")
+    class SchemaRegistry {
+
+        @Test
+        @DisplayName("Should accept event classes matching their schema")
+        void shouldVerifyMatchingClasses() {
+            assertThat(registry.verify(AlertEvent.SUBJECT, AlertEvent.class).version()).isEqualTo(5);
+            assertThat(registry.verify(MeasurementEvent.SUBJECT, MeasurementEvent.class).version()).isEqualTo(3);
+            assertThat(registry.verify(EquipmentActionEvent.SUBJECT, EquipmentActionEvent.class).version()).isEqualTo(3);
+            assertThat(registry.verify(ConfigChangeEvent.SUBJECT, ConfigChangeEvent.class).version()).isEqualTo(1);
+            assertThat(registry.verify(AnomalyEvent.SUBJECT, AnomalyEvent.class).version()).isEqualTo(1);
+            assertThat(registry.verify(MeasurementSummaryEvent.SUBJECT, MeasurementSummaryEvent.class).version())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should reject event classes drifting from their schema")
+        void shouldRejectDrift() {
+            assertThatThrownBy(() -> registry.verify(AlertEvent.SUBJECT, MeasurementEvent.class))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("alert-event");
+        }
+
+        @Test
+        @DisplayName("Should fail on unknown subject")
+        void shouldFailOnUnknownSubject() {
+            assertThatThrownBy(() -> registry.latest("unknown"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should load every schema below the location")
+        void shouldLoadAll() {
+            assertThat(registry.all()).extracting(EventSchema::subject)
+                    .containsExactlyInAnyOrder(AlertEvent.SUBJECT, MeasurementEvent.SUBJECT, EquipmentActionEvent.SUBJECT,
+                            ConfigChangeEvent.SUBJECT, AnomalyEvent.SUBJECT, MeasurementSummaryEvent.SUBJECT);
+        }
+    }
+}
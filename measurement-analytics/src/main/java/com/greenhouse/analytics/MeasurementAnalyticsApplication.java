@@ -0,0 +1,13 @@
+package com.greenhouse.analytics;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+
+@SpringBootApplication
+@EnableDiscoveryClient
+public class MeasurementAnalyticsApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(MeasurementAnalyticsApplication.class, args);
+    }
+}
@@ -0,0 +1,52 @@
+package com.greenhouse.analytics.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * Windows aggregated per parameter from the measurement stream, and their state stores
+ */
+@Component
+@ConfigurationProperties(prefix = "analytics")
+@Data
+public class AnalyticsProperties {
+
+    private Duration tumblingWindow = Duration.ofMinutes(1);
+
+    private Duration hoppingWindow = Duration.ofMinutes(15);
+
+    private Duration hoppingAdvance = Duration.ofMinutes(1);
+
+    /**
+     * How late a measurement may arrive and still be counted in its window; summaries are published once it
+     * has passed
+     */
+    private Duration grace = Duration.ofSeconds(30);
+
+    /**
+     * How long windows stay queryable
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    private StoreType storeType = StoreType.ROCKSDB;
+
+    /**
+     * Time zone of the measurement dates, which carry none
+     */
+    private ZoneId zone = ZoneId.systemDefault();
+
+    public enum StoreType {
+        /**
+         * Persistent local stores, restored from disk then from their changelog
+         */
+        ROCKSDB,
+        /**
+         * Heap stores, rebuilt from their changelog on every start
+         */
+        IN_MEMORY
+    }
+}
@@ -0,0 +1,80 @@
+package com.greenhouse.analytics.config;
+
+import com.greenhouse.analytics.stream.AnalyticsSerdes;
+import com.greenhouse.analytics.stream.MeasurementAnalyticsTopology;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.MeasurementSummaryEvent;
+import com.greenhouse.events.codec.EventSchemaRegistry;
+import com.greenhouse.events.codec.WireFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Kafka Streams configuration of the analytics topology.
+ *
+ * Streams settings (application id, state directory, {@code application.server} for interactive queries) come
+ * from {@code spring.kafka.streams}; the topology is defined on the builder Spring Kafka creates from them.
+ */
+@Configuration
+@EnableKafkaStreams
+@Slf4j
+public class KafkaStreamsConfig {
+
+    @Value("${kafka.topic.measurement-stream}")
+    private String measurementTopic;
+
+    @Value("${kafka.topic.measurement-summaries}")
+    private String summariesTopic;
+
+    @Value("${kafka.topic.partitions:3}")
+    private int partitions;
+
+    @Value("${kafka.topic.replication-factor:1}")
+    private int replicationFactor;
+
+    @Value("${kafka.wire-format:json}")
+    private WireFormat wireFormat;
+
+    @Value("${kafka.schema-registry.location:classpath*:schemas/}")
+    private String schemaRegistryLocation;
+
+    /**
+     * File-based schema registry used to stamp and verify event schema versions
+     */
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry() {
+        return new EventSchemaRegistry(schemaRegistryLocation);
+    }
+
+    @Bean
+    public MeasurementAnalyticsTopology measurementAnalyticsTopology(StreamsBuilder streamsBuilder,
+                                                                     AnalyticsProperties properties,
+                                                                     EventSchemaRegistry registry) {
+        MeasurementAnalyticsTopology topology = new MeasurementAnalyticsTopology(properties,
+                AnalyticsSerdes.event(MeasurementEvent.class, MeasurementEvent.SUBJECT, wireFormat, registry),
+                AnalyticsSerdes.event(MeasurementSummaryEvent.class, MeasurementSummaryEvent.SUBJECT, wireFormat,
+                        registry));
+        topology.define(streamsBuilder, measurementTopic, summariesTopic);
+        log.info("Measurement analytics topology defined: {} -> {} ({} stores)", measurementTopic, summariesTopic,
+                properties.getStoreType());
+        return topology;
+    }
+
+    /**
+     * Topic of the closed window summaries, keyed like the measurements
+     */
+    @Bean
+    public NewTopic measurementSummariesTopic() {
+        return TopicBuilder.name(summariesTopic)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .config("retention.ms", "2592000000") // 30 days
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.greenhouse.analytics.controller;
+
+import com.greenhouse.analytics.dto.WindowSummaryResponse;
+import com.greenhouse.analytics.service.AnalyticsQueryService;
+import com.greenhouse.analytics.stream.MeasurementAnalyticsTopology;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.streams.state.HostInfo;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Window summaries of a parameter, served from the state stores of the analytics topology
+ */
+@RestController
+@RequestMapping("/api/analytics/{greenhouseId}/parametres/{parametreId}")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsQueryService analyticsQueryService;
+
+    @GetMapping("/tumbling")
+    public ResponseEntity<List<WindowSummaryResponse>> getTumblingWindows(
+            @PathVariable String greenhouseId,
+            @PathVariable Long parametreId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+        return windows(greenhouseId, parametreId, MeasurementAnalyticsTopology.TUMBLING_STORE, from, to, request);
+    }
+
+    @GetMapping("/hopping")
+    public ResponseEntity<List<WindowSummaryResponse>> getHoppingWindows(
+            @PathVariable String greenhouseId,
+            @PathVariable Long parametreId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request) {
+        return windows(greenhouseId, parametreId, MeasurementAnalyticsTopology.HOPPING_STORE, from, to, request);
+    }
+
+    private ResponseEntity<List<WindowSummaryResponse>> windows(String greenhouseId, Long parametreId,
+                                                                String storeName, LocalDateTime from,
+                                                                LocalDateTime to, HttpServletRequest request) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        HostInfo owner = analyticsQueryService.ownerOf(greenhouseId, parametreId, storeName);
+        if (owner != null) {
+            // Another instance owns the partition of this parameter: send the client there
+            String location = UriComponentsBuilder.fromHttpUrl(request.getRequestURL().toString())
+                    .query(request.getQueryString())
+                    .host(owner.host())
+                    .port(owner.port())
+                    .toUriString();
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                    .header(HttpHeaders.LOCATION, location)
+                    .build();
+        }
+        return ResponseEntity.ok(analyticsQueryService.findWindows(greenhouseId, parametreId, storeName, from, to));
+    }
+
+    @ExceptionHandler(AnalyticsQueryService.StoreUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleStoreUnavailable(
+            AnalyticsQueryService.StoreUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("message", ex.getMessage()));
+    }
+}
@@ -0,0 +1,30 @@
+package com.greenhouse.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of one parameter over one window, as currently held in the window store: windows still open are
+ * partial
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WindowSummaryResponse {
+
+    private Long parametreId;
+    private String parametreType;
+    private String unite;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private Long count;
+    private Double min;
+    private Double max;
+    private Double mean;
+    private Long alerts;
+}
@@ -0,0 +1,123 @@
+package com.greenhouse.analytics.service;
+
+import com.greenhouse.analytics.config.AnalyticsProperties;
+import com.greenhouse.analytics.dto.WindowSummaryResponse;
+import com.greenhouse.analytics.stream.MeasurementAggregate;
+import com.greenhouse.analytics.stream.MeasurementAnalyticsTopology;
+import com.greenhouse.events.PartitionKeys;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads window summaries from the local state stores.
+ *
+ * A parameter's windows live on the instance owning its partition; {@link #ownerOf} tells the caller where to go
+ * when that is another instance.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsQueryService {
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final AnalyticsProperties properties;
+
+    @Value("${spring.kafka.streams.properties.application.server:}")
+    private String applicationServer;
+
+    /**
+     * Instance holding the windows of the parameter, or null when it is this one
+     *
+     * @throws StoreUnavailableException while the streams are not running, e.g. during a rebalance
+     */
+    public HostInfo ownerOf(String greenhouseId, Long parametreId, String storeName) {
+        if (applicationServer.isBlank()) {
+            return null;
+        }
+        KeyQueryMetadata metadata = streams().queryMetadataForKey(storeName,
+                PartitionKeys.of(greenhouseId, parametreId), Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new StoreUnavailableException(storeName);
+        }
+        HostInfo owner = metadata.activeHost();
+        return HostInfo.buildFromEndpoint(applicationServer).equals(owner) ? null : owner;
+    }
+
+    /**
+     * Windows of the parameter starting between the two dates, oldest first
+     *
+     * @throws StoreUnavailableException while the store is not queryable on this instance
+     */
+    public List<WindowSummaryResponse> findWindows(String greenhouseId, Long parametreId, String storeName,
+                                                   LocalDateTime from, LocalDateTime to) {
+        ReadOnlyWindowStore<String, MeasurementAggregate> store;
+        try {
+            store = streams().store(StoreQueryParameters.fromNameAndType(storeName,
+                    QueryableStoreTypes.<String, MeasurementAggregate>windowStore()));
+        } catch (InvalidStateStoreException e) {
+            throw new StoreUnavailableException(storeName);
+        }
+
+        long windowSize = MeasurementAnalyticsTopology.TUMBLING_STORE.equals(storeName)
+                ? properties.getTumblingWindow().toMillis()
+                : properties.getHoppingWindow().toMillis();
+        List<WindowSummaryResponse> windows = new ArrayList<>();
+        try (WindowStoreIterator<MeasurementAggregate> iterator = store.fetch(PartitionKeys.of(greenhouseId,
+                parametreId), toInstant(from), toInstant(to))) {
+            iterator.forEachRemaining(entry -> windows.add(toResponse(entry.key, entry.key + windowSize,
+                    entry.value)));
+        }
+        return windows;
+    }
+
+    private KafkaStreams streams() {
+        KafkaStreams streams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (streams == null || streams.state() != KafkaStreams.State.RUNNING) {
+            throw new StoreUnavailableException("streams");
+        }
+        return streams;
+    }
+
+    private Instant toInstant(LocalDateTime date) {
+        return date.atZone(properties.getZone()).toInstant();
+    }
+
+    private WindowSummaryResponse toResponse(long start, long end, MeasurementAggregate aggregate) {
+        return WindowSummaryResponse.builder()
+                .parametreId(aggregate.getParametreId())
+                .parametreType(aggregate.getParametreType())
+                .unite(aggregate.getUnite())
+                .windowStart(LocalDateTime.ofInstant(Instant.ofEpochMilli(start), properties.getZone()))
+                .windowEnd(LocalDateTime.ofInstant(Instant.ofEpochMilli(end), properties.getZone()))
+                .count(aggregate.getCount())
+                .min(aggregate.getMin())
+                .max(aggregate.getMax())
+                .mean(aggregate.mean())
+                .alerts(aggregate.getAlerts())
+                .build();
+    }
+
+    /**
+     * The state store can't be queried right now; the caller should retry shortly
+     */
+    public static class StoreUnavailableException extends RuntimeException {
+        public StoreUnavailableException(String storeName) {
+            super("State store " + storeName + " is not available, retry shortly");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.greenhouse.analytics.stream;
+
+import com.greenhouse.events.codec.EventDeserializer;
+import com.greenhouse.events.codec.EventMappers;
+import com.greenhouse.events.codec.EventSchemaRegistry;
+import com.greenhouse.events.codec.EventSerializer;
+import com.greenhouse.events.codec.WireFormat;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+
+import java.io.IOException;
+
+/**
+ * Serdes of the topology: events in the configured wire format with their schema headers, store aggregates in
+ * CBOR (they never leave the topology and its changelogs)
+ */
+public final class AnalyticsSerdes {
+
+    private AnalyticsSerdes() {
+    }
+
+    public static <T> Serde<T> event(Class<T> type, String subject, WireFormat format, EventSchemaRegistry registry) {
+        return Serdes.serdeFrom(new EventSerializer<>(format, registry.verify(subject, type)),
+                new EventDeserializer<>(type));
+    }
+
+    public static <T> Serde<T> cbor(Class<T> type) {
+        ObjectWriter writer = EventMappers.forFormat(WireFormat.CBOR).writerFor(type);
+        ObjectReader reader = EventMappers.forFormat(WireFormat.CBOR).readerFor(type);
+        return Serdes.serdeFrom(
+                (topic, value) -> {
+                    try {
+                        return value == null ? null : writer.writeValueAsBytes(value);
+                    } catch (IOException e) {
+                        throw new SerializationException("Can't serialize " + type.getSimpleName(), e);
+                    }
+                },
+                (topic, data) -> {
+                    try {
+                        return data == null ? null : reader.readValue(data);
+                    } catch (IOException e) {
+                        throw new SerializationException("Can't deserialize " + type.getSimpleName(), e);
+                    }
+                });
+    }
+}
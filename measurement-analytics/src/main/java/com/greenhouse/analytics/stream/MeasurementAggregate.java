@@ -0,0 +1,68 @@
+package com.greenhouse.analytics.stream;
+
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.MeasurementSummaryEvent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Running aggregate of one parameter over one window, as kept in the window stores
+ */
+@Data
+@NoArgsConstructor
+public class MeasurementAggregate {
+
+    private Long parametreId;
+    private String parametreType;
+    private String unite;
+    private String greenhouseId;
+    private String zoneId;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private long alerts;
+
+    public MeasurementAggregate add(MeasurementEvent event) {
+        parametreId = event.parametreId();
+        parametreType = event.parametreType();
+        unite = event.unite();
+        greenhouseId = event.greenhouseId();
+        zoneId = event.zoneId();
+        double valeur = event.valeur();
+        count++;
+        sum += valeur;
+        min = Math.min(min, valeur);
+        max = Math.max(max, valeur);
+        if (Boolean.TRUE.equals(event.isAlert())) {
+            alerts++;
+        }
+        return this;
+    }
+
+    public double mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    public MeasurementSummaryEvent toSummary(String windowType, long startMillis, long endMillis, ZoneId zone) {
+        return MeasurementSummaryEvent.builder()
+                .parametreId(parametreId)
+                .parametreType(parametreType)
+                .unite(unite)
+                .windowType(windowType)
+                .windowStart(LocalDateTime.ofInstant(Instant.ofEpochMilli(startMillis), zone))
+                .windowEnd(LocalDateTime.ofInstant(Instant.ofEpochMilli(endMillis), zone))
+                .count(count)
+                .min(min)
+                .max(max)
+                .mean(mean())
+                .alerts(alerts)
+                .greenhouseId(greenhouseId)
+                .zoneId(zoneId)
+                .build();
+    }
+}
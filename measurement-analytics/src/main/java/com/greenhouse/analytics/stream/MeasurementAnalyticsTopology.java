@@ -0,0 +1,92 @@
+package com.greenhouse.analytics.stream;
+
+import com.greenhouse.analytics.config.AnalyticsProperties;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.MeasurementSummaryEvent;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KGroupedStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.WindowBytesStoreSupplier;
+
+import java.time.Duration;
+
+/**
+ * Aggregates the measurement stream per parameter over tumbling and hopping windows.
+ *
+ * Measurements are keyed by greenhouse and parameter upstream, so the stream is grouped by its key without a
+ * repartition. Each window kind is materialized in a queryable window store; once a window closes (its end plus
+ * the grace period) its summary is published once to the summaries topic, where dashboards and reports consume
+ * them instead of scanning the measurements table.
+ */
+public class MeasurementAnalyticsTopology {
+
+    public static final String TUMBLING_STORE = "tumbling-summaries";
+    public static final String HOPPING_STORE = "hopping-summaries";
+
+    private final AnalyticsProperties properties;
+    private final Serde<MeasurementEvent> measurementSerde;
+    private final Serde<MeasurementSummaryEvent> summarySerde;
+    private final Serde<MeasurementAggregate> aggregateSerde = AnalyticsSerdes.cbor(MeasurementAggregate.class);
+
+    public MeasurementAnalyticsTopology(AnalyticsProperties properties,
+                                        Serde<MeasurementEvent> measurementSerde,
+                                        Serde<MeasurementSummaryEvent> summarySerde) {
+        this.properties = properties;
+        this.measurementSerde = measurementSerde;
+        this.summarySerde = summarySerde;
+    }
+
+    public void define(StreamsBuilder builder, String measurementTopic, String summariesTopic) {
+        KGroupedStream<String, MeasurementEvent> measurements = builder
+                .stream(measurementTopic, Consumed.with(Serdes.String(), measurementSerde)
+                        .withTimestampExtractor(new MeasurementTimestampExtractor(properties.getZone())))
+                .filter((key, event) -> key != null && event != null && event.valeur() != null)
+                .groupByKey();
+
+        Duration grace = properties.getGrace();
+        summarize(measurements, TimeWindows.ofSizeAndGrace(properties.getTumblingWindow(), grace),
+                TUMBLING_STORE, MeasurementSummaryEvent.TUMBLING, summariesTopic);
+        summarize(measurements, TimeWindows.ofSizeAndGrace(properties.getHoppingWindow(), grace)
+                        .advanceBy(properties.getHoppingAdvance()),
+                HOPPING_STORE, MeasurementSummaryEvent.HOPPING, summariesTopic);
+    }
+
+    private void summarize(KGroupedStream<String, MeasurementEvent> measurements, TimeWindows windows,
+                           String storeName, String windowType, String summariesTopic) {
+        measurements.windowedBy(windows)
+                .aggregate(MeasurementAggregate::new,
+                        (key, event, aggregate) -> aggregate.add(event),
+                        Materialized.<String, MeasurementAggregate>as(storeSupplier(storeName, windows))
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(aggregateSerde))
+                .suppress(Suppressed.untilWindowCloses(Suppressed.BufferConfig.unbounded())
+                        .withName(storeName + "-closed"))
+                .toStream()
+                .map((Windowed<String> window, MeasurementAggregate aggregate) -> KeyValue.pair(window.key(),
+                        aggregate.toSummary(windowType, window.window().start(), window.window().end(),
+                                properties.getZone())))
+                .to(summariesTopic, Produced.with(Serdes.String(), summarySerde));
+    }
+
+    private WindowBytesStoreSupplier storeSupplier(String storeName, TimeWindows windows) {
+        // Retention must cover the window and its grace period, or late measurements would find it dropped
+        Duration retention = properties.getRetention();
+        Duration minimum = Duration.ofMillis(windows.size() + windows.gracePeriodMs());
+        if (retention.compareTo(minimum) < 0) {
+            retention = minimum;
+        }
+        Duration windowSize = Duration.ofMillis(windows.size());
+        return properties.getStoreType() == AnalyticsProperties.StoreType.IN_MEMORY
+                ? Stores.inMemoryWindowStore(storeName, retention, windowSize, false)
+                : Stores.persistentTimestampedWindowStore(storeName, retention, windowSize, false);
+    }
+}
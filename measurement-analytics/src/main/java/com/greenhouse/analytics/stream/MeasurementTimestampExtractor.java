@@ -0,0 +1,30 @@
+package com.greenhouse.analytics.stream;
+
+import com.greenhouse.events.MeasurementEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Windows measurements by their measurement date rather than by when they reached Kafka, so that measurements
+ * relayed late by the outbox still land in the right window. Falls back to the record timestamp.
+ */
+public class MeasurementTimestampExtractor implements TimestampExtractor {
+
+    private final ZoneId zone;
+
+    public MeasurementTimestampExtractor(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    @Override
+    public long extract(ConsumerRecord<Object, Object> record, long partitionTime) {
+        if (record.value() instanceof MeasurementEvent event && event.dateMesure() != null) {
+            LocalDateTime dateMesure = event.dateMesure();
+            return dateMesure.atZone(zone).toInstant().toEpochMilli();
+        }
+        return record.timestamp() >= 0 ? record.timestamp() : partitionTime;
+    }
+}
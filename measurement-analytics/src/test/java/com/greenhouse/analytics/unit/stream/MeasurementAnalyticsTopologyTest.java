@@ -0,0 +1,181 @@
+package com.greenhouse.analytics.unit.stream;
+
+import com.greenhouse.analytics.config.AnalyticsProperties;
+import com.greenhouse.analytics.stream.AnalyticsSerdes;
+import com.greenhouse.analytics.stream.MeasurementAggregate;
+import com.greenhouse.analytics.stream.MeasurementAnalyticsTopology;
+import com.greenhouse.events.MeasurementEvent;
+import com.greenhouse.events.MeasurementSummaryEvent;
+import com.greenhouse.events.PartitionKeys;
+import com.greenhouse.events.codec.EventSchemaRegistry;
+import com.greenhouse.events.codec.WireFormat;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MeasurementAnalyticsTopology Unit Tests")
+class MeasurementAnalyticsTopologyTest {
+
+    private static final String MEASUREMENTS = "measurement-stream";
+    private static final String SUMMARIES = "measurement-summaries";
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 7, 1, 12, 0);
+    private static final String KEY = PartitionKeys.of("gh-1", 1L);
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, MeasurementEvent> measurements;
+    private TestOutputTopic<String, MeasurementSummaryEvent> summaries;
+
+    @BeforeEach
+    void setUp() {
+        AnalyticsProperties properties = new AnalyticsProperties();
+        properties.setStoreType(AnalyticsProperties.StoreType.IN_MEMORY);
+        properties.setZone(ZoneOffset.UTC);
+        EventSchemaRegistry registry = new EventSchemaRegistry(EventSchemaRegistry.DEFAULT_LOCATION);
+        Serde<MeasurementEvent> measurementSerde = AnalyticsSerdes.event(MeasurementEvent.class,
+                MeasurementEvent.SUBJECT, WireFormat.JSON, registry);
+        Serde<MeasurementSummaryEvent> summarySerde = AnalyticsSerdes.event(MeasurementSummaryEvent.class,
+                MeasurementSummaryEvent.SUBJECT, WireFormat.JSON, registry);
+
+        StreamsBuilder builder = new StreamsBuilder();
+        new MeasurementAnalyticsTopology(properties, measurementSerde, summarySerde)
+                .define(builder, MEASUREMENTS, SUMMARIES);
+
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "measurement-analytics-test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(builder.build(), config);
+        measurements = driver.createInputTopic(MEASUREMENTS, Serdes.String().serializer(),
+                measurementSerde.serializer());
+        summaries = driver.createOutputTopic(SUMMARIES, Serdes.String().deserializer(),
+                summarySerde.deserializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private void measure(double valeur, LocalDateTime dateMesure, boolean alert) {
+        // Record timestamps are ignored: windows follow the measurement date
+        measurements.pipeInput(KEY, MeasurementEvent.builder()
+                .parametreId(1L)
+                .parametreType("TEMPERATURE")
+                .valeur(valeur)
+                .unite("°C")
+                .isAlert(alert)
+                .dateMesure(dateMesure)
+                .greenhouseId("gh-1")
+                .build(), Instant.EPOCH);
+    }
+
+    private List<MeasurementSummaryEvent> tumblingSummaries() {
+        return summaries.readValuesToList().stream()
+                .filter(summary -> MeasurementSummaryEvent.TUMBLING.equals(summary.windowType()))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("should publish a window summary once, after its grace period")
+    void shouldPublishClosedWindow() {
+        measure(20.0, NOON.plusSeconds(10), false);
+        measure(26.0, NOON.plusSeconds(40), false);
+        measure(31.0, NOON.plusSeconds(50), true);
+
+        measure(22.0, NOON.plusSeconds(80), false); // window end + 20s: still in grace
+        assertThat(tumblingSummaries()).isEmpty();
+
+        measure(22.0, NOON.plusSeconds(95), false); // past the grace period
+        List<MeasurementSummaryEvent> closed = tumblingSummaries();
+
+        assertThat(closed).singleElement().satisfies(summary -> {
+            assertThat(summary.partitionKey()).isEqualTo(KEY);
+            assertThat(summary.windowStart()).isEqualTo(NOON);
+            assertThat(summary.windowEnd()).isEqualTo(NOON.plusMinutes(1));
+            assertThat(summary.count()).isEqualTo(3L);
+            assertThat(summary.min()).isEqualTo(20.0);
+            assertThat(summary.max()).isEqualTo(31.0);
+            assertThat(summary.mean()).isCloseTo(25.667, within(0.001));
+            assertThat(summary.alerts()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("should count late measurements within the grace period and drop later ones")
+    void shouldHonourGracePeriod() {
+        measure(20.0, NOON.plusSeconds(10), false);
+        measure(22.0, NOON.plusSeconds(80), false);
+        measure(24.0, NOON.plusSeconds(50), false); // late, within grace
+        measure(22.0, NOON.plusSeconds(100), false);
+        measure(40.0, NOON.plusSeconds(30), true); // past the grace period of its window
+
+        assertThat(tumblingSummaries()).singleElement().satisfies(summary -> {
+            assertThat(summary.count()).isEqualTo(2L);
+            assertThat(summary.max()).isEqualTo(24.0);
+            assertThat(summary.alerts()).isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("should keep open windows queryable in the stores")
+    void shouldQueryOpenWindows() {
+        measure(20.0, NOON.plusSeconds(10), false);
+        measure(24.0, NOON.plusSeconds(20), false);
+
+        WindowStore<String, MeasurementAggregate> tumbling =
+                driver.getWindowStore(MeasurementAnalyticsTopology.TUMBLING_STORE);
+        try (WindowStoreIterator<MeasurementAggregate> windows = tumbling.fetch(KEY,
+                NOON.toInstant(ZoneOffset.UTC), NOON.plusMinutes(1).toInstant(ZoneOffset.UTC))) {
+            KeyValue<Long, MeasurementAggregate> window = windows.next();
+            assertThat(window.key).isEqualTo(NOON.toInstant(ZoneOffset.UTC).toEpochMilli());
+            assertThat(window.value.getCount()).isEqualTo(2L);
+            assertThat(window.value.mean()).isEqualTo(22.0);
+            assertThat(windows.hasNext()).isFalse();
+        }
+
+        // One hopping window per advance overlaps each measurement: 15 minutes / 1 minute
+        WindowStore<String, MeasurementAggregate> hopping =
+                driver.getWindowStore(MeasurementAnalyticsTopology.HOPPING_STORE);
+        try (WindowStoreIterator<MeasurementAggregate> windows = hopping.fetch(KEY,
+                NOON.minusMinutes(15).toInstant(ZoneOffset.UTC), NOON.toInstant(ZoneOffset.UTC))) {
+            int count = 0;
+            while (windows.hasNext()) {
+                assertThat(windows.next().value.getCount()).isEqualTo(2L);
+                count++;
+            }
+            assertThat(count).isEqualTo(15);
+        }
+    }
+
+    @Test
+    @DisplayName("should round trip store aggregates through their serde")
+    void shouldRoundTripAggregate() {
+        Serde<MeasurementAggregate> serde = AnalyticsSerdes.cbor(MeasurementAggregate.class);
+        MeasurementAggregate aggregate = new MeasurementAggregate()
+                .add(MeasurementEvent.builder().parametreId(1L).valeur(21.5).isAlert(true).build());
+
+        MeasurementAggregate decoded = serde.deserializer().deserialize(SUMMARIES,
+                serde.serializer().serialize(SUMMARIES, aggregate));
+
+        assertThat(decoded).isEqualTo(aggregate);
+        assertThat(new MeasurementAggregate().getMin()).isInfinite();
+    }
+}
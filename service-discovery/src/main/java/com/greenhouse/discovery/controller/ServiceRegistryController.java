@@ -1,19 +1,27 @@
 package com.greenhouse.discovery.controller;
 
-import com.netflix.appinfo.InstanceInfo;
-import com.netflix.discovery.shared.Application;
-import com.netflix.eureka.EurekaServerContext;
-import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.greenhouse.discovery.registry.RegistryChangeStream;
+import com.greenhouse.discovery.registry.RegistryDelta;
+import com.greenhouse.discovery.registry.RegistrySnapshot;
+import com.greenhouse.discovery.registry.RegistrySnapshotService;
+import com.greenhouse.discovery.registry.ServiceView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/registry")
@@ -21,61 +29,57 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ServiceRegistryController {
 
-    private final EurekaServerContext eurekaServerContext;
+    private final RegistrySnapshotService registrySnapshotService;
+    private final RegistryChangeStream registryChangeStream;
 
+    /**
+     * Whole registry, or with {@code sinceVersion} only the changes since that version.
+     * A full snapshot is returned instead when those changes are no longer retained.
+     */
     @GetMapping("/services")
-    public ResponseEntity<Map<String, Object>> getAllServices() {
-        log.info("Fetching all registered services");
-        
-        PeerAwareInstanceRegistry registry = eurekaServerContext.getRegistry();
-        List<Application> applications = registry.getSortedApplications();
-        
-        Map<String, Object> response = new HashMap<>();
-        List<Map<String, Object>> servicesList = new ArrayList<>();
-        
-        for (Application application : applications) {
-            Map<String, Object> serviceInfo = new HashMap<>();
-            serviceInfo.put("name", application.getName());
-            serviceInfo.put("instanceCount", application.getInstances().size());
-            
-            List<Map<String, Object>> instances = application.getInstances().stream()
-                    .map(this::mapInstanceInfo)
-                    .collect(Collectors.toList());
-            
-            serviceInfo.put("instances", instances);
-            servicesList.add(serviceInfo);
+    public ResponseEntity<?> getAllServices(
+            @RequestParam(required = false) Long sinceVersion,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RegistrySnapshot snapshot = registrySnapshotService.current();
+        if (snapshot.eTag().equals(ifNoneMatch)) {
+            return notModified(snapshot.eTag());
         }
-        
-        response.put("services", servicesList);
-        response.put("totalServices", applications.size());
-        response.put("totalInstances", applications.stream()
-                .mapToInt(app -> app.getInstances().size())
-                .sum());
-        response.put("timestamp", System.currentTimeMillis());
-        
-        return ResponseEntity.ok(response);
+        if (sinceVersion != null) {
+            RegistryDelta delta = registrySnapshotService.changesSince(sinceVersion);
+            if (delta != null) {
+                log.debug("Serving {} registry changes since version {}", delta.changes().size(), sinceVersion);
+                return delta.changes().isEmpty()
+                        ? notModified(RegistrySnapshot.eTag(delta.version()))
+                        : ResponseEntity.ok().eTag(RegistrySnapshot.eTag(delta.version())).body(delta);
+            }
+        }
+        log.debug("Serving registry snapshot version {}", snapshot.getVersion());
+        return ResponseEntity.ok().eTag(snapshot.eTag()).body(snapshot);
+    }
+
+    /**
+     * Registry changes pushed as they happen: a {@code snapshot} event, then coalesced {@code changes} events.
+     * Reconnecting with {@code Last-Event-ID} resumes from that version.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return registryChangeStream.subscribe(lastEventId);
     }
 
     @GetMapping("/services/{serviceName}")
     public ResponseEntity<Map<String, Object>> getServiceByName(@PathVariable String serviceName) {
         log.info("Fetching service: {}", serviceName);
         
-        PeerAwareInstanceRegistry registry = eurekaServerContext.getRegistry();
-        Application application = registry.getApplication(serviceName.toUpperCase());
+        ServiceView service = registrySnapshotService.current().service(serviceName.toUpperCase(Locale.ROOT));
         
-        if (application == null) {
+        if (service == null) {
             return ResponseEntity.notFound().build();
         }
         
         Map<String, Object> response = new HashMap<>();
-        response.put("name", application.getName());
-        response.put("instanceCount", application.getInstances().size());
-        
-        List<Map<String, Object>> instances = application.getInstances().stream()
-                .map(this::mapInstanceInfo)
-                .collect(Collectors.toList());
-        
-        response.put("instances", instances);
+        response.put("name", service.name());
+        response.put("instanceCount", service.instanceCount());
+        response.put("instances", service.instances());
         response.put("timestamp", System.currentTimeMillis());
         
         return ResponseEntity.ok(response);
@@ -85,42 +89,24 @@ public class ServiceRegistryController {
     public ResponseEntity<Map<String, Object>> getRegistryHealth() {
         log.info("Checking registry health");
         
-        PeerAwareInstanceRegistry registry = eurekaServerContext.getRegistry();
-        List<Application> applications = registry.getSortedApplications();
-        
-        long totalInstances = applications.stream()
-                .mapToInt(app -> app.getInstances().size())
-                .sum();
-        
-        long upInstances = applications.stream()
-                .flatMap(app -> app.getInstances().stream())
-                .filter(instance -> instance.getStatus() == InstanceInfo.InstanceStatus.UP)
-                .count();
+        RegistrySnapshot snapshot = registrySnapshotService.current();
+        long totalInstances = snapshot.getTotalInstances();
+        long upInstances = snapshot.upInstances();
         
         Map<String, Object> health = new HashMap<>();
         health.put("status", upInstances == totalInstances ? "UP" : "DEGRADED");
-        health.put("totalServices", applications.size());
+        health.put("totalServices", snapshot.getTotalServices());
         health.put("totalInstances", totalInstances);
         health.put("upInstances", upInstances);
         health.put("downInstances", totalInstances - upInstances);
+        health.put("version", snapshot.getVersion());
+        health.put("streamSubscribers", registryChangeStream.getSubscriberCount());
         health.put("timestamp", System.currentTimeMillis());
         
         return ResponseEntity.ok(health);
     }
 
-    private Map<String, Object> mapInstanceInfo(InstanceInfo instance) {
-        Map<String, Object> info = new HashMap<>();
-        info.put("instanceId", instance.getInstanceId());
-        info.put("hostName", instance.getHostName());
-        info.put("ipAddress", instance.getIPAddr());
-        info.put("port", instance.getPort());
-        info.put("status", instance.getStatus().toString());
-        info.put("healthCheckUrl", instance.getHealthCheckUrl());
-        info.put("statusPageUrl", instance.getStatusPageUrl());
-        info.put("homePageUrl", instance.getHomePageUrl());
-        info.put("metadata", instance.getMetadata());
-        info.put("lastUpdatedTimestamp", instance.getLastUpdatedTimestamp());
-        info.put("lastDirtyTimestamp", instance.getLastDirtyTimestamp());
-        return info;
+    private static ResponseEntity<?> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
     }
 }
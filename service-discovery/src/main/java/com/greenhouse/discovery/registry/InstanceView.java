@@ -0,0 +1,52 @@
+package com.greenhouse.discovery.registry;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.netflix.appinfo.InstanceInfo;
+
+import java.util.Map;
+
+/**
+ * Immutable copy of the fields of an {@link InstanceInfo} exposed by the registry API
+ */
+public record InstanceView(
+        String instanceId,
+        String hostName,
+        String ipAddress,
+        int port,
+        String status,
+        String healthCheckUrl,
+        String statusPageUrl,
+        String homePageUrl,
+        Map<String, String> metadata,
+        long lastUpdatedTimestamp,
+        long lastDirtyTimestamp) {
+
+    public static InstanceView of(InstanceInfo instance) {
+        return new InstanceView(
+                instance.getInstanceId(),
+                instance.getHostName(),
+                instance.getIPAddr(),
+                instance.getPort(),
+                instance.getStatus().toString(),
+                instance.getHealthCheckUrl(),
+                instance.getStatusPageUrl(),
+                instance.getHomePageUrl(),
+                Map.copyOf(instance.getMetadata()),
+                instance.getLastUpdatedTimestamp(),
+                instance.getLastDirtyTimestamp());
+    }
+
+    /**
+     * Cheap check used on every lease renewal: Eureka bumps these fields whenever an instance changes
+     */
+    public boolean isUpToDate(InstanceInfo instance) {
+        return lastDirtyTimestamp == instance.getLastDirtyTimestamp()
+                && lastUpdatedTimestamp == instance.getLastUpdatedTimestamp()
+                && status.equals(instance.getStatus().toString());
+    }
+
+    @JsonIgnore
+    public boolean isUp() {
+        return InstanceInfo.InstanceStatus.UP.toString().equals(status);
+    }
+}
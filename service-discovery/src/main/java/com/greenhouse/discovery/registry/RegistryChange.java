@@ -0,0 +1,13 @@
+package com.greenhouse.discovery.registry;
+
+/**
+ * One change of the registry; {@code instance} is null for {@link Type#CANCELLED}
+ */
+public record RegistryChange(long version, Type type, String service, String instanceId, InstanceView instance) {
+
+    public enum Type {
+        REGISTERED,
+        UPDATED,
+        CANCELLED
+    }
+}
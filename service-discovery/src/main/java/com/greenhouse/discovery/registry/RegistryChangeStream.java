@@ -0,0 +1,166 @@
+package com.greenhouse.discovery.registry;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes registry changes to SSE subscribers.
+ *
+ * A subscriber first receives a {@code snapshot} event, or on reconnection with {@code Last-Event-ID} only the
+ * changes it missed, then {@code changes} events. Changes are held for the coalescing window so that a mass
+ * restart produces a few events with one entry per instance rather than one event per lease change.
+ * Event IDs are registry versions.
+ */
+@Component
+@Slf4j
+public class RegistryChangeStream {
+
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String CHANGES_EVENT = "changes";
+
+    private static final long RECONNECT_TIME_MS = 5_000;
+
+    private final RegistrySnapshotService registrySnapshotService;
+    private final RegistryStreamProperties properties;
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "registry-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by pending; keyed by service and instance ID
+    private final Map<String, RegistryChange> pending = new LinkedHashMap<>();
+    private long pendingVersion;
+    private long sentVersion;
+    private boolean flushScheduled;
+
+    public RegistryChangeStream(RegistrySnapshotService registrySnapshotService, RegistryStreamProperties properties) {
+        this.registrySnapshotService = registrySnapshotService;
+        this.properties = properties;
+        this.sentVersion = registrySnapshotService.current().getVersion();
+        this.pendingVersion = sentVersion;
+        long heartbeat = properties.getHeartbeatInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getConnectionTimeout().toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(emitter));
+        // Subscribe before reading the registry: a change racing with the first event is sent twice, never lost
+        subscribers.add(emitter);
+
+        RegistryDelta missed = lastEventId == null ? null : registrySnapshotService.changesSince(lastEventId);
+        if (missed == null) {
+            RegistrySnapshot snapshot = registrySnapshotService.current();
+            send(emitter, SNAPSHOT_EVENT, snapshot.getVersion(), snapshot);
+        } else if (!missed.changes().isEmpty()) {
+            send(emitter, CHANGES_EVENT, missed.version(), missed);
+        }
+        log.info("New registry stream subscriber ({} connected)", subscribers.size());
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onChange(RegistryChange change) {
+        synchronized (pending) {
+            String key = change.service() + '/' + change.instanceId();
+            pending.put(key, merge(pending.remove(key), change));
+            pendingVersion = change.version();
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flush, properties.getCoalesceWindow().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Latest state of an instance within the window. A cancellation is always kept, even for an instance
+     * registered in the same window: subscribers that joined meanwhile got it in their snapshot or catch-up.
+     */
+    static RegistryChange merge(RegistryChange previous, RegistryChange change) {
+        if (previous != null && previous.type() == RegistryChange.Type.REGISTERED
+                && change.type() == RegistryChange.Type.UPDATED) {
+            return new RegistryChange(change.version(), RegistryChange.Type.REGISTERED,
+                    change.service(), change.instanceId(), change.instance());
+        }
+        return change;
+    }
+
+    /**
+     * Takes the changes held since the last flush
+     */
+    RegistryDelta takePending() {
+        synchronized (pending) {
+            flushScheduled = false;
+            RegistryDelta delta = new RegistryDelta(sentVersion, pendingVersion, List.copyOf(pending.values()));
+            sentVersion = pendingVersion;
+            pending.clear();
+            return delta;
+        }
+    }
+
+    private void flush() {
+        RegistryDelta delta = takePending();
+        if (delta.changes().isEmpty()) {
+            return;
+        }
+        log.debug("Pushing {} registry changes to {} subscribers", delta.changes().size(), subscribers.size());
+        for (SseEmitter subscriber : subscribers) {
+            send(subscriber, CHANGES_EVENT, delta.version(), delta);
+        }
+    }
+
+    private void heartbeat() {
+        for (SseEmitter subscriber : subscribers) {
+            try {
+                subscriber.send(SseEmitter.event().comment("heartbeat"));
+            } catch (Exception e) {
+                drop(subscriber, e);
+            }
+        }
+    }
+
+    private void send(SseEmitter subscriber, String event, long version, Object payload) {
+        try {
+            subscriber.send(SseEmitter.event()
+                    .id(String.valueOf(version))
+                    .name(event)
+                    .reconnectTime(RECONNECT_TIME_MS)
+                    .data(payload, MediaType.APPLICATION_JSON));
+        } catch (Exception e) {
+            drop(subscriber, e);
+        }
+    }
+
+    private void drop(SseEmitter subscriber, Exception cause) {
+        subscribers.remove(subscriber);
+        log.debug("Registry stream subscriber disconnected: {}", cause.getMessage());
+        subscriber.completeWithError(cause);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+}
@@ -0,0 +1,9 @@
+package com.greenhouse.discovery.registry;
+
+import java.util.List;
+
+/**
+ * Changes applied after {@code sinceVersion}, in order; applying them yields the snapshot {@code version}
+ */
+public record RegistryDelta(long sinceVersion, long version, List<RegistryChange> changes) {
+}
@@ -0,0 +1,90 @@
+package com.greenhouse.discovery.registry;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable view of the registry at one version.
+ *
+ * A change copies only the map of services and the service that changed; every other service is shared
+ * with the previous snapshot.
+ */
+@Getter
+public final class RegistrySnapshot {
+
+    private final long version;
+    private final long timestamp;
+    private final List<ServiceView> services;
+    private final int totalServices;
+    private final int totalInstances;
+    @Getter(AccessLevel.NONE)
+    private final Map<String, ServiceView> servicesByName;
+
+    private RegistrySnapshot(long version, Map<String, ServiceView> servicesByName) {
+        this.version = version;
+        this.timestamp = System.currentTimeMillis();
+        this.servicesByName = servicesByName;
+        this.services = List.copyOf(servicesByName.values());
+        this.totalServices = services.size();
+        this.totalInstances = services.stream().mapToInt(ServiceView::instanceCount).sum();
+    }
+
+    public static RegistrySnapshot empty(long version) {
+        return new RegistrySnapshot(version, Map.of());
+    }
+
+    /**
+     * Snapshot of a whole registry, keyed by service name then instance ID
+     */
+    public static RegistrySnapshot of(long version, Map<String, Map<String, InstanceView>> instances) {
+        Map<String, ServiceView> services = new TreeMap<>();
+        instances.forEach((name, serviceInstances) -> {
+            if (!serviceInstances.isEmpty()) {
+                services.put(name, ServiceView.of(name, serviceInstances.values()));
+            }
+        });
+        return new RegistrySnapshot(version, services);
+    }
+
+    /**
+     * Next snapshot, with the instances of one service replaced; no instances removes the service
+     */
+    public RegistrySnapshot withService(long version, String name, Collection<InstanceView> instances) {
+        Map<String, ServiceView> services = new TreeMap<>(servicesByName);
+        if (instances.isEmpty()) {
+            services.remove(name);
+        } else {
+            services.put(name, ServiceView.of(name, instances));
+        }
+        return new RegistrySnapshot(version, services);
+    }
+
+    public ServiceView service(String name) {
+        return servicesByName.get(name);
+    }
+
+    public InstanceView instance(String service, String instanceId) {
+        ServiceView view = servicesByName.get(service);
+        return view == null ? null : view.instance(instanceId);
+    }
+
+    public long upInstances() {
+        return services.stream()
+                .flatMap(service -> service.instances().stream())
+                .filter(InstanceView::isUp)
+                .count();
+    }
+
+    public String eTag() {
+        return eTag(version);
+    }
+
+    public static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+}
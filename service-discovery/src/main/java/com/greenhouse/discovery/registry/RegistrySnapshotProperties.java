@@ -0,0 +1,16 @@
+package com.greenhouse.discovery.registry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "registry.snapshot")
+@Data
+public class RegistrySnapshotProperties {
+
+    /**
+     * Changes kept for {@code ?sinceVersion=} deltas; older pollers get a full snapshot
+     */
+    private int maxChanges = 1000;
+}
@@ -0,0 +1,183 @@
+package com.greenhouse.discovery.registry;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.EurekaServerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRenewedEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaRegistryAvailableEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps an immutable, versioned snapshot of the registry up to date from Eureka lease events.
+ *
+ * Registrations and cancellations (including evictions) are applied as they happen. Status changes have no
+ * event of their own, so they are picked up on the next renewal of the instance. Each change gets the next
+ * version; versions start at the boot time in milliseconds so they keep growing across restarts.
+ * Every change is also published as an application event, in version order.
+ */
+@Component
+@Slf4j
+public class RegistrySnapshotService {
+
+    private final EurekaServerContext eurekaServerContext;
+    private final RegistrySnapshotProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Guarded by this
+    private final Map<String, Map<String, InstanceView>> instances = new TreeMap<>();
+    private final Deque<RegistryChange> changes = new ArrayDeque<>();
+    private long version;
+
+    private volatile RegistrySnapshot snapshot;
+
+    public RegistrySnapshotService(EurekaServerContext eurekaServerContext, RegistrySnapshotProperties properties,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.eurekaServerContext = eurekaServerContext;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.version = System.currentTimeMillis();
+        this.snapshot = RegistrySnapshot.empty(version);
+    }
+
+    public RegistrySnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Changes applied after {@code sinceVersion}, or null when they are no longer retained
+     * (or the version was never issued by this server) and a full snapshot is needed
+     */
+    public synchronized RegistryDelta changesSince(long sinceVersion) {
+        if (sinceVersion > version) {
+            return null;
+        }
+        if (sinceVersion == version) {
+            return new RegistryDelta(sinceVersion, version, List.of());
+        }
+        RegistryChange oldest = changes.peekFirst();
+        if (oldest == null || oldest.version() > sinceVersion + 1) {
+            return null;
+        }
+        List<RegistryChange> delta = new ArrayList<>();
+        Iterator<RegistryChange> newestFirst = changes.descendingIterator();
+        while (newestFirst.hasNext()) {
+            RegistryChange change = newestFirst.next();
+            if (change.version() <= sinceVersion) {
+                break;
+            }
+            delta.add(change);
+        }
+        Collections.reverse(delta);
+        return new RegistryDelta(sinceVersion, version, delta);
+    }
+
+    @EventListener
+    public void onRegistered(EurekaInstanceRegisteredEvent event) {
+        put(event.getInstanceInfo());
+    }
+
+    @EventListener
+    public void onRenewed(EurekaInstanceRenewedEvent event) {
+        InstanceInfo instance = event.getInstanceInfo();
+        if (instance == null) {
+            return;
+        }
+        // Renewals are by far the most frequent event: skip them without locking while nothing changed
+        InstanceView known = snapshot.instance(serviceName(instance.getAppName()), instance.getInstanceId());
+        if (known == null || !known.isUpToDate(instance)) {
+            put(instance);
+        }
+    }
+
+    @EventListener
+    public void onCanceled(EurekaInstanceCanceledEvent event) {
+        remove(serviceName(event.getAppName()), event.getServerId());
+    }
+
+    /**
+     * Loads whatever the registry already holds, e.g. entries synced from peers at startup
+     */
+    @EventListener(EurekaRegistryAvailableEvent.class)
+    public synchronized void resync() {
+        Map<String, Map<String, InstanceView>> registered = new TreeMap<>();
+        for (Application application : eurekaServerContext.getRegistry().getSortedApplications()) {
+            for (InstanceInfo instance : application.getInstances()) {
+                registered.computeIfAbsent(serviceName(application.getName()), name -> new TreeMap<>())
+                        .put(instance.getInstanceId(), InstanceView.of(instance));
+            }
+        }
+        long before = version;
+        instances.forEach((service, known) -> known.forEach((instanceId, view) -> {
+            if (!registered.getOrDefault(service, Map.of()).containsKey(instanceId)) {
+                record(RegistryChange.Type.CANCELLED, service, instanceId, null);
+            }
+        }));
+        registered.forEach((service, current) -> current.forEach((instanceId, view) -> {
+            InstanceView previous = instances.getOrDefault(service, Map.of()).get(instanceId);
+            if (!view.equals(previous)) {
+                record(previous == null ? RegistryChange.Type.REGISTERED : RegistryChange.Type.UPDATED,
+                        service, instanceId, view);
+            }
+        }));
+        if (version != before) {
+            instances.clear();
+            instances.putAll(registered);
+            snapshot = RegistrySnapshot.of(version, instances);
+            log.info("Registry snapshot resynced at version {}: {} services, {} instances",
+                    version, snapshot.getTotalServices(), snapshot.getTotalInstances());
+        }
+    }
+
+    private synchronized void put(InstanceInfo instance) {
+        String service = serviceName(instance.getAppName());
+        InstanceView view = InstanceView.of(instance);
+        Map<String, InstanceView> serviceInstances = instances.computeIfAbsent(service, name -> new TreeMap<>());
+        InstanceView previous = serviceInstances.put(view.instanceId(), view);
+        if (view.equals(previous)) {
+            return;
+        }
+        record(previous == null ? RegistryChange.Type.REGISTERED : RegistryChange.Type.UPDATED,
+                service, view.instanceId(), view);
+        snapshot = snapshot.withService(version, service, serviceInstances.values());
+    }
+
+    private synchronized void remove(String service, String instanceId) {
+        Map<String, InstanceView> serviceInstances = instances.get(service);
+        if (serviceInstances == null || serviceInstances.remove(instanceId) == null) {
+            return;
+        }
+        if (serviceInstances.isEmpty()) {
+            instances.remove(service);
+        }
+        record(RegistryChange.Type.CANCELLED, service, instanceId, null);
+        snapshot = snapshot.withService(version, service, serviceInstances.values());
+    }
+
+    private void record(RegistryChange.Type type, String service, String instanceId, InstanceView instance) {
+        RegistryChange change = new RegistryChange(++version, type, service, instanceId, instance);
+        changes.addLast(change);
+        eventPublisher.publishEvent(change);
+        while (changes.size() > properties.getMaxChanges()) {
+            changes.removeFirst();
+        }
+    }
+
+    private static String serviceName(String appName) {
+        return appName.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,28 @@
+package com.greenhouse.discovery.registry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "registry.stream")
+@Data
+public class RegistryStreamProperties {
+
+    /**
+     * Changes are held this long and sent as one event; repeated changes of an instance collapse into one
+     */
+    private Duration coalesceWindow = Duration.ofSeconds(1);
+
+    /**
+     * Comment sent to idle subscribers so proxies keep the connection open
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * Lifetime of one connection; clients reconnect with Last-Event-ID and only receive what they missed
+     */
+    private Duration connectionTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,20 @@
+package com.greenhouse.discovery.registry;
+
+import java.util.Collection;
+import java.util.List;
+
+public record ServiceView(String name, int instanceCount, List<InstanceView> instances) {
+
+    public static ServiceView of(String name, Collection<InstanceView> instances) {
+        return new ServiceView(name, instances.size(), List.copyOf(instances));
+    }
+
+    public InstanceView instance(String instanceId) {
+        for (InstanceView instance : instances) {
+            if (instance.instanceId().equals(instanceId)) {
+                return instance;
+            }
+        }
+        return null;
+    }
+}
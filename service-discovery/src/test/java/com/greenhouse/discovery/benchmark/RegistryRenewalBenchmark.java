@@ -0,0 +1,270 @@
+package com.greenhouse.discovery.benchmark;
+
+import com.greenhouse.discovery.ServiceDiscoveryApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load on service-discovery of a large fleet renewing its leases and fetching the registry, per tuning profile.
+ *
+ * Each scenario boots service-discovery with its server profile and registers {@code -Dinstances} instances
+ * at once, as after a mass restart. For {@code -Dseconds} every instance then renews its lease and
+ * {@code -Dfetchers} of them fetch the registry, at the intervals of the matching client profile.
+ * Requests go through at most {@value #MAX_CONNECTIONS} connections and their latency includes the wait for one,
+ * so renewal bursts show in the p99. Server CPU is the CPU time of the process minus the threads of the
+ * simulated clients, in % of one core.
+ *
+ * Run with: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.greenhouse.discovery.benchmark.RegistryRenewalBenchmark -Dinstances=2000}
+ */
+public class RegistryRenewalBenchmark {
+
+    private static final int INSTANCES = Integer.getInteger("instances", 2_000);
+    private static final int FETCHERS = Integer.getInteger("fetchers", 200);
+    private static final int SECONDS = Integer.getInteger("seconds", 60);
+    private static final int SERVICES = 20;
+    private static final int MAX_CONNECTIONS = 256;
+    private static final String CLIENT_THREAD_PREFIX = "bench-";
+
+    /**
+     * Client and server settings of one tuning profile; {@code serverProfile} null runs the default configuration
+     */
+    private record Scenario(String name, String serverProfile, int minRenewalSeconds, int maxRenewalSeconds,
+                            int leaseSeconds, int fetchSeconds, boolean deltaFetch) {
+    }
+
+    private static final List<Scenario> SCENARIOS = List.of(
+            new Scenario("default", null, 5, 5, 10, 5, true),
+            new Scenario("default-full", null, 5, 5, 10, 5, false),
+            new Scenario("fleet", "fleet", 25, 35, 90, 30, true));
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%,d instances (%,d fetching the registry), %ds per scenario%n", INSTANCES, FETCHERS, SECONDS);
+        System.out.printf("%-14s %10s %8s %11s %11s %11s %11s %11s %9s%n", "scenario", "req/s", "cpu %",
+                "renew p50", "renew p99", "fetch p50", "fetch p99", "fetch KB/s", "errors");
+        for (Scenario scenario : SCENARIOS) {
+            run(scenario);
+        }
+        System.exit(0);
+    }
+
+    private static void run(Scenario scenario) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ServiceDiscoveryApplication.class)
+                .properties("server.port=0", "management.tracing.enabled=false", "logging.level.root=WARN",
+                        "logging.level.com.greenhouse=WARN", "logging.level.org.springframework.web=WARN");
+        if (scenario.serverProfile() != null) {
+            builder.profiles(scenario.serverProfile());
+        }
+        ExecutorService clientThreads = Executors.newFixedThreadPool(8, named(CLIENT_THREAD_PREFIX + "client-"));
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(named(CLIENT_THREAD_PREFIX + "timer-"));
+        try (ConfigurableApplicationContext server = builder.run()) {
+            String eurekaUrl = "http://localhost:" + server.getEnvironment().getProperty("local.server.port") + "/eureka";
+            Fleet fleet = new Fleet(scenario, eurekaUrl, HttpClient.newBuilder().executor(clientThreads).build());
+            fleet.registerAll();
+
+            long startCpu = serverCpuNanos();
+            long start = System.nanoTime();
+            for (int i = 0; i < INSTANCES; i++) {
+                int instance = i;
+                long renewal = TimeUnit.SECONDS.toMillis(ThreadLocalRandom.current()
+                        .nextInt(scenario.minRenewalSeconds(), scenario.maxRenewalSeconds() + 1));
+                timer.scheduleAtFixedRate(() -> fleet.renew(instance), renewal, renewal, TimeUnit.MILLISECONDS);
+                if (i < FETCHERS) {
+                    long fetch = TimeUnit.SECONDS.toMillis(scenario.fetchSeconds());
+                    timer.scheduleAtFixedRate(fleet::fetch, fetch, fetch, TimeUnit.MILLISECONDS);
+                }
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(SECONDS));
+            timer.shutdownNow();
+            long elapsed = System.nanoTime() - start;
+            double cpuPercent = (serverCpuNanos() - startCpu) * 100.0 / elapsed;
+
+            double seconds = elapsed / 1e9;
+            System.out.printf("%-14s %,10.0f %8.1f %9.1fms %9.1fms %9.1fms %9.1fms %,11.0f %9d%n", scenario.name(),
+                    (fleet.renewals.count() + fleet.fetches.count()) / seconds, cpuPercent,
+                    fleet.renewals.percentile(50), fleet.renewals.percentile(99),
+                    fleet.fetches.percentile(50), fleet.fetches.percentile(99),
+                    fleet.fetchedBytes.get() / 1024.0 / seconds, fleet.errors.get());
+        } finally {
+            timer.shutdownNow();
+            clientThreads.shutdownNow();
+        }
+    }
+
+    /**
+     * Simulated instances, spread over {@value #SERVICES} services, talking to the Eureka REST API like the client does
+     */
+    private static class Fleet {
+
+        private final Scenario scenario;
+        private final String eurekaUrl;
+        private final HttpClient http;
+        private final Latencies renewals = new Latencies();
+        private final Latencies fetches = new Latencies();
+        private final AtomicLong fetchedBytes = new AtomicLong();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final Semaphore connections = new Semaphore(MAX_CONNECTIONS);
+
+        Fleet(Scenario scenario, String eurekaUrl, HttpClient http) {
+            this.scenario = scenario;
+            this.eurekaUrl = eurekaUrl;
+            this.http = http;
+        }
+
+        void registerAll() {
+            List<CompletableFuture<?>> registrations = new ArrayList<>();
+            for (int i = 0; i < INSTANCES; i++) {
+                registrations.add(register(i));
+            }
+            // Failures are counted as errors
+            registrations.forEach(registration -> registration.exceptionally(error -> null).join());
+        }
+
+        void renew(int instance) {
+            long start = System.nanoTime();
+            send(request(instanceUrl(instance)).PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        renewals.record(System.nanoTime() - start);
+                        if (error != null) {
+                            errors.incrementAndGet();
+                        } else if (response.statusCode() == 404) {
+                            // Lease expired: the real client registers again, off the callback thread
+                            errors.incrementAndGet();
+                            CompletableFuture.runAsync(() -> register(instance));
+                        }
+                    });
+        }
+
+        void fetch() {
+            long start = System.nanoTime();
+            String url = eurekaUrl + (scenario.deltaFetch() ? "/apps/delta" : "/apps");
+            send(request(url).GET().build(), HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        fetches.record(System.nanoTime() - start);
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        } else {
+                            fetchedBytes.addAndGet(response.body().length);
+                        }
+                    });
+        }
+
+        private CompletableFuture<?> register(int instance) {
+            String body = """
+                    {"instance": {
+                      "instanceId": "%2$s", "app": "%1$s", "vipAddress": "%1$s", "hostName": "%2$s",
+                      "ipAddr": "10.0.%3$d.%4$d", "status": "UP",
+                      "port": {"$": 8080, "@enabled": "true"},
+                      "dataCenterInfo": {"@class": "com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo", "name": "MyOwn"},
+                      "leaseInfo": {"renewalIntervalInSecs": %5$d, "durationInSecs": %6$d}
+                    }}""".formatted(serviceName(instance), instanceId(instance), instance / 256, instance % 256,
+                    scenario.maxRenewalSeconds(), scenario.leaseSeconds());
+            return send(request(eurekaUrl + "/apps/" + serviceName(instance))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                    HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null || response.statusCode() != 204) {
+                            errors.incrementAndGet();
+                        }
+                    });
+        }
+
+        private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+            connections.acquireUninterruptibly();
+            return http.sendAsync(request, handler).whenComplete((response, error) -> connections.release());
+        }
+
+        private String instanceUrl(int instance) {
+            return eurekaUrl + "/apps/" + serviceName(instance) + "/" + instanceId(instance);
+        }
+
+        private static HttpRequest.Builder request(String url) {
+            return HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Accept", "application/json");
+        }
+
+        private static String serviceName(int instance) {
+            return "BENCH-SERVICE-" + instance % SERVICES;
+        }
+
+        private static String instanceId(int instance) {
+            return "bench-instance-" + instance;
+        }
+    }
+
+    private static class Latencies {
+
+        private long[] nanos = new long[1024];
+        private int size;
+
+        synchronized void record(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        /**
+         * In milliseconds
+         */
+        synchronized double percentile(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    private static long serverCpuNanos() {
+        long process = ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long clients = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(CLIENT_THREAD_PREFIX) || thread.getName().startsWith("HttpClient-")) {
+                clients += Math.max(0, threads.getThreadCpuTime(thread.getId()));
+            }
+        }
+        return process - clients;
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
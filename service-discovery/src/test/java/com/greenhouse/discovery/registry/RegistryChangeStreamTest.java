@@ -0,0 +1,88 @@
+package com.greenhouse.discovery.registry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RegistryChangeStream Unit Tests")
+class RegistryChangeStreamTest {
+
+    private static final long VERSION = 1_000;
+
+    private RegistryChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        RegistrySnapshotService snapshotService = mock(RegistrySnapshotService.class);
+        when(snapshotService.current()).thenReturn(RegistrySnapshot.empty(VERSION));
+        RegistryStreamProperties properties = new RegistryStreamProperties();
+        // Flushed by the tests only
+        properties.setCoalesceWindow(Duration.ofHours(1));
+        stream = new RegistryChangeStream(snapshotService, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    private static RegistryChange change(long version, RegistryChange.Type type, String instanceId) {
+        InstanceView view = type == RegistryChange.Type.CANCELLED ? null
+                : InstanceView.of(RegistrySnapshotServiceTest.instance(instanceId));
+        return new RegistryChange(version, type, "SENSOR-SERVICE", instanceId, view);
+    }
+
+    @Test
+    @DisplayName("should keep one change per instance, registrations absorbing updates")
+    void shouldCoalescePerInstance() {
+        stream.onChange(change(VERSION + 1, RegistryChange.Type.REGISTERED, "a"));
+        stream.onChange(change(VERSION + 2, RegistryChange.Type.UPDATED, "a"));
+        stream.onChange(change(VERSION + 3, RegistryChange.Type.UPDATED, "b"));
+        stream.onChange(change(VERSION + 4, RegistryChange.Type.UPDATED, "b"));
+
+        RegistryDelta delta = stream.takePending();
+
+        assertThat(delta.sinceVersion()).isEqualTo(VERSION);
+        assertThat(delta.version()).isEqualTo(VERSION + 4);
+        assertThat(delta.changes())
+                .extracting(RegistryChange::version, RegistryChange::type, RegistryChange::instanceId)
+                .containsExactly(
+                        tuple(VERSION + 2, RegistryChange.Type.REGISTERED, "a"),
+                        tuple(VERSION + 4, RegistryChange.Type.UPDATED, "b"));
+        assertThat(stream.takePending().changes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should send the cancellation of an instance registered in the same window")
+    void shouldKeepCancellationOfNewInstance() {
+        // A subscriber joining here gets "a" in its snapshot, so it must see the cancellation
+        stream.onChange(change(VERSION + 1, RegistryChange.Type.REGISTERED, "a"));
+        stream.onChange(change(VERSION + 2, RegistryChange.Type.CANCELLED, "a"));
+
+        assertThat(stream.takePending().changes())
+                .singleElement()
+                .satisfies(change -> {
+                    assertThat(change.type()).isEqualTo(RegistryChange.Type.CANCELLED);
+                    assertThat(change.version()).isEqualTo(VERSION + 2);
+                });
+    }
+
+    @Test
+    @DisplayName("should chain deltas from the last flushed version")
+    void shouldChainDeltas() {
+        stream.onChange(change(VERSION + 1, RegistryChange.Type.REGISTERED, "a"));
+        stream.takePending();
+        stream.onChange(change(VERSION + 2, RegistryChange.Type.UPDATED, "a"));
+
+        RegistryDelta delta = stream.takePending();
+
+        assertThat(delta.sinceVersion()).isEqualTo(VERSION + 1);
+        assertThat(delta.version()).isEqualTo(VERSION + 2);
+    }
+}
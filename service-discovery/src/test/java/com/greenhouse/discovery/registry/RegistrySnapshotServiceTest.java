@@ -0,0 +1,86 @@
+package com.greenhouse.discovery.registry;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.EurekaServerContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("RegistrySnapshotService Unit Tests")
+class RegistrySnapshotServiceTest {
+
+    private RegistrySnapshotService service;
+    private long bootVersion;
+
+    @BeforeEach
+    void setUp() {
+        RegistrySnapshotProperties properties = new RegistrySnapshotProperties();
+        properties.setMaxChanges(3);
+        service = new RegistrySnapshotService(mock(EurekaServerContext.class), properties,
+                mock(ApplicationEventPublisher.class));
+        bootVersion = service.current().getVersion();
+    }
+
+    static InstanceInfo instance(String instanceId) {
+        return InstanceInfo.Builder.newBuilder()
+                .setAppName("sensor-service")
+                .setInstanceId(instanceId)
+                .setHostName(instanceId + ".local")
+                .setIPAddr("10.0.0.1")
+                .setPort(8080)
+                .setStatus(InstanceInfo.InstanceStatus.UP)
+                .build();
+    }
+
+    private void register(String instanceId) {
+        service.onRegistered(new EurekaInstanceRegisteredEvent(this, instance(instanceId), 30, false));
+    }
+
+    @Test
+    @DisplayName("should return the changes after a version, in order")
+    void shouldReturnChangesInOrder() {
+        register("a");
+        register("b");
+        service.onCanceled(new EurekaInstanceCanceledEvent(this, "sensor-service", "a", false));
+
+        RegistryDelta delta = service.changesSince(bootVersion + 1);
+
+        assertThat(delta.sinceVersion()).isEqualTo(bootVersion + 1);
+        assertThat(delta.version()).isEqualTo(bootVersion + 3);
+        assertThat(delta.changes())
+                .extracting(RegistryChange::type, RegistryChange::instanceId)
+                .containsExactly(
+                        tuple(RegistryChange.Type.REGISTERED, "b"),
+                        tuple(RegistryChange.Type.CANCELLED, "a"));
+        assertThat(service.changesSince(bootVersion + 3).changes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should serve deltas from the oldest retained change and a snapshot before it")
+    void shouldStopAtRetentionBoundary() {
+        for (String instanceId : new String[]{"a", "b", "c", "d", "e"}) {
+            register(instanceId);
+        }
+
+        // Changes bootVersion + 3 to + 5 are retained
+        assertThat(service.changesSince(bootVersion + 2).changes())
+                .extracting(RegistryChange::instanceId)
+                .containsExactly("c", "d", "e");
+        assertThat(service.changesSince(bootVersion + 1)).isNull();
+    }
+
+    @Test
+    @DisplayName("should require a snapshot for a version issued before a restart or never issued")
+    void shouldRejectUnknownVersions() {
+        register("a");
+
+        assertThat(service.changesSince(bootVersion - 5)).isNull();
+        assertThat(service.changesSince(bootVersion + 2)).isNull();
+    }
+}